@@ -0,0 +1,93 @@
+package com.sentimentapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Lote do backend para o DS Service em JSON, binário e binário + gzip: CPU para montar a requisição e
+ * ler a resposta. Os bytes por item de cada formato são impressos no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchWireFormatBenchmark {
+
+    private static final URI URL = URI.create("http://ds-service:8000/predict/batch");
+
+    @Param({"json", "binary", "binary_gzip"})
+    private String formato;
+
+    @Param({"100", "1000"})
+    private int itens;
+
+    private BatchWireCodec codec;
+    private List<String> textos;
+    private byte[] resposta;
+    private MediaType tipoResposta;
+
+    @Setup
+    public void setup() throws Exception {
+        codec = switch (formato) {
+            case "json" -> new BatchWireCodec("json", false, 0);
+            case "binary" -> new BatchWireCodec("binary", false, 0);
+            default -> new BatchWireCodec("binary", true, 1024);
+        };
+        textos = IntStream.range(0, itens)
+                .mapToObj(i -> "Produto muito bom, entrega rápida e bem embalado #" + i)
+                .toList();
+
+        DsBatchServiceResponse resultado = new DsBatchServiceResponse(IntStream.range(0, itens)
+                .mapToObj(i -> new DsBatchServiceResponse.Item(i % 3 == 0 ? "Negativo" : "Positivo", 0.5 + i % 50 / 100.0, null))
+                .toList(), "tfidf-lr-2024.1");
+        if (codec.binario()) {
+            resposta = BatchWireCodec.escreverResposta(resultado);
+            tipoResposta = BatchWireCodec.MEDIA_TYPE;
+        } else {
+            resposta = new ObjectMapper().writeValueAsBytes(resultado);
+            tipoResposta = MediaType.APPLICATION_JSON;
+        }
+
+        int requisicao = montarRequisicao().getBodyAsBytes().length;
+        System.out.printf("%n[%s, %d itens] requisição: %.1f bytes/item, resposta: %.1f bytes/item%n",
+                formato, itens, (double) requisicao / itens, (double) resposta.length / itens);
+    }
+
+    @Benchmark
+    public MockClientHttpRequest montarRequisicao() throws Exception {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URL);
+        codec.escrever(textos, request);
+        return request;
+    }
+
+    @Benchmark
+    public DsBatchServiceResponse lerResposta() throws Exception {
+        MockClientHttpResponse response = new MockClientHttpResponse(resposta, HttpStatus.OK);
+        response.getHeaders().setContentType(tipoResposta);
+        return codec.ler(response);
+    }
+}
@@ -0,0 +1,102 @@
+package com.sentimentapi.benchmark;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sentimentapi.support.DsResilienceFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dublês sem I/O para os benchmarks: DS Service, repositórios e gerenciador de transações.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * DS Service que responde na hora, alternando o sentimento pelo tamanho do texto.
+     */
+    static DsServiceClient dsServiceStub(MeterRegistry meterRegistry) {
+        return new DsServiceClient(null, new DsReplicaBalancer("http://ds-stub", meterRegistry),
+                BatchWireCodec.json(), DsResilienceFixtures.semProtecao(), DsResilienceFixtures.semHedge(), meterRegistry) {
+            @Override
+            public DsServiceResponse predict(String text) {
+                return resposta(text);
+            }
+
+            @Override
+            public DsBatchServiceResponse predictBatch(List<String> texts) {
+                List<DsBatchServiceResponse.Item> itens = texts.stream()
+                        .map(BenchmarkFixtures::resposta)
+                        .map(resposta -> new DsBatchServiceResponse.Item(resposta.getLabel(), resposta.getProbability(), null))
+                        .toList();
+                return new DsBatchServiceResponse(itens, null);
+            }
+        };
+    }
+
+    private static DsServiceResponse resposta(String texto) {
+        return new DsServiceResponse(texto.length() % 2 == 0 ? "Positivo" : "Negativo", 0.87);
+    }
+
+    /**
+     * Repositório Spring Data em memória: conta as gravações sem guardá-las (o benchmark roda
+     * milhões de operações), responde vazio às consultas e executa os métodos default da interface.
+     */
+    static <T> T repositorioEmMemoria(Class<T> tipo, LongAdder gravacoes) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "save" -> {
+                    gravacoes.increment();
+                    yield args[0];
+                }
+                case "saveAll" -> {
+                    ((Iterable<?>) args[0]).forEach(entidade -> gravacoes.increment());
+                    yield args[0];
+                }
+                case "incrementar" -> 1;
+                case "agregarPorSentimento" -> List.of();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> tipo.getSimpleName() + "EmMemoria";
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        };
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, handler));
+    }
+
+    /**
+     * Gerenciador de transações que não faz nada (não há banco).
+     */
+    static PlatformTransactionManager semTransacao() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.sentimentapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.BatchSentimentResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialização e desserialização JSON dos DTOs da API, com 1, 100 e 10 mil itens.
+ * O ObjectMapper é montado pelo mesmo builder que o Spring usa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int itens;
+
+    private ObjectMapper objectMapper;
+    private SentimentRequest sentimentRequest;
+    private BatchSentimentRequest batchRequest;
+    private BatchSentimentResponse batchResponse;
+    private byte[] sentimentRequestJson;
+    private byte[] batchRequestJson;
+    private byte[] batchResponseJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<String> textos = IntStream.range(0, itens)
+                .mapToObj(i -> "Produto muito bom, entrega rápida e bem embalado #" + i)
+                .toList();
+        sentimentRequest = new SentimentRequest(textos.get(0));
+        batchRequest = new BatchSentimentRequest(textos.stream().map(SentimentRequest::new).toList());
+        batchResponse = BatchSentimentResponse.builder()
+                .batchId(UUID.randomUUID().toString())
+                .total(itens)
+                .resultados(textos.stream()
+                        .map(texto -> BatchSentimentResponse.BatchItemResponse.builder()
+                                .texto(texto)
+                                .previsao("Positivo")
+                                .probabilidade(0.87)
+                                .tempoMs(12L)
+                                .build())
+                        .toList())
+                .tempoTotalMs(450L)
+                .build();
+
+        sentimentRequestJson = objectMapper.writeValueAsBytes(sentimentRequest);
+        batchRequestJson = objectMapper.writeValueAsBytes(batchRequest);
+        batchResponseJson = objectMapper.writeValueAsBytes(batchResponse);
+    }
+
+    @Benchmark
+    public byte[] serializarSentimentRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(sentimentRequest);
+    }
+
+    @Benchmark
+    public SentimentRequest desserializarSentimentRequest() throws Exception {
+        return objectMapper.readValue(sentimentRequestJson, SentimentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializarBatchRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(batchRequest);
+    }
+
+    @Benchmark
+    public BatchSentimentRequest desserializarBatchRequest() throws Exception {
+        return objectMapper.readValue(batchRequestJson, BatchSentimentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializarBatchResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(batchResponse);
+    }
+
+    @Benchmark
+    public BatchSentimentResponse desserializarBatchResponse() throws Exception {
+        return objectMapper.readValue(batchResponseJson, BatchSentimentResponse.class);
+    }
+}
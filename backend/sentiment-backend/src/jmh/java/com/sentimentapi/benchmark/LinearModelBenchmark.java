@@ -0,0 +1,56 @@
+package com.sentimentapi.benchmark;
+
+import com.sentimentapi.service.predictor.LinearSentimentModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inferência do modelo linear na JVM (tokenização, TF-IDF e regressão logística), o trabalho
+ * que substitui o salto HTTP até o DS Service no motor {@code local}.
+ * Com {@code -prof gc}, {@code gc.alloc.rate.norm} deve ficar perto de zero além do array de probabilidades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinearModelBenchmark {
+
+    private static final String FRASE = "Parque lotado, filas enormes nos brinquedos e atendimento demorado, "
+            + "mas a montanha russa é ótima e os funcionários foram educados. ";
+
+    @Param({"1", "10"})
+    private int frases;
+
+    private LinearSentimentModel model;
+    private String texto;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/model/sentiment-linear.bin")) {
+            model = LinearSentimentModel.carregar(ByteBuffer.wrap(in.readAllBytes()));
+        }
+        texto = FRASE.repeat(frases);
+    }
+
+    @Benchmark
+    public double[] probabilidades() {
+        return model.probabilidades(texto);
+    }
+}
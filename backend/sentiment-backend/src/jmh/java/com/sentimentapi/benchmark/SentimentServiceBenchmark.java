@@ -0,0 +1,125 @@
+package com.sentimentapi.benchmark;
+
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.BatchSentimentResponse;
+import com.sentimentapi.dto.response.SentimentResponse;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.repository.AnaliseRollupRepository;
+import com.sentimentapi.service.AnaliseRollupService;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.PredictionCache;
+import com.sentimentapi.service.PredictionSingleFlight;
+import com.sentimentapi.service.SentimentService;
+import com.sentimentapi.service.StatsAccumulator;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Custo do backend em torno da previsão: cache, conversão, métricas, estatísticas e gravação.
+ * <p>
+ * O DS Service responde na hora e os repositórios ficam em memória, então o resultado é só o
+ * overhead da aplicação. A fila write-behind fica desligada para que toda a gravação aconteça
+ * na thread medida (e entre em {@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentServiceBenchmark {
+
+    private static final int TEXTOS_DISTINTOS = 1024;
+
+    /** Com cache, os textos se repetem e quase todas as análises são hits. */
+    @Param({"false", "true"})
+    private boolean cache;
+
+    @Param({"10", "100"})
+    private int itensPorBatch;
+
+    private final LongAdder gravacoes = new LongAdder();
+    private ExecutorService batchExecutor;
+    private SentimentService sentimentService;
+    private List<SentimentRequest> textos;
+    private BatchSentimentRequest batchRequest;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnaliseResultadoRepository analiseRepository =
+                BenchmarkFixtures.repositorioEmMemoria(AnaliseResultadoRepository.class, gravacoes);
+        AnaliseRollupRepository rollupRepository =
+                BenchmarkFixtures.repositorioEmMemoria(AnaliseRollupRepository.class, gravacoes);
+
+        StatsAccumulator statsAccumulator = new StatsAccumulator(analiseRepository);
+        statsAccumulator.inicializar();
+        AnaliseWriteBehindQueue writeBehindQueue = new AnaliseWriteBehindQueue(
+                analiseRepository,
+                new TransactionTemplate(BenchmarkFixtures.semTransacao()),
+                statsAccumulator,
+                new AnaliseRollupService(rollupRepository, 2000, 7),
+                meterRegistry,
+                false, 10_000, 200, 100, 2000);
+
+        DsServiceClient dsServiceClient = BenchmarkFixtures.dsServiceStub(meterRegistry);
+        batchExecutor = Executors.newFixedThreadPool(8);
+        sentimentService = new SentimentService(
+                dsServiceClient,
+                new LexiconPreClassifier(new ClassPathResource("lexicon/sentimento-pt.txt"), meterRegistry, false, 0.8, 280),
+                new PredictionCache(analiseRepository, meterRegistry, cache, 32 * 1024 * 1024, 60, false),
+                new PredictionSingleFlight(meterRegistry),
+                writeBehindQueue,
+                batchExecutor,
+                true,
+                20,
+                meterRegistry);
+
+        textos = IntStream.range(0, TEXTOS_DISTINTOS)
+                .mapToObj(i -> new SentimentRequest("Produto muito bom, entrega rápida e bem embalado #" + i))
+                .toList();
+        batchRequest = new BatchSentimentRequest(textos.subList(0, itensPorBatch));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batchExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public SentimentResponse analisar() {
+        proximo = (proximo + 1) & (TEXTOS_DISTINTOS - 1);
+        return sentimentService.analisar(textos.get(proximo));
+    }
+
+    @Benchmark
+    public BatchSentimentResponse analisarBatch() {
+        return sentimentService.analisarBatch(batchRequest);
+    }
+}
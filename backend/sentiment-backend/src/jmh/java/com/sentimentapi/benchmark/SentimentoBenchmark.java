@@ -0,0 +1,36 @@
+package com.sentimentapi.benchmark;
+
+import com.sentimentapi.domain.enums.Sentimento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do label do DS Service para {@link Sentimento}, chamada uma vez por previsão.
+ * Com {@code -prof gc}, {@code gc.alloc.rate.norm} mostra as alocações de {@code trim().toUpperCase()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentoBenchmark {
+
+    @Param({"Positivo", "NEGATIVO", " negative ", "desconhecido"})
+    private String label;
+
+    @Benchmark
+    public Sentimento fromLabel() {
+        return Sentimento.fromLabel(label);
+    }
+}
@@ -0,0 +1,44 @@
+package com.sentimentapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuração do processamento assíncrono do Spring MVC (respostas em streaming).
+ * <p>
+ * Como existe um {@code batchExecutor}, o Spring Boot não cria o executor padrão e o MVC
+ * usaria um executor sem limite de threads; aqui cada stream ativo ocupa uma thread deste pool.
+ */
+@Configuration
+public class AsyncMvcConfig implements WebMvcConfigurer {
+
+    private final long timeoutMs;
+    private final int maxStreams;
+
+    public AsyncMvcConfig(
+            @Value("${sentiment.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${sentiment.stream.max-concurrent:16}") int maxStreams) {
+        this.timeoutMs = timeoutMs;
+        this.maxStreams = maxStreams;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxStreams);
+        executor.setMaxPoolSize(maxStreams);
+        executor.setThreadNamePrefix("stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
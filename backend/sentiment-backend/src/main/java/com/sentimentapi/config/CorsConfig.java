@@ -35,6 +35,7 @@ public class CorsConfig {
                 "DELETE",
                 "OPTIONS"
         ));
+        config.setExposedHeaders(List.of("X-Batch-Id"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
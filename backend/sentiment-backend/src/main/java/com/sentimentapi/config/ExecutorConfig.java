@@ -0,0 +1,45 @@
+package com.sentimentapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuração dos executores usados para processamento paralelo.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Executor compartilhado pelos itens de todos os batches em andamento.
+     * O número de threads é o limite global de chamadas simultâneas geradas por batches.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchExecutor(
+            @Value("${sentiment.batch.max-threads:50}") int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setThreadNamePrefix("batch-item-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor dos jobs de análise em lote: cada thread processa um job por vez.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jobExecutor(
+            @Value("${sentiment.jobs.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("batch-job-");
+        executor.initialize();
+        return executor;
+    }
+}
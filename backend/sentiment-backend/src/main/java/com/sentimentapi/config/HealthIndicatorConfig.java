@@ -0,0 +1,50 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.service.health.DependencyHealth;
+import com.sentimentapi.service.health.DependencyHealthProber;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Health indicators do actuator servidos a partir do snapshot do {@link DependencyHealthProber}
+ * (sem I/O por requisição; o indicator padrão do DataSource fica desligado em application.yml).
+ * <p>
+ * Banco fora do ar derruba a aplicação (DOWN); DS Service fora do ar a deixa DEGRADED,
+ * que continua respondendo 200 para não reiniciar o container por causa de outro serviço.
+ */
+@Configuration
+public class HealthIndicatorConfig {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "DS Service indisponível");
+
+    @Bean
+    public HealthIndicator dsServiceHealthIndicator(DependencyHealthProber prober) {
+        return () -> health(prober.saude(DependencyHealthProber.DS_SERVICE), DEGRADED);
+    }
+
+    @Bean
+    public HealthIndicator databaseHealthIndicator(DependencyHealthProber prober) {
+        return () -> health(prober.saude(DependencyHealthProber.DATABASE), Status.DOWN);
+    }
+
+    private static Health health(DependencyHealth saude, Status statusQuandoDown) {
+        Status status = switch (saude.status()) {
+            case UP -> Status.UP;
+            case DOWN -> statusQuandoDown;
+            case UNKNOWN -> Status.UNKNOWN;
+        };
+        Health.Builder builder = Health.status(status)
+                .withDetail("latenciaMs", saude.latenciaMs())
+                .withDetail("alteradoEm", saude.alteradoEm().toString());
+        if (saude.verificadoEm() != null) {
+            builder.withDetail("verificadoEm", saude.verificadoEm().toString());
+        }
+        if (saude.erro() != null) {
+            builder.withDetail("erro", saude.erro());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.PredictionBatcher;
+import com.sentimentapi.service.ReactiveDsServiceClient;
+import com.sentimentapi.service.predictor.FallbackSentimentPredictor;
+import com.sentimentapi.service.predictor.LinearSentimentModel;
+import com.sentimentapi.service.predictor.LocalSentimentPredictor;
+import com.sentimentapi.service.predictor.ReactiveSentimentPredictor;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Escolha do motor de previsão usado pelo {@code SentimentService}.
+ * <p>
+ * {@code remote} (padrão): DS Service via HTTP, com micro-batching quando habilitado.
+ * {@code local}: modelo linear exportado pelo ds-service avaliado na JVM; com
+ * {@code fallback-to-remote} o DS Service atende se o artefato não carregar ou a previsão local falhar.
+ * <p>
+ * A API v2 usa o {@link ReactiveSentimentPredictor}: o cliente WebClient no modo remoto e o mesmo
+ * motor da v1 no modo local.
+ */
+@Configuration
+@Slf4j
+public class PredictorConfig {
+
+    @Bean
+    @Primary
+    public SentimentPredictor sentimentPredictor(
+            DsServiceClient dsServiceClient,
+            PredictionBatcher predictionBatcher,
+            ResourceLoader resourceLoader,
+            MeterRegistry meterRegistry,
+            @Value("${sentiment.predictor.engine:remote}") String engine,
+            @Value("${sentiment.predictor.fallback-to-remote:true}") boolean fallbackToRemote,
+            @Value("${sentiment.predictor.local.model-path:classpath:model/sentiment-linear.bin}") String modelPath) {
+        SentimentPredictor remoto = predictionBatcher.isEnabled() ? predictionBatcher : dsServiceClient;
+        if (!"local".equalsIgnoreCase(engine)) {
+            return remoto;
+        }
+
+        LocalSentimentPredictor local;
+        try {
+            local = new LocalSentimentPredictor(carregar(resourceLoader.getResource(modelPath)));
+        } catch (IOException | IllegalArgumentException e) {
+            if (!fallbackToRemote) {
+                throw new IllegalStateException("Não foi possível carregar o modelo local " + modelPath, e);
+            }
+            log.error("Modelo local {} não carregou; usando o DS Service: {}", modelPath, e.getMessage());
+            return remoto;
+        }
+
+        log.info("Motor de previsão local ativo: modelo {} ({})", local.versao(), modelPath);
+        return fallbackToRemote ? new FallbackSentimentPredictor(local, remoto, meterRegistry) : local;
+    }
+
+    /**
+     * No modo remoto a v2 chama o DS Service diretamente (sem micro-batching). No modo local a previsão roda
+     * no scheduler boundedElastic, fora do event loop: o fallback para o DS Service usa o cliente bloqueante.
+     */
+    @Bean
+    @Primary
+    public ReactiveSentimentPredictor reactiveSentimentPredictor(
+            ReactiveDsServiceClient reactiveDsServiceClient,
+            SentimentPredictor sentimentPredictor,
+            @Value("${sentiment.predictor.engine:remote}") String engine) {
+        if (!"local".equalsIgnoreCase(engine)) {
+            return reactiveDsServiceClient;
+        }
+        return texto -> Mono.fromCallable(() -> sentimentPredictor.predict(texto))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Arquivos no disco são mapeados em memória; recursos dentro do jar são lidos para o heap.
+     */
+    private static LinearSentimentModel carregar(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return LinearSentimentModel.carregar(resource.getFile().toPath());
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return LinearSentimentModel.carregar(ByteBuffer.wrap(in.readAllBytes()));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.service.resilience.AdaptiveConcurrencyLimiter;
+import com.sentimentapi.service.resilience.CircuitBreaker;
+import com.sentimentapi.service.resilience.RetryBudget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração da camada de resiliência das chamadas ao DS Service.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker dsCircuitBreaker(
+            @Value("${ds.resilience.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${ds.resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${ds.resilience.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${ds.resilience.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+            @Value("${ds.resilience.circuit-breaker.slow-call-duration-ms:5000}") long slowCallDurationMs,
+            @Value("${ds.resilience.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+            @Value("${ds.resilience.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        return new CircuitBreaker("ds-service", windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, slowCallDurationMs, openDurationMs, halfOpenCalls);
+    }
+
+    /**
+     * O limite máximo é o bulkhead: nunca há mais chamadas simultâneas ao DS Service do que ele.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter dsConcurrencyLimiter(
+            @Value("${ds.resilience.limiter.initial-limit:20}") int initialLimit,
+            @Value("${ds.resilience.limiter.min-limit:4}") int minLimit,
+            @Value("${ds.resilience.limiter.max-limit:50}") int maxLimit,
+            @Value("${ds.resilience.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${ds.resilience.limiter.latency-threshold-ms:2000}") long latencyThresholdMs,
+            @Value("${ds.resilience.limiter.max-wait-ms:250}") long maxWaitMs) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio,
+                latencyThresholdMs, maxWaitMs);
+    }
+
+    @Bean
+    public RetryBudget dsRetryBudget(
+            @Value("${ds.resilience.retry.budget-ratio:0.1}") double budgetRatio,
+            @Value("${ds.resilience.retry.budget-max-tokens:10}") double budgetMaxTokens) {
+        return new RetryBudget(budgetRatio, budgetMaxTokens);
+    }
+}
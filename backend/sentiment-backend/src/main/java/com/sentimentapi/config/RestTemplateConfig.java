@@ -1,25 +1,103 @@
 package com.sentimentapi.config;
 
+import com.sentimentapi.service.resilience.CancelamentoHttp;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Configuração do RestTemplate para comunicação com serviços externos.
+ * <p>
+ * Usa um pool de conexões persistentes (keep-alive) do Apache HttpClient 5,
+ * evitando o custo de handshake TCP a cada chamada ao DS Service.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager dsConnectionManager(
+            @Value("${ds.service.http.connect-timeout-ms:10000}") long connectTimeoutMs,
+            @Value("${ds.service.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${ds.service.http.max-total:100}") int maxTotal,
+            @Value("${ds.service.http.max-per-route:50}") int maxPerRoute,
+            @Value("${ds.service.http.time-to-live-ms:300000}") long timeToLiveMs,
+            @Value("${ds.service.http.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(connectionConfig)
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO) // reaproveita a conexão "mais quente"
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient dsHttpClient(
+            PoolingHttpClientConnectionManager dsConnectionManager,
+            @Value("${ds.service.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${ds.service.http.pool-acquire-timeout-ms:2000}") long poolAcquireTimeoutMs,
+            @Value("${ds.service.http.idle-eviction-ms:30000}") long idleEvictionMs) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(dsConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                .disableAutomaticRetries() // retentativas são decididas pela aplicação
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000); // 10 segundos
-        factory.setReadTimeout(30000);    // 30 segundos
-        
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient dsHttpClient) {
         return builder
-                .requestFactory(() -> factory)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(dsHttpClient) {
+                    @Override
+                    protected void postProcessHttpRequest(ClassicHttpRequest request) {
+                        // Permite ao hedge abortar a tentativa perdedora
+                        if (request instanceof Cancellable cancelavel) {
+                            CancelamentoHttp.vincular(cancelavel);
+                        }
+                    }
+                })
                 .build();
     }
+
+    /**
+     * Publica as métricas do pool (conexões leased, pending e available)
+     * em httpcomponents.httpclient.pool.*. O Spring Boot registra o binder automaticamente.
+     */
+    @Bean
+    public PoolingHttpClientConnectionManagerMetricsBinder dsConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager dsConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(dsConnectionManager, "ds-service");
+    }
 }
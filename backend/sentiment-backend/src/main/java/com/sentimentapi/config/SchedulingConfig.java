@@ -0,0 +1,12 @@
+package com.sentimentapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas da aplicação (reconciliações e manutenções periódicas).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,56 @@
+package com.sentimentapi.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuração do WebClient (Reactor Netty) usado pela API v2 para chamar o DS Service sem bloquear threads.
+ * <p>
+ * Usa os mesmos limites de {@code ds.service.http.*} do pool do RestTemplate: o pool do Netty tem até
+ * {@code max-total} conexões persistentes e quem espera por uma conexão livre não ocupa thread.
+ * O limite vale por réplica do DS Service (o Netty mantém um pool por endereço), e as URLs ficam a cargo
+ * do {@code DsReplicaBalancer}, sem base URL fixa no WebClient.
+ * As métricas do pool são publicadas em {@code reactor.netty.connection.provider.*}.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider dsReactiveConnectionProvider(
+            @Value("${ds.service.http.max-total:100}") int maxTotal,
+            @Value("${ds.service.http.pool-acquire-timeout-ms:2000}") long poolAcquireTimeoutMs,
+            @Value("${ds.service.http.idle-eviction-ms:30000}") long idleEvictionMs,
+            @Value("${ds.service.http.time-to-live-ms:300000}") long timeToLiveMs) {
+        return ConnectionProvider.builder("ds-service")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireTimeoutMs))
+                .pendingAcquireMaxCount(-1) // a fila de espera é limitada pela camada de resiliência
+                .maxIdleTime(Duration.ofMillis(idleEvictionMs))
+                .maxLifeTime(Duration.ofMillis(timeToLiveMs))
+                .lifo() // reaproveita a conexão "mais quente"
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient dsWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider dsReactiveConnectionProvider,
+            @Value("${ds.service.http.connect-timeout-ms:10000}") int connectTimeoutMs,
+            @Value("${ds.service.http.read-timeout-ms:30000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(dsReactiveConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.sentimentapi.controller;
+
+import com.sentimentapi.dto.response.AnaliseHistoricoItem;
+import com.sentimentapi.dto.response.ErrorResponse;
+import com.sentimentapi.dto.response.HistoricoResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.service.AnaliseHistoricoService;
+import com.sentimentapi.service.export.AnaliseExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controller REST para o histórico das análises gravadas.
+ */
+@RestController
+@RequestMapping("/api/v1/analises")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Histórico", description = "Endpoints para consultar as análises gravadas")
+public class AnaliseController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AnaliseHistoricoService historicoService;
+    private final AnaliseExportService exportService;
+
+    /**
+     * Página do histórico do período, paginada por cursor.
+     */
+    @GetMapping
+    @Operation(
+            summary = "Histórico de análises",
+            description = "Retorna as análises do período da mais recente para a mais antiga. Para a próxima página, "
+                    + "envie proximo_cursor em cursor (com o mesmo from). Período padrão: últimas 24 horas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página do histórico",
+                    content = @Content(schema = @Schema(implementation = HistoricoResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período ou cursor inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<HistoricoResponse> historico(
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)", example = "2026-01-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "proximo_cursor da página anterior (vazio para começar pela mais recente)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Espera a gravação das análises já aceitas antes de ler (read-your-writes)")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        LocalDateTime fim = to != null ? to : LocalDateTime.now();
+        LocalDateTime inicio = from != null ? from : fim.minusHours(24);
+
+        return ResponseEntity.ok(historicoService.pagina(inicio, fim, cursor, limit, consistent));
+    }
+
+    /**
+     * Histórico do período inteiro em NDJSON, lido do banco sob demanda.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Histórico de análises em streaming (NDJSON)",
+            description = "Devolve uma análise por linha, em ordem cronológica, à medida que são lidas do banco. "
+                    + "Para períodos grandes, sem paginar. Período padrão: últimas 24 horas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Análises em NDJSON",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = AnaliseHistoricoItem.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> historicoStream(
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)", example = "2026-01-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Espera a gravação das análises já aceitas antes de ler (read-your-writes)")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        LocalDateTime fim = to != null ? to : LocalDateTime.now();
+        LocalDateTime inicio = from != null ? from : fim.minusHours(24);
+        if (!inicio.isBefore(fim)) {
+            // Validado aqui para virar 400; dentro do corpo a resposta já teria começado
+            throw new ParametroInvalidoException("O início do período deve ser anterior ao fim");
+        }
+        log.info("Requisição de histórico em stream recebida: de {} a {}", inicio, fim);
+
+        StreamingResponseBody corpo = saida -> historicoService.exportar(inicio, fim, consistent, saida);
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(corpo);
+    }
+
+    /**
+     * Exportação em massa do período em CSV compactado ou Parquet, retomável.
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Exportar análises (CSV gzip ou Parquet)",
+            description = "Devolve o arquivo com as análises do período em ordem de (data_analise, id), escrito à medida "
+                    + "que as linhas são lidas do banco. Para retomar uma exportação interrompida, envie em after "
+                    + "as duas primeiras colunas (data_analise,id) da última linha recebida; limit divide períodos "
+                    + "grandes em partes. Período padrão: últimas 24 horas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo da exportação"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período, formato, after ou limit inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)", example = "2026-01-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Formato: csv.gz ou parquet", example = "csv.gz")
+            @RequestParam(defaultValue = "csv.gz") String format,
+            @Parameter(description = "data_analise,id da última análise já recebida (para retomar)",
+                    example = "2026-01-10T08:15:02.123456,48213")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Máximo de análises neste arquivo")
+            @RequestParam(required = false) Long limit,
+            @Parameter(description = "Espera a gravação das análises já aceitas antes de ler (read-your-writes)")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        LocalDateTime fim = to != null ? to : LocalDateTime.now();
+        LocalDateTime inicio = from != null ? from : fim.minusHours(24);
+        AnaliseExportService.Pedido pedido = exportService.pedido(inicio, fim, format, after, limit);
+        log.info("Requisição de exportação recebida: {}", pedido);
+
+        StreamingResponseBody corpo = saida -> exportService.exportar(pedido, consistent, saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(pedido.formato().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(pedido.nomeArquivo()).build().toString())
+                .body(corpo);
+    }
+}
@@ -0,0 +1,104 @@
+package com.sentimentapi.controller;
+
+import com.sentimentapi.dto.request.BatchJobRequest;
+import com.sentimentapi.dto.response.JobResponse;
+import com.sentimentapi.dto.response.JobResultsResponse;
+import com.sentimentapi.service.BatchJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Controller REST para jobs de análise em lote processados em segundo plano.
+ */
+@RestController
+@RequestMapping("/api/v1/sentiment/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Jobs", description = "Endpoints para análise assíncrona de lotes grandes")
+public class BatchJobController {
+
+    private final BatchJobService batchJobService;
+
+    /**
+     * Cria um job de análise e retorna imediatamente o seu ID.
+     */
+    @PostMapping
+    @Operation(
+            summary = "Criar job de análise em lote",
+            description = "Recebe uma lista de textos, grava o job e retorna o ID sem esperar o processamento"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Job criado",
+                    content = @Content(schema = @Schema(implementation = JobResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos")
+    })
+    public ResponseEntity<JobResponse> criar(@Valid @RequestBody BatchJobRequest request) {
+        log.info("Recebida requisição de job: {} textos", request.getTexts().size());
+
+        JobResponse job = batchJobService.criar(request.getTexts());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/sentiment/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Situação e progresso de um job.
+     */
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Consultar job",
+            description = "Retorna situação, itens processados, falhas, vazão e tempo estimado para conclusão"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Job encontrado",
+                    content = @Content(schema = @Schema(implementation = JobResponse.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<JobResponse> consultar(@PathVariable String id) {
+        return ResponseEntity.of(batchJobService.consultar(id));
+    }
+
+    /**
+     * Resultados já processados de um job, paginados por cursor.
+     */
+    @GetMapping("/{id}/results")
+    @Operation(
+            summary = "Resultados do job",
+            description = "Retorna os resultados em ordem de posição. Para a próxima página, envie proximo_cursor em after"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de resultados",
+                    content = @Content(schema = @Schema(implementation = JobResultsResponse.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<JobResultsResponse> resultados(
+            @PathVariable String id,
+            @Parameter(description = "Posição do último item já recebido (-1 para começar do início)")
+            @RequestParam(defaultValue = "-1") int after,
+            @Parameter(description = "Tamanho da página (máximo 1000)")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.of(batchJobService.resultados(id, after, limit));
+    }
+}
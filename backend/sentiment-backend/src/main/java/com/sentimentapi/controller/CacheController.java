@@ -0,0 +1,46 @@
+package com.sentimentapi.controller;
+
+import com.sentimentapi.service.PredictionCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller para consulta e limpeza do cache de previsões.
+ */
+@RestController
+@RequestMapping("/api/v1/cache")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Cache", description = "Endpoints para o cache de previsões do DS Service")
+public class CacheController {
+
+    private final PredictionCache predictionCache;
+
+    @GetMapping
+    @Operation(
+            summary = "Estatísticas do cache de previsões",
+            description = "Retorna tamanho, acertos, faltas, taxa de acerto, despejos e versão do modelo em cache"
+    )
+    public ResponseEntity<Map<String, Object>> estatisticas() {
+        return ResponseEntity.ok(predictionCache.estatisticas());
+    }
+
+    @DeleteMapping
+    @Operation(
+            summary = "Limpar o cache de previsões",
+            description = "Remove todas as previsões em memória; as próximas análises voltam a consultar o DS Service"
+    )
+    public ResponseEntity<Map<String, Object>> limpar() {
+        log.info("Requisição de limpeza do cache de previsões recebida");
+        return ResponseEntity.ok(Map.of("removidos", predictionCache.limpar()));
+    }
+}
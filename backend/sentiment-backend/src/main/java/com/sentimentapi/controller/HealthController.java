@@ -1,6 +1,8 @@
 package com.sentimentapi.controller;
 
-import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.health.DependencyHealth;
+import com.sentimentapi.service.health.DependencyHealthProber;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -21,25 +24,46 @@ import java.util.Map;
 @Tag(name = "Health", description = "Endpoints para verificação de saúde")
 public class HealthController {
 
-    private final DsServiceClient dsServiceClient;
+    private final DependencyHealthProber healthProber;
+    private final DsReplicaBalancer replicaBalancer;
 
     /**
      * Verifica a saúde da aplicação e suas dependências.
+     * <p>
+     * Responde a partir da última verificação em segundo plano, sem chamar as dependências.
      */
     @GetMapping("/health")
     @Operation(
             summary = "Verificar saúde da aplicação",
-            description = "Retorna o status da aplicação e de suas dependências (DS Service)"
+            description = "Retorna o status da aplicação e de suas dependências (DS Service e banco), "
+                    + "conforme a última verificação periódica, e a situação de cada réplica do DS Service"
     )
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> health = new HashMap<>();
         health.put("status", "UP");
         health.put("service", "sentiment-backend");
 
-        Map<String, String> dependencies = new HashMap<>();
-        dependencies.put("ds-service", dsServiceClient.isHealthy() ? "UP" : "DOWN");
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        Map<String, Object> checks = new LinkedHashMap<>();
+        healthProber.snapshot().forEach((nome, saude) -> {
+            dependencies.put(nome, saude.status().name());
+            checks.put(nome, detalhes(saude));
+        });
         health.put("dependencies", dependencies);
+        health.put("checks", checks);
+        health.put("ds_replicas", replicaBalancer.estatisticas());
 
         return ResponseEntity.ok(health);
     }
+
+    private static Map<String, Object> detalhes(DependencyHealth saude) {
+        Map<String, Object> detalhes = new LinkedHashMap<>();
+        detalhes.put("latencia_ms", saude.latenciaMs());
+        detalhes.put("verificado_em", saude.verificadoEm() != null ? saude.verificadoEm().toString() : null);
+        detalhes.put("alterado_em", saude.alteradoEm().toString());
+        if (saude.erro() != null) {
+            detalhes.put("erro", saude.erro());
+        }
+        return detalhes;
+    }
 }
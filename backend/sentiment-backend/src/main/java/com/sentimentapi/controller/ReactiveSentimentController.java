@@ -0,0 +1,72 @@
+package com.sentimentapi.controller;
+
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.BatchSentimentResponse;
+import com.sentimentapi.dto.response.SentimentResponse;
+import com.sentimentapi.service.ReactiveSentimentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller REST da API v2: mesmos contratos da v1, com processamento não bloqueante.
+ * <p>
+ * Os métodos devolvem {@link Mono}; o Spring MVC libera a thread do Tomcat assim que a requisição
+ * é lida e escreve a resposta quando o {@link Mono} completa. Enquanto espera o DS Service ou a fila
+ * de gravação, uma requisição ocupa apenas a conexão.
+ */
+@RestController
+@RequestMapping("/api/v2")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Sentiment v2", description = "Análise de sentimento não bloqueante (mesmos contratos da v1)")
+public class ReactiveSentimentController {
+
+    private final ReactiveSentimentService reactiveSentimentService;
+
+    @PostMapping("/sentiment")
+    @Operation(
+            summary = "Analisar sentimento de um texto (não bloqueante)",
+            description = "Mesmo contrato de POST /api/v1/sentiment"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Análise realizada com sucesso",
+                    content = @Content(schema = @Schema(implementation = SentimentResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+            @ApiResponse(responseCode = "503", description = "Serviço de ML indisponível")
+    })
+    public Mono<SentimentResponse> analisarSentimento(@Valid @RequestBody SentimentRequest request) {
+        log.debug("Recebida requisição de análise v2: {} caracteres", request.getText().length());
+        return reactiveSentimentService.analisar(request);
+    }
+
+    @PostMapping("/sentiment/batch")
+    @Operation(
+            summary = "Analisar sentimento de múltiplos textos (não bloqueante)",
+            description = "Mesmo contrato de POST /api/v1/sentiment/batch"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Análise em lote realizada com sucesso",
+                    content = @Content(schema = @Schema(implementation = BatchSentimentResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos")
+    })
+    public Mono<BatchSentimentResponse> analisarBatch(@Valid @RequestBody BatchSentimentRequest request) {
+        log.info("Recebida requisição de batch v2: {} textos", request.getTexts().size());
+        return reactiveSentimentService.analisarBatch(request);
+    }
+}
@@ -4,18 +4,25 @@ import com.sentimentapi.dto.request.BatchSentimentRequest;
 import com.sentimentapi.dto.request.SentimentRequest;
 import com.sentimentapi.dto.response.BatchSentimentResponse;
 import com.sentimentapi.dto.response.SentimentResponse;
+import com.sentimentapi.dto.response.StreamItemResponse;
 import com.sentimentapi.service.SentimentService;
+import com.sentimentapi.service.SentimentStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
 
 /**
  * Controller REST para análise de sentimento.
@@ -28,7 +35,11 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Sentiment", description = "Endpoints para análise de sentimento")
 public class SentimentController {
 
+    static final String BATCH_ID_HEADER = "X-Batch-Id";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final SentimentService sentimentService;
+    private final SentimentStreamService sentimentStreamService;
 
     /**
      * Endpoint principal de análise de sentimento (MVP).
@@ -85,4 +96,35 @@ public class SentimentController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Endpoint para análise em streaming, sem limite de itens.
+     * Lê NDJSON incrementalmente e devolve um resultado NDJSON por linha, na ordem da entrada.
+     */
+    @PostMapping(value = "/sentiment/stream", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Analisar sentimento em streaming (NDJSON)",
+            description = "Recebe um objeto {\"text\": \"...\"} por linha e devolve um resultado por linha assim que "
+                    + "fica pronto, na ordem da entrada. O ID do batch é retornado no header X-Batch-Id"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultados em NDJSON",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = StreamItemResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> analisarStream(HttpServletRequest request) {
+        String batchId = UUID.randomUUID().toString();
+        log.info("Recebida requisição de stream: batch {}", batchId);
+
+        StreamingResponseBody corpo = saida -> sentimentStreamService.analisar(request.getInputStream(), saida, batchId);
+
+        return ResponseEntity.ok()
+                .header(BATCH_ID_HEADER, batchId)
+                .contentType(NDJSON)
+                .body(corpo);
+    }
 }
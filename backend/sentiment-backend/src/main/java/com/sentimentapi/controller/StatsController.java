@@ -1,8 +1,14 @@
 package com.sentimentapi.controller;
 
+import com.sentimentapi.domain.enums.Granularidade;
+import com.sentimentapi.dto.response.ErrorResponse;
+import com.sentimentapi.dto.response.StatsQueryResponse;
 import com.sentimentapi.dto.response.StatsResponse;
+import com.sentimentapi.dto.response.TimeseriesResponse;
 import com.sentimentapi.service.StatsService;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,11 +16,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 /**
  * Controller REST para estatísticas de análises de sentimento.
  */
@@ -26,6 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatsController {
 
     private final StatsService statsService;
+    private final LexiconPreClassifier preClassifier;
 
     /**
      * Retorna estatísticas consolidadas de todas as análises.
@@ -49,4 +61,97 @@ public class StatsController {
 
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Retorna estatísticas das análises filtradas por período, origem e/ou lote.
+     */
+    @GetMapping("/stats/query")
+    @Operation(
+            summary = "Obter estatísticas filtradas",
+            description = "Retorna contagens, percentuais, probabilidade média por sentimento e tempo de processamento "
+                    + "(médio e percentis 50/95/99) das análises que atendem aos filtros, calculados numa única consulta. "
+                    + "Exige ao menos um filtro; para o total geral use /stats"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estatísticas obtidas com sucesso",
+                    content = @Content(schema = @Schema(implementation = StatsQueryResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Nenhum filtro informado ou período inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StatsQueryResponse> queryStats(
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)", example = "2026-01-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Filtra por origem (API, BATCH, ...)")
+            @RequestParam(required = false) String origem,
+            @Parameter(description = "Filtra pelas análises de um lote")
+            @RequestParam(name = "batch_id", required = false) String batchId,
+            @Parameter(description = "Espera a gravação das análises já aceitas antes de ler (read-your-writes)")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        log.info("Requisição de estatísticas filtradas recebida: de {} a {}, origem {}, lote {}", from, to, origem, batchId);
+
+        return ResponseEntity.ok(statsService.consultar(from, to, origem, batchId, consistent));
+    }
+
+    /**
+     * Retorna a série temporal de análises por minuto ou por hora.
+     */
+    @GetMapping("/stats/timeseries")
+    @Operation(
+            summary = "Obter série temporal de análises",
+            description = "Retorna contagens por sentimento, probabilidade média e tempo médio por intervalo, "
+                    + "calculados a partir de agregados por minuto/hora. Período padrão: últimas 24 horas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Série temporal obtida com sucesso",
+                    content = @Content(schema = @Schema(implementation = TimeseriesResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período ou granularidade inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<TimeseriesResponse> getTimeseries(
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)", example = "2026-01-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Granularidade: minute ou hour", example = "hour")
+            @RequestParam(defaultValue = "hour") String granularity,
+            @Parameter(description = "Filtra por origem (API, BATCH, ...)")
+            @RequestParam(required = false) String origem,
+            @Parameter(description = "Espera a gravação das análises já aceitas antes de ler (read-your-writes)")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        LocalDateTime fim = to != null ? to : LocalDateTime.now();
+        LocalDateTime inicio = from != null ? from : fim.minusHours(24);
+        log.info("Requisição de série temporal recebida: {} de {} a {}", granularity, inicio, fim);
+
+        TimeseriesResponse serie = statsService.getTimeseries(
+                Granularidade.fromParam(granularity), inicio, fim, origem, consistent);
+
+        return ResponseEntity.ok(serie);
+    }
+
+    /**
+     * Retorna quantos textos cada camada de classificação respondeu desde a subida.
+     */
+    @GetMapping("/stats/tiers")
+    @Operation(
+            summary = "Obter decisões por camada de classificação",
+            description = "Retorna quantos textos foram decididos pelo léxico e quantos foram escalados para o modelo, "
+                    + "com a taxa de escalonamento (sentiment.tiered.enabled)"
+    )
+    public ResponseEntity<Map<String, Object>> getTiers() {
+        return ResponseEntity.ok(preClassifier.estatisticas());
+    }
 }
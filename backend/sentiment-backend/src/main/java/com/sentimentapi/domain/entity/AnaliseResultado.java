@@ -9,6 +9,9 @@ import java.time.LocalDateTime;
 /**
  * Entidade que representa o resultado de uma análise de sentimento.
  * Persiste cada requisição para estatísticas e histórico.
+ * <p>
+ * A tabela e os índices vêm das migrações em {@code db/migration/{vendor}} (Flyway), não do ddl-auto:
+ * no PostgreSQL ela é particionada por mês de {@code data_analise} (ver {@code AnaliseParticaoService}).
  */
 @Entity
 @Table(name = "analise_resultado")
@@ -16,11 +19,16 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class AnaliseResultado {
 
+    /**
+     * IDs por sequence (em blocos de 50) permitem que o Hibernate agrupe os INSERTs em lotes JDBC;
+     * com IDENTITY cada INSERT precisa ser executado isoladamente para obter o ID.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analise_resultado_seq")
+    @SequenceGenerator(name = "analise_resultado_seq", sequenceName = "analise_resultado_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "texto_original", columnDefinition = "TEXT", nullable = false)
@@ -45,6 +53,21 @@ public class AnaliseResultado {
     @Column(name = "batch_id", length = 100)
     private String batchId;
 
+    /**
+     * SHA-256 do texto normalizado; permite reaproveitar previsões de textos repetidos.
+     */
+    @Column(name = "texto_hash", length = 64)
+    private String textoHash;
+
+    @Column(name = "modelo_versao", length = 100)
+    private String modeloVersao;
+
+    /**
+     * Camada que respondeu: LEXICO (pré-classificação) ou MODELO (cache ou motor de previsão).
+     */
+    @Column(name = "camada", length = 20)
+    private String camada;
+
     @PrePersist
     protected void onCreate() {
         if (dataAnalise == null) {
@@ -0,0 +1,97 @@
+package com.sentimentapi.domain.entity;
+
+import com.sentimentapi.domain.enums.Sentimento;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Agregado de análises por intervalo de tempo (minuto ou hora) e origem.
+ * Mantido a cada gravação de resultados, permite consultar séries temporais sem varrer
+ * a tabela {@code analise_resultado}.
+ */
+@Entity
+@Table(name = "analise_rollup", indexes = {
+        @Index(name = "idx_rollup_granularidade_bucket", columnList = "granularidade, bucket")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnaliseRollup {
+
+    @EmbeddedId
+    private AnaliseRollupId id;
+
+    @Column(name = "total_positivos", nullable = false)
+    private long totalPositivos;
+
+    @Column(name = "total_negativos", nullable = false)
+    private long totalNegativos;
+
+    @Column(name = "total_neutros", nullable = false)
+    private long totalNeutros;
+
+    @Column(name = "soma_probabilidade_positivos", nullable = false)
+    private double somaProbabilidadePositivos;
+
+    @Column(name = "soma_probabilidade_negativos", nullable = false)
+    private double somaProbabilidadeNegativos;
+
+    @Column(name = "soma_probabilidade_neutros", nullable = false)
+    private double somaProbabilidadeNeutros;
+
+    @Column(name = "total_com_tempo", nullable = false)
+    private long totalComTempo;
+
+    @Column(name = "soma_tempo_ms", nullable = false)
+    private long somaTempoMs;
+
+    public AnaliseRollup(AnaliseRollupId id) {
+        this.id = id;
+    }
+
+    /**
+     * Soma um resultado de análise a este agregado.
+     */
+    public void acumular(AnaliseResultado resultado) {
+        double probabilidade = resultado.getProbabilidade() != null ? resultado.getProbabilidade() : 0.0;
+        Sentimento sentimento = resultado.getSentimento();
+        switch (sentimento) {
+            case POSITIVO -> {
+                totalPositivos++;
+                somaProbabilidadePositivos += probabilidade;
+            }
+            case NEGATIVO -> {
+                totalNegativos++;
+                somaProbabilidadeNegativos += probabilidade;
+            }
+            default -> {
+                totalNeutros++;
+                somaProbabilidadeNeutros += probabilidade;
+            }
+        }
+        if (resultado.getTempoProcessamentoMs() != null) {
+            totalComTempo++;
+            somaTempoMs += resultado.getTempoProcessamentoMs();
+        }
+    }
+
+    /**
+     * Soma outro agregado (do mesmo intervalo) a este.
+     */
+    public void somar(AnaliseRollup outro) {
+        totalPositivos += outro.totalPositivos;
+        totalNegativos += outro.totalNegativos;
+        totalNeutros += outro.totalNeutros;
+        somaProbabilidadePositivos += outro.somaProbabilidadePositivos;
+        somaProbabilidadeNegativos += outro.somaProbabilidadeNegativos;
+        somaProbabilidadeNeutros += outro.somaProbabilidadeNeutros;
+        totalComTempo += outro.totalComTempo;
+        somaTempoMs += outro.somaTempoMs;
+    }
+
+    public long getTotal() {
+        return totalPositivos + totalNegativos + totalNeutros;
+    }
+}
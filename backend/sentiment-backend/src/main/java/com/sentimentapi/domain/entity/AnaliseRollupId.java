@@ -0,0 +1,37 @@
+package com.sentimentapi.domain.entity;
+
+import com.sentimentapi.domain.enums.Granularidade;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Chave de um agregado: granularidade, início do intervalo e origem das análises.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class AnaliseRollupId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularidade", length = 10, nullable = false)
+    private Granularidade granularidade;
+
+    @Column(name = "bucket", nullable = false)
+    private LocalDateTime bucket;
+
+    @Column(name = "origem", length = 50, nullable = false)
+    private String origem;
+}
@@ -0,0 +1,64 @@
+package com.sentimentapi.domain.entity;
+
+import com.sentimentapi.domain.enums.StatusJob;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job de análise em lote processado em segundo plano.
+ * O ID do job é usado como {@code batch_id} das análises gravadas.
+ */
+@Entity
+@Table(name = "batch_job", indexes = {
+        @Index(name = "idx_batch_job_status", columnList = "status, atualizado_em")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private StatusJob status;
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    /**
+     * Itens já processados (com sucesso ou erro); também é a posição do próximo item a processar.
+     */
+    @Column(name = "processados", nullable = false)
+    private int processados;
+
+    @Column(name = "falhas", nullable = false)
+    private int falhas;
+
+    /**
+     * Incrementada a cada vez que uma instância assume o job; evita que duas instâncias o processem.
+     */
+    @Column(name = "versao", nullable = false)
+    private long versao;
+
+    @Column(name = "erro", length = 500)
+    private String erro;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "iniciado_em")
+    private LocalDateTime iniciadoEm;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    @Column(name = "concluido_em")
+    private LocalDateTime concluidoEm;
+}
@@ -0,0 +1,48 @@
+package com.sentimentapi.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Texto de entrada de um job e, depois de processado, o seu resultado.
+ */
+@Entity
+@Table(name = "batch_job_item", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_batch_job_item_posicao", columnNames = {"job_id", "posicao"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_item_seq")
+    @SequenceGenerator(name = "batch_job_item_seq", sequenceName = "batch_job_item_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_id", length = 36, nullable = false)
+    private String jobId;
+
+    /**
+     * Posição do texto na requisição (começando em 0).
+     */
+    @Column(name = "posicao", nullable = false)
+    private int posicao;
+
+    @Column(name = "texto", columnDefinition = "TEXT", nullable = false)
+    private String texto;
+
+    /**
+     * Label do sentimento ou "ERRO"; nulo enquanto o item não foi processado.
+     */
+    @Column(name = "previsao", length = 20)
+    private String previsao;
+
+    @Column(name = "probabilidade")
+    private Double probabilidade;
+
+    @Column(name = "erro", length = 500)
+    private String erro;
+}
@@ -0,0 +1,43 @@
+package com.sentimentapi.domain.enums;
+
+import com.sentimentapi.exception.ParametroInvalidoException;
+
+/**
+ * Formato de arquivo da exportação de análises.
+ */
+public enum FormatoExportacao {
+    CSV_GZ("csv.gz", "application/gzip"),
+    PARQUET("parquet", "application/vnd.apache.parquet");
+
+    private final String extensao;
+    private final String contentType;
+
+    FormatoExportacao(String extensao, String contentType) {
+        this.extensao = extensao;
+        this.contentType = contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Converte o parâmetro da API para o enum correspondente.
+     * Aceita "csv.gz", "csv", "parquet" (sem distinção de caixa); sem valor, CSV compactado.
+     */
+    public static FormatoExportacao fromParam(String valor) {
+        if (valor == null) {
+            return CSV_GZ;
+        }
+
+        return switch (valor.trim().toLowerCase()) {
+            case "csv.gz", "csv" -> CSV_GZ;
+            case "parquet" -> PARQUET;
+            default -> throw new ParametroInvalidoException("Formato inválido: " + valor + " (use csv.gz ou parquet)");
+        };
+    }
+}
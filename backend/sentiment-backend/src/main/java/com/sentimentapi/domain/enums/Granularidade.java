@@ -0,0 +1,48 @@
+package com.sentimentapi.domain.enums;
+
+import com.sentimentapi.exception.ParametroInvalidoException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Granularidade dos agregados (rollups) de análises por intervalo de tempo.
+ */
+public enum Granularidade {
+    MINUTO(ChronoUnit.MINUTES),
+    HORA(ChronoUnit.HOURS);
+
+    private final ChronoUnit unidade;
+
+    Granularidade(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    /**
+     * Início do intervalo ao qual o instante pertence.
+     */
+    public LocalDateTime truncar(LocalDateTime instante) {
+        return instante.truncatedTo(unidade);
+    }
+
+    public Duration getDuracao() {
+        return unidade.getDuration();
+    }
+
+    /**
+     * Converte o parâmetro da API para o enum correspondente.
+     * Aceita "minute", "minuto", "hour", "hora" (sem distinção de caixa).
+     */
+    public static Granularidade fromParam(String valor) {
+        if (valor == null) {
+            return HORA;
+        }
+
+        return switch (valor.trim().toUpperCase()) {
+            case "MINUTE", "MINUTO", "MIN" -> MINUTO;
+            case "HOUR", "HORA", "H" -> HORA;
+            default -> throw new ParametroInvalidoException("Granularidade inválida: " + valor + " (use minute ou hour)");
+        };
+    }
+}
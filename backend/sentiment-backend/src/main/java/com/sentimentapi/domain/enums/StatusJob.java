@@ -0,0 +1,11 @@
+package com.sentimentapi.domain.enums;
+
+/**
+ * Situação de um job de análise em lote.
+ */
+public enum StatusJob {
+    PENDENTE,
+    EM_ANDAMENTO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -0,0 +1,39 @@
+package com.sentimentapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para mapear a resposta do endpoint de lote (/predict/batch) do DS Service.
+ * Os resultados vêm na mesma ordem dos textos enviados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DsBatchServiceResponse {
+
+    @JsonProperty("results")
+    private List<Item> results;
+
+    @JsonProperty("model_version")
+    private String modelVersion;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @JsonProperty("label")
+        private String label;
+
+        @JsonProperty("probability")
+        private Double probability;
+
+        @JsonProperty("error")
+        private String error;
+    }
+}
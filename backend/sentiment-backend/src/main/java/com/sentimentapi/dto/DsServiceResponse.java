@@ -18,4 +18,11 @@ public class DsServiceResponse {
 
     @JsonProperty("probability")
     private Double probability;
+
+    @JsonProperty("model_version")
+    private String modelVersion;
+
+    public DsServiceResponse(String label, Double probability) {
+        this(label, probability, null);
+    }
 }
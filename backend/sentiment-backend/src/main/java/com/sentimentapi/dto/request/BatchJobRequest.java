@@ -0,0 +1,26 @@
+package com.sentimentapi.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para criação de um job de análise em lote, processado em segundo plano.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobRequest {
+
+    @NotEmpty(message = "A lista de textos não pode estar vazia")
+    @Size(max = 100000, message = "Máximo de 100000 textos por job")
+    @Valid
+    private List<SentimentRequest> texts;
+}
@@ -0,0 +1,62 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sentimentapi.domain.enums.Sentimento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO somente leitura de uma análise do histórico.
+ * <p>
+ * Preenchido direto pela consulta (projeção JPQL), sem carregar entidades gerenciadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnaliseHistoricoItem {
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("texto")
+    private String texto;
+
+    @JsonProperty("previsao")
+    private String previsao;
+
+    @JsonProperty("probabilidade")
+    private Double probabilidade;
+
+    @JsonProperty("data_analise")
+    private LocalDateTime dataAnalise;
+
+    @JsonProperty("tempo_ms")
+    private Long tempoMs;
+
+    @JsonProperty("origem")
+    private String origem;
+
+    @JsonProperty("batch_id")
+    private String batchId;
+
+    @JsonProperty("modelo_versao")
+    private String modeloVersao;
+
+    @JsonProperty("camada")
+    private String camada;
+
+    /**
+     * Construtor usado pela projeção JPQL ({@code SELECT new ...}).
+     */
+    public AnaliseHistoricoItem(Long id, String texto, Sentimento sentimento, Double probabilidade,
+                                LocalDateTime dataAnalise, Long tempoMs, String origem, String batchId,
+                                String modeloVersao, String camada) {
+        this(id, texto, sentimento.getLabel(), probabilidade, dataAnalise, tempoMs, origem, batchId,
+                modeloVersao, camada);
+    }
+}
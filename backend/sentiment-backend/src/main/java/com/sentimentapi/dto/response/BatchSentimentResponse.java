@@ -43,5 +43,8 @@ public class BatchSentimentResponse {
 
         @JsonProperty("probabilidade")
         private Double probabilidade;
+
+        @JsonProperty("tempo_ms")
+        private Long tempoMs;
     }
 }
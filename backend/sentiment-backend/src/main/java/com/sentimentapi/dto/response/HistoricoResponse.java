@@ -0,0 +1,35 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO com uma página do histórico de análises (paginação por keyset em {@code (data_analise, id)}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistoricoResponse {
+
+    @JsonProperty("inicio")
+    private LocalDateTime inicio;
+
+    @JsonProperty("fim")
+    private LocalDateTime fim;
+
+    @JsonProperty("analises")
+    private List<AnaliseHistoricoItem> analises;
+
+    /**
+     * Valor a enviar em {@code cursor} para buscar a próxima página; {@code null} na última.
+     */
+    @JsonProperty("proximo_cursor")
+    private String proximoCursor;
+}
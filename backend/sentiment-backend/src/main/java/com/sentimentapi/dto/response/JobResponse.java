@@ -0,0 +1,61 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a situação e o progresso de um job de análise em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("total")
+    private Integer total;
+
+    @JsonProperty("processados")
+    private Integer processados;
+
+    @JsonProperty("falhas")
+    private Integer falhas;
+
+    @JsonProperty("percentual")
+    private Double percentual;
+
+    /**
+     * Itens processados por segundo desde o início do job.
+     */
+    @JsonProperty("itens_por_segundo")
+    private Double itensPorSegundo;
+
+    /**
+     * Estimativa de segundos até a conclusão (apenas com o job em andamento).
+     */
+    @JsonProperty("eta_segundos")
+    private Long etaSegundos;
+
+    @JsonProperty("erro")
+    private String erro;
+
+    @JsonProperty("criado_em")
+    private LocalDateTime criadoEm;
+
+    @JsonProperty("iniciado_em")
+    private LocalDateTime iniciadoEm;
+
+    @JsonProperty("concluido_em")
+    private LocalDateTime concluidoEm;
+}
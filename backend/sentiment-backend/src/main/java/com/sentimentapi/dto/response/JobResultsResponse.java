@@ -0,0 +1,56 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com uma página de resultados de um job (paginação por keyset na posição do item).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobResultsResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("resultados")
+    private List<JobItemResponse> resultados;
+
+    /**
+     * Valor a enviar em {@code after} para buscar a próxima página.
+     */
+    @JsonProperty("proximo_cursor")
+    private Integer proximoCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class JobItemResponse {
+
+        @JsonProperty("posicao")
+        private Integer posicao;
+
+        @JsonProperty("texto")
+        private String texto;
+
+        @JsonProperty("previsao")
+        private String previsao;
+
+        @JsonProperty("probabilidade")
+        private Double probabilidade;
+
+        @JsonProperty("erro")
+        private String erro;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para resposta de estatísticas filtradas por período, origem e lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsQueryResponse {
+
+    @JsonProperty("inicio")
+    private LocalDateTime inicio;
+
+    @JsonProperty("fim")
+    private LocalDateTime fim;
+
+    @JsonProperty("origem")
+    private String origem;
+
+    @JsonProperty("batch_id")
+    private String batchId;
+
+    @JsonProperty("total_analises")
+    private Long totalAnalises;
+
+    @JsonProperty("positivos")
+    private Long positivos;
+
+    @JsonProperty("negativos")
+    private Long negativos;
+
+    @JsonProperty("neutros")
+    private Long neutros;
+
+    @JsonProperty("percentual_positivos")
+    private Double percentualPositivos;
+
+    @JsonProperty("percentual_negativos")
+    private Double percentualNegativos;
+
+    @JsonProperty("percentual_neutros")
+    private Double percentualNeutros;
+
+    @JsonProperty("probabilidade_media_positivos")
+    private Double probabilidadeMediaPositivos;
+
+    @JsonProperty("probabilidade_media_negativos")
+    private Double probabilidadeMediaNegativos;
+
+    @JsonProperty("probabilidade_media_neutros")
+    private Double probabilidadeMediaNeutros;
+
+    @JsonProperty("tempo_medio_processamento_ms")
+    private Double tempoMedioProcessamentoMs;
+
+    @JsonProperty("tempo_p50_ms")
+    private Double tempoP50Ms;
+
+    @JsonProperty("tempo_p95_ms")
+    private Double tempoP95Ms;
+
+    @JsonProperty("tempo_p99_ms")
+    private Double tempoP99Ms;
+}
@@ -0,0 +1,43 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de uma linha da resposta NDJSON da análise em streaming.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamItemResponse {
+
+    /**
+     * Número da linha correspondente na entrada (começando em 1).
+     */
+    @JsonProperty("linha")
+    private Long linha;
+
+    @JsonProperty("texto")
+    private String texto;
+
+    @JsonProperty("previsao")
+    private String previsao;
+
+    @JsonProperty("probabilidade")
+    private Double probabilidade;
+
+    @JsonProperty("tempo_ms")
+    private Long tempoMs;
+
+    /**
+     * Motivo da falha, apenas quando {@code previsao} é "ERRO".
+     */
+    @JsonProperty("erro")
+    private String erro;
+}
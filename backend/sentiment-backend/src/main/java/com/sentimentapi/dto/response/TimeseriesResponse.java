@@ -0,0 +1,69 @@
+package com.sentimentapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO para resposta da série temporal de análises de sentimento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeseriesResponse {
+
+    @JsonProperty("granularidade")
+    private String granularidade;
+
+    @JsonProperty("inicio")
+    private LocalDateTime inicio;
+
+    @JsonProperty("fim")
+    private LocalDateTime fim;
+
+    @JsonProperty("origem")
+    private String origem;
+
+    /**
+     * Intervalos com ao menos uma análise, em ordem de tempo.
+     */
+    @JsonProperty("pontos")
+    private List<Ponto> pontos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Ponto {
+
+        @JsonProperty("bucket")
+        private LocalDateTime bucket;
+
+        @JsonProperty("total")
+        private Long total;
+
+        @JsonProperty("positivos")
+        private Long positivos;
+
+        @JsonProperty("negativos")
+        private Long negativos;
+
+        @JsonProperty("neutros")
+        private Long neutros;
+
+        @JsonProperty("probabilidade_media_positivos")
+        private Double probabilidadeMediaPositivos;
+
+        @JsonProperty("probabilidade_media_negativos")
+        private Double probabilidadeMediaNegativos;
+
+        @JsonProperty("tempo_medio_processamento_ms")
+        private Double tempoMedioProcessamentoMs;
+    }
+}
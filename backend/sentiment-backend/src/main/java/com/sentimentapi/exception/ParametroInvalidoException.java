@@ -0,0 +1,13 @@
+package com.sentimentapi.exception;
+
+/**
+ * Exceção lançada quando um parâmetro da requisição é inválido (período invertido, cursor, formato...).
+ * É a única, além dos erros de binding do Spring, respondida com 400; um {@link IllegalArgumentException}
+ * vindo de outro ponto é um erro interno.
+ */
+public class ParametroInvalidoException extends RuntimeException {
+
+    public ParametroInvalidoException(String message) {
+        super(message);
+    }
+}
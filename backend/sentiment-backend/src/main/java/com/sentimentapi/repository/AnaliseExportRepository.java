@@ -0,0 +1,130 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Leitura das análises de um período para exportação, em ordem de {@code (data_analise, id)}.
+ * <p>
+ * As linhas vêm de um cursor do banco ({@code fetch-size} linhas por ida) e são mapeadas uma a uma
+ * direto do {@code ResultSet}, sem entidades. No PostgreSQL o driver só usa o cursor dentro de uma
+ * transação (autocommit desligado); fora dela, traria o resultado inteiro para a memória.
+ */
+@Repository
+public class AnaliseExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnaliseExportRepository(
+            DataSource dataSource,
+            @Value("${sentiment.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Posição de uma análise na ordem da exportação, no formato {@code data_analise,id}
+     * (as duas primeiras colunas do arquivo).
+     */
+    public record Posicao(LocalDateTime dataAnalise, long id) {
+
+        /**
+         * @throws ParametroInvalidoException Valor fora do formato {@code data_analise,id}
+         */
+        public static Posicao parse(String valor) {
+            int separador = valor.lastIndexOf(',');
+            try {
+                return new Posicao(LocalDateTime.parse(valor.substring(0, separador).trim()),
+                        Long.parseLong(valor.substring(separador + 1).trim()));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new ParametroInvalidoException("Posição inválida: " + valor + " (use data_analise,id)");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return dataAnalise + "," + id;
+        }
+    }
+
+    /**
+     * Análise exportada; {@code previsao} é o rótulo do sentimento (Positivo, Negativo, Neutro).
+     */
+    public record Linha(
+            LocalDateTime dataAnalise,
+            long id,
+            String previsao,
+            double probabilidade,
+            Long tempoMs,
+            String origem,
+            String batchId,
+            String modeloVersao,
+            String camada,
+            String texto) {
+    }
+
+    /**
+     * Análises do período depois de {@code apos}, até {@code limite} linhas.
+     * Deve ser consumido dentro de uma transação e fechado (try-with-resources).
+     *
+     * @param inicio Início do período (inclusivo)
+     * @param fim    Fim do período (exclusivo)
+     * @param apos   Última análise já exportada ou {@code null} para começar do início
+     * @param limite Máximo de linhas ou {@code null} para o período inteiro
+     */
+    public Stream<Linha> ler(LocalDateTime inicio, LocalDateTime fim, Posicao apos, Long limite) {
+        List<Object> parametros = new ArrayList<>(List.of(inicio, fim));
+        if (apos != null) {
+            parametros.add(apos.dataAnalise());
+            parametros.add(apos.id());
+        }
+        if (limite != null) {
+            parametros.add(limite);
+        }
+        return jdbcTemplate.queryForStream(sql(apos != null, limite != null), (rs, n) -> ler(rs), parametros.toArray());
+    }
+
+    /**
+     * SQL da leitura. A comparação de linha {@code (data_analise, id) > (?, ?)} vira o início da faixa lida
+     * do índice (data_analise, id), então retomar uma exportação não relê o que já foi exportado.
+     */
+    static String sql(boolean apos, boolean limite) {
+        StringBuilder sql = new StringBuilder("SELECT data_analise, id, sentimento, probabilidade, "
+                + "tempo_processamento_ms, origem, batch_id, modelo_versao, camada, texto_original "
+                + "FROM analise_resultado WHERE data_analise >= ? AND data_analise < ?");
+        if (apos) {
+            sql.append(" AND (data_analise, id) > (?, ?)");
+        }
+        sql.append(" ORDER BY data_analise, id");
+        if (limite) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    private static Linha ler(ResultSet rs) throws SQLException {
+        return new Linha(
+                rs.getObject(1, LocalDateTime.class),
+                rs.getLong(2),
+                Sentimento.valueOf(rs.getString(3)).getLabel(),
+                rs.getDouble(4),
+                rs.getObject(5, Long.class),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getString(9),
+                rs.getString(10));
+    }
+}
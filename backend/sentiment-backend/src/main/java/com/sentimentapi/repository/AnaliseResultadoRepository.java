@@ -2,12 +2,19 @@ package com.sentimentapi.repository;
 
 import com.sentimentapi.domain.entity.AnaliseResultado;
 import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.response.AnaliseHistoricoItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de persistência de análises de sentimento.
@@ -15,6 +22,18 @@ import java.util.List;
 @Repository
 public interface AnaliseResultadoRepository extends JpaRepository<AnaliseResultado, Long> {
 
+    /**
+     * Projeção do histórico direto no DTO: nada entra no contexto de persistência.
+     */
+    String HISTORICO = "SELECT new com.sentimentapi.dto.response.AnaliseHistoricoItem("
+            + "a.id, a.textoOriginal, a.sentimento, a.probabilidade, a.dataAnalise, a.tempoProcessamentoMs, "
+            + "a.origem, a.batchId, a.modeloVersao, a.camada) FROM AnaliseResultado a ";
+
+    /**
+     * Linhas trazidas do banco por ida nas leituras em stream.
+     */
+    String FETCH_SIZE_HISTORICO = "500";
+
     /**
      * Conta análises por tipo de sentimento.
      */
@@ -26,19 +45,40 @@ public interface AnaliseResultadoRepository extends JpaRepository<AnaliseResulta
     List<AnaliseResultado> findByBatchId(String batchId);
 
     /**
-     * Busca análises em um período de tempo.
+     * Conta análises por sentimento em um período.
      */
-    List<AnaliseResultado> findByDataAnaliseBetween(LocalDateTime inicio, LocalDateTime fim);
+    long countBySentimentoAndDataAnaliseBetween(Sentimento sentimento, LocalDateTime inicio, LocalDateTime fim);
 
     /**
-     * Conta análises por sentimento em um período.
+     * Primeira página do histórico no período, da análise mais recente para a mais antiga.
      */
-    long countBySentimentoAndDataAnaliseBetween(Sentimento sentimento, LocalDateTime inicio, LocalDateTime fim);
+    @Query(HISTORICO + "WHERE a.dataAnalise >= :inicio AND a.dataAnalise < :fim "
+            + "ORDER BY a.dataAnalise DESC, a.id DESC")
+    List<AnaliseHistoricoItem> historico(LocalDateTime inicio, LocalDateTime fim, Pageable pageable);
+
+    /**
+     * Próxima página do histórico por keyset: análises anteriores a {@code (data, id)} da última recebida.
+     * O {@code dataAnalise <= :data} redundante limita a faixa lida do índice (data_analise, id), sem OFFSET.
+     */
+    @Query(HISTORICO + "WHERE a.dataAnalise >= :inicio AND a.dataAnalise <= :data "
+            + "AND (a.dataAnalise < :data OR a.id < :id) "
+            + "ORDER BY a.dataAnalise DESC, a.id DESC")
+    List<AnaliseHistoricoItem> historicoAntesDe(LocalDateTime inicio, LocalDateTime data, long id, Pageable pageable);
 
     /**
-     * Busca as últimas N análises ordenadas por data.
+     * Histórico do período em ordem cronológica, lido sob demanda com fetch size do JDBC.
+     * Deve ser consumido dentro de uma transação e fechado (try-with-resources).
      */
-    List<AnaliseResultado> findTop100ByOrderByDataAnaliseDesc();
+    @Query(HISTORICO + "WHERE a.dataAnalise >= :inicio AND a.dataAnalise < :fim "
+            + "ORDER BY a.dataAnalise, a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_HISTORICO))
+    Stream<AnaliseHistoricoItem> streamHistorico(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Busca a análise mais recente de um texto (pelo hash normalizado) feita por uma versão do modelo.
+     */
+    Optional<AnaliseResultado> findFirstByTextoHashAndModeloVersaoOrderByDataAnaliseDesc(
+            String textoHash, String modeloVersao);
 
     /**
      * Calcula a média de probabilidade por sentimento.
@@ -51,4 +91,27 @@ public interface AnaliseResultadoRepository extends JpaRepository<AnaliseResulta
      */
     @Query("SELECT AVG(a.tempoProcessamentoMs) FROM AnaliseResultado a WHERE a.tempoProcessamentoMs IS NOT NULL")
     Double findAverageTempoProcessamento();
+
+    /**
+     * Agrega contagem, soma de probabilidades e soma de tempos por sentimento numa única varredura.
+     */
+    @Query("SELECT a.sentimento AS sentimento, COUNT(a) AS total, SUM(a.probabilidade) AS somaProbabilidade, "
+            + "COUNT(a.tempoProcessamentoMs) AS totalComTempo, SUM(a.tempoProcessamentoMs) AS somaTempoMs "
+            + "FROM AnaliseResultado a GROUP BY a.sentimento")
+    List<AgregadoPorSentimento> agregarPorSentimento();
+
+    /**
+     * Projeção do agregado por sentimento.
+     */
+    interface AgregadoPorSentimento {
+        Sentimento getSentimento();
+
+        Long getTotal();
+
+        Double getSomaProbabilidade();
+
+        Long getTotalComTempo();
+
+        Long getSomaTempoMs();
+    }
 }
@@ -0,0 +1,93 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.entity.AnaliseRollup;
+import com.sentimentapi.domain.entity.AnaliseRollupId;
+import com.sentimentapi.domain.enums.Granularidade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório dos agregados de análises por intervalo de tempo.
+ */
+@Repository
+public interface AnaliseRollupRepository extends JpaRepository<AnaliseRollup, AnaliseRollupId> {
+
+    /**
+     * Soma os valores de um agregado à linha existente, de forma atômica no banco.
+     * <p>
+     * Consulta nativa (SQL portável entre H2 e PostgreSQL): em JPQL o Hibernate envolve os
+     * parâmetros {@code double} num {@code cast(? as float($p))} que o H2 não aceita.
+     *
+     * @return Quantidade de linhas atualizadas (0 se o agregado ainda não existe)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE analise_rollup SET "
+            + "total_positivos = total_positivos + :positivos, "
+            + "total_negativos = total_negativos + :negativos, "
+            + "total_neutros = total_neutros + :neutros, "
+            + "soma_probabilidade_positivos = soma_probabilidade_positivos + :somaPositivos, "
+            + "soma_probabilidade_negativos = soma_probabilidade_negativos + :somaNegativos, "
+            + "soma_probabilidade_neutros = soma_probabilidade_neutros + :somaNeutros, "
+            + "total_com_tempo = total_com_tempo + :totalComTempo, "
+            + "soma_tempo_ms = soma_tempo_ms + :somaTempoMs "
+            + "WHERE granularidade = :granularidade AND bucket = :bucket AND origem = :origem")
+    int incrementar(
+            @Param("granularidade") String granularidade,
+            @Param("bucket") LocalDateTime bucket,
+            @Param("origem") String origem,
+            @Param("positivos") long positivos,
+            @Param("negativos") long negativos,
+            @Param("neutros") long neutros,
+            @Param("somaPositivos") double somaPositivos,
+            @Param("somaNegativos") double somaNegativos,
+            @Param("somaNeutros") double somaNeutros,
+            @Param("totalComTempo") long totalComTempo,
+            @Param("somaTempoMs") long somaTempoMs);
+
+    /**
+     * Soma os valores de um agregado à linha existente.
+     *
+     * @return Quantidade de linhas atualizadas (0 se o agregado ainda não existe)
+     */
+    default int incrementar(AnaliseRollup delta) {
+        AnaliseRollupId id = delta.getId();
+        return incrementar(id.getGranularidade().name(), id.getBucket(), id.getOrigem(),
+                delta.getTotalPositivos(), delta.getTotalNegativos(), delta.getTotalNeutros(),
+                delta.getSomaProbabilidadePositivos(), delta.getSomaProbabilidadeNegativos(),
+                delta.getSomaProbabilidadeNeutros(), delta.getTotalComTempo(), delta.getSomaTempoMs());
+    }
+
+    /**
+     * Busca os agregados de uma granularidade no intervalo [inicio, fim), em ordem de tempo.
+     */
+    @Query("SELECT r FROM AnaliseRollup r WHERE r.id.granularidade = :granularidade "
+            + "AND r.id.bucket >= :inicio AND r.id.bucket < :fim ORDER BY r.id.bucket")
+    List<AnaliseRollup> buscarPeriodo(
+            @Param("granularidade") Granularidade granularidade,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Busca os agregados de uma granularidade e origem no intervalo [inicio, fim), em ordem de tempo.
+     */
+    @Query("SELECT r FROM AnaliseRollup r WHERE r.id.granularidade = :granularidade AND r.id.origem = :origem "
+            + "AND r.id.bucket >= :inicio AND r.id.bucket < :fim ORDER BY r.id.bucket")
+    List<AnaliseRollup> buscarPeriodoPorOrigem(
+            @Param("granularidade") Granularidade granularidade,
+            @Param("origem") String origem,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Remove agregados de uma granularidade anteriores ao limite.
+     */
+    @Modifying
+    @Query("DELETE FROM AnaliseRollup r WHERE r.id.granularidade = :granularidade AND r.id.bucket < :limite")
+    int removerAnteriores(@Param("granularidade") Granularidade granularidade, @Param("limite") LocalDateTime limite);
+}
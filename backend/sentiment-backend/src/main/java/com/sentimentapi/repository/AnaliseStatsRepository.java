@@ -0,0 +1,123 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.enums.Sentimento;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estatísticas de um subconjunto das análises (período, origem, lote) numa única consulta.
+ * <p>
+ * Todas as métricas saem de uma só linha agregada: contagens e médias por sentimento com
+ * {@code FILTER (WHERE ...)} e percentis do tempo com {@code PERCENTILE_CONT}, então cada consulta lê
+ * as linhas filtradas uma vez só. O {@code WHERE} só leva os filtros informados, para que o plano use
+ * o índice de cobertura certo (migração V2) em vez de um {@code (:x IS NULL OR ...)} genérico.
+ */
+@Repository
+public class AnaliseStatsRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AnaliseStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Filtros da consulta; campos {@code null} não filtram.
+     *
+     * @param inicio  Início do período (inclusivo)
+     * @param fim     Fim do período (exclusivo)
+     * @param origem  Origem das análises (API, BATCH, ...)
+     * @param batchId Lote das análises
+     */
+    public record Filtro(LocalDateTime inicio, LocalDateTime fim, String origem, String batchId) {
+    }
+
+    /**
+     * Resultado agregado. Médias e percentis são {@code null} quando não há linhas com o valor.
+     */
+    public record Agregado(
+            long total,
+            Map<Sentimento, Long> totais,
+            Map<Sentimento, Double> probabilidadesMedias,
+            Double tempoMedioMs,
+            Double tempoP50Ms,
+            Double tempoP95Ms,
+            Double tempoP99Ms) {
+    }
+
+    public Agregado agregar(Filtro filtro) {
+        return jdbcTemplate.queryForObject(sql(filtro), parametros(filtro), (rs, linha) -> ler(rs));
+    }
+
+    /**
+     * SQL da consulta para os filtros informados (também usado pelo teste de plano).
+     */
+    public static String sql(Filtro filtro) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total");
+        for (Sentimento sentimento : Sentimento.values()) {
+            String nome = sentimento.name();
+            String sufixo = nome.toLowerCase(Locale.ROOT);
+            sql.append(", COUNT(*) FILTER (WHERE sentimento = '").append(nome).append("') AS total_").append(sufixo)
+                    .append(", AVG(probabilidade) FILTER (WHERE sentimento = '").append(nome)
+                    .append("') AS probabilidade_").append(sufixo);
+        }
+        sql.append(", AVG(CAST(tempo_processamento_ms AS DOUBLE PRECISION)) AS tempo_medio");
+        sql.append(", PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY tempo_processamento_ms) AS tempo_p50")
+                .append(", PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY tempo_processamento_ms) AS tempo_p95")
+                .append(", PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY tempo_processamento_ms) AS tempo_p99");
+        sql.append(" FROM analise_resultado");
+
+        List<String> condicoes = new ArrayList<>();
+        if (filtro.inicio() != null) {
+            condicoes.add("data_analise >= :inicio");
+        }
+        if (filtro.fim() != null) {
+            condicoes.add("data_analise < :fim");
+        }
+        if (filtro.origem() != null) {
+            condicoes.add("origem = :origem");
+        }
+        if (filtro.batchId() != null) {
+            condicoes.add("batch_id = :batchId");
+        }
+        if (!condicoes.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", condicoes));
+        }
+        return sql.toString();
+    }
+
+    public static MapSqlParameterSource parametros(Filtro filtro) {
+        return new MapSqlParameterSource()
+                .addValue("inicio", filtro.inicio())
+                .addValue("fim", filtro.fim())
+                .addValue("origem", filtro.origem())
+                .addValue("batchId", filtro.batchId());
+    }
+
+    private static Agregado ler(ResultSet rs) throws SQLException {
+        Map<Sentimento, Long> totais = new EnumMap<>(Sentimento.class);
+        Map<Sentimento, Double> probabilidades = new EnumMap<>(Sentimento.class);
+        for (Sentimento sentimento : Sentimento.values()) {
+            String sufixo = sentimento.name().toLowerCase(Locale.ROOT);
+            totais.put(sentimento, rs.getLong("total_" + sufixo));
+            probabilidades.put(sentimento, numero(rs, "probabilidade_" + sufixo));
+        }
+        return new Agregado(rs.getLong("total"), totais, probabilidades, numero(rs, "tempo_medio"),
+                numero(rs, "tempo_p50"), numero(rs, "tempo_p95"), numero(rs, "tempo_p99"));
+    }
+
+    private static Double numero(ResultSet rs, String coluna) throws SQLException {
+        Object valor = rs.getObject(coluna);
+        return valor == null ? null : ((Number) valor).doubleValue();
+    }
+}
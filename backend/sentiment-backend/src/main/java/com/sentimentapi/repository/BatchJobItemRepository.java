@@ -0,0 +1,28 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.entity.BatchJobItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório dos itens (textos e resultados) dos jobs de análise.
+ */
+@Repository
+public interface BatchJobItemRepository extends JpaRepository<BatchJobItem, Long> {
+
+    /**
+     * Próximos itens de um job a partir de uma posição (inclusiva), em ordem.
+     */
+    List<BatchJobItem> findByJobIdAndPosicaoGreaterThanEqualOrderByPosicaoAsc(
+            String jobId, int posicao, Pageable pageable);
+
+    /**
+     * Página de resultados por keyset: itens já processados com posição maior que o cursor.
+     * Usa o índice único (job_id, posicao), sem OFFSET.
+     */
+    List<BatchJobItem> findByJobIdAndPosicaoGreaterThanAndPrevisaoIsNotNullOrderByPosicaoAsc(
+            String jobId, int posicao, Pageable pageable);
+}
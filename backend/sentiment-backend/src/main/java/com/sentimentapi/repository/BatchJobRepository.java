@@ -0,0 +1,70 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.entity.BatchJob;
+import com.sentimentapi.domain.enums.StatusJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório dos jobs de análise em lote.
+ */
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, String> {
+
+    /**
+     * Jobs que podem ser assumidos: pendentes, ou em andamento sem progresso desde {@code limite}
+     * (a instância que os processava parou).
+     */
+    @Query("SELECT j FROM BatchJob j WHERE j.status = com.sentimentapi.domain.enums.StatusJob.PENDENTE "
+            + "OR (j.status = com.sentimentapi.domain.enums.StatusJob.EM_ANDAMENTO AND j.atualizadoEm < :limite) "
+            + "ORDER BY j.criadoEm")
+    List<BatchJob> buscarDisponiveis(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+    /**
+     * Assume o job se ninguém o assumiu desde a leitura (mesma {@code versao}).
+     *
+     * @return 1 se o job foi assumido, 0 caso contrário
+     */
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.status = com.sentimentapi.domain.enums.StatusJob.EM_ANDAMENTO, "
+            + "j.versao = j.versao + 1, j.atualizadoEm = :agora, j.iniciadoEm = COALESCE(j.iniciadoEm, :agora) "
+            + "WHERE j.id = :id AND j.versao = :versao")
+    int assumir(@Param("id") String id, @Param("versao") long versao, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Registra o progresso de um trecho processado, se o job ainda pertence a quem o assumiu.
+     *
+     * @return 1 se o progresso foi registrado, 0 se o job foi assumido por outra instância
+     */
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.processados = j.processados + :processados, j.falhas = j.falhas + :falhas, "
+            + "j.atualizadoEm = :agora WHERE j.id = :id AND j.versao = :versao")
+    int registrarProgresso(
+            @Param("id") String id,
+            @Param("versao") long versao,
+            @Param("processados") int processados,
+            @Param("falhas") int falhas,
+            @Param("agora") LocalDateTime agora);
+
+    /**
+     * Encerra o job com a situação informada, se ele ainda pertence a quem o assumiu.
+     *
+     * @return 1 se o job foi encerrado, 0 se o job foi assumido por outra instância
+     */
+    @Modifying
+    @Query("UPDATE BatchJob j SET j.status = :status, j.erro = :erro, j.atualizadoEm = :agora, j.concluidoEm = :agora "
+            + "WHERE j.id = :id AND j.versao = :versao")
+    int encerrar(
+            @Param("id") String id,
+            @Param("versao") long versao,
+            @Param("status") StatusJob status,
+            @Param("erro") String erro,
+            @Param("agora") LocalDateTime agora);
+}
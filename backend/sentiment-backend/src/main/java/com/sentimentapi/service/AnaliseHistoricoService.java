@@ -0,0 +1,170 @@
+package com.sentimentapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.response.AnaliseHistoricoItem;
+import com.sentimentapi.dto.response.HistoricoResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Histórico das análises gravadas, paginado ou em stream.
+ * <p>
+ * As páginas usam keyset em {@code (data_analise, id)}: o cursor é a última análise recebida e a próxima
+ * página começa logo depois dela no índice, sem OFFSET, então o custo de uma página não depende de quantas
+ * vieram antes. O stream lê o período inteiro com fetch size do JDBC dentro de uma transação somente leitura
+ * e escreve cada linha assim que chega; como os itens são DTOs (não entidades gerenciadas), o uso de memória
+ * não depende do tamanho do período.
+ */
+@Service
+@Slf4j
+public class AnaliseHistoricoService {
+
+    static final int MAX_PAGINA = 1000;
+    private static final byte NOVA_LINHA = '\n';
+    private static final int LINHAS_POR_FLUSH = 1000;
+
+    private final AnaliseResultadoRepository repository;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate leitura;
+
+    public AnaliseHistoricoService(
+            AnaliseResultadoRepository repository,
+            AnaliseWriteBehindQueue writeBehindQueue,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.writeBehindQueue = writeBehindQueue;
+        this.objectMapper = objectMapper;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    /**
+     * Posição de uma análise na ordem do histórico.
+     */
+    record Cursor(LocalDateTime dataAnalise, long id) {
+    }
+
+    /**
+     * Página do histórico do período, da análise mais recente para a mais antiga.
+     *
+     * @param inicio      Início do período (inclusivo)
+     * @param fim         Fim do período (exclusivo)
+     * @param cursor      {@code proximo_cursor} da página anterior ou {@code null} para a primeira
+     * @param limite      Tamanho máximo da página
+     * @param consistente Espera antes a gravação das análises já aceitas na fila de persistência
+     * @throws ParametroInvalidoException Período invertido ou cursor inválido
+     */
+    public HistoricoResponse pagina(
+            LocalDateTime inicio, LocalDateTime fim, String cursor, int limite, boolean consistente) {
+        validarPeriodo(inicio, fim);
+        PageRequest pagina = PageRequest.ofSize(Math.max(1, Math.min(limite, MAX_PAGINA)));
+        if (consistente) {
+            writeBehindQueue.flush();
+        }
+
+        List<AnaliseHistoricoItem> analises;
+        if (cursor == null) {
+            analises = repository.historico(inicio, fim, pagina);
+        } else {
+            Cursor posicao = lerCursor(cursor);
+            analises = repository.historicoAntesDe(inicio, posicao.dataAnalise(), posicao.id(), pagina);
+        }
+
+        String proximo = analises.size() < pagina.getPageSize() ? null : cursor(analises.get(analises.size() - 1));
+        return HistoricoResponse.builder()
+                .inicio(inicio)
+                .fim(fim)
+                .analises(analises)
+                .proximoCursor(proximo)
+                .build();
+    }
+
+    /**
+     * Escreve o histórico do período em NDJSON, em ordem cronológica.
+     *
+     * @param consistente Espera antes a gravação das análises já aceitas na fila de persistência
+     * @return Quantidade de análises escritas
+     * @throws ParametroInvalidoException Período invertido
+     */
+    public long exportar(LocalDateTime inicio, LocalDateTime fim, boolean consistente, OutputStream saida)
+            throws IOException {
+        validarPeriodo(inicio, fim);
+        if (consistente) {
+            writeBehindQueue.flush();
+        }
+        long comeco = System.currentTimeMillis();
+
+        long escritas;
+        try {
+            escritas = leitura.execute(status -> {
+                try (Stream<AnaliseHistoricoItem> analises = repository.streamHistorico(inicio, fim)) {
+                    return escrever(analises.iterator(), saida);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Histórico de {} a {} exportado: {} análises em {}ms",
+                inicio, fim, escritas, System.currentTimeMillis() - comeco);
+        return escritas;
+    }
+
+    private long escrever(Iterator<AnaliseHistoricoItem> analises, OutputStream saida) throws IOException {
+        long escritas = 0;
+        while (analises.hasNext()) {
+            saida.write(objectMapper.writeValueAsBytes(analises.next()));
+            saida.write(NOVA_LINHA);
+            if (++escritas % LINHAS_POR_FLUSH == 0) {
+                saida.flush();
+            }
+        }
+        saida.flush();
+        return escritas;
+    }
+
+    private static void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new ParametroInvalidoException("O início do período deve ser anterior ao fim");
+        }
+    }
+
+    /**
+     * Cursor opaco (base64url de {@code data_analise|id}) da análise informada.
+     */
+    static String cursor(AnaliseHistoricoItem analise) {
+        String posicao = analise.getDataAnalise() + "|" + analise.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor lerCursor(String cursor) {
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = posicao.indexOf('|');
+            return new Cursor(LocalDateTime.parse(posicao.substring(0, separador)),
+                    Long.parseLong(posicao.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ParametroInvalidoException("Cursor inválido: " + cursor);
+        }
+    }
+}
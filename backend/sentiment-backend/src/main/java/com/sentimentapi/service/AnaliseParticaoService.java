@@ -0,0 +1,174 @@
+package com.sentimentapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Manutenção das partições mensais de {@code analise_resultado} e retenção dos resultados.
+ * <p>
+ * No PostgreSQL (tabela particionada pela migração V1), cria as partições dos próximos
+ * {@code months-ahead} meses e, com a retenção habilitada, desanexa ({@code mode: detach}) ou remove
+ * ({@code mode: drop}) as partições de meses anteriores aos últimos {@code months} meses: um comando
+ * por mês, sem DELETE linha a linha. Partições desanexadas continuam no banco como tabelas comuns
+ * (para arquivar com {@code pg_dump} e remover depois).
+ * <p>
+ * No H2 (perfil dev) a tabela não é particionada e a retenção é um único DELETE por período.
+ * Os agregados por hora ({@link AnaliseRollupService}) não são afetados.
+ */
+@Service
+@Slf4j
+public class AnaliseParticaoService {
+
+    static final String TABELA = "analise_resultado";
+    static final String PREFIXO_PARTICAO = TABELA + "_p";
+    static final String PARTICAO_PADRAO = TABELA + "_padrao";
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean retencaoHabilitada;
+    private final int retencaoMeses;
+    private final boolean remover;
+    private final int mesesAntecipados;
+    private volatile Boolean particionada;
+
+    public AnaliseParticaoService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${sentiment.retention.enabled:false}") boolean retencaoHabilitada,
+            @Value("${sentiment.retention.months:12}") int retencaoMeses,
+            @Value("${sentiment.retention.mode:detach}") String modo,
+            @Value("${sentiment.retention.months-ahead:3}") int mesesAntecipados) {
+        if (!modo.equals("detach") && !modo.equals("drop")) {
+            throw new IllegalArgumentException("sentiment.retention.mode inválido: " + modo + " (detach ou drop)");
+        }
+        if (retencaoMeses < 1) {
+            throw new IllegalArgumentException("sentiment.retention.months deve ser pelo menos 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.retencaoHabilitada = retencaoHabilitada;
+        this.retencaoMeses = retencaoMeses;
+        this.remover = modo.equals("drop");
+        this.mesesAntecipados = mesesAntecipados;
+    }
+
+    /**
+     * Roda na subida (para a aplicação não depender de a migração ter sido aplicada neste mês)
+     * e diariamente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${sentiment.retention.cron:0 30 3 * * *}")
+    public void manter() {
+        try {
+            manter(YearMonth.now());
+        } catch (DataAccessException e) {
+            log.error("Falha na manutenção das partições de {}: {}", TABELA, e.getMessage());
+        }
+    }
+
+    void manter(YearMonth mesAtual) {
+        if (particionada()) {
+            criarParticoes(mesAtual);
+            if (retencaoHabilitada) {
+                removerParticoesVencidas(mesAtual);
+            }
+        } else if (retencaoHabilitada) {
+            LocalDateTime limite = primeiroMesRetido(mesAtual).atDay(1).atStartOfDay();
+            int removidas = jdbcTemplate.update("DELETE FROM " + TABELA + " WHERE data_analise < ?", limite);
+            if (removidas > 0) {
+                log.info("Retenção: removidas {} análises anteriores a {}", removidas, limite);
+            }
+        }
+    }
+
+    private void criarParticoes(YearMonth mesAtual) {
+        for (int i = 0; i <= mesesAntecipados; i++) {
+            YearMonth mes = mesAtual.plusMonths(i);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        nomeParticao(mes), TABELA, mes.atDay(1), mes.plusMonths(1).atDay(1)));
+            } catch (DataAccessException e) {
+                // Normalmente: a partição padrão já tem linhas desse mês e precisa ser esvaziada antes
+                log.error("Não foi possível criar a partição {}: {}", nomeParticao(mes), e.getMessage());
+            }
+        }
+    }
+
+    private void removerParticoesVencidas(YearMonth mesAtual) {
+        YearMonth primeiroRetido = primeiroMesRetido(mesAtual);
+        List<String> particoes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.oid = to_regclass(?)", String.class, TABELA);
+
+        for (String particao : vencidas(particoes, primeiroRetido)) {
+            if (remover) {
+                jdbcTemplate.execute("DROP TABLE " + particao);
+                log.info("Retenção: partição {} removida", particao);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + TABELA + " DETACH PARTITION " + particao);
+                log.info("Retenção: partição {} desanexada (continua no banco como tabela comum)", particao);
+            }
+        }
+
+        int padrao = jdbcTemplate.update("DELETE FROM " + PARTICAO_PADRAO + " WHERE data_analise < ?",
+                primeiroRetido.atDay(1).atStartOfDay());
+        if (padrao > 0) {
+            log.info("Retenção: removidas {} análises vencidas da partição padrão", padrao);
+        }
+    }
+
+    /**
+     * Partições mensais inteiramente anteriores ao primeiro mês retido, em ordem.
+     */
+    static List<String> vencidas(List<String> particoes, YearMonth primeiroRetido) {
+        return particoes.stream()
+                .filter(particao -> mesDaParticao(particao).filter(primeiroRetido::isAfter).isPresent())
+                .sorted()
+                .toList();
+    }
+
+    static Optional<YearMonth> mesDaParticao(String particao) {
+        String sufixo = particao.startsWith(PREFIXO_PARTICAO) ? particao.substring(PREFIXO_PARTICAO.length()) : "";
+        if (!sufixo.matches("\\d{6}")) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.parse(sufixo, FORMATO_MES));
+    }
+
+    static String nomeParticao(YearMonth mes) {
+        return PREFIXO_PARTICAO + mes.format(FORMATO_MES);
+    }
+
+    /**
+     * O mês atual conta como um dos {@code months} retidos.
+     */
+    private YearMonth primeiroMesRetido(YearMonth mesAtual) {
+        return mesAtual.minusMonths(retencaoMeses - 1L);
+    }
+
+    private boolean particionada() {
+        Boolean resultado = particionada;
+        if (resultado == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            resultado = "PostgreSQL".equals(banco) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                    Boolean.class, TABELA));
+            particionada = resultado;
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,148 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.entity.AnaliseRollup;
+import com.sentimentapi.domain.entity.AnaliseRollupId;
+import com.sentimentapi.domain.enums.Granularidade;
+import com.sentimentapi.dto.response.TimeseriesResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregados (rollups) de análises por minuto e por hora, separados por origem.
+ * <p>
+ * Os agregados são atualizados na mesma transação que grava os resultados, com um
+ * {@code UPDATE ... SET total = total + ?} por intervalo/origem do lote; a série temporal
+ * lê apenas esses agregados (30 dias por hora são ~720 linhas por origem).
+ */
+@Service
+@Slf4j
+public class AnaliseRollupService {
+
+    static final String ORIGEM_DESCONHECIDA = "DESCONHECIDA";
+
+    private final AnaliseRollupRepository rollupRepository;
+    private final int maxPontos;
+    private final int retencaoMinutosDias;
+
+    public AnaliseRollupService(
+            AnaliseRollupRepository rollupRepository,
+            @Value("${sentiment.stats.timeseries.max-points:2000}") int maxPontos,
+            @Value("${sentiment.stats.rollup.minute-retention-days:7}") int retencaoMinutosDias) {
+        this.rollupRepository = rollupRepository;
+        this.maxPontos = maxPontos;
+        this.retencaoMinutosDias = retencaoMinutosDias;
+    }
+
+    /**
+     * Soma um lote de resultados recém-gravados aos agregados.
+     * Deve ser chamado dentro da transação que grava o lote, depois do {@code save}
+     * (que preenche a data da análise).
+     */
+    public void acumular(List<AnaliseResultado> lote) {
+        Map<AnaliseRollupId, AnaliseRollup> deltas = new LinkedHashMap<>();
+        for (AnaliseResultado resultado : lote) {
+            String origem = resultado.getOrigem() != null ? resultado.getOrigem() : ORIGEM_DESCONHECIDA;
+            for (Granularidade granularidade : Granularidade.values()) {
+                AnaliseRollupId id = new AnaliseRollupId(
+                        granularidade, granularidade.truncar(resultado.getDataAnalise()), origem);
+                deltas.computeIfAbsent(id, AnaliseRollup::new).acumular(resultado);
+            }
+        }
+
+        for (AnaliseRollup delta : deltas.values()) {
+            // Primeira gravação do intervalo cria a linha; se outra instância criá-la ao mesmo tempo,
+            // a transação falha e o lote é regravado item a item (caindo no UPDATE)
+            if (rollupRepository.incrementar(delta) == 0) {
+                rollupRepository.save(delta);
+            }
+        }
+    }
+
+    /**
+     * Série temporal de análises no intervalo [inicio, fim), lida apenas dos agregados.
+     *
+     * @param granularidade Tamanho de cada intervalo
+     * @param inicio        Início (inclusivo); truncado para a granularidade
+     * @param fim           Fim (exclusivo)
+     * @param origem        Filtra por origem (API, BATCH, ...); {@code null} soma todas
+     */
+    @Transactional(readOnly = true)
+    public TimeseriesResponse serie(Granularidade granularidade, LocalDateTime inicio, LocalDateTime fim, String origem) {
+        if (!inicio.isBefore(fim)) {
+            throw new ParametroInvalidoException("O início do período deve ser anterior ao fim");
+        }
+        LocalDateTime inicioBucket = granularidade.truncar(inicio);
+        long pontos = Duration.between(inicioBucket, fim).dividedBy(granularidade.getDuracao()) + 1;
+        if (pontos > maxPontos) {
+            throw new ParametroInvalidoException(String.format(
+                    "Período muito longo para a granularidade %s: %d intervalos (máximo %d)",
+                    granularidade.name().toLowerCase(), pontos, maxPontos));
+        }
+
+        List<AnaliseRollup> agregados = origem == null
+                ? rollupRepository.buscarPeriodo(granularidade, inicioBucket, fim)
+                : rollupRepository.buscarPeriodoPorOrigem(granularidade, origem, inicioBucket, fim);
+
+        // Uma linha por origem: soma as origens de cada intervalo (a consulta já vem ordenada por bucket)
+        Map<LocalDateTime, AnaliseRollup> porBucket = new LinkedHashMap<>();
+        for (AnaliseRollup agregado : agregados) {
+            porBucket.computeIfAbsent(agregado.getId().getBucket(),
+                    bucket -> new AnaliseRollup(agregado.getId())).somar(agregado);
+        }
+
+        List<TimeseriesResponse.Ponto> serie = new ArrayList<>(porBucket.size());
+        porBucket.forEach((bucket, agregado) -> serie.add(paraPonto(bucket, agregado)));
+
+        return TimeseriesResponse.builder()
+                .granularidade(granularidade.name().toLowerCase())
+                .inicio(inicioBucket)
+                .fim(fim)
+                .origem(origem)
+                .pontos(serie)
+                .build();
+    }
+
+    /**
+     * Remove agregados por minuto mais antigos que a retenção configurada;
+     * os agregados por hora são mantidos.
+     */
+    @Scheduled(cron = "${sentiment.stats.rollup.cleanup-cron:0 15 * * * *}")
+    @Transactional
+    public void removerMinutosAntigos() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(retencaoMinutosDias);
+        int removidos = rollupRepository.removerAnteriores(Granularidade.MINUTO, limite);
+        if (removidos > 0) {
+            log.info("Removidos {} agregados por minuto anteriores a {}", removidos, limite);
+        }
+    }
+
+    private static TimeseriesResponse.Ponto paraPonto(LocalDateTime bucket, AnaliseRollup agregado) {
+        return TimeseriesResponse.Ponto.builder()
+                .bucket(bucket)
+                .total(agregado.getTotal())
+                .positivos(agregado.getTotalPositivos())
+                .negativos(agregado.getTotalNegativos())
+                .neutros(agregado.getTotalNeutros())
+                .probabilidadeMediaPositivos(media(agregado.getSomaProbabilidadePositivos(), agregado.getTotalPositivos()))
+                .probabilidadeMediaNegativos(media(agregado.getSomaProbabilidadeNegativos(), agregado.getTotalNegativos()))
+                .tempoMedioProcessamentoMs(media(agregado.getSomaTempoMs(), agregado.getTotalComTempo()))
+                .build();
+    }
+
+    private static double media(double soma, long total) {
+        return total == 0 ? 0.0 : soma / total;
+    }
+}
@@ -0,0 +1,315 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fila de persistência assíncrona (write-behind) dos resultados de análise.
+ * <p>
+ * A requisição apenas enfileira o resultado; uma thread dedicada grava lotes de até
+ * {@code batch-size} registros numa única transação, usando batch insert do JDBC,
+ * e atualiza na mesma transação os agregados por intervalo de tempo ({@link AnaliseRollupService}).
+ * Com a fila cheia o produtor espera até {@code offer-timeout-ms} (backpressure) e,
+ * se ainda assim não houver espaço, grava o registro de forma síncrona. A API v2 usa
+ * {@link #registrarReativo}, que espera do mesmo jeito sem ocupar a thread.
+ * No encerramento da aplicação a fila é drenada antes do pool de conexões ser fechado.
+ * <p>
+ * {@link #flush()} não grava nada por conta própria: enfileira uma barreira e espera o writer
+ * confirmar o lote que a contém, ou seja, tudo o que foi aceito antes da chamada.
+ * <p>
+ * Cada transação de gravação é medida no timer {@code sentiment.db.write} (tags mode, outcome e batch_size).
+ */
+@Service
+@Slf4j
+public class AnaliseWriteBehindQueue {
+
+    /** Intervalo entre tentativas de enfileirar da API v2 com a fila cheia. */
+    private static final Duration ESPERA_FILA_CHEIA = Duration.ofMillis(5);
+
+    /** Tempo máximo que {@link #flush()} espera o writer alcançar a barreira. */
+    private static final Duration ESPERA_FLUSH = Duration.ofSeconds(5);
+
+    private final AnaliseResultadoRepository analiseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsAccumulator statsAccumulator;
+    private final AnaliseRollupService rollupService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<Pendente> queue;
+    /** Resultados aceitos na fila e ainda não gravados (inclui o lote em andamento). */
+    private final AtomicInteger emTransito = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Item da fila: um resultado a gravar ou uma barreira de {@link #flush()}, concluída
+     * depois do commit do lote em que foi retirada.
+     */
+    private record Pendente(AnaliseResultado resultado, CompletableFuture<Void> barreira) {
+    }
+
+    public AnaliseWriteBehindQueue(
+            AnaliseResultadoRepository analiseRepository,
+            TransactionTemplate transactionTemplate,
+            StatsAccumulator statsAccumulator,
+            AnaliseRollupService rollupService,
+            MeterRegistry meterRegistry,
+            @Value("${sentiment.persistence.write-behind.enabled:true}") boolean enabled,
+            @Value("${sentiment.persistence.write-behind.capacity:10000}") int capacity,
+            @Value("${sentiment.persistence.write-behind.batch-size:200}") int batchSize,
+            @Value("${sentiment.persistence.write-behind.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${sentiment.persistence.write-behind.offer-timeout-ms:2000}") long offerTimeoutMs) {
+        this.analiseRepository = analiseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.statsAccumulator = statsAccumulator;
+        this.rollupService = rollupService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "analise-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Registra um resultado para persistência.
+     *
+     * @param resultado Resultado da análise ainda não persistido
+     */
+    public void registrar(AnaliseResultado resultado) {
+        if (!running) {
+            gravarLote(List.of(resultado));
+            return;
+        }
+        emTransito.incrementAndGet();
+        try {
+            if (queue.offer(new Pendente(resultado, null), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            emTransito.decrementAndGet();
+            log.warn("Fila de persistência cheia há {}ms; gravando de forma síncrona", offerTimeoutMs);
+        } catch (InterruptedException e) {
+            emTransito.decrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+        gravarLote(List.of(resultado));
+    }
+
+    /**
+     * Versão não bloqueante de {@link #registrar}: com a fila cheia, tenta de novo a cada poucos
+     * milissegundos até {@code offer-timeout-ms} sem ocupar thread, e só então grava de forma síncrona
+     * numa thread de I/O. O {@link Mono} completa quando o resultado foi aceito ou gravado, o que
+     * segura a resposta da requisição enquanto o banco não dá vazão (backpressure).
+     *
+     * @param resultado Resultado da análise ainda não persistido
+     */
+    public Mono<Void> registrarReativo(AnaliseResultado resultado) {
+        return Mono.defer(() -> ofertar(resultado, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs)));
+    }
+
+    private Mono<Void> ofertar(AnaliseResultado resultado, long prazo) {
+        if (running) {
+            emTransito.incrementAndGet();
+            if (queue.offer(new Pendente(resultado, null))) {
+                return Mono.empty();
+            }
+            emTransito.decrementAndGet();
+            if (System.nanoTime() < prazo) {
+                return Mono.delay(ESPERA_FILA_CHEIA).then(Mono.defer(() -> ofertar(resultado, prazo)));
+            }
+            log.warn("Fila de persistência cheia há {}ms; gravando de forma síncrona", offerTimeoutMs);
+        }
+        return Mono.<Void>fromRunnable(() -> gravarLote(List.of(resultado)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Espera até que os resultados aceitos na fila antes da chamada estejam gravados, para uma leitura
+     * que precisa enxergá-los (read-your-writes). Resultados aceitos depois não atrasam a espera.
+     * Se o writer não alcançar a barreira em {@link #ESPERA_FLUSH}, desiste e registra um aviso.
+     */
+    public void flush() {
+        if (emTransito.get() == 0) {
+            return;
+        }
+        CompletableFuture<Void> barreira = new CompletableFuture<>();
+        long prazo = System.nanoTime() + ESPERA_FLUSH.toNanos();
+        try {
+            if (running && queue.offer(new Pendente(null, barreira), ESPERA_FLUSH.toMillis(), TimeUnit.MILLISECONDS)) {
+                barreira.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Flush da fila de persistência não concluído em {}ms", ESPERA_FLUSH.toMillis());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Grava um lote imediatamente, sem passar pela fila, executando {@code naMesmaTransacao}
+     * no mesmo commit (ex.: o checkpoint de um job). Falhas são propagadas para quem chamou.
+     *
+     * @param lote             Resultados a gravar
+     * @param naMesmaTransacao Gravações adicionais que devem ser confirmadas junto com o lote
+     */
+    public void gravarAgora(List<AnaliseResultado> lote, Runnable naMesmaTransacao) {
+        statsAccumulator.registrarGravacao(lote,
+                () -> medirGravacao("job", lote.size(), () -> transactionTemplate.executeWithoutResult(status -> {
+                    analiseRepository.saveAll(lote);
+                    rollupService.acumular(lote);
+                    naMesmaTransacao.run();
+                })));
+    }
+
+    public int pendentes() {
+        return emTransito.get();
+    }
+
+    private void writeLoop() {
+        List<Pendente> pendentes = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pendente primeiro = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                pendentes.add(primeiro);
+                queue.drainTo(pendentes, batchSize - 1);
+                gravar(pendentes);
+                pendentes.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Grava os resultados retirados da fila e, depois do commit, libera as barreiras retiradas junto.
+     */
+    private void gravar(List<Pendente> pendentes) {
+        List<AnaliseResultado> lote = new ArrayList<>(pendentes.size());
+        for (Pendente pendente : pendentes) {
+            if (pendente.resultado() != null) {
+                lote.add(pendente.resultado());
+            }
+        }
+        try {
+            if (!lote.isEmpty()) {
+                gravarLote(lote);
+            }
+        } finally {
+            emTransito.addAndGet(-lote.size());
+            for (Pendente pendente : pendentes) {
+                if (pendente.barreira() != null) {
+                    pendente.barreira().complete(null);
+                }
+            }
+        }
+    }
+
+    private void gravarLote(List<AnaliseResultado> lote) {
+        try {
+            statsAccumulator.registrarGravacao(lote,
+                    () -> medirGravacao("batch", lote.size(), () -> transactionTemplate.executeWithoutResult(status -> {
+                        analiseRepository.saveAll(lote);
+                        rollupService.acumular(lote);
+                    })));
+            log.debug("Lote de {} resultados persistido", lote.size());
+        } catch (RuntimeException e) {
+            log.error("Falha ao persistir lote de {} resultados; gravando item a item: {}", lote.size(), e.getMessage());
+            gravarIndividualmente(lote);
+        }
+    }
+
+    private void gravarIndividualmente(List<AnaliseResultado> lote) {
+        for (AnaliseResultado resultado : lote) {
+            try {
+                resultado.setId(null);
+                statsAccumulator.registrarGravacao(List.of(resultado),
+                        () -> medirGravacao("single", 1, () -> transactionTemplate.executeWithoutResult(status -> {
+                            analiseRepository.save(resultado);
+                            rollupService.acumular(List.of(resultado));
+                        })));
+            } catch (RuntimeException e) {
+                log.error("Resultado descartado (texto com {} caracteres): {}",
+                        resultado.getTextoOriginal() != null ? resultado.getTextoOriginal().length() : 0,
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void medirGravacao(String modo, int tamanho, Runnable gravacao) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sucesso = false;
+        try {
+            gravacao.run();
+            sucesso = true;
+        } finally {
+            sample.stop(Timer.builder("sentiment.db.write")
+                    .description("Latência da transação de gravação dos resultados (inclui rollups)")
+                    .tag("mode", modo)
+                    .tag("outcome", MetricTags.outcome(sucesso))
+                    .tag("batch_size", MetricTags.faixaTamanho(tamanho))
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Se o writer não terminou a tempo, o restante é gravado nesta thread
+        List<Pendente> pendentes = new ArrayList<>(batchSize);
+        while (queue.drainTo(pendentes, batchSize) > 0) {
+            gravar(pendentes);
+            pendentes.clear();
+        }
+        log.info("Fila de persistência drenada no encerramento");
+    }
+}
@@ -0,0 +1,359 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.entity.BatchJob;
+import com.sentimentapi.domain.entity.BatchJobItem;
+import com.sentimentapi.domain.enums.StatusJob;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.JobResponse;
+import com.sentimentapi.dto.response.JobResultsResponse;
+import com.sentimentapi.repository.BatchJobItemRepository;
+import com.sentimentapi.repository.BatchJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Jobs de análise em lote processados em segundo plano.
+ * <p>
+ * Os textos do job são gravados na criação. Um pool limitado ({@code sentiment.jobs.workers})
+ * processa os itens em trechos de {@code sentiment.jobs.chunk-size}; cada trecho grava os
+ * resultados, os itens e o progresso do job numa única transação, de modo que o progresso
+ * persistido é sempre um ponto de retomada válido. Jobs pendentes, ou em andamento sem progresso
+ * há mais de {@code sentiment.jobs.stale-after-ms} (ex.: a aplicação foi reiniciada), são
+ * assumidos periodicamente e continuam da posição em que pararam.
+ */
+@Service
+@Slf4j
+public class BatchJobService {
+
+    static final String ORIGEM = "JOB";
+    private static final int MAX_ERRO = 500;
+    private static final int MAX_PAGINA = 1000;
+
+    private final BatchJobRepository jobRepository;
+    private final BatchJobItemRepository itemRepository;
+    private final SentimentService sentimentService;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor jobExecutor;
+    private final Executor batchExecutor;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final Semaphore vagas;
+    private final Set<String> emExecucao = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+
+    public BatchJobService(
+            BatchJobRepository jobRepository,
+            BatchJobItemRepository itemRepository,
+            SentimentService sentimentService,
+            AnaliseWriteBehindQueue writeBehindQueue,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("jobExecutor") Executor jobExecutor,
+            @Qualifier("batchExecutor") Executor batchExecutor,
+            @Value("${sentiment.jobs.workers:2}") int workers,
+            @Value("${sentiment.jobs.chunk-size:50}") int chunkSize,
+            @Value("${sentiment.jobs.stale-after-ms:120000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.sentimentService = sentimentService;
+        this.writeBehindQueue = writeBehindQueue;
+        this.transactionTemplate = transactionTemplate;
+        this.jobExecutor = jobExecutor;
+        this.batchExecutor = batchExecutor;
+        this.chunkSize = chunkSize;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.vagas = new Semaphore(workers);
+    }
+
+    /**
+     * Cria um job com os textos informados e o coloca na fila de processamento.
+     *
+     * @param textos Textos a analisar
+     * @return Situação inicial do job
+     */
+    public JobResponse criar(List<SentimentRequest> textos) {
+        LocalDateTime agora = LocalDateTime.now();
+        BatchJob job = BatchJob.builder()
+                .id(UUID.randomUUID().toString())
+                .status(StatusJob.PENDENTE)
+                .total(textos.size())
+                .criadoEm(agora)
+                .atualizadoEm(agora)
+                .build();
+
+        List<BatchJobItem> itens = new ArrayList<>(textos.size());
+        for (int i = 0; i < textos.size(); i++) {
+            itens.add(BatchJobItem.builder()
+                    .jobId(job.getId())
+                    .posicao(i)
+                    .texto(textos.get(i).getText())
+                    .build());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jobRepository.save(job);
+            itemRepository.saveAll(itens);
+        });
+        log.info("Job {} criado com {} textos", job.getId(), textos.size());
+
+        despachar();
+        return paraResposta(job);
+    }
+
+    /**
+     * Situação e progresso de um job.
+     */
+    public Optional<JobResponse> consultar(String jobId) {
+        return jobRepository.findById(jobId).map(this::paraResposta);
+    }
+
+    /**
+     * Página de resultados já processados, com posição maior que {@code apos}.
+     *
+     * @param jobId  ID do job
+     * @param apos   Cursor: posição do último item da página anterior (-1 para a primeira)
+     * @param limite Tamanho máximo da página
+     */
+    public Optional<JobResultsResponse> resultados(String jobId, int apos, int limite) {
+        return jobRepository.findById(jobId).map(job -> {
+            List<BatchJobItem> itens = itemRepository.findByJobIdAndPosicaoGreaterThanAndPrevisaoIsNotNullOrderByPosicaoAsc(
+                    jobId, apos, PageRequest.ofSize(Math.max(1, Math.min(limite, MAX_PAGINA))));
+
+            List<JobResultsResponse.JobItemResponse> resultados = itens.stream()
+                    .map(item -> JobResultsResponse.JobItemResponse.builder()
+                            .posicao(item.getPosicao())
+                            .texto(item.getTexto())
+                            .previsao(item.getPrevisao())
+                            .probabilidade(item.getProbabilidade())
+                            .erro(item.getErro())
+                            .build())
+                    .toList();
+
+            return JobResultsResponse.builder()
+                    .jobId(jobId)
+                    .status(job.getStatus().name())
+                    .resultados(resultados)
+                    .proximoCursor(itens.isEmpty() ? apos : itens.get(itens.size() - 1).getPosicao())
+                    .build();
+        });
+    }
+
+    /**
+     * Assume jobs disponíveis enquanto houver workers livres.
+     * Executado na criação de cada job e periodicamente, o que também retoma jobs interrompidos.
+     */
+    @Scheduled(
+            initialDelayString = "${sentiment.jobs.poll-interval-ms:5000}",
+            fixedDelayString = "${sentiment.jobs.poll-interval-ms:5000}")
+    public synchronized void despachar() {
+        if (!running || vagas.availablePermits() == 0) {
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<BatchJob> disponiveis = jobRepository.buscarDisponiveis(
+                agora.minus(staleAfter), PageRequest.ofSize(vagas.availablePermits() + emExecucao.size()));
+
+        for (BatchJob job : disponiveis) {
+            if (emExecucao.contains(job.getId())) {
+                continue;
+            }
+            if (!vagas.tryAcquire()) {
+                return;
+            }
+            Integer assumido = transactionTemplate.execute(
+                    status -> jobRepository.assumir(job.getId(), job.getVersao(), agora));
+            if (assumido == null || assumido == 0) {
+                vagas.release();
+                continue;
+            }
+
+            if (job.getStatus() == StatusJob.EM_ANDAMENTO) {
+                log.info("Retomando job {} a partir do item {}", job.getId(), job.getProcessados());
+            }
+            long versao = job.getVersao() + 1;
+            emExecucao.add(job.getId());
+            try {
+                jobExecutor.execute(() -> {
+                    try {
+                        executar(job.getId(), versao);
+                    } finally {
+                        emExecucao.remove(job.getId());
+                        vagas.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Continua EM_ANDAMENTO e será retomado quando for considerado parado
+                emExecucao.remove(job.getId());
+                vagas.release();
+                log.warn("Job {} não pôde ser iniciado: {}", job.getId(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void executar(String jobId, long versao) {
+        long inicio = System.currentTimeMillis();
+        try {
+            BatchJob job = jobRepository.findById(jobId).orElseThrow();
+            int posicao = job.getProcessados();
+
+            while (running) {
+                List<BatchJobItem> itens = itemRepository.findByJobIdAndPosicaoGreaterThanEqualOrderByPosicaoAsc(
+                        jobId, posicao, PageRequest.ofSize(chunkSize));
+                if (itens.isEmpty()) {
+                    Integer encerrado = transactionTemplate.execute(status ->
+                            jobRepository.encerrar(jobId, versao, StatusJob.CONCLUIDO, null, LocalDateTime.now()));
+                    if (encerrado == null || encerrado == 0) {
+                        throw new JobAssumidoPorOutraInstanciaException();
+                    }
+                    log.info("Job {} concluído em {}ms", jobId, System.currentTimeMillis() - inicio);
+                    return;
+                }
+                processarTrecho(jobId, versao, itens);
+                posicao += itens.size();
+            }
+            log.info("Job {} interrompido no item {}; será retomado", jobId, posicao);
+        } catch (JobAssumidoPorOutraInstanciaException e) {
+            log.warn("Job {} foi assumido por outra instância; abandonando", jobId);
+        } catch (RuntimeException e) {
+            log.error("Job {} falhou: {}", jobId, e.getMessage(), e);
+            Integer encerrado = transactionTemplate.execute(status ->
+                    jobRepository.encerrar(jobId, versao, StatusJob.FALHOU, truncar(e.getMessage()), LocalDateTime.now()));
+            if (encerrado == null || encerrado == 0) {
+                log.warn("Job {} foi assumido por outra instância; a falha não foi registrada", jobId);
+            }
+        }
+    }
+
+    /**
+     * Classifica um trecho em paralelo e grava resultados, itens e progresso no mesmo commit.
+     */
+    private void processarTrecho(String jobId, long versao, List<BatchJobItem> itens) {
+        List<CompletableFuture<AnaliseResultado>> futuros = itens.stream()
+                .map(item -> CompletableFuture.supplyAsync(
+                        () -> sentimentService.classificar(item.getTexto(), ORIGEM, jobId), batchExecutor))
+                .toList();
+
+        List<AnaliseResultado> resultados = new ArrayList<>(itens.size());
+        int falhas = 0;
+        for (int i = 0; i < itens.size(); i++) {
+            BatchJobItem item = itens.get(i);
+            try {
+                AnaliseResultado resultado = futuros.get(i).join();
+                item.setPrevisao(resultado.getSentimento().getLabel());
+                item.setProbabilidade(resultado.getProbabilidade());
+                resultados.add(resultado);
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause() != null ? e.getCause() : e;
+                log.error("Erro ao processar item {} do job {}: {}", item.getPosicao(), jobId, causa.getMessage());
+                item.setPrevisao("ERRO");
+                item.setProbabilidade(0.0);
+                item.setErro(truncar(causa.getMessage()));
+                falhas++;
+            }
+        }
+
+        int totalFalhas = falhas;
+        writeBehindQueue.gravarAgora(resultados, () -> {
+            // Uma consulta para carregar os itens; as alterações saem em batch update no commit
+            Map<Long, BatchJobItem> processados = itens.stream()
+                    .collect(Collectors.toMap(BatchJobItem::getId, Function.identity()));
+            for (BatchJobItem gerenciado : itemRepository.findAllById(processados.keySet())) {
+                BatchJobItem processado = processados.get(gerenciado.getId());
+                gerenciado.setPrevisao(processado.getPrevisao());
+                gerenciado.setProbabilidade(processado.getProbabilidade());
+                gerenciado.setErro(processado.getErro());
+            }
+            if (jobRepository.registrarProgresso(jobId, versao, itens.size(), totalFalhas, LocalDateTime.now()) == 0) {
+                throw new JobAssumidoPorOutraInstanciaException();
+            }
+        });
+    }
+
+    private JobResponse paraResposta(BatchJob job) {
+        Double itensPorSegundo = null;
+        Long etaSegundos = null;
+        if (job.getIniciadoEm() != null && job.getProcessados() > 0) {
+            LocalDateTime referencia = job.getConcluidoEm() != null ? job.getConcluidoEm() : job.getAtualizadoEm();
+            long decorridoMs = Math.max(1, Duration.between(job.getIniciadoEm(), referencia).toMillis());
+            itensPorSegundo = job.getProcessados() * 1000.0 / decorridoMs;
+            if (job.getStatus() == StatusJob.EM_ANDAMENTO) {
+                etaSegundos = Math.round((job.getTotal() - job.getProcessados()) / itensPorSegundo);
+            }
+        }
+
+        return JobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .total(job.getTotal())
+                .processados(job.getProcessados())
+                .falhas(job.getFalhas())
+                .percentual(job.getTotal() == 0 ? 0.0
+                        : Math.round((double) job.getProcessados() / job.getTotal() * 10000.0) / 100.0)
+                .itensPorSegundo(itensPorSegundo)
+                .etaSegundos(etaSegundos)
+                .erro(job.getErro())
+                .criadoEm(job.getCriadoEm())
+                .iniciadoEm(job.getIniciadoEm())
+                .concluidoEm(job.getConcluidoEm())
+                .build();
+    }
+
+    private static String truncar(String mensagem) {
+        if (mensagem == null) {
+            return null;
+        }
+        return mensagem.length() <= MAX_ERRO ? mensagem : mensagem.substring(0, MAX_ERRO);
+    }
+
+    /**
+     * Para de assumir trechos e espera os jobs em execução gravarem o trecho atual.
+     * Os jobs continuam EM_ANDAMENTO e são retomados após o reinício.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!emExecucao.isEmpty() && System.nanoTime() < limite) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * O job passou a ser processado por outra instância (a versão mudou).
+     */
+    private static class JobAssumidoPorOutraInstanciaException extends RuntimeException {
+    }
+}
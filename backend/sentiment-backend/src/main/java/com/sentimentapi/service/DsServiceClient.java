@@ -1,31 +1,62 @@
 package com.sentimentapi.service;
 
+import com.sentimentapi.dto.DsBatchServiceResponse;
 import com.sentimentapi.dto.DsServiceResponse;
 import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.balancer.DsReplica;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import com.sentimentapi.service.resilience.CancelamentoHttp;
+import com.sentimentapi.service.resilience.DsResilience;
+import com.sentimentapi.service.resilience.RequestHedger;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Cliente para comunicação com o microserviço de Data Science (FastAPI).
+ * As chamadas de previsão passam pela camada de resiliência ({@link DsResilience}).
+ * Cada chamada HTTP é medida no timer {@code ds.client.requests} (tags endpoint, outcome e batch_size),
+ * sem incluir a espera por vaga nem as rejeições da camada de resiliência.
+ * A réplica de cada chamada é escolhida pelo {@link DsReplicaBalancer}; um retry escolhe de novo
+ * e tende a cair em outra réplica. Em {@code predict}, o {@link RequestHedger} pode enviar uma cópia
+ * a outra réplica quando a resposta demora. O lote pode ir em formato binário e/ou comprimido
+ * ({@link BatchWireCodec}), negociado pelos cabeçalhos.
  */
 @Service
 @Slf4j
-public class DsServiceClient {
+public class DsServiceClient implements SentimentPredictor {
 
     private final RestTemplate restTemplate;
-    private final String dsServiceUrl;
+    private final DsReplicaBalancer balancer;
+    private final BatchWireCodec wireCodec;
+    private final DsResilience resilience;
+    private final RequestHedger hedger;
+    private final MeterRegistry meterRegistry;
 
     public DsServiceClient(
             RestTemplate restTemplate,
-            @Value("${ds.service.url:http://localhost:8000}") String dsServiceUrl) {
+            DsReplicaBalancer balancer,
+            BatchWireCodec wireCodec,
+            DsResilience resilience,
+            RequestHedger hedger,
+            MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
-        this.dsServiceUrl = dsServiceUrl;
+        this.balancer = balancer;
+        this.wireCodec = wireCodec;
+        this.resilience = resilience;
+        this.hedger = hedger;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -33,10 +64,20 @@ public class DsServiceClient {
      *
      * @param text Texto a ser analisado
      * @return Resposta com label e probabilidade
-     * @throws DsServiceException Se houver erro na comunicação
+     * @throws DsServiceException Se houver erro na comunicação ou a chamada for rejeitada pela camada de resiliência
      */
+    @Override
     public DsServiceResponse predict(String text) {
-        String url = dsServiceUrl + "/predict";
+        return resilience.executar(() -> medir("predict", 1, () -> {
+            DsReplica principal = balancer.escolher();
+            return hedger.executar(
+                    () -> balancer.executar(principal, replica -> chamarPredict(replica, text)),
+                    () -> balancer.executar(balancer.escolher(principal), replica -> chamarPredict(replica, text)));
+        }));
+    }
+
+    private DsServiceResponse chamarPredict(String replica, String text) {
+        String url = replica + "/predict";
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -62,25 +103,133 @@ public class DsServiceClient {
             throw new DsServiceException("Resposta inválida do DS Service: " + response.getStatusCode());
 
         } catch (RestClientException e) {
-            log.error("Erro ao comunicar com DS Service: {}", e.getMessage());
+            if (CancelamentoHttp.canceladoNaThreadAtual()) {
+                log.debug("Chamada ao DS Service abortada pelo hedge: {}", e.getMessage());
+            } else {
+                log.error("Erro ao comunicar com DS Service: {}", e.getMessage());
+            }
             throw new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Verifica se o DS Service está disponível.
+     * Envia vários textos numa única chamada ao endpoint de lote do DS Service.
      *
-     * @return true se o serviço está saudável
+     * @param texts Textos a serem analisados
+     * @return Resultados na mesma ordem dos textos (itens inválidos trazem {@code error})
+     * @throws DsServiceException Se houver erro na comunicação, a resposta vier incompleta
+     *                            ou a chamada for rejeitada pela camada de resiliência
      */
-    public boolean isHealthy() {
-        String url = dsServiceUrl + "/health";
+    @Override
+    public DsBatchServiceResponse predictBatch(List<String> texts) {
+        return resilience.executar(() -> medir("predict_batch", texts.size(),
+                () -> balancer.executar(replica -> chamarPredictBatch(replica, texts))));
+    }
+
+    private DsBatchServiceResponse chamarPredictBatch(String replica, List<String> texts) {
+        if (!wireCodec.jsonSimples()) {
+            return chamarPredictBatchNegociado(replica, texts);
+        }
+        String url = replica + "/predict/batch";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<Map<String, List<String>>> request = new HttpEntity<>(Map.of("texts", texts), headers);
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (Exception e) {
-            log.warn("DS Service não está disponível: {}", e.getMessage());
-            return false;
+            log.debug("Enviando lote de {} textos para DS Service: {}", texts.size(), url);
+
+            ResponseEntity<DsBatchServiceResponse> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    request,
+                    DsBatchServiceResponse.class
+            );
+
+            DsBatchServiceResponse body = response.getBody();
+            if (response.getStatusCode().is2xxSuccessful() && body != null
+                    && body.getResults() != null && body.getResults().size() == texts.size()) {
+                return body;
+            }
+
+            throw new DsServiceException("Resposta de lote inválida do DS Service: " + response.getStatusCode());
+
+        } catch (RestClientException e) {
+            log.error("Erro ao comunicar com DS Service (lote): {}", e.getMessage());
+            throw new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lote no formato configurado (binário e/ou gzip). Se o DS Service recusar o formato, esta e as
+     * próximas chamadas vão em JSON puro.
+     */
+    private DsBatchServiceResponse chamarPredictBatchNegociado(String replica, List<String> texts) {
+        String url = replica + "/predict/batch";
+        try {
+            log.debug("Enviando lote de {} textos para DS Service ({}): {}", texts.size(),
+                    wireCodec.binario() ? BatchWireCodec.CONTENT_TYPE : "json", url);
+
+            DsBatchServiceResponse body = restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    request -> wireCodec.escrever(texts, request),
+                    wireCodec::ler
+            );
+
+            if (body != null && body.getResults() != null && body.getResults().size() == texts.size()) {
+                return body;
+            }
+            throw new DsServiceException("Resposta de lote inválida do DS Service");
+
+        } catch (HttpClientErrorException e) {
+            if (BatchWireCodec.formatoRecusado(e.getStatusCode().value(), e.getResponseBodyAsByteArray())) {
+                wireCodec.rebaixar();
+                return chamarPredictBatch(replica, texts);
+            }
+            log.error("Erro ao comunicar com DS Service (lote): {}", e.getMessage());
+            throw new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
+        } catch (RestClientException e) {
+            log.error("Erro ao comunicar com DS Service (lote): {}", e.getMessage());
+            throw new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T medir(String endpoint, int tamanho, Supplier<T> chamada) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sucesso = false;
+        try {
+            T resposta = chamada.get();
+            sucesso = true;
+            return resposta;
+        } finally {
+            sample.stop(Timer.builder("ds.client.requests")
+                    .description("Latência das chamadas HTTP ao DS Service")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", MetricTags.outcome(sucesso))
+                    .tag("batch_size", MetricTags.faixaTamanho(tamanho))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Verifica se o DS Service está disponível.
+     *
+     * @return true se ao menos uma réplica está saudável
+     */
+    public boolean isHealthy() {
+        for (DsReplica replica : balancer.replicas()) {
+            String url = replica.url() + "/health";
+            try {
+                ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    return true;
+                }
+            } catch (Exception e) {
+                log.warn("DS Service não está disponível em {}: {}", replica.url(), e.getMessage());
+            }
         }
+        return false;
     }
 }
@@ -0,0 +1,43 @@
+package com.sentimentapi.service;
+
+/**
+ * Valores de tags das métricas de latência, com cardinalidade limitada.
+ */
+public final class MetricTags {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private MetricTags() {
+    }
+
+    public static String outcome(boolean sucesso) {
+        return sucesso ? SUCCESS : ERROR;
+    }
+
+    /**
+     * Faixa do tamanho de um lote (o tamanho exato geraria uma série por valor).
+     */
+    public static String faixaTamanho(int tamanho) {
+        if (tamanho <= 1) {
+            return "1";
+        }
+        if (tamanho <= 10) {
+            return "2-10";
+        }
+        if (tamanho <= 50) {
+            return "11-50";
+        }
+        if (tamanho <= 200) {
+            return "51-200";
+        }
+        if (tamanho <= 1000) {
+            return "201-1000";
+        }
+        return "1000+";
+    }
+
+    public static String origem(String origem) {
+        return origem != null ? origem : "DESCONHECIDA";
+    }
+}
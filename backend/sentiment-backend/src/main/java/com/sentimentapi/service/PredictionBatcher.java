@@ -0,0 +1,243 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agrupa chamadas concorrentes de texto único em lotes para o DS Service (micro-batching).
+ * <p>
+ * Os textos entram numa fila; uma thread despachante junta até {@code max-batch-size} itens
+ * ou espera no máximo {@code linger-ms} desde o primeiro item, e envia o lote em uma única
+ * chamada a {@code /predict/batch}. Cada chamador recebe o seu próprio resultado ou erro.
+ * Lotes que já chegam prontos ({@link #predictBatch(List)}) vão direto ao DS Service.
+ * <p>
+ * Ao encerrar, todo texto ainda não enviado recebe erro: nenhum chamador fica esperando para sempre.
+ */
+@Service
+@Slf4j
+public class PredictionBatcher implements SentimentPredictor {
+
+    private final DsServiceClient dsServiceClient;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final long readTimeoutMs;
+    private final Semaphore inFlightBatches;
+    private final BlockingQueue<PendingPrediction> queue;
+    private final ExecutorService flushExecutor;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public PredictionBatcher(
+            DsServiceClient dsServiceClient,
+            @Value("${ds.batching.enabled:false}") boolean enabled,
+            @Value("${ds.batching.max-batch-size:32}") int maxBatchSize,
+            @Value("${ds.batching.linger-ms:2}") long lingerMs,
+            @Value("${ds.batching.max-in-flight-batches:8}") int maxInFlightBatches,
+            @Value("${ds.batching.queue-capacity:10000}") int queueCapacity,
+            @Value("${ds.service.http.read-timeout-ms:30000}") long readTimeoutMs) {
+        this.dsServiceClient = dsServiceClient;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.readTimeoutMs = readTimeoutMs;
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flushExecutor = Executors.newFixedThreadPool(maxInFlightBatches, daemonThreads("ds-batch-flush-"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = daemonThreads("ds-batch-dispatcher-").newThread(this::dispatchLoop);
+        dispatcher.start();
+        log.info("Micro-batching do DS Service ativo: maxBatchSize={}, lingerMs={}",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(lingerNanos));
+    }
+
+    /**
+     * Enfileira um texto para o próximo lote.
+     *
+     * @param text Texto a ser analisado
+     * @return Futuro com a resposta do DS Service para este texto
+     */
+    public CompletableFuture<DsServiceResponse> submit(String text) {
+        PendingPrediction pending = new PendingPrediction(text, new CompletableFuture<>());
+        if (!running) {
+            pending.future().completeExceptionally(new DsServiceException("Micro-batching do DS Service não está ativo"));
+        } else if (!queue.offer(pending)) {
+            pending.future().completeExceptionally(new DsServiceException("Fila de micro-batching do DS Service cheia"));
+        } else if (!running) {
+            // O stop() pode ter esvaziado a fila entre a checagem acima e o offer
+            abandonQueue();
+        }
+        return pending.future();
+    }
+
+    /**
+     * Versão bloqueante de {@link #submit(String)}: aguarda o lote e devolve o resultado do texto.
+     * A espera é limitada pelo timeout de leitura do DS Service.
+     *
+     * @throws DsServiceException Se o lote ou o item falhar, ou se o resultado não chegar a tempo
+     */
+    @Override
+    public DsServiceResponse predict(String text) {
+        try {
+            return submit(text).orTimeout(readTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DsServiceException dsException) {
+                throw dsException;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new DsServiceException("Micro-batching sem resposta em " + readTimeoutMs + "ms", e.getCause());
+            }
+            throw new DsServiceException("Falha no micro-batching: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public DsBatchServiceResponse predictBatch(List<String> texts) {
+        return dsServiceClient.predictBatch(texts);
+    }
+
+    private void dispatchLoop() {
+        try {
+            dispatch();
+        } finally {
+            // Textos que entraram depois do último lote montado
+            abandonQueue();
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            List<PendingPrediction> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPrediction next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                // Com todos os lotes em voo ocupados, a fila continua acumulando e o próximo lote sai maior
+                inFlightBatches.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(batch);
+                return;
+            }
+
+            try {
+                flushExecutor.execute(() -> {
+                    try {
+                        flush(batch);
+                    } finally {
+                        inFlightBatches.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor já encerrado pelo stop()
+                inFlightBatches.release();
+                abandon(batch);
+            }
+        }
+    }
+
+    private void flush(List<PendingPrediction> batch) {
+        List<String> texts = batch.stream().map(PendingPrediction::text).toList();
+        DsBatchServiceResponse response;
+        try {
+            response = dsServiceClient.predictBatch(texts);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+
+        log.debug("Lote de {} textos enviado ao DS Service", batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            DsBatchServiceResponse.Item item = response.getResults().get(i);
+            CompletableFuture<DsServiceResponse> future = batch.get(i).future();
+            if (item.getError() != null || item.getLabel() == null) {
+                future.completeExceptionally(new DsServiceException("Erro do DS Service para o item: " + item.getError()));
+            } else {
+                future.complete(new DsServiceResponse(item.getLabel(), item.getProbability(), response.getModelVersion()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushExecutor.shutdown();
+        abandonQueue();
+    }
+
+    private void abandonQueue() {
+        List<PendingPrediction> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandon(abandoned);
+    }
+
+    private static void abandon(List<PendingPrediction> pendings) {
+        pendings.forEach(pending -> pending.future()
+                .completeExceptionally(new DsServiceException("Aplicação encerrando; predição não enviada")));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PendingPrediction(String text, CompletableFuture<DsServiceResponse> future) {
+    }
+}
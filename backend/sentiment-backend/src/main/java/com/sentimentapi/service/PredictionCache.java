@@ -0,0 +1,200 @@
+package com.sentimentapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.service.health.ModelVersionChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cache de previsões do DS Service, indexado pelo hash do texto normalizado e pela versão do modelo.
+ * <p>
+ * Nível 1: cache em memória (Caffeine, despejo W-TinyLFU) limitado por peso e TTL.
+ * Nível 2 (opcional): análises já gravadas com o mesmo hash e a mesma versão do modelo.
+ * As entradas são guardadas sob a versão que veio na resposta, e as consultas usam a versão ativa.
+ * A versão ativa só muda pelo {@code /health} lido pelo
+ * {@link com.sentimentapi.service.health.DependencyHealthProber} (quando todas as réplicas concordam),
+ * e aí o cache é invalidado. Respostas com versões misturadas (troca gradual das réplicas, fallback
+ * para o modelo local) não limpam o cache.
+ */
+@Service
+@Slf4j
+public class PredictionCache {
+
+    /** Bytes aproximados de uma entrada além da chave e do label (objetos e referências). */
+    private static final int OVERHEAD_ENTRADA_BYTES = 96;
+    private static final String VERSAO_DESCONHECIDA = "?";
+
+    private final AnaliseResultadoRepository analiseRepository;
+    private final boolean enabled;
+    private final boolean dbTierEnabled;
+    private final Duration ttl;
+    private final Cache<String, DsServiceResponse> cache;
+    private final AtomicReference<String> versaoModelo = new AtomicReference<>();
+    private final Counter dbHits;
+    private final Counter dbMisses;
+
+    public PredictionCache(
+            AnaliseResultadoRepository analiseRepository,
+            MeterRegistry meterRegistry,
+            @Value("${ds.cache.enabled:true}") boolean enabled,
+            @Value("${ds.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+            @Value("${ds.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${ds.cache.db-tier.enabled:false}") boolean dbTierEnabled) {
+        this.analiseRepository = analiseRepository;
+        this.enabled = enabled;
+        this.dbTierEnabled = dbTierEnabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String chave, DsServiceResponse resposta) -> OVERHEAD_ENTRADA_BYTES
+                        + chave.length() * 2
+                        + (resposta.getLabel() != null ? resposta.getLabel().length() * 2 : 0))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ds.prediction.cache");
+        this.dbHits = meterRegistry.counter("ds.prediction.cache.db", "result", "hit");
+        this.dbMisses = meterRegistry.counter("ds.prediction.cache.db", "result", "miss");
+    }
+
+    /**
+     * Devolve a previsão em cache para o texto ou chama o carregador e guarda o resultado.
+     *
+     * @param textoHash  Hash do texto normalizado ({@link TextoNormalizer#hash(String)})
+     * @param carregador Chamada ao DS Service em caso de falta
+     */
+    public DsServiceResponse obter(String textoHash, Supplier<DsServiceResponse> carregador) {
+        if (!enabled) {
+            return carregador.get();
+        }
+
+        String versao = versaoModelo.get();
+        String chave = chave(versao, textoHash);
+        DsServiceResponse emCache = cache.getIfPresent(chave);
+        if (emCache != null) {
+            return emCache;
+        }
+
+        Optional<DsServiceResponse> doBanco = buscarNoBanco(versao, textoHash);
+        if (doBanco.isPresent()) {
+            cache.put(chave, doBanco.get());
+            return doBanco.get();
+        }
+
+        // Carrega fora do cache: uma chamada HTTP não deve segurar locks internos do Caffeine
+        DsServiceResponse resposta = carregador.get();
+        guardar(textoHash, resposta);
+        return resposta;
+    }
+
+    /**
+     * Consulta apenas o nível em memória, sem bloquear (API v2).
+     *
+     * @param textoHash Hash do texto normalizado
+     * @return Previsão em cache ou vazio
+     */
+    public Optional<DsServiceResponse> consultar(String textoHash) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(chave(versaoModelo.get(), textoHash)));
+    }
+
+    /**
+     * Guarda uma previsão obtida fora de {@link #obter}, sob a versão do modelo que a produziu.
+     */
+    public void guardar(String textoHash, DsServiceResponse resposta) {
+        if (!enabled) {
+            return;
+        }
+        if (resposta.getModelVersion() != null) {
+            // Enquanto o /health não informou a versão, adota a primeira vista; trocar, só registrarVersao
+            versaoModelo.compareAndSet(null, resposta.getModelVersion());
+        }
+        cache.put(chave(resposta.getModelVersion(), textoHash), resposta);
+    }
+
+    /**
+     * Informa a versão de modelo ativa no DS Service; invalida o cache se ela mudou.
+     */
+    public void registrarVersao(String versao) {
+        if (versao == null) {
+            return;
+        }
+        String anterior = versaoModelo.getAndSet(versao);
+        if (anterior != null && !Objects.equals(anterior, versao)) {
+            log.info("Versão do modelo mudou de {} para {}; invalidando cache de previsões", anterior, versao);
+            cache.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void aoMudarVersaoModelo(ModelVersionChangedEvent evento) {
+        registrarVersao(evento.atual());
+    }
+
+    /**
+     * Remove todas as entradas do cache em memória.
+     *
+     * @return Quantidade aproximada de entradas removidas
+     */
+    public long limpar() {
+        long removidas = cache.estimatedSize();
+        cache.invalidateAll();
+        cache.cleanUp();
+        log.info("Cache de previsões limpo: {} entradas removidas", removidas);
+        return removidas;
+    }
+
+    /**
+     * Resumo das estatísticas do cache em memória.
+     */
+    public Map<String, Object> estatisticas() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("enabled", enabled);
+        resumo.put("model_version", versaoModelo.get());
+        resumo.put("size", cache.estimatedSize());
+        resumo.put("hits", stats.hitCount());
+        resumo.put("misses", stats.missCount());
+        resumo.put("hit_rate", stats.hitRate());
+        resumo.put("evictions", stats.evictionCount());
+        resumo.put("db_hits", (long) dbHits.count());
+        return resumo;
+    }
+
+    private Optional<DsServiceResponse> buscarNoBanco(String versao, String textoHash) {
+        if (!dbTierEnabled || versao == null) {
+            return Optional.empty();
+        }
+        Optional<DsServiceResponse> encontrado = analiseRepository
+                .findFirstByTextoHashAndModeloVersaoOrderByDataAnaliseDesc(textoHash, versao)
+                .filter(analise -> analise.getDataAnalise().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(analise -> new DsServiceResponse(
+                        analise.getSentimento().getLabel(), analise.getProbabilidade(), analise.getModeloVersao()));
+        (encontrado.isPresent() ? dbHits : dbMisses).increment();
+        return encontrado;
+    }
+
+    private static String chave(String versao, String textoHash) {
+        return (versao != null ? versao : VERSAO_DESCONHECIDA) + ':' + textoHash;
+    }
+}
@@ -0,0 +1,114 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registro de previsões em andamento (single-flight), indexado pelo hash do texto normalizado.
+ * <p>
+ * A primeira requisição de um texto faz a chamada; as que chegam enquanto ela está em voo aguardam
+ * o mesmo futuro em vez de chamar o motor de novo. A entrada sai do registro assim que a chamada
+ * termina, com sucesso ou erro, e a partir daí o {@link PredictionCache} atende os repetidos.
+ * Previsões compartilhadas são contadas em {@code sentiment.dedup{scope=in_flight}}.
+ */
+@Component
+public class PredictionSingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<DsServiceResponse>> emVoo = new ConcurrentHashMap<>();
+    private final Counter compartilhadas;
+
+    public PredictionSingleFlight(MeterRegistry meterRegistry) {
+        this.compartilhadas = Counter.builder("sentiment.dedup")
+                .description("Previsões reaproveitadas de um texto idêntico em vez de uma nova chamada")
+                .tag("scope", "in_flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o carregador ou aguarda a chamada já em voo para o mesmo texto.
+     *
+     * @param textoHash  Hash do texto normalizado ({@link TextoNormalizer#hash(String)})
+     * @param carregador Chamada ao motor de previsão
+     * @throws RuntimeException O mesmo erro da chamada compartilhada
+     */
+    public DsServiceResponse obter(String textoHash, Supplier<DsServiceResponse> carregador) {
+        CompletableFuture<DsServiceResponse> novo = new CompletableFuture<>();
+        CompletableFuture<DsServiceResponse> existente = emVoo.putIfAbsent(textoHash, novo);
+        if (existente != null) {
+            compartilhadas.increment();
+            return aguardar(existente);
+        }
+
+        try {
+            DsServiceResponse resposta = carregador.get();
+            novo.complete(resposta);
+            return resposta;
+        } catch (RuntimeException | Error e) {
+            novo.completeExceptionally(e);
+            throw e;
+        } finally {
+            emVoo.remove(textoHash, novo);
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #obter}: devolve o futuro da chamada em voo para o mesmo texto
+     * ou o da chamada iniciada por {@code carregador}. Compartilha o registro com {@link #obter}.
+     *
+     * @param textoHash  Hash do texto normalizado ({@link TextoNormalizer#hash(String)})
+     * @param carregador Inicia a chamada ao motor de previsão
+     */
+    public CompletableFuture<DsServiceResponse> obterAssincrono(
+            String textoHash, Supplier<CompletableFuture<DsServiceResponse>> carregador) {
+        CompletableFuture<DsServiceResponse> novo = new CompletableFuture<>();
+        CompletableFuture<DsServiceResponse> existente = emVoo.putIfAbsent(textoHash, novo);
+        if (existente != null) {
+            compartilhadas.increment();
+            return existente;
+        }
+
+        CompletableFuture<DsServiceResponse> chamada;
+        try {
+            chamada = carregador.get();
+        } catch (RuntimeException | Error e) {
+            emVoo.remove(textoHash, novo);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+        chamada.whenComplete((resposta, erro) -> {
+            emVoo.remove(textoHash, novo);
+            if (erro != null) {
+                novo.completeExceptionally(erro instanceof CompletionException && erro.getCause() != null
+                        ? erro.getCause() : erro);
+            } else {
+                novo.complete(resposta);
+            }
+        });
+        return novo;
+    }
+
+    public int emAndamento() {
+        return emVoo.size();
+    }
+
+    private static DsServiceResponse aguardar(CompletableFuture<DsServiceResponse> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.predictor.ReactiveSentimentPredictor;
+import com.sentimentapi.service.resilience.DsResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cliente não bloqueante do DS Service, usado pela API v2.
+ * <p>
+ * Mesmos endpoints, DTOs e erros ({@link DsServiceException}) do {@link DsServiceClient}, e o mesmo
+ * estado de resiliência (circuit breaker, limite adaptativo e orçamento de retries) via
+ * {@link DsResilience#executarReativo}. Cada chamada HTTP é medida no timer {@code ds.client.requests}
+ * e vai para a réplica escolhida pelo {@link DsReplicaBalancer} (de novo a cada retry).
+ */
+@Service
+@Slf4j
+public class ReactiveDsServiceClient implements ReactiveSentimentPredictor {
+
+    private final WebClient webClient;
+    private final DsReplicaBalancer balancer;
+    private final DsResilience resilience;
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveDsServiceClient(
+            @Qualifier("dsWebClient") WebClient webClient,
+            DsReplicaBalancer balancer,
+            DsResilience resilience,
+            MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.balancer = balancer;
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Envia texto para análise de sentimento no DS Service.
+     *
+     * @param text Texto a ser analisado
+     * @return Resposta com label e probabilidade, ou erro {@link DsServiceException}
+     */
+    @Override
+    public Mono<DsServiceResponse> predict(String text) {
+        return resilience.executarReativo(() -> medir("predict", 1, balancer.executarReativo(replica -> webClient.post()
+                .uri(replica + "/predict")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("text", text))
+                .retrieve()
+                .bodyToMono(DsServiceResponse.class)
+                .switchIfEmpty(Mono.error(() -> new DsServiceException("Resposta inválida do DS Service: corpo vazio")))
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Erro ao comunicar com DS Service: {}", e.getMessage());
+                    return new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
+                }))));
+    }
+
+    /**
+     * Envia vários textos numa única chamada ao endpoint de lote do DS Service.
+     *
+     * @param texts Textos a serem analisados
+     * @return Resultados na mesma ordem dos textos, ou erro {@link DsServiceException}
+     */
+    public Mono<DsBatchServiceResponse> predictBatch(List<String> texts) {
+        return resilience.executarReativo(() -> medir("predict_batch", texts.size(), balancer.executarReativo(replica -> webClient.post()
+                .uri(replica + "/predict/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("texts", texts))
+                .retrieve()
+                .bodyToMono(DsBatchServiceResponse.class)
+                .filter(body -> body.getResults() != null && body.getResults().size() == texts.size())
+                .switchIfEmpty(Mono.error(() -> new DsServiceException("Resposta de lote inválida do DS Service")))
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Erro ao comunicar com DS Service (lote): {}", e.getMessage());
+                    return new DsServiceException("Falha na comunicação com o serviço de ML: " + e.getMessage(), e);
+                }))));
+    }
+
+    private <T> Mono<T> medir(String endpoint, int tamanho, Mono<T> chamada) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return chamada
+                    .doOnSuccess(resposta -> parar(sample, endpoint, tamanho, true))
+                    .doOnError(e -> parar(sample, endpoint, tamanho, false));
+        });
+    }
+
+    private void parar(Timer.Sample sample, String endpoint, int tamanho, boolean sucesso) {
+        sample.stop(Timer.builder("ds.client.requests")
+                .description("Latência das chamadas HTTP ao DS Service")
+                .tag("endpoint", endpoint)
+                .tag("outcome", MetricTags.outcome(sucesso))
+                .tag("batch_size", MetricTags.faixaTamanho(tamanho))
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,163 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.BatchSentimentResponse;
+import com.sentimentapi.dto.response.SentimentResponse;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
+import com.sentimentapi.service.predictor.ReactiveSentimentPredictor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Análise de sentimento não bloqueante (API v2).
+ * <p>
+ * Mesma sequência da v1 ({@link SentimentService}): léxico, cache em memória, previsão compartilhada
+ * entre requisições simultâneas do mesmo texto e gravação write-behind, com as mesmas métricas e DTOs.
+ * Nenhuma etapa ocupa thread enquanto espera: o DS Service é chamado pelo {@link ReactiveSentimentPredictor}
+ * e a gravação aguarda vaga na fila com {@link AnaliseWriteBehindQueue#registrarReativo}.
+ * O nível do cache no banco ({@code ds.cache.db-tier}) não é consultado aqui, pois a consulta é bloqueante.
+ * <p>
+ * No batch, até {@code sentiment.batch.max-in-flight-per-batch} itens ficam em andamento ao mesmo tempo,
+ * na ordem da requisição; textos repetidos se juntam à previsão já em voo ({@code sentiment.dedup{scope=in_flight}}).
+ */
+@Service
+@Slf4j
+public class ReactiveSentimentService {
+
+    private final ReactiveSentimentPredictor predictor;
+    private final SentimentService sentimentService;
+    private final LexiconPreClassifier preClassifier;
+    private final PredictionCache predictionCache;
+    private final PredictionSingleFlight singleFlight;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final int maxEmVooPorBatch;
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveSentimentService(
+            ReactiveSentimentPredictor predictor,
+            SentimentService sentimentService,
+            LexiconPreClassifier preClassifier,
+            PredictionCache predictionCache,
+            PredictionSingleFlight singleFlight,
+            AnaliseWriteBehindQueue writeBehindQueue,
+            @Value("${sentiment.batch.max-in-flight-per-batch:20}") int maxEmVooPorBatch,
+            MeterRegistry meterRegistry) {
+        this.predictor = predictor;
+        this.sentimentService = sentimentService;
+        this.preClassifier = preClassifier;
+        this.predictionCache = predictionCache;
+        this.singleFlight = singleFlight;
+        this.writeBehindQueue = writeBehindQueue;
+        this.maxEmVooPorBatch = maxEmVooPorBatch;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Analisa o sentimento de um texto.
+     *
+     * @param request Requisição com o texto
+     * @return Resposta com previsão e probabilidade, emitida depois que o resultado entrou na fila de gravação
+     */
+    public Mono<SentimentResponse> analisar(SentimentRequest request) {
+        String texto = request.getText();
+        return classificar(texto, TextoNormalizer.hash(texto), "API", null)
+                .flatMap(resultado -> writeBehindQueue.registrarReativo(resultado).thenReturn(resultado))
+                .map(resultado -> {
+                    log.debug("Análise v2 concluída: sentimento={}, probabilidade={}, tempo={}ms",
+                            resultado.getSentimento(), resultado.getProbabilidade(), resultado.getTempoProcessamentoMs());
+                    return SentimentResponse.builder()
+                            .previsao(resultado.getSentimento().getLabel())
+                            .probabilidade(resultado.getProbabilidade())
+                            .build();
+                });
+    }
+
+    /**
+     * Analisa múltiplos textos em lote; itens que falham voltam com previsão "ERRO", como na v1.
+     *
+     * @param request Requisição com lista de textos
+     * @return Resposta com resultados de todos os textos, na ordem da requisição
+     */
+    public Mono<BatchSentimentResponse> analisarBatch(BatchSentimentRequest request) {
+        return Mono.defer(() -> {
+            long inicio = System.currentTimeMillis();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String batchId = UUID.randomUUID().toString();
+            List<SentimentRequest> textos = request.getTexts();
+
+            return Flux.fromIterable(textos)
+                    .flatMapSequential(item -> analisarItem(item.getText(), batchId), maxEmVooPorBatch)
+                    .collectList()
+                    .map(resultados -> {
+                        long totalTime = System.currentTimeMillis() - inicio;
+                        log.info("Batch v2 concluído: {} itens processados em {}ms", resultados.size(), totalTime);
+                        return BatchSentimentResponse.builder()
+                                .batchId(batchId)
+                                .total(resultados.size())
+                                .resultados(resultados)
+                                .tempoTotalMs(totalTime)
+                                .build();
+                    })
+                    .doOnSuccess(resposta -> sentimentService.registrarLatenciaBatch(sample, true, textos.size()))
+                    .doOnError(e -> sentimentService.registrarLatenciaBatch(sample, false, textos.size()));
+        });
+    }
+
+    private Mono<BatchSentimentResponse.BatchItemResponse> analisarItem(String texto, String batchId) {
+        return Mono.defer(() -> {
+            long inicio = System.currentTimeMillis();
+            return classificar(texto, TextoNormalizer.hash(texto), "BATCH", batchId)
+                    .flatMap(resultado -> writeBehindQueue.registrarReativo(resultado)
+                            .then(Mono.fromSupplier(() -> SentimentService.itemResposta(
+                                    texto, resultado, System.currentTimeMillis() - inicio))))
+                    .onErrorResume(e -> {
+                        log.error("Erro ao processar item do batch: {}", e.getMessage());
+                        return Mono.just(SentimentService.itemComErro(texto, System.currentTimeMillis() - inicio));
+                    });
+        });
+    }
+
+    private Mono<AnaliseResultado> classificar(String texto, String textoHash, String origem, String batchId) {
+        return Mono.defer(() -> {
+            long inicio = System.currentTimeMillis();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Optional<DsServiceResponse> rapida = preClassifier.classificar(texto);
+            String camada = rapida.isPresent() ? LexiconPreClassifier.CAMADA_LEXICO : LexiconPreClassifier.CAMADA_MODELO;
+
+            return rapida.map(Mono::just).orElseGet(() -> prever(texto, textoHash))
+                    .map(previsao -> {
+                        Sentimento sentimento = Sentimento.fromLabel(previsao.getLabel());
+                        sentimentService.registrarLatencia(sample, sentimento, origem, camada);
+                        return SentimentService.montarResultado(texto, textoHash, origem, batchId, previsao,
+                                sentimento, camada, System.currentTimeMillis() - inicio);
+                    })
+                    .doOnError(e -> sentimentService.registrarLatencia(sample, null, origem, camada));
+        });
+    }
+
+    /**
+     * Cache em memória ou previsão compartilhada com as requisições simultâneas do mesmo texto (v1 e v2).
+     * Quem desiste da requisição não cancela a previsão compartilhada.
+     */
+    private Mono<DsServiceResponse> prever(String texto, String textoHash) {
+        return predictionCache.consultar(textoHash)
+                .map(Mono::just)
+                .orElseGet(() -> Mono.fromFuture(() -> singleFlight.obterAssincrono(textoHash,
+                        () -> predictor.predict(texto)
+                                .doOnNext(resposta -> predictionCache.guardar(textoHash, resposta))
+                                .toFuture()), true));
+    }
+}
@@ -7,28 +7,78 @@ import com.sentimentapi.dto.request.BatchSentimentRequest;
 import com.sentimentapi.dto.request.SentimentRequest;
 import com.sentimentapi.dto.response.BatchSentimentResponse;
 import com.sentimentapi.dto.response.SentimentResponse;
-import com.sentimentapi.repository.AnaliseResultadoRepository;
-import lombok.RequiredArgsConstructor;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
 
 /**
  * Serviço principal para análise de sentimento.
- * Integra com o DS Service e persiste os resultados.
+ * Integra com o motor de previsão configurado (DS Service ou modelo local) e persiste os resultados.
+ * Com {@code sentiment.tiered.enabled}, textos óbvios são decididos antes pelo {@link LexiconPreClassifier}.
+ * <p>
+ * Latências publicadas: {@code sentiment.analysis} por texto classificado (tags outcome, sentimento, origem, tier)
+ * e {@code sentiment.analysis.batch} por batch (tags outcome, batch_size). Textos repetidos reaproveitam a
+ * previsão dentro do batch e entre requisições simultâneas ({@code sentiment.dedup}, tag scope).
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SentimentService {
 
-    private final DsServiceClient dsServiceClient;
-    private final AnaliseResultadoRepository analiseRepository;
+    private final SentimentPredictor sentimentPredictor;
+    private final LexiconPreClassifier preClassifier;
+    private final PredictionCache predictionCache;
+    private final PredictionSingleFlight singleFlight;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final Executor batchExecutor;
+    private final boolean batchParalelo;
+    private final int maxEmVooPorBatch;
+    private final MeterRegistry meterRegistry;
+    private final Counter duplicadosNoBatch;
+
+    public SentimentService(
+            SentimentPredictor sentimentPredictor,
+            LexiconPreClassifier preClassifier,
+            PredictionCache predictionCache,
+            PredictionSingleFlight singleFlight,
+            AnaliseWriteBehindQueue writeBehindQueue,
+            @Qualifier("batchExecutor") Executor batchExecutor,
+            @Value("${sentiment.batch.parallel:true}") boolean batchParalelo,
+            @Value("${sentiment.batch.max-in-flight-per-batch:20}") int maxEmVooPorBatch,
+            MeterRegistry meterRegistry) {
+        this.sentimentPredictor = sentimentPredictor;
+        this.preClassifier = preClassifier;
+        this.predictionCache = predictionCache;
+        this.singleFlight = singleFlight;
+        this.writeBehindQueue = writeBehindQueue;
+        this.batchExecutor = batchExecutor;
+        this.batchParalelo = batchParalelo;
+        this.maxEmVooPorBatch = maxEmVooPorBatch;
+        this.meterRegistry = meterRegistry;
+        this.duplicadosNoBatch = Counter.builder("sentiment.dedup")
+                .description("Previsões reaproveitadas de um texto idêntico em vez de uma nova chamada")
+                .tag("scope", "batch")
+                .register(meterRegistry);
+    }
 
     /**
      * Analisa o sentimento de um texto.
@@ -36,7 +86,6 @@ public class SentimentService {
      * @param request Requisição com o texto
      * @return Resposta com previsão e probabilidade
      */
-    @Transactional
     public SentimentResponse analisar(SentimentRequest request) {
         return analisar(request, "API", null);
     }
@@ -49,72 +98,117 @@ public class SentimentService {
      * @param batchId ID do batch (se aplicável)
      * @return Resposta com previsão e probabilidade
      */
-    @Transactional
     public SentimentResponse analisar(SentimentRequest request, String origem, String batchId) {
+        AnaliseResultado resultado = classificar(request.getText(), origem, batchId);
+
+        // Persiste o resultado fora do caminho da requisição (write-behind)
+        writeBehindQueue.registrar(resultado);
+
+        log.info("Análise concluída: sentimento={}, probabilidade={}, tempo={}ms",
+                resultado.getSentimento(), resultado.getProbabilidade(), resultado.getTempoProcessamentoMs());
+
+        // Retorna a resposta no formato do hackathon
+        return SentimentResponse.builder()
+                .previsao(resultado.getSentimento().getLabel())
+                .probabilidade(resultado.getProbabilidade())
+                .build();
+    }
+
+    /**
+     * Classifica um texto (léxico, cache ou motor de previsão) sem persistir o resultado.
+     * Quem chama é responsável pela gravação.
+     *
+     * @param texto   Texto a classificar
+     * @param origem  Origem da requisição
+     * @param batchId ID do batch ou job (se aplicável)
+     * @return Resultado ainda não persistido
+     */
+    public AnaliseResultado classificar(String texto, String origem, String batchId) {
+        return classificar(texto, TextoNormalizer.hash(texto), origem, batchId);
+    }
+
+    private AnaliseResultado classificar(String texto, String textoHash, String origem, String batchId) {
         long startTime = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Sentimento sentimento = null;
+        DsServiceResponse dsResponse;
+        String camada = LexiconPreClassifier.CAMADA_MODELO;
+        try {
+            // Textos óbvios são decididos pelo léxico; os demais consultam o cache e, se preciso, o motor
+            // de previsão, compartilhando a chamada com requisições simultâneas do mesmo texto
+            Optional<DsServiceResponse> rapida = preClassifier.classificar(texto);
+            if (rapida.isPresent()) {
+                dsResponse = rapida.get();
+                camada = LexiconPreClassifier.CAMADA_LEXICO;
+            } else {
+                dsResponse = predictionCache.obter(textoHash,
+                        () -> singleFlight.obter(textoHash, () -> sentimentPredictor.predict(texto)));
+            }
 
-        // Chama o DS Service
-        DsServiceResponse dsResponse = dsServiceClient.predict(request.getText());
+            // Converte o label para o enum
+            sentimento = Sentimento.fromLabel(dsResponse.getLabel());
+        } finally {
+            registrarLatencia(sample, sentimento, origem, camada);
+        }
 
         long processingTime = System.currentTimeMillis() - startTime;
 
-        // Converte o label para o enum
-        Sentimento sentimento = Sentimento.fromLabel(dsResponse.getLabel());
+        return montarResultado(texto, textoHash, origem, batchId, dsResponse, sentimento, camada, processingTime);
+    }
 
-        // Persiste o resultado
-        AnaliseResultado resultado = AnaliseResultado.builder()
-                .textoOriginal(request.getText())
+    /**
+     * Publica a latência de uma classificação em {@code sentiment.analysis}; {@code sentimento} nulo indica falha.
+     * Compartilhado com a API v2 ({@link ReactiveSentimentService}).
+     */
+    void registrarLatencia(Timer.Sample sample, Sentimento sentimento, String origem, String camada) {
+        sample.stop(Timer.builder("sentiment.analysis")
+                .description("Latência da classificação de um texto (léxico, cache ou motor de previsão)")
+                .tag("outcome", MetricTags.outcome(sentimento != null))
+                .tag("sentimento", sentimento != null ? sentimento.name() : "NENHUM")
+                .tag("origem", MetricTags.origem(origem))
+                .tag("tier", camada)
+                .register(meterRegistry));
+    }
+
+    static AnaliseResultado montarResultado(String texto, String textoHash, String origem, String batchId,
+                                            DsServiceResponse previsao, Sentimento sentimento, String camada,
+                                            long tempoMs) {
+        return AnaliseResultado.builder()
+                .textoOriginal(texto)
                 .sentimento(sentimento)
-                .probabilidade(dsResponse.getProbability())
+                .probabilidade(previsao.getProbability())
                 .dataAnalise(LocalDateTime.now())
-                .tempoProcessamentoMs(processingTime)
+                .tempoProcessamentoMs(tempoMs)
                 .origem(origem)
                 .batchId(batchId)
-                .build();
-
-        analiseRepository.save(resultado);
-
-        log.info("Análise concluída: sentimento={}, probabilidade={}, tempo={}ms",
-                sentimento, dsResponse.getProbability(), processingTime);
-
-        // Retorna a resposta no formato do hackathon
-        return SentimentResponse.builder()
-                .previsao(sentimento.getLabel())
-                .probabilidade(dsResponse.getProbability())
+                .textoHash(textoHash)
+                .modeloVersao(previsao.getModelVersion())
+                .camada(camada)
                 .build();
     }
 
     /**
      * Analisa múltiplos textos em lote (batch processing).
+     * <p>
+     * Textos repetidos no batch (após normalização) são classificados uma única vez. No modo paralelo
+     * os textos distintos são distribuídos no {@code batchExecutor}, com no máximo
+     * {@code sentiment.batch.max-in-flight-per-batch} simultâneos por batch. A ordem
+     * dos resultados é sempre a mesma da requisição.
      *
      * @param request Requisição com lista de textos
      * @return Resposta com resultados de todos os textos
      */
-    @Transactional
     public BatchSentimentResponse analisarBatch(BatchSentimentRequest request) {
         long startTime = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
         String batchId = UUID.randomUUID().toString();
 
-        List<BatchSentimentResponse.BatchItemResponse> resultados = new ArrayList<>();
-
-        for (SentimentRequest item : request.getTexts()) {
-            try {
-                SentimentResponse response = analisar(item, "BATCH", batchId);
-
-                resultados.add(BatchSentimentResponse.BatchItemResponse.builder()
-                        .texto(item.getText())
-                        .previsao(response.getPrevisao())
-                        .probabilidade(response.getProbabilidade())
-                        .build());
-
-            } catch (Exception e) {
-                log.error("Erro ao processar item do batch: {}", e.getMessage());
-                resultados.add(BatchSentimentResponse.BatchItemResponse.builder()
-                        .texto(item.getText())
-                        .previsao("ERRO")
-                        .probabilidade(0.0)
-                        .build());
-            }
+        List<SentimentRequest> textos = request.getTexts();
+        List<BatchSentimentResponse.BatchItemResponse> resultados = null;
+        try {
+            resultados = analisarItensDeduplicados(textos, batchId);
+        } finally {
+            registrarLatenciaBatch(sample, resultados != null, textos.size());
         }
 
         long totalTime = System.currentTimeMillis() - startTime;
@@ -128,4 +222,137 @@ public class SentimentService {
                 .tempoTotalMs(totalTime)
                 .build();
     }
+
+    void registrarLatenciaBatch(Timer.Sample sample, boolean sucesso, int tamanho) {
+        sample.stop(Timer.builder("sentiment.analysis.batch")
+                .description("Latência de um batch completo")
+                .tag("outcome", MetricTags.outcome(sucesso))
+                .tag("batch_size", MetricTags.faixaTamanho(tamanho))
+                .register(meterRegistry));
+    }
+
+    /**
+     * Classifica uma vez cada texto distinto (após normalização) e replica o resultado para as
+     * repetições. Cada item continua gerando a sua própria análise gravada.
+     */
+    private List<BatchSentimentResponse.BatchItemResponse> analisarItensDeduplicados(
+            List<SentimentRequest> textos, String batchId) {
+        Map<String, Integer> distintoPorHash = new HashMap<>();
+        List<SentimentRequest> distintos = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        int[] distintoDoItem = new int[textos.size()];
+        for (int i = 0; i < textos.size(); i++) {
+            String hash = TextoNormalizer.hash(textos.get(i).getText());
+            Integer distinto = distintoPorHash.putIfAbsent(hash, distintos.size());
+            if (distinto == null) {
+                distinto = distintos.size();
+                distintos.add(textos.get(i));
+                hashes.add(hash);
+            }
+            distintoDoItem[i] = distinto;
+        }
+        if (distintos.size() < textos.size()) {
+            duplicadosNoBatch.increment(textos.size() - distintos.size());
+            log.debug("Batch {}: {} textos distintos em {} itens", batchId, distintos.size(), textos.size());
+        }
+
+        List<ItemClassificado> classificados = batchParalelo && distintos.size() > 1
+                ? classificarEmParalelo(distintos, hashes, batchId)
+                : IntStream.range(0, distintos.size())
+                        .mapToObj(d -> classificarItem(distintos.get(d), hashes.get(d), batchId))
+                        .toList();
+
+        List<BatchSentimentResponse.BatchItemResponse> resultados = new ArrayList<>(textos.size());
+        boolean[] replicado = new boolean[distintos.size()];
+        for (int i = 0; i < textos.size(); i++) {
+            int distinto = distintoDoItem[i];
+            ItemClassificado classificado = classificados.get(distinto);
+            String texto = textos.get(i).getText();
+            AnaliseResultado resultado = classificado.resultado();
+            if (resultado != null && replicado[distinto]) {
+                // Sem o id: o original pode já ter sido gravado, e a cópia viraria um update dele
+                resultado = resultado.toBuilder().id(null).textoOriginal(texto).build();
+            }
+            replicado[distinto] = true;
+            resultados.add(registrarItem(texto, resultado, classificado.tempoMs()));
+        }
+        return resultados;
+    }
+
+    private List<ItemClassificado> classificarEmParalelo(
+            List<SentimentRequest> distintos, List<String> hashes, String batchId) {
+        ItemClassificado[] classificados = new ItemClassificado[distintos.size()];
+        CompletableFuture<?>[] tarefas = new CompletableFuture<?>[distintos.size()];
+        Semaphore emVoo = new Semaphore(maxEmVooPorBatch);
+
+        for (int i = 0; i < distintos.size(); i++) {
+            int indice = i;
+            emVoo.acquireUninterruptibly();
+            try {
+                tarefas[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        classificados[indice] = classificarItem(distintos.get(indice), hashes.get(indice), batchId);
+                    } finally {
+                        emVoo.release();
+                    }
+                }, batchExecutor);
+            } catch (RejectedExecutionException e) {
+                emVoo.release();
+                throw e;
+            }
+        }
+
+        CompletableFuture.allOf(tarefas).join();
+        return Arrays.asList(classificados);
+    }
+
+    private ItemClassificado classificarItem(SentimentRequest item, String textoHash, String batchId) {
+        long inicio = System.currentTimeMillis();
+        try {
+            AnaliseResultado resultado = classificar(item.getText(), textoHash, "BATCH", batchId);
+            return new ItemClassificado(resultado, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.error("Erro ao processar item do batch: {}", e.getMessage());
+            return new ItemClassificado(null, System.currentTimeMillis() - inicio);
+        }
+    }
+
+    /**
+     * Grava a análise de um item (write-behind) e monta a sua resposta; {@code resultado} nulo indica falha.
+     */
+    private BatchSentimentResponse.BatchItemResponse registrarItem(String texto, AnaliseResultado resultado, long tempoMs) {
+        if (resultado != null) {
+            try {
+                writeBehindQueue.registrar(resultado);
+                return itemResposta(texto, resultado, tempoMs);
+            } catch (Exception e) {
+                log.error("Erro ao gravar item do batch: {}", e.getMessage());
+            }
+        }
+        return itemComErro(texto, tempoMs);
+    }
+
+    static BatchSentimentResponse.BatchItemResponse itemResposta(String texto, AnaliseResultado resultado, long tempoMs) {
+        return BatchSentimentResponse.BatchItemResponse.builder()
+                .texto(texto)
+                .previsao(resultado.getSentimento().getLabel())
+                .probabilidade(resultado.getProbabilidade())
+                .tempoMs(tempoMs)
+                .build();
+    }
+
+    static BatchSentimentResponse.BatchItemResponse itemComErro(String texto, long tempoMs) {
+        return BatchSentimentResponse.BatchItemResponse.builder()
+                .texto(texto)
+                .previsao("ERRO")
+                .probabilidade(0.0)
+                .tempoMs(tempoMs)
+                .build();
+    }
+
+    /**
+     * Resultado da classificação de um texto distinto do batch ({@code resultado} nulo se falhou).
+     */
+    private record ItemClassificado(AnaliseResultado resultado, long tempoMs) {
+    }
 }
@@ -0,0 +1,205 @@
+package com.sentimentapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.SentimentResponse;
+import com.sentimentapi.dto.response.StreamItemResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análise em streaming de textos em NDJSON (um objeto {@code {"text": "..."}} por linha).
+ * <p>
+ * A entrada é lida linha a linha e cada item é enviado ao {@code batchExecutor}, com no máximo
+ * {@code sentiment.stream.window} itens em andamento por stream. Os resultados são escritos na
+ * ordem da entrada assim que o item mais antigo da janela termina, de modo que o uso de memória
+ * não depende do tamanho da entrada.
+ */
+@Service
+@Slf4j
+public class SentimentStreamService {
+
+    static final String ORIGEM = "STREAM";
+    private static final byte NOVA_LINHA = '\n';
+
+    private final SentimentService sentimentService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Executor batchExecutor;
+    private final int janela;
+    private final long flushIntervalNanos;
+
+    public SentimentStreamService(
+            SentimentService sentimentService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Qualifier("batchExecutor") Executor batchExecutor,
+            @Value("${sentiment.stream.window:64}") int janela,
+            @Value("${sentiment.stream.flush-interval-ms:10}") long flushIntervalMs) {
+        this.sentimentService = sentimentService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchExecutor = batchExecutor;
+        this.janela = janela;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    }
+
+    /**
+     * Lê textos da entrada NDJSON e escreve um resultado NDJSON por linha não vazia.
+     * Linhas inválidas geram um resultado com {@code "previsao": "ERRO"} e o motivo em {@code erro}.
+     *
+     * @param entrada NDJSON com um objeto {@code {"text": "..."}} por linha
+     * @param saida   Destino das linhas de resultado
+     * @param batchId ID gravado junto com cada análise
+     * @return Quantidade de resultados escritos
+     */
+    public long analisar(InputStream entrada, OutputStream saida, String batchId) throws IOException {
+        long inicio = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Escritor escritor = new Escritor(saida);
+        Deque<CompletableFuture<StreamItemResponse>> emAndamento = new ArrayDeque<>(janela);
+
+        String linha;
+        long numeroLinha = 0;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            emAndamento.addLast(submeter(linha, numeroLinha, batchId));
+
+            // Escreve o que já terminou no início da janela; com a janela cheia, espera o mais antigo
+            escreverConcluidos(emAndamento, escritor);
+            if (emAndamento.size() >= janela) {
+                escritor.escrever(aguardar(emAndamento.removeFirst(), escritor));
+            }
+            escritor.flushSePreciso();
+        }
+
+        while (!emAndamento.isEmpty()) {
+            escritor.escrever(aguardar(emAndamento.removeFirst(), escritor));
+        }
+        escritor.flush();
+
+        log.info("Stream {} concluído: {} itens processados em {}ms",
+                batchId, escritor.escritos, System.currentTimeMillis() - inicio);
+        return escritor.escritos;
+    }
+
+    private CompletableFuture<StreamItemResponse> submeter(String linha, long numeroLinha, String batchId) {
+        SentimentRequest request;
+        try {
+            request = objectMapper.readValue(linha, SentimentRequest.class);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(erro(numeroLinha, null, "JSON inválido na linha"));
+        }
+
+        Set<ConstraintViolation<SentimentRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    erro(numeroLinha, request.getText(), violacoes.iterator().next().getMessage()));
+        }
+
+        return CompletableFuture.supplyAsync(() -> analisarItem(request, numeroLinha, batchId), batchExecutor);
+    }
+
+    private StreamItemResponse analisarItem(SentimentRequest request, long numeroLinha, String batchId) {
+        long inicio = System.currentTimeMillis();
+        try {
+            SentimentResponse response = sentimentService.analisar(request, ORIGEM, batchId);
+            return StreamItemResponse.builder()
+                    .linha(numeroLinha)
+                    .texto(request.getText())
+                    .previsao(response.getPrevisao())
+                    .probabilidade(response.getProbabilidade())
+                    .tempoMs(System.currentTimeMillis() - inicio)
+                    .build();
+        } catch (Exception e) {
+            log.error("Erro ao processar linha {} do stream: {}", numeroLinha, e.getMessage());
+            StreamItemResponse item = erro(numeroLinha, request.getText(), e.getMessage());
+            item.setTempoMs(System.currentTimeMillis() - inicio);
+            return item;
+        }
+    }
+
+    private static StreamItemResponse erro(long numeroLinha, String texto, String motivo) {
+        return StreamItemResponse.builder()
+                .linha(numeroLinha)
+                .texto(texto)
+                .previsao("ERRO")
+                .probabilidade(0.0)
+                .erro(motivo)
+                .build();
+    }
+
+    private void escreverConcluidos(Deque<CompletableFuture<StreamItemResponse>> emAndamento, Escritor escritor)
+            throws IOException {
+        while (!emAndamento.isEmpty() && emAndamento.peekFirst().isDone()) {
+            escritor.escrever(emAndamento.removeFirst().join());
+        }
+    }
+
+    /**
+     * Espera o resultado, enviando antes ao cliente o que já foi escrito.
+     */
+    private static StreamItemResponse aguardar(CompletableFuture<StreamItemResponse> futuro, Escritor escritor)
+            throws IOException {
+        if (!futuro.isDone()) {
+            escritor.flush();
+        }
+        return futuro.join();
+    }
+
+    /**
+     * Serializa os resultados e controla quando o buffer é enviado ao cliente.
+     */
+    private final class Escritor {
+        private final OutputStream saida;
+        private long escritos;
+        private long pendentes;
+        private long ultimoFlush = System.nanoTime();
+
+        private Escritor(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        private void escrever(StreamItemResponse item) throws IOException {
+            saida.write(objectMapper.writeValueAsBytes(item));
+            saida.write(NOVA_LINHA);
+            escritos++;
+            pendentes++;
+        }
+
+        private void flushSePreciso() throws IOException {
+            if (pendentes > 0 && System.nanoTime() - ultimoFlush >= flushIntervalNanos) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (pendentes > 0) {
+                saida.flush();
+                pendentes = 0;
+            }
+            ultimoFlush = System.nanoTime();
+        }
+    }
+}
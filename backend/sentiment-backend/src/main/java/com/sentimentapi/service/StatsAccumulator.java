@@ -0,0 +1,208 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.repository.AnaliseResultadoRepository.AgregadoPorSentimento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Estatísticas incrementais das análises, mantidas em memória.
+ * <p>
+ * Contadores e somas ficam em {@link LongAdder}/{@link DoubleAdder} (striped), atualizados a cada
+ * gravação. Na subida da aplicação os valores são reconstruídos com uma única consulta agrupada,
+ * e uma reconciliação periódica corrige qualquer desvio em relação ao banco.
+ * A leitura ({@link #snapshot()}) não acessa o banco nem espera gravações.
+ * <p>
+ * A reconciliação consulta o banco sem lock e aplica só a diferença entre o banco e os valores lidos
+ * antes da consulta. Gravações confirmadas durante a consulta podem ficar contadas em dobro (ou de menos)
+ * até a reconciliação seguinte; fora disso, o resultado é o mesmo de reconstruir tudo.
+ */
+@Service
+@Slf4j
+public class StatsAccumulator {
+
+    private final AnaliseResultadoRepository analiseRepository;
+    private final Map<Sentimento, Acumulador> porSentimento = new EnumMap<>(Sentimento.class);
+    private final LongAdder totalComTempo = new LongAdder();
+    private final LongAdder somaTempoMs = new LongAdder();
+    /** Resultados acumulados desde a subida, para saber quantos entraram durante uma reconciliação. */
+    private final LongAdder acumulados = new LongAdder();
+
+    /**
+     * Só a aplicação da diferença da reconciliação segura o write lock; {@link #snapshot()} lê de forma
+     * otimista e só repete (com read lock) se uma aplicação aconteceu no meio da leitura.
+     */
+    private final StampedLock lock = new StampedLock();
+    private volatile boolean inicializado;
+
+    public StatsAccumulator(AnaliseResultadoRepository analiseRepository) {
+        this.analiseRepository = analiseRepository;
+        for (Sentimento sentimento : Sentimento.values()) {
+            porSentimento.put(sentimento, new Acumulador());
+        }
+    }
+
+    /**
+     * Executa a gravação de um lote e, se ela for bem-sucedida, acumula os resultados.
+     *
+     * @param lote     Resultados sendo gravados
+     * @param gravacao Gravação (commit) do lote no banco
+     */
+    public void registrarGravacao(List<AnaliseResultado> lote, Runnable gravacao) {
+        gravacao.run();
+        lote.forEach(this::acumular);
+        acumulados.add(lote.size());
+    }
+
+    private void acumular(AnaliseResultado resultado) {
+        Acumulador acumulador = porSentimento.get(resultado.getSentimento());
+        acumulador.total.increment();
+        if (resultado.getProbabilidade() != null) {
+            acumulador.somaProbabilidade.add(resultado.getProbabilidade());
+        }
+        if (resultado.getTempoProcessamentoMs() != null) {
+            totalComTempo.increment();
+            somaTempoMs.add(resultado.getTempoProcessamentoMs());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconciliar();
+    }
+
+    /**
+     * Ajusta os acumuladores pela diferença em relação ao banco e registra o desvio encontrado
+     * (o que não se explica por gravações feitas durante a consulta).
+     */
+    @Scheduled(
+            initialDelayString = "${sentiment.stats.reconcile-interval-ms:600000}",
+            fixedDelayString = "${sentiment.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconciliar() {
+        // synchronized: duas reconciliações simultâneas aplicariam a mesma diferença duas vezes
+        Snapshot antes = ler();
+        long acumuladosAntes = acumulados.sum();
+        List<AgregadoPorSentimento> agregados = analiseRepository.agregarPorSentimento();
+        long concorrentes = acumulados.sum() - acumuladosAntes;
+
+        Map<Sentimento, Long> totais = new EnumMap<>(Sentimento.class);
+        Map<Sentimento, Double> somas = new EnumMap<>(Sentimento.class);
+        long bancoComTempo = 0;
+        long bancoSomaTempoMs = 0;
+        for (AgregadoPorSentimento agregado : agregados) {
+            totais.put(agregado.getSentimento(), valor(agregado.getTotal()));
+            somas.put(agregado.getSentimento(),
+                    agregado.getSomaProbabilidade() != null ? agregado.getSomaProbabilidade() : 0.0);
+            bancoComTempo += valor(agregado.getTotalComTempo());
+            bancoSomaTempoMs += valor(agregado.getSomaTempoMs());
+        }
+        Snapshot banco = new Snapshot(totais, somas, bancoComTempo, bancoSomaTempoMs);
+
+        long stamp = lock.writeLock();
+        try {
+            porSentimento.forEach((sentimento, acumulador) -> {
+                acumulador.total.add(banco.total(sentimento) - antes.total(sentimento));
+                acumulador.somaProbabilidade.add(banco.somaProbabilidade(sentimento) - antes.somaProbabilidade(sentimento));
+            });
+            totalComTempo.add(banco.totalComTempo() - antes.totalComTempo());
+            somaTempoMs.add(banco.somaTempoMs() - antes.somaTempoMs());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        long desvio = banco.total() - antes.total();
+        if (inicializado && Math.abs(desvio) > concorrentes) {
+            log.warn("Reconciliação de estatísticas corrigiu desvio de {} análises", desvio);
+        }
+        inicializado = true;
+        log.debug("Estatísticas reconciliadas: {} análises no banco", banco.total());
+    }
+
+    /**
+     * Fotografia dos acumuladores, sem consulta ao banco e sem esperar gravações em andamento.
+     */
+    public Snapshot snapshot() {
+        if (!inicializado) {
+            inicializarSePreciso();
+        }
+        long stamp = lock.tryOptimisticRead();
+        Snapshot snapshot = ler();
+        if (lock.validate(stamp)) {
+            return snapshot;
+        }
+        stamp = lock.readLock();
+        try {
+            return ler();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private synchronized void inicializarSePreciso() {
+        if (!inicializado) {
+            reconciliar();
+        }
+    }
+
+    private Snapshot ler() {
+        Map<Sentimento, Long> totais = new EnumMap<>(Sentimento.class);
+        Map<Sentimento, Double> somas = new EnumMap<>(Sentimento.class);
+        porSentimento.forEach((sentimento, acumulador) -> {
+            totais.put(sentimento, acumulador.total.sum());
+            somas.put(sentimento, acumulador.somaProbabilidade.sum());
+        });
+        return new Snapshot(totais, somas, totalComTempo.sum(), somaTempoMs.sum());
+    }
+
+    private static long valor(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+
+    private static final class Acumulador {
+        private final LongAdder total = new LongAdder();
+        private final DoubleAdder somaProbabilidade = new DoubleAdder();
+    }
+
+    /**
+     * Valores acumulados num instante.
+     */
+    public record Snapshot(
+            Map<Sentimento, Long> totais,
+            Map<Sentimento, Double> somasProbabilidade,
+            long totalComTempo,
+            long somaTempoMs) {
+
+        public long total() {
+            return totais.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long total(Sentimento sentimento) {
+            return totais.getOrDefault(sentimento, 0L);
+        }
+
+        public double somaProbabilidade(Sentimento sentimento) {
+            return somasProbabilidade.getOrDefault(sentimento, 0.0);
+        }
+
+        public double probabilidadeMedia(Sentimento sentimento) {
+            long total = total(sentimento);
+            return total == 0 ? 0.0 : somaProbabilidade(sentimento) / total;
+        }
+
+        public double tempoMedioMs() {
+            return totalComTempo == 0 ? 0.0 : (double) somaTempoMs / totalComTempo;
+        }
+    }
+}
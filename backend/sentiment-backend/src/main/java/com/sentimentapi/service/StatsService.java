@@ -1,21 +1,32 @@
 package com.sentimentapi.service;
 
+import com.sentimentapi.domain.enums.Granularidade;
 import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.response.StatsQueryResponse;
 import com.sentimentapi.dto.response.StatsResponse;
-import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.dto.response.TimeseriesResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 /**
  * Serviço para cálculo de estatísticas de análises de sentimento.
+ * As estatísticas globais vêm dos acumuladores em memória ({@link StatsAccumulator}); as filtradas,
+ * de uma consulta agregada no banco ({@link AnaliseStatsRepository}).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StatsService {
 
-    private final AnaliseResultadoRepository analiseRepository;
+    private final StatsAccumulator statsAccumulator;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final AnaliseRollupService rollupService;
+    private final AnaliseStatsRepository statsRepository;
 
     /**
      * Calcula estatísticas gerais de todas as análises.
@@ -23,7 +34,8 @@ public class StatsService {
      * @return Estatísticas consolidadas
      */
     public StatsResponse getStats() {
-        long total = analiseRepository.count();
+        StatsAccumulator.Snapshot snapshot = statsAccumulator.snapshot();
+        long total = snapshot.total();
 
         if (total == 0) {
             return StatsResponse.builder()
@@ -40,13 +52,9 @@ public class StatsService {
                     .build();
         }
 
-        long positivos = analiseRepository.countBySentimento(Sentimento.POSITIVO);
-        long negativos = analiseRepository.countBySentimento(Sentimento.NEGATIVO);
-        long neutros = analiseRepository.countBySentimento(Sentimento.NEUTRO);
-
-        Double avgProbPositivos = analiseRepository.findAverageProbabilidadeBySentimento(Sentimento.POSITIVO);
-        Double avgProbNegativos = analiseRepository.findAverageProbabilidadeBySentimento(Sentimento.NEGATIVO);
-        Double avgTempo = analiseRepository.findAverageTempoProcessamento();
+        long positivos = snapshot.total(Sentimento.POSITIVO);
+        long negativos = snapshot.total(Sentimento.NEGATIVO);
+        long neutros = snapshot.total(Sentimento.NEUTRO);
 
         return StatsResponse.builder()
                 .totalAnalises(total)
@@ -56,12 +64,86 @@ public class StatsService {
                 .percentualPositivos(calcularPercentual(positivos, total))
                 .percentualNegativos(calcularPercentual(negativos, total))
                 .percentualNeutros(calcularPercentual(neutros, total))
-                .probabilidadeMediaPositivos(avgProbPositivos != null ? avgProbPositivos : 0.0)
-                .probabilidadeMediaNegativos(avgProbNegativos != null ? avgProbNegativos : 0.0)
-                .tempoMedioProcessamentoMs(avgTempo != null ? avgTempo : 0.0)
+                .probabilidadeMediaPositivos(snapshot.probabilidadeMedia(Sentimento.POSITIVO))
+                .probabilidadeMediaNegativos(snapshot.probabilidadeMedia(Sentimento.NEGATIVO))
+                .tempoMedioProcessamentoMs(snapshot.tempoMedioMs())
+                .build();
+    }
+
+    /**
+     * Série temporal de análises no período, calculada a partir dos agregados por minuto/hora.
+     *
+     * @param granularidade Tamanho de cada intervalo
+     * @param inicio        Início do período (inclusivo)
+     * @param fim           Fim do período (exclusivo)
+     * @param origem        Origem das análises ou {@code null} para todas
+     * @param consistente   Espera antes a gravação das análises já aceitas na fila de persistência
+     * @return Pontos da série, apenas para intervalos com análises
+     */
+    public TimeseriesResponse getTimeseries(
+            Granularidade granularidade, LocalDateTime inicio, LocalDateTime fim, String origem, boolean consistente) {
+        if (consistente) {
+            writeBehindQueue.flush();
+        }
+        return rollupService.serie(granularidade, inicio, fim, origem);
+    }
+
+    /**
+     * Estatísticas das análises que atendem aos filtros, calculadas numa única consulta.
+     *
+     * @param inicio      Início do período (inclusivo) ou {@code null}
+     * @param fim         Fim do período (exclusivo) ou {@code null}
+     * @param origem      Origem das análises ou {@code null}
+     * @param batchId     Lote das análises ou {@code null}
+     * @param consistente Espera antes a gravação das análises já aceitas na fila de persistência
+     * @return Contagens, percentuais, probabilidade média por sentimento e tempos (médio e percentis)
+     * @throws ParametroInvalidoException Sem nenhum filtro (use {@link #getStats()}) ou com período invertido
+     */
+    public StatsQueryResponse consultar(
+            LocalDateTime inicio, LocalDateTime fim, String origem, String batchId, boolean consistente) {
+        if (inicio == null && fim == null && origem == null && batchId == null) {
+            throw new ParametroInvalidoException("Informe ao menos um filtro (from, to, origem ou batch_id)");
+        }
+        if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+            throw new ParametroInvalidoException("O início do período deve ser anterior ao fim");
+        }
+        if (consistente) {
+            writeBehindQueue.flush();
+        }
+
+        AnaliseStatsRepository.Agregado agregado =
+                statsRepository.agregar(new AnaliseStatsRepository.Filtro(inicio, fim, origem, batchId));
+        long total = agregado.total();
+        long positivos = agregado.totais().get(Sentimento.POSITIVO);
+        long negativos = agregado.totais().get(Sentimento.NEGATIVO);
+        long neutros = agregado.totais().get(Sentimento.NEUTRO);
+
+        return StatsQueryResponse.builder()
+                .inicio(inicio)
+                .fim(fim)
+                .origem(origem)
+                .batchId(batchId)
+                .totalAnalises(total)
+                .positivos(positivos)
+                .negativos(negativos)
+                .neutros(neutros)
+                .percentualPositivos(calcularPercentual(positivos, total))
+                .percentualNegativos(calcularPercentual(negativos, total))
+                .percentualNeutros(calcularPercentual(neutros, total))
+                .probabilidadeMediaPositivos(zeroSeNulo(agregado.probabilidadesMedias().get(Sentimento.POSITIVO)))
+                .probabilidadeMediaNegativos(zeroSeNulo(agregado.probabilidadesMedias().get(Sentimento.NEGATIVO)))
+                .probabilidadeMediaNeutros(zeroSeNulo(agregado.probabilidadesMedias().get(Sentimento.NEUTRO)))
+                .tempoMedioProcessamentoMs(zeroSeNulo(agregado.tempoMedioMs()))
+                .tempoP50Ms(zeroSeNulo(agregado.tempoP50Ms()))
+                .tempoP95Ms(zeroSeNulo(agregado.tempoP95Ms()))
+                .tempoP99Ms(zeroSeNulo(agregado.tempoP99Ms()))
                 .build();
     }
 
+    private static double zeroSeNulo(Double valor) {
+        return valor != null ? valor : 0.0;
+    }
+
     private Double calcularPercentual(long parte, long total) {
         if (total == 0) return 0.0;
         return Math.round((double) parte / total * 10000.0) / 100.0;
@@ -0,0 +1,45 @@
+package com.sentimentapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de textos para comparação e cache.
+ * Textos que diferem só em caixa, espaços ou forma Unicode geram o mesmo hash.
+ */
+public final class TextoNormalizer {
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private TextoNormalizer() {
+    }
+
+    /**
+     * Normaliza o texto: forma Unicode NFC, espaços colapsados e caixa baixa.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String nfc = Normalizer.normalize(texto, Normalizer.Form.NFC);
+        return ESPACOS.matcher(nfc.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hash SHA-256 (hexadecimal, 64 caracteres) do texto normalizado.
+     */
+    public static String hash(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(normalizar(texto).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
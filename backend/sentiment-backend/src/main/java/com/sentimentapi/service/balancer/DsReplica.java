@@ -0,0 +1,107 @@
+package com.sentimentapi.service.balancer;
+
+/**
+ * Estado de uma réplica do DS Service no balanceador: requisições em andamento, latência EWMA
+ * e disponibilidade conforme as verificações de saúde.
+ * <p>
+ * A latência é um "peak EWMA": uma amostra acima da média a substitui na hora, e abaixo dela entra
+ * com peso que cresce com o tempo desde a amostra anterior. Na leitura, a média decai em direção a
+ * zero enquanto a réplica não recebe tráfego, para que uma réplica penalizada volte a ser testada.
+ */
+public final class DsReplica {
+
+    private final String url;
+
+    private int emAndamento;
+    private double ewmaNanos;
+    private long ultimaAmostraNanos;
+    private boolean disponivel = true;
+    private int falhasSeguidas;
+    private long reintroduzidaEmNanos = Long.MIN_VALUE;
+
+    DsReplica(String url) {
+        this.url = url;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public synchronized int emAndamento() {
+        return emAndamento;
+    }
+
+    public synchronized boolean disponivel() {
+        return disponivel;
+    }
+
+    synchronized void iniciar() {
+        emAndamento++;
+    }
+
+    synchronized void concluir(long agora, long amostraNanos, long decaimentoNanos) {
+        emAndamento--;
+        double atual = ewma(agora, decaimentoNanos);
+        if (amostraNanos >= atual || ultimaAmostraNanos == 0) {
+            ewmaNanos = amostraNanos;
+        } else {
+            double peso = Math.exp(-(double) (agora - ultimaAmostraNanos) / decaimentoNanos);
+            ewmaNanos = ewmaNanos * peso + amostraNanos * (1 - peso);
+        }
+        ultimaAmostraNanos = agora;
+    }
+
+    /**
+     * Latência EWMA decaída até {@code agora}.
+     */
+    synchronized double ewma(long agora, long decaimentoNanos) {
+        if (ultimaAmostraNanos == 0) {
+            return 0;
+        }
+        return ewmaNanos * Math.exp(-(double) (agora - ultimaAmostraNanos) / decaimentoNanos);
+    }
+
+    /**
+     * Custo de mandar mais uma requisição: {@code ewma × (em andamento + 1)}, dividido pela fração
+     * de aquecimento enquanto a réplica acabou de voltar à rotação.
+     */
+    synchronized double custo(long agora, long decaimentoNanos, long aquecimentoNanos) {
+        double custo = (ewma(agora, decaimentoNanos) + 1) * (emAndamento + 1);
+        return custo / fracaoAquecimento(agora, aquecimentoNanos);
+    }
+
+    /**
+     * Fração do tráfego normal que a réplica pode receber: cresce linearmente de 0.1 a 1 durante
+     * o aquecimento após voltar à rotação.
+     */
+    synchronized double fracaoAquecimento(long agora, long aquecimentoNanos) {
+        if (reintroduzidaEmNanos == Long.MIN_VALUE || aquecimentoNanos <= 0) {
+            return 1.0;
+        }
+        double decorrido = (double) (agora - reintroduzidaEmNanos) / aquecimentoNanos;
+        return Math.max(0.1, Math.min(1.0, decorrido));
+    }
+
+    /**
+     * Registra o resultado de uma verificação de saúde.
+     *
+     * @return true se a disponibilidade mudou
+     */
+    synchronized boolean registrarSonda(boolean ok, int limiteFalhas, long agora) {
+        if (ok) {
+            falhasSeguidas = 0;
+            if (!disponivel) {
+                disponivel = true;
+                reintroduzidaEmNanos = agora;
+                return true;
+            }
+            return false;
+        }
+        falhasSeguidas++;
+        if (disponivel && falhasSeguidas >= limiteFalhas) {
+            disponivel = false;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,266 @@
+package com.sentimentapi.service.balancer;
+
+import com.sentimentapi.service.resilience.CancelamentoHttp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Balanceamento no cliente entre as réplicas do DS Service ({@code ds.service.url} com uma ou mais
+ * URLs separadas por vírgula), sem um proxy na frente.
+ * <p>
+ * Cada chamada sorteia duas réplicas disponíveis e usa a de menor custo (power of two choices),
+ * com custo {@code latência EWMA × (requisições em andamento + 1)} ({@link DsReplica}). Falhas entram
+ * na média com pelo menos {@code error-penalty-ms}. Réplicas que falham {@code eject-after-failures}
+ * verificações de saúde seguidas saem da rotação; quando voltam, o custo fica inflado durante
+ * {@code slow-start-ms} e o tráfego chega aos poucos. Se nenhuma réplica estiver disponível, todas
+ * voltam a ser candidatas e o circuit breaker decide.
+ * <p>
+ * Métricas por réplica (tag {@code replica}): {@code ds.replica.requests} (tag outcome),
+ * {@code ds.replica.in_flight}, {@code ds.replica.latency.ewma} (ms) e {@code ds.replica.available}.
+ */
+@Component
+@Slf4j
+public class DsReplicaBalancer {
+
+    /**
+     * Verificação de saúde de uma réplica: retorna normalmente se estiver saudável.
+     */
+    @FunctionalInterface
+    public interface Sonda {
+        void verificar(String url) throws Exception;
+    }
+
+    private final List<DsReplica> replicas;
+    private final Map<DsReplica, Counter> sucessos = new LinkedHashMap<>();
+    private final Map<DsReplica, Counter> falhas = new LinkedHashMap<>();
+    private final LongSupplier relogio;
+    private final long decaimentoNanos;
+    private final long penalidadeErroNanos;
+    private final long aquecimentoNanos;
+    private final int limiteFalhas;
+
+    private volatile DsReplica[] disponiveis;
+
+    @Autowired
+    public DsReplicaBalancer(
+            @Value("${ds.service.url:http://localhost:8000}") String urls,
+            MeterRegistry meterRegistry,
+            @Value("${ds.service.balancer.ewma-decay-ms:10000}") long decaimentoMs,
+            @Value("${ds.service.balancer.error-penalty-ms:1000}") long penalidadeErroMs,
+            @Value("${ds.service.balancer.slow-start-ms:30000}") long aquecimentoMs,
+            @Value("${ds.service.balancer.eject-after-failures:2}") int limiteFalhas) {
+        this(Arrays.stream(urls.split(",")).map(String::strip).filter(url -> !url.isEmpty()).toList(),
+                meterRegistry, System::nanoTime, decaimentoMs, penalidadeErroMs, aquecimentoMs, limiteFalhas);
+    }
+
+    /**
+     * Uma única réplica e parâmetros padrão.
+     */
+    public DsReplicaBalancer(String url, MeterRegistry meterRegistry) {
+        this(List.of(url), meterRegistry, System::nanoTime, 10_000, 1_000, 30_000, 2);
+    }
+
+    DsReplicaBalancer(
+            List<String> urls,
+            MeterRegistry meterRegistry,
+            LongSupplier relogio,
+            long decaimentoMs,
+            long penalidadeErroMs,
+            long aquecimentoMs,
+            int limiteFalhas) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma URL do DS Service configurada em ds.service.url");
+        }
+        this.replicas = urls.stream().map(url -> new DsReplica(url.endsWith("/") ? url.substring(0, url.length() - 1) : url)).toList();
+        this.relogio = relogio;
+        this.decaimentoNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, decaimentoMs));
+        this.penalidadeErroNanos = TimeUnit.MILLISECONDS.toNanos(penalidadeErroMs);
+        this.aquecimentoNanos = TimeUnit.MILLISECONDS.toNanos(aquecimentoMs);
+        this.limiteFalhas = Math.max(1, limiteFalhas);
+        this.disponiveis = replicas.toArray(DsReplica[]::new);
+
+        for (DsReplica replica : replicas) {
+            sucessos.put(replica, meterRegistry.counter("ds.replica.requests", "replica", replica.url(), "outcome", "success"));
+            falhas.put(replica, meterRegistry.counter("ds.replica.requests", "replica", replica.url(), "outcome", "error"));
+            Gauge.builder("ds.replica.in_flight", replica, DsReplica::emAndamento)
+                    .tag("replica", replica.url())
+                    .register(meterRegistry);
+            Gauge.builder("ds.replica.latency.ewma", replica,
+                            r -> r.ewma(relogio.getAsLong(), decaimentoNanos) / 1_000_000.0)
+                    .description("Latência EWMA da réplica usada no balanceamento (ms)")
+                    .tag("replica", replica.url())
+                    .register(meterRegistry);
+            Gauge.builder("ds.replica.available", replica, r -> r.disponivel() ? 1 : 0)
+                    .tag("replica", replica.url())
+                    .register(meterRegistry);
+        }
+        if (replicas.size() > 1) {
+            log.info("Balanceamento entre {} réplicas do DS Service: {}", replicas.size(),
+                    replicas.stream().map(DsReplica::url).toList());
+        }
+    }
+
+    public List<DsReplica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Escolhe a réplica da próxima chamada (power of two choices entre as disponíveis).
+     */
+    public DsReplica escolher() {
+        DsReplica[] candidatas = disponiveis;
+        if (candidatas.length == 0) {
+            candidatas = replicas.toArray(DsReplica[]::new);
+        }
+        return duasEscolhas(candidatas);
+    }
+
+    /**
+     * Escolhe uma réplica diferente de {@code evitar} (para a cópia de uma chamada). Sem outra
+     * disponível, devolve a própria {@code evitar}: a cópia sai por outra conexão.
+     */
+    public DsReplica escolher(DsReplica evitar) {
+        DsReplica[] outras = Arrays.stream(disponiveis).filter(replica -> replica != evitar).toArray(DsReplica[]::new);
+        return outras.length == 0 ? evitar : duasEscolhas(outras);
+    }
+
+    private DsReplica duasEscolhas(DsReplica[] candidatas) {
+        if (candidatas.length == 1) {
+            return candidatas[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(candidatas.length);
+        int b = random.nextInt(candidatas.length - 1);
+        if (b >= a) {
+            b++;
+        }
+        long agora = relogio.getAsLong();
+        return candidatas[a].custo(agora, decaimentoNanos, aquecimentoNanos)
+                <= candidatas[b].custo(agora, decaimentoNanos, aquecimentoNanos) ? candidatas[a] : candidatas[b];
+    }
+
+    /**
+     * Executa a chamada na réplica escolhida, registrando a duração e o resultado.
+     *
+     * @param chamada Recebe a URL base da réplica
+     */
+    public <T> T executar(Function<String, T> chamada) {
+        return executar(escolher(), chamada);
+    }
+
+    /**
+     * Executa a chamada na réplica indicada, registrando a duração e o resultado. Uma chamada
+     * abortada pelo hedge ({@link CancelamentoHttp}) conta só a duração, não como erro da réplica.
+     */
+    public <T> T executar(DsReplica replica, Function<String, T> chamada) {
+        replica.iniciar();
+        long inicio = relogio.getAsLong();
+        boolean falha = true;
+        try {
+            T resposta = chamada.apply(replica.url());
+            falha = false;
+            return resposta;
+        } finally {
+            registrar(replica, inicio, falha && !CancelamentoHttp.canceladoNaThreadAtual());
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #executar}: a réplica é escolhida a cada assinatura.
+     */
+    public <T> Mono<T> executarReativo(Function<String, Mono<T>> chamada) {
+        return Mono.defer(() -> {
+            DsReplica replica = escolher();
+            replica.iniciar();
+            long inicio = relogio.getAsLong();
+            return chamada.apply(replica.url())
+                    .doOnSuccess(resposta -> registrar(replica, inicio, false))
+                    .doOnError(e -> registrar(replica, inicio, true))
+                    .doOnCancel(() -> registrar(replica, inicio, false));
+        });
+    }
+
+    private void registrar(DsReplica replica, long inicio, boolean falha) {
+        long agora = relogio.getAsLong();
+        long duracao = agora - inicio;
+        replica.concluir(agora, falha ? Math.max(duracao, penalidadeErroNanos) : duracao, decaimentoNanos);
+        (falha ? falhas : sucessos).get(replica).increment();
+    }
+
+    /**
+     * Verifica todas as réplicas e atualiza a rotação. Com uma única réplica nada sai da rotação
+     * (o circuit breaker cuida da indisponibilidade).
+     *
+     * @throws Exception O erro da última réplica, se nenhuma estiver saudável
+     */
+    public void sondar(Sonda sonda) throws Exception {
+        Exception ultimoErro = null;
+        int saudaveis = 0;
+        for (DsReplica replica : replicas) {
+            boolean ok;
+            try {
+                sonda.verificar(replica.url());
+                ok = true;
+                saudaveis++;
+            } catch (Exception e) {
+                ok = false;
+                ultimoErro = e;
+            }
+            if (replicas.size() > 1) {
+                registrarSonda(replica, ok, ultimoErro);
+            }
+        }
+        if (saudaveis == 0) {
+            throw ultimoErro;
+        }
+    }
+
+    void registrarSonda(DsReplica replica, boolean ok, Exception erro) {
+        if (!replica.registrarSonda(ok, limiteFalhas, relogio.getAsLong())) {
+            return;
+        }
+        if (ok) {
+            log.info("Réplica {} do DS Service voltou à rotação (aquecimento de {}ms)",
+                    replica.url(), TimeUnit.NANOSECONDS.toMillis(aquecimentoNanos));
+        } else {
+            log.warn("Réplica {} do DS Service saiu da rotação: {}", replica.url(), erro != null ? erro.getMessage() : "");
+        }
+        disponiveis = replicas.stream().filter(DsReplica::disponivel).toArray(DsReplica[]::new);
+    }
+
+    /**
+     * Situação de cada réplica: disponibilidade, requisições em andamento, latência EWMA e totais.
+     */
+    public List<Map<String, Object>> estatisticas() {
+        long agora = relogio.getAsLong();
+        List<Map<String, Object>> resumo = new ArrayList<>();
+        for (DsReplica replica : replicas) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("url", replica.url());
+            item.put("disponivel", replica.disponivel());
+            item.put("em_andamento", replica.emAndamento());
+            item.put("latencia_ewma_ms", replica.ewma(agora, decaimentoNanos) / 1_000_000.0);
+            item.put("aquecimento", replica.fracaoAquecimento(agora, aquecimentoNanos));
+            item.put("requisicoes", (long) sucessos.get(replica).count());
+            item.put("erros", (long) falhas.get(replica).count());
+            resumo.add(item);
+        }
+        return resumo;
+    }
+}
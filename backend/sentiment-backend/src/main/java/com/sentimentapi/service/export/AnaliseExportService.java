@@ -0,0 +1,145 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.domain.enums.FormatoExportacao;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseExportRepository;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação em massa das análises de um período para CSV compactado ou Parquet.
+ * <p>
+ * As linhas são lidas do cursor do banco e escritas uma a uma no formato pedido, direto na resposta:
+ * a memória usada não depende do tamanho do período (no CSV, os buffers do gzip; no Parquet, um row group).
+ * <p>
+ * A ordem é sempre {@code (data_analise, id)}, então uma exportação interrompida pode ser retomada
+ * com {@code after} igual às duas primeiras colunas da última linha recebida, e um período grande pode
+ * ser exportado em partes com {@code limit}.
+ */
+@Service
+@Slf4j
+public class AnaliseExportService {
+
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final AnaliseExportRepository repository;
+    private final AnaliseWriteBehindQueue writeBehindQueue;
+    private final TransactionTemplate leitura;
+    private final int csvLinhasPorMembro;
+    private final long parquetTamanhoRowGroup;
+    private final boolean parquetComprimir;
+
+    public AnaliseExportService(
+            AnaliseExportRepository repository,
+            AnaliseWriteBehindQueue writeBehindQueue,
+            PlatformTransactionManager transactionManager,
+            @Value("${sentiment.export.csv.rows-per-member:100000}") int csvLinhasPorMembro,
+            @Value("${sentiment.export.parquet.row-group-mb:64}") int parquetRowGroupMb,
+            @Value("${sentiment.export.parquet.compression:gzip}") String parquetCompressao) {
+        if (!parquetCompressao.equals("gzip") && !parquetCompressao.equals("none")) {
+            throw new IllegalArgumentException(
+                    "sentiment.export.parquet.compression inválido: " + parquetCompressao + " (gzip ou none)");
+        }
+        this.repository = repository;
+        this.writeBehindQueue = writeBehindQueue;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.csvLinhasPorMembro = csvLinhasPorMembro;
+        this.parquetTamanhoRowGroup = parquetRowGroupMb * 1024L * 1024L;
+        this.parquetComprimir = parquetCompressao.equals("gzip");
+    }
+
+    /**
+     * Exportação pedida, já validada.
+     *
+     * @param inicio  Início do período (inclusivo)
+     * @param fim     Fim do período (exclusivo)
+     * @param formato Formato do arquivo
+     * @param apos    Última análise já recebida ou {@code null}
+     * @param limite  Máximo de linhas ou {@code null}
+     */
+    public record Pedido(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato,
+                         AnaliseExportRepository.Posicao apos, Long limite) {
+
+        public String nomeArquivo() {
+            return "analises_" + FORMATO_NOME.format(inicio) + "_" + FORMATO_NOME.format(fim)
+                    + (apos != null ? "_apos_" + apos.id() : "") + "." + formato.getExtensao();
+        }
+    }
+
+    /**
+     * Valida os parâmetros da exportação (antes de a resposta começar).
+     *
+     * @throws ParametroInvalidoException Período invertido, formato, posição ou limite inválidos
+     */
+    public Pedido pedido(LocalDateTime inicio, LocalDateTime fim, String formato, String apos, Long limite) {
+        if (!inicio.isBefore(fim)) {
+            throw new ParametroInvalidoException("O início do período deve ser anterior ao fim");
+        }
+        if (limite != null && limite < 1) {
+            throw new ParametroInvalidoException("limit deve ser pelo menos 1");
+        }
+        AnaliseExportRepository.Posicao posicao = apos != null ? AnaliseExportRepository.Posicao.parse(apos) : null;
+        return new Pedido(inicio, fim, FormatoExportacao.fromParam(formato), posicao, limite);
+    }
+
+    /**
+     * Escreve as análises do pedido na saída, no formato pedido.
+     *
+     * @param consistente Espera antes a gravação das análises já aceitas na fila de persistência
+     * @return Quantidade de análises exportadas
+     */
+    public long exportar(Pedido pedido, boolean consistente, OutputStream saida) throws IOException {
+        if (consistente) {
+            writeBehindQueue.flush();
+        }
+        long comeco = System.nanoTime();
+
+        ExportWriter writer = switch (pedido.formato()) {
+            case CSV_GZ -> new CsvGzipExportWriter(saida, csvLinhasPorMembro);
+            case PARQUET -> new ParquetExportWriter(saida, parquetTamanhoRowGroup, parquetComprimir);
+        };
+
+        long linhas;
+        try {
+            linhas = leitura.execute(status -> {
+                try (Stream<AnaliseExportRepository.Linha> analises =
+                             repository.ler(pedido.inicio(), pedido.fim(), pedido.apos(), pedido.limite())) {
+                    return escrever(analises.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        double segundos = (System.nanoTime() - comeco) / 1e9;
+        log.info("Exportação {} concluída: {} análises em {}s ({} linhas/s)",
+                pedido.nomeArquivo(), linhas, String.format("%.1f", segundos), Math.round(linhas / segundos));
+        return linhas;
+    }
+
+    private static long escrever(Iterator<AnaliseExportRepository.Linha> analises, ExportWriter writer)
+            throws IOException {
+        long linhas = 0;
+        while (analises.hasNext()) {
+            writer.escrever(analises.next());
+            linhas++;
+        }
+        writer.concluir();
+        return linhas;
+    }
+}
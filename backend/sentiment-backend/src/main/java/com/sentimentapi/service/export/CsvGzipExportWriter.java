@@ -0,0 +1,132 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.repository.AnaliseExportRepository;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV (RFC 4180, UTF-8) compactado em gzip.
+ * <p>
+ * A cada {@code linhasPorMembro} linhas o membro gzip atual é concluído e um novo começa; membros
+ * concatenados formam um gzip válido, e um download interrompido continua legível até o último
+ * membro completo, de onde a exportação pode ser retomada. Memória usada: os buffers do
+ * compressor, independente da quantidade de linhas.
+ */
+final class CsvGzipExportWriter implements ExportWriter {
+
+    static final String CABECALHO =
+            "data_analise,id,previsao,probabilidade,tempo_ms,origem,batch_id,modelo_versao,camada,texto";
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final OutputStream saida;
+    private final int linhasPorMembro;
+    private Writer membro;
+    private long linhasNoMembro;
+    private boolean cabecalhoEscrito;
+
+    CsvGzipExportWriter(OutputStream saida, int linhasPorMembro) {
+        // Fechar um membro fecha o gzip, mas não a saída
+        this.saida = new FilterOutputStream(saida) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        this.linhasPorMembro = linhasPorMembro;
+    }
+
+    @Override
+    public void escrever(AnaliseExportRepository.Linha linha) throws IOException {
+        Writer w = membroAtual();
+        w.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(linha.dataAnalise()));
+        w.write(',');
+        w.write(Long.toString(linha.id()));
+        w.write(',');
+        campo(w, linha.previsao());
+        w.write(',');
+        w.write(Double.toString(linha.probabilidade()));
+        w.write(',');
+        if (linha.tempoMs() != null) {
+            w.write(linha.tempoMs().toString());
+        }
+        w.write(',');
+        campo(w, linha.origem());
+        w.write(',');
+        campo(w, linha.batchId());
+        w.write(',');
+        campo(w, linha.modeloVersao());
+        w.write(',');
+        campo(w, linha.camada());
+        w.write(',');
+        campo(w, linha.texto());
+        w.write("\r\n");
+
+        if (++linhasNoMembro >= linhasPorMembro) {
+            fecharMembro();
+        }
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        if (!cabecalhoEscrito) {
+            membroAtual(); // exportação vazia: só o cabeçalho
+        }
+        fecharMembro();
+    }
+
+    private Writer membroAtual() throws IOException {
+        if (membro == null) {
+            membro = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(saida, BUFFER), StandardCharsets.UTF_8), BUFFER);
+            linhasNoMembro = 0;
+            if (!cabecalhoEscrito) {
+                membro.write(CABECALHO);
+                membro.write("\r\n");
+                cabecalhoEscrito = true;
+            }
+        }
+        return membro;
+    }
+
+    private void fecharMembro() throws IOException {
+        if (membro != null) {
+            membro.close(); // conclui o membro gzip e envia ao cliente
+            membro = null;
+        }
+    }
+
+    /**
+     * Campo texto: vazio para {@code null}; entre aspas (com aspas dobradas) se tiver vírgula, aspas ou quebra de linha.
+     */
+    static void campo(Writer w, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            w.write(valor);
+            return;
+        }
+        w.write('"');
+        w.write(valor.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -0,0 +1,18 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.repository.AnaliseExportRepository;
+
+import java.io.IOException;
+
+/**
+ * Escreve as análises exportadas num formato de arquivo, à medida que são lidas.
+ */
+interface ExportWriter {
+
+    void escrever(AnaliseExportRepository.Linha linha) throws IOException;
+
+    /**
+     * Completa o arquivo (rodapé, fim da compressão); não fecha a saída.
+     */
+    void concluir() throws IOException;
+}
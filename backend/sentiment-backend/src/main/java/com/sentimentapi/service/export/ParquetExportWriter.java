@@ -0,0 +1,432 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.repository.AnaliseExportRepository;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageWriteStore;
+import org.apache.parquet.column.page.PageWriter;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.ColumnOrder;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.ConvertedType;
+import org.apache.parquet.format.DataPageHeader;
+import org.apache.parquet.format.DictionaryPageHeader;
+import org.apache.parquet.format.FieldRepetitionType;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.KeyValue;
+import org.apache.parquet.format.LogicalType;
+import org.apache.parquet.format.MicroSeconds;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.StringType;
+import org.apache.parquet.format.TimeUnit;
+import org.apache.parquet.format.TimestampType;
+import org.apache.parquet.format.TypeDefinedOrder;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parquet colunar, escrito direto na saída por row group.
+ * <p>
+ * A codificação das colunas (dicionário, RLE, níveis de definição) é a do {@code parquet-column}; este
+ * writer só monta o arquivo: acumula as páginas comprimidas de cada coluna até o row group chegar a
+ * {@code tamanhoRowGroup} bytes, grava as colunas do row group em sequência e, no fim, o rodapé com o
+ * schema e a posição de cada coluna. Assim a memória usada é a de um row group, não a do arquivo, e
+ * não é preciso Hadoop nem arquivo temporário.
+ * <p>
+ * {@code data_analise} é {@code TIMESTAMP(MICROS)} sem fuso (horário local do servidor, como no banco).
+ * As colunas numéricas levam mínimo e máximo por row group, para que as ferramentas pulem row groups
+ * fora do período consultado.
+ */
+final class ParquetExportWriter implements ExportWriter {
+
+    static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.INT64)
+            .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named("data_analise")
+            .required(PrimitiveTypeName.INT64).named("id")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("previsao")
+            .required(PrimitiveTypeName.DOUBLE).named("probabilidade")
+            .optional(PrimitiveTypeName.INT64).named("tempo_ms")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("origem")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("batch_id")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("modelo_versao")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("camada")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("texto")
+            .named("analise_resultado");
+
+    /**
+     * Chave dos metadados do arquivo com a posição ({@code data_analise,id}) da última linha exportada.
+     */
+    static final String CHAVE_ULTIMA_POSICAO = "sentiment.export.ultima_posicao";
+
+    private static final byte[] MAGICO = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final int PAGINA = 1024 * 1024;
+    private static final int LINHAS_POR_VERIFICACAO = 1000;
+
+    private final Saida saida;
+    private final long tamanhoRowGroup;
+    private final CompressionCodec codec;
+    private final ParquetProperties propriedades = ParquetProperties.builder()
+            .withPageSize(PAGINA)
+            .withDictionaryPageSize(PAGINA)
+            .withWriterVersion(ParquetProperties.WriterVersion.PARQUET_1_0)
+            .build();
+    private final MessageColumnIO colunasIo = new ColumnIOFactory().getColumnIO(SCHEMA);
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+
+    private Paginas paginas;
+    private ColumnWriteStore colunas;
+    private RecordConsumer registros;
+    private long linhasNoRowGroup;
+    private long linhas;
+    private AnaliseExportRepository.Posicao ultima;
+
+    /**
+     * @param tamanhoRowGroup Tamanho (comprimido) a partir do qual o row group é gravado
+     * @param comprimir       GZIP nas páginas; sem ele, páginas sem compressão
+     */
+    ParquetExportWriter(OutputStream saida, long tamanhoRowGroup, boolean comprimir) throws IOException {
+        this.saida = new Saida(saida);
+        this.tamanhoRowGroup = tamanhoRowGroup;
+        this.codec = comprimir ? CompressionCodec.GZIP : CompressionCodec.UNCOMPRESSED;
+        this.saida.write(MAGICO);
+        novoRowGroup();
+    }
+
+    @Override
+    public void escrever(AnaliseExportRepository.Linha linha) throws IOException {
+        registros.startMessage();
+        inteiro(0, micros(linha.dataAnalise()));
+        inteiro(1, linha.id());
+        texto(2, linha.previsao());
+        registros.startField("probabilidade", 3);
+        registros.addDouble(linha.probabilidade());
+        registros.endField("probabilidade", 3);
+        if (linha.tempoMs() != null) {
+            inteiro(4, linha.tempoMs());
+        }
+        texto(5, linha.origem());
+        texto(6, linha.batchId());
+        texto(7, linha.modeloVersao());
+        texto(8, linha.camada());
+        texto(9, linha.texto());
+        registros.endMessage();
+
+        linhas++;
+        ultima = new AnaliseExportRepository.Posicao(linha.dataAnalise(), linha.id());
+        if (++linhasNoRowGroup % LINHAS_POR_VERIFICACAO == 0 && colunas.getBufferedSize() >= tamanhoRowGroup) {
+            gravarRowGroup();
+            novoRowGroup();
+        }
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        gravarRowGroup();
+
+        List<KeyValue> metadados = new ArrayList<>();
+        if (ultima != null) {
+            metadados.add(new KeyValue(CHAVE_ULTIMA_POSICAO).setValue(ultima.toString()));
+        }
+        List<ColumnOrder> ordens = new ArrayList<>();
+        SCHEMA.getColumns().forEach(c -> ordens.add(ColumnOrder.TYPE_ORDER(new TypeDefinedOrder())));
+        FileMetaData rodape = new FileMetaData(1, schema(), linhas, rowGroups)
+                .setCreated_by("sentiment-backend")
+                .setKey_value_metadata(metadados)
+                .setColumn_orders(ordens);
+
+        long inicio = saida.posicao;
+        Util.writeFileMetaData(rodape, saida);
+        int tamanho = (int) (saida.posicao - inicio);
+        saida.write(new byte[]{(byte) tamanho, (byte) (tamanho >>> 8), (byte) (tamanho >>> 16), (byte) (tamanho >>> 24)});
+        saida.write(MAGICO);
+        saida.flush();
+    }
+
+    private void inteiro(int indice, long valor) {
+        String nome = SCHEMA.getFieldName(indice);
+        registros.startField(nome, indice);
+        registros.addLong(valor);
+        registros.endField(nome, indice);
+    }
+
+    private void texto(int indice, String valor) {
+        if (valor == null) {
+            return;
+        }
+        String nome = SCHEMA.getFieldName(indice);
+        registros.startField(nome, indice);
+        registros.addBinary(Binary.fromString(valor));
+        registros.endField(nome, indice);
+    }
+
+    static long micros(LocalDateTime instante) {
+        return instante.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + instante.getNano() / 1_000;
+    }
+
+    private void novoRowGroup() {
+        paginas = new Paginas();
+        colunas = propriedades.newColumnWriteStore(SCHEMA, paginas);
+        registros = colunasIo.getRecordWriter(colunas);
+        linhasNoRowGroup = 0;
+    }
+
+    /**
+     * Grava as colunas do row group atual, uma depois da outra (dicionário e depois as páginas de dados).
+     */
+    private void gravarRowGroup() throws IOException {
+        if (linhasNoRowGroup == 0) {
+            return;
+        }
+        registros.flush();
+        colunas.flush();
+
+        long inicio = saida.posicao;
+        long descomprimido = 0;
+        List<ColumnChunk> chunks = new ArrayList<>();
+        for (ColumnDescriptor coluna : SCHEMA.getColumns()) {
+            Coluna paginasDaColuna = paginas.colunas.get(coluna);
+            chunks.add(paginasDaColuna.gravar(coluna, saida, codec));
+            descomprimido += paginasDaColuna.descomprimido;
+        }
+        colunas.close();
+
+        rowGroups.add(new RowGroup(chunks, descomprimido, linhasNoRowGroup)
+                .setFile_offset(inicio)
+                .setTotal_compressed_size(saida.posicao - inicio)
+                .setOrdinal((short) rowGroups.size()));
+        saida.flush();
+    }
+
+    private static List<SchemaElement> schema() {
+        List<SchemaElement> elementos = new ArrayList<>();
+        elementos.add(new SchemaElement(SCHEMA.getName()).setNum_children(SCHEMA.getFieldCount()));
+        for (org.apache.parquet.schema.Type campo : SCHEMA.getFields()) {
+            PrimitiveType tipo = campo.asPrimitiveType();
+            SchemaElement elemento = new SchemaElement(tipo.getName())
+                    .setType(tipo(tipo.getPrimitiveTypeName()))
+                    .setRepetition_type(FieldRepetitionType.valueOf(tipo.getRepetition().name()));
+            LogicalTypeAnnotation logico = tipo.getLogicalTypeAnnotation();
+            if (logico instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation) {
+                elemento.setConverted_type(ConvertedType.UTF8).setLogicalType(LogicalType.STRING(new StringType()));
+            } else if (logico instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+                elemento.setLogicalType(LogicalType.TIMESTAMP(
+                        new TimestampType(false, TimeUnit.MICROS(new MicroSeconds()))));
+            }
+            elementos.add(elemento);
+        }
+        return elementos;
+    }
+
+    /**
+     * Escreve cabeçalho e página e devolve quantos bytes foram escritos.
+     */
+    private static long escrever(ByteArrayOutputStream destino, PageHeader cabecalho, byte[] pagina)
+            throws IOException {
+        int antes = destino.size();
+        Util.writePageHeader(cabecalho, destino);
+        destino.write(pagina);
+        return destino.size() - antes;
+    }
+
+    /**
+     * Tipo físico no rodapé; BINARY do schema é BYTE_ARRAY no formato.
+     */
+    private static org.apache.parquet.format.Type tipo(PrimitiveTypeName tipo) {
+        return tipo == PrimitiveTypeName.BINARY
+                ? org.apache.parquet.format.Type.BYTE_ARRAY
+                : org.apache.parquet.format.Type.valueOf(tipo.name());
+    }
+
+    private static org.apache.parquet.format.Encoding formato(Encoding encoding) {
+        return org.apache.parquet.format.Encoding.valueOf(encoding.name());
+    }
+
+    /**
+     * Páginas de cada coluna do row group em andamento.
+     */
+    private final class Paginas implements PageWriteStore {
+        private final Map<ColumnDescriptor, Coluna> colunas = new HashMap<>();
+
+        @Override
+        public PageWriter getPageWriter(ColumnDescriptor coluna) {
+            return colunas.computeIfAbsent(coluna, c -> new Coluna(c.getPrimitiveType()));
+        }
+    }
+
+    /**
+     * Páginas comprimidas (com cabeçalho) de uma coluna, até o row group ser gravado.
+     */
+    private final class Coluna implements PageWriter {
+        private final ByteArrayOutputStream dados = new ByteArrayOutputStream();
+        private final Set<Encoding> encodings = EnumSet.noneOf(Encoding.class);
+        private final Statistics<?> estatisticas;
+        private byte[] dicionario;
+        private long valores;
+        private long descomprimido;
+
+        private Coluna(PrimitiveType tipo) {
+            this.estatisticas = Statistics.createStats(tipo);
+        }
+
+        @Override
+        public void writePage(BytesInput bytes, int valueCount, Statistics<?> statistics,
+                              Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding) throws IOException {
+            writePage(bytes, valueCount, valueCount, statistics, rlEncoding, dlEncoding, valuesEncoding);
+        }
+
+        @Override
+        public void writePage(BytesInput bytes, int valueCount, int rowCount, Statistics<?> statistics,
+                              Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding) throws IOException {
+            byte[] pagina = bytes.toByteArray();
+            byte[] comprimida = comprimir(pagina);
+            PageHeader cabecalho = new PageHeader(PageType.DATA_PAGE, pagina.length, comprimida.length)
+                    .setData_page_header(new DataPageHeader(valueCount, formato(valuesEncoding), formato(dlEncoding),
+                            formato(rlEncoding)));
+            descomprimido += escrever(dados, cabecalho, comprimida) + pagina.length - comprimida.length;
+            valores += valueCount;
+            encodings.add(rlEncoding);
+            encodings.add(dlEncoding);
+            encodings.add(valuesEncoding);
+            estatisticas.mergeStatistics(statistics);
+        }
+
+        @Override
+        public void writePageV2(int rowCount, int nullCount, int valueCount, BytesInput repetitionLevels,
+                                BytesInput definitionLevels, Encoding dataEncoding, BytesInput data,
+                                Statistics<?> statistics) {
+            throw new UnsupportedOperationException("Só páginas de dados v1 (PARQUET_1_0)");
+        }
+
+        @Override
+        public void writeDictionaryPage(DictionaryPage pagina) throws IOException {
+            byte[] bytes = pagina.getBytes().toByteArray();
+            byte[] comprimida = comprimir(bytes);
+            PageHeader cabecalho = new PageHeader(PageType.DICTIONARY_PAGE, bytes.length, comprimida.length)
+                    .setDictionary_page_header(new DictionaryPageHeader(pagina.getDictionarySize(),
+                            formato(pagina.getEncoding())));
+            ByteArrayOutputStream saidaDicionario = new ByteArrayOutputStream(comprimida.length + 32);
+            descomprimido += escrever(saidaDicionario, cabecalho, comprimida) + bytes.length - comprimida.length;
+            dicionario = saidaDicionario.toByteArray();
+            encodings.add(pagina.getEncoding());
+        }
+
+        @Override
+        public long getMemSize() {
+            return dados.size() + (dicionario != null ? dicionario.length : 0);
+        }
+
+        @Override
+        public long allocatedSize() {
+            return getMemSize();
+        }
+
+        @Override
+        public String memUsageString(String prefix) {
+            return prefix + " páginas: " + getMemSize() + " bytes";
+        }
+
+        /**
+         * Grava o dicionário e as páginas na saída e devolve os metadados da coluna no row group.
+         */
+        private ColumnChunk gravar(ColumnDescriptor coluna, Saida saida, CompressionCodec codec) throws IOException {
+            long inicio = saida.posicao;
+            if (dicionario != null) {
+                saida.write(dicionario);
+            }
+            long inicioDados = saida.posicao;
+            dados.writeTo(saida);
+
+            List<org.apache.parquet.format.Encoding> formatos = new ArrayList<>();
+            encodings.forEach(e -> formatos.add(formato(e)));
+            ColumnMetaData metadados = new ColumnMetaData(
+                    tipo(coluna.getPrimitiveType().getPrimitiveTypeName()),
+                    formatos, Arrays.asList(coluna.getPath()), codec, valores, descomprimido,
+                    saida.posicao - inicio, inicioDados)
+                    .setStatistics(estatisticas());
+            if (dicionario != null) {
+                metadados.setDictionary_page_offset(inicio);
+            }
+            return new ColumnChunk(inicio).setMeta_data(metadados);
+        }
+
+        /**
+         * Quantidade de nulos e, nas colunas numéricas, mínimo e máximo (nos textos seriam do tamanho dos textos).
+         */
+        private org.apache.parquet.format.Statistics estatisticas() {
+            org.apache.parquet.format.Statistics resultado = new org.apache.parquet.format.Statistics()
+                    .setNull_count(estatisticas.getNumNulls());
+            if (estatisticas.hasNonNullValue()
+                    && estatisticas.type().getPrimitiveTypeName() != PrimitiveTypeName.BINARY) {
+                resultado.setMin_value(estatisticas.getMinBytes()).setMax_value(estatisticas.getMaxBytes());
+            }
+            return resultado;
+        }
+
+        private byte[] comprimir(byte[] pagina) throws IOException {
+            if (codec == CompressionCodec.UNCOMPRESSED) {
+                return pagina;
+            }
+            ByteArrayOutputStream comprimida = new ByteArrayOutputStream(pagina.length / 2 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimida, 8192)) {
+                gzip.write(pagina);
+            }
+            return comprimida.toByteArray();
+        }
+    }
+
+    /**
+     * Saída que conta os bytes escritos, para os offsets do rodapé.
+     */
+    private static final class Saida extends FilterOutputStream {
+        private long posicao;
+
+        private Saida(OutputStream saida) {
+            super(saida);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            posicao++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            posicao += len;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sentimentapi.service.health;
+
+import java.time.Instant;
+
+/**
+ * Último resultado conhecido da verificação de uma dependência (imutável).
+ *
+ * @param status         Situação atual
+ * @param latenciaMs     Duração da última verificação
+ * @param verificadoEm   Momento da última verificação (null se ainda não verificada)
+ * @param alteradoEm     Momento da última mudança de status
+ * @param falhasSeguidas Verificações com falha consecutivas
+ * @param erro           Mensagem da última falha (null quando UP)
+ */
+public record DependencyHealth(
+        Status status,
+        long latenciaMs,
+        Instant verificadoEm,
+        Instant alteradoEm,
+        int falhasSeguidas,
+        String erro) {
+
+    public enum Status {
+        UNKNOWN,
+        UP,
+        DOWN
+    }
+
+    public static DependencyHealth desconhecido(Instant agora) {
+        return new DependencyHealth(Status.UNKNOWN, 0, null, agora, 0, null);
+    }
+
+    public boolean isUp() {
+        return status == Status.UP;
+    }
+}
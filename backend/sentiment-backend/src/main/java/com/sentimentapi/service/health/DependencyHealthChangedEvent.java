@@ -0,0 +1,11 @@
+package com.sentimentapi.service.health;
+
+/**
+ * Publicado quando o status de uma dependência muda (ex.: UP -> DOWN).
+ *
+ * @param dependencia Nome da dependência ({@link DependencyHealthProber#DS_SERVICE}, {@link DependencyHealthProber#DATABASE})
+ * @param anterior    Situação antes da mudança
+ * @param atual       Situação depois da mudança
+ */
+public record DependencyHealthChangedEvent(String dependencia, DependencyHealth anterior, DependencyHealth atual) {
+}
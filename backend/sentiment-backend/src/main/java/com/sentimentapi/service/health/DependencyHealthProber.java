@@ -0,0 +1,219 @@
+package com.sentimentapi.service.health;
+
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifica periodicamente, em uma thread própria, a saúde do DS Service e do banco.
+ * <p>
+ * O resultado fica em um snapshot imutável ({@link AtomicReference}), então o endpoint de health
+ * e o health indicator do actuator respondem sem I/O. A sonda do DS Service usa um RestTemplate
+ * próprio, com timeout curto, fora do pool das previsões, e passa por todas as réplicas
+ * ({@link DsReplicaBalancer#sondar}): o DS Service só fica DOWN quando nenhuma responde, e as réplicas
+ * que falham saem da rotação do balanceador. Mudanças de status são publicadas como
+ * {@link DependencyHealthChangedEvent}, e mudanças do {@code model_version} que as réplicas informam,
+ * como {@link ModelVersionChangedEvent}.
+ */
+@Component
+@Slf4j
+public class DependencyHealthProber {
+
+    public static final String DS_SERVICE = "ds-service";
+    public static final String DATABASE = "database";
+
+    /**
+     * Verificação de uma dependência: retorna normalmente se estiver saudável.
+     */
+    @FunctionalInterface
+    interface Verificacao {
+        void executar() throws Exception;
+    }
+
+    private final Map<String, Verificacao> verificacoes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int limiteFalhas;
+    private final AtomicReference<Map<String, DependencyHealth>> snapshot;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public DependencyHealthProber(
+            RestTemplateBuilder restTemplateBuilder,
+            DataSource dataSource,
+            ApplicationEventPublisher eventPublisher,
+            DsReplicaBalancer balancer,
+            @Value("${sentiment.health.enabled:true}") boolean enabled,
+            @Value("${sentiment.health.interval-ms:5000}") long intervalMs,
+            @Value("${sentiment.health.timeout-ms:2000}") long timeoutMs,
+            @Value("${sentiment.health.failure-threshold:2}") int limiteFalhas) {
+        this(verificacoesPadrao(restTemplateBuilder, dataSource, balancer, eventPublisher, timeoutMs),
+                eventPublisher, Clock.systemUTC(), enabled, intervalMs, limiteFalhas);
+    }
+
+    DependencyHealthProber(
+            Map<String, Verificacao> verificacoes,
+            ApplicationEventPublisher eventPublisher,
+            Clock clock,
+            boolean enabled,
+            long intervalMs,
+            int limiteFalhas) {
+        this.verificacoes = verificacoes;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.limiteFalhas = Math.max(1, limiteFalhas);
+
+        Map<String, DependencyHealth> inicial = new LinkedHashMap<>();
+        verificacoes.keySet().forEach(nome -> inicial.put(nome, DependencyHealth.desconhecido(clock.instant())));
+        this.snapshot = new AtomicReference<>(Collections.unmodifiableMap(inicial));
+    }
+
+    private static Map<String, Verificacao> verificacoesPadrao(
+            RestTemplateBuilder restTemplateBuilder, DataSource dataSource, DsReplicaBalancer balancer,
+            ApplicationEventPublisher eventPublisher, long timeoutMs) {
+        RestTemplate sonda = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        int timeoutSegundos = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs));
+
+        AtomicReference<String> versaoModelo = new AtomicReference<>();
+
+        Map<String, Verificacao> verificacoes = new LinkedHashMap<>();
+        verificacoes.put(DS_SERVICE, () -> {
+            Set<String> versoes = new HashSet<>();
+            balancer.sondar(url -> {
+                Map<?, ?> corpo = sonda.getForObject(url + "/health", Map.class);
+                if (corpo != null && corpo.get("model_version") instanceof String versao) {
+                    versoes.add(versao);
+                }
+            });
+            // Durante a troca do modelo as réplicas divergem; a versão só vale quando todas concordam
+            if (versoes.size() == 1) {
+                String atual = versoes.iterator().next();
+                String anterior = versaoModelo.getAndSet(atual);
+                if (!atual.equals(anterior)) {
+                    eventPublisher.publishEvent(new ModelVersionChangedEvent(anterior, atual));
+                }
+            }
+        });
+        verificacoes.put(DATABASE, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(timeoutSegundos)) {
+                    throw new IllegalStateException("Conexão inválida");
+                }
+            }
+        });
+        return verificacoes;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dependency-health-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::verificar, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa uma rodada de verificações e publica o novo snapshot.
+     */
+    void verificar() {
+        verificacoes.forEach((nome, verificacao) -> {
+            try {
+                atualizar(nome, verificacao);
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado ao verificar {}", nome, e);
+            }
+        });
+    }
+
+    private void atualizar(String nome, Verificacao verificacao) {
+        long inicio = System.nanoTime();
+        String erro = null;
+        try {
+            verificacao.executar();
+        } catch (Exception e) {
+            erro = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        long latenciaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        Instant agora = clock.instant();
+
+        DependencyHealth anterior = snapshot.get().get(nome);
+        int falhasSeguidas = erro == null ? 0 : anterior.falhasSeguidas() + 1;
+        DependencyHealth.Status status;
+        if (erro == null) {
+            status = DependencyHealth.Status.UP;
+        } else if (falhasSeguidas >= limiteFalhas || anterior.status() == DependencyHealth.Status.UNKNOWN) {
+            status = DependencyHealth.Status.DOWN;
+        } else {
+            // Evita oscilar por uma falha isolada
+            status = anterior.status();
+        }
+        Instant alteradoEm = status != anterior.status() ? agora : anterior.alteradoEm();
+        DependencyHealth atual = new DependencyHealth(status, latenciaMs, agora, alteradoEm, falhasSeguidas, erro);
+
+        // Só esta thread escreve; o mapa é copiado para que os leitores nunca vejam um estado parcial
+        Map<String, DependencyHealth> novo = new LinkedHashMap<>(snapshot.get());
+        novo.put(nome, atual);
+        snapshot.set(Collections.unmodifiableMap(novo));
+
+        if (status != anterior.status()) {
+            if (status == DependencyHealth.Status.DOWN) {
+                log.warn("Dependência {} mudou de {} para DOWN: {}", nome, anterior.status(), erro);
+            } else {
+                log.info("Dependência {} mudou de {} para {}", nome, anterior.status(), status);
+            }
+            eventPublisher.publishEvent(new DependencyHealthChangedEvent(nome, anterior, atual));
+        }
+    }
+
+    /**
+     * Situação atual de todas as dependências (sem I/O).
+     */
+    public Map<String, DependencyHealth> snapshot() {
+        return snapshot.get();
+    }
+
+    public DependencyHealth saude(String dependencia) {
+        return snapshot.get().get(dependencia);
+    }
+}
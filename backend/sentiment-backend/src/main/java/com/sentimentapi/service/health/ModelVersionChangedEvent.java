@@ -0,0 +1,11 @@
+package com.sentimentapi.service.health;
+
+/**
+ * Publicado quando o {@code model_version} informado pelo {@code /health} do DS Service muda,
+ * inclusive na primeira vez que é lido.
+ *
+ * @param anterior Versão lida antes (null na primeira leitura)
+ * @param atual    Versão lida agora
+ */
+public record ModelVersionChangedEvent(String anterior, String atual) {
+}
@@ -0,0 +1,163 @@
+package com.sentimentapi.service.lexicon;
+
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.DsServiceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Primeira camada da classificação: decide sozinha os textos curtos e óbvios com um léxico
+ * ({@link LexiconTrie}) e escala os demais para o motor de previsão.
+ * <p>
+ * Cada termo do léxico soma o seu peso ao lado positivo ou negativo; uma negação inverte o próximo
+ * termo em até {@value #JANELA_NEGACAO} palavras, e uma adversativa ("mas", "porém") manda o texto
+ * para o modelo. A confiança é {@code (maior + 1) / (positivo + negativo + 2)}: termos em conflito ou
+ * poucos termos a mantêm baixa. Acima de {@code confidence-threshold} o texto é decidido aqui.
+ * As decisões são contadas em {@code sentiment.tier} (tag {@code tier}: LEXICO ou MODELO).
+ */
+@Service
+@Slf4j
+public class LexiconPreClassifier {
+
+    public static final String CAMADA_LEXICO = "LEXICO";
+    public static final String CAMADA_MODELO = "MODELO";
+
+    static final int JANELA_NEGACAO = 3;
+
+    private final LexiconTrie trie;
+    private final String versao;
+    private final boolean enabled;
+    private final double limiarConfianca;
+    private final int tamanhoMaximo;
+    private final Counter decididos;
+    private final Counter escalados;
+
+    public LexiconPreClassifier(
+            @Value("${sentiment.tiered.lexicon-path:classpath:lexicon/sentimento-pt.txt}") Resource lexico,
+            MeterRegistry meterRegistry,
+            @Value("${sentiment.tiered.enabled:false}") boolean enabled,
+            @Value("${sentiment.tiered.confidence-threshold:0.8}") double limiarConfianca,
+            @Value("${sentiment.tiered.max-length:280}") int tamanhoMaximo) {
+        this.enabled = enabled;
+        this.limiarConfianca = limiarConfianca;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.decididos = meterRegistry.counter("sentiment.tier", "tier", CAMADA_LEXICO);
+        this.escalados = meterRegistry.counter("sentiment.tier", "tier", CAMADA_MODELO);
+        try {
+            byte[] conteudo;
+            try (InputStream in = lexico.getInputStream()) {
+                conteudo = in.readAllBytes();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(conteudo);
+            this.versao = "lexico@" + HexFormat.of().toHexDigits((int) crc.getValue());
+            this.trie = LexiconTrie.carregar(new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(conteudo), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o léxico " + lexico, e);
+        }
+        if (enabled) {
+            log.info("Pré-classificação por léxico ativa: {} termos, versão {}, confiança mínima {}",
+                    trie.totalEntradas(), versao, limiarConfianca);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decide o texto pelo léxico quando a confiança basta.
+     *
+     * @return Previsão (versão do modelo = versão do léxico) ou vazio se o texto deve ir ao modelo
+     */
+    public Optional<DsServiceResponse> classificar(String texto) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<DsServiceResponse> previsao = texto.length() <= tamanhoMaximo ? pontuar(texto) : Optional.empty();
+        (previsao.isPresent() ? decididos : escalados).increment();
+        return previsao;
+    }
+
+    private Optional<DsServiceResponse> pontuar(String texto) {
+        int positivo = 0;
+        int negativo = 0;
+        int negacaoRestante = 0;
+        int tamanho = texto.length();
+        int i = 0;
+        while (i < tamanho) {
+            if (!Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+                continue;
+            }
+            int inicio = i;
+            while (i < tamanho && Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+            }
+
+            int no = trie.buscar(texto, inicio, i);
+            LexiconTrie.Tipo tipo = no >= 0 ? trie.tipo(no) : LexiconTrie.Tipo.NENHUM;
+            switch (tipo) {
+                case ADVERSATIVA -> {
+                    return Optional.empty();
+                }
+                case NEGACAO -> negacaoRestante = JANELA_NEGACAO;
+                case SENTIMENTO -> {
+                    int peso = negacaoRestante > 0 ? -trie.peso(no) : trie.peso(no);
+                    negacaoRestante = 0;
+                    if (peso > 0) {
+                        positivo += peso;
+                    } else {
+                        negativo -= peso;
+                    }
+                }
+                case NENHUM -> negacaoRestante = Math.max(0, negacaoRestante - 1);
+            }
+        }
+
+        int maior = Math.max(positivo, negativo);
+        if (maior == 0 || positivo == negativo) {
+            return Optional.empty();
+        }
+        double confianca = (maior + 1.0) / (positivo + negativo + 2.0);
+        if (confianca < limiarConfianca) {
+            return Optional.empty();
+        }
+        Sentimento sentimento = positivo > negativo ? Sentimento.POSITIVO : Sentimento.NEGATIVO;
+        return Optional.of(new DsServiceResponse(sentimento.getLabel(), confianca, versao));
+    }
+
+    /**
+     * Decisões da camada de léxico e taxa de escalonamento para o modelo desde a subida.
+     */
+    public Map<String, Object> estatisticas() {
+        long lexico = (long) decididos.count();
+        long modelo = (long) escalados.count();
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("enabled", enabled);
+        resumo.put("lexicon_version", versao);
+        resumo.put("confidence_threshold", limiarConfianca);
+        resumo.put("lexicon", lexico);
+        resumo.put("model", modelo);
+        resumo.put("escalation_rate", lexico + modelo == 0 ? 0.0 : (double) modelo / (lexico + modelo));
+        return resumo;
+    }
+}
@@ -0,0 +1,188 @@
+package com.sentimentapi.service.lexicon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Trie compacta do léxico de sentimento.
+ * <p>
+ * Os nós ficam em arrays primitivos, em largura, com os filhos de cada nó contíguos e ordenados
+ * pelo caractere (busca binária). A busca percorre o token direto no texto original, dobrando caixa
+ * e acentos caractere a caractere, sem criar {@code String}s. Entradas com {@code *} são radicais:
+ * casam com qualquer palavra que comece por elas, e o radical mais longo vence.
+ */
+public final class LexiconTrie {
+
+    public enum Tipo { NENHUM, SENTIMENTO, NEGACAO, ADVERSATIVA }
+
+    private static final Tipo[] TIPOS = Tipo.values();
+
+    private final char[] rotulos;
+    private final int[] primeiroFilho;
+    private final int[] totalFilhos;
+    private final byte[] tipos;
+    private final byte[] pesos;
+    private final boolean[] radicais;
+    private final int totalEntradas;
+
+    private LexiconTrie(NoMutavel raiz, int totalNos, int totalEntradas) {
+        this.rotulos = new char[totalNos];
+        this.primeiroFilho = new int[totalNos];
+        this.totalFilhos = new int[totalNos];
+        this.tipos = new byte[totalNos];
+        this.pesos = new byte[totalNos];
+        this.radicais = new boolean[totalNos];
+        this.totalEntradas = totalEntradas;
+
+        Queue<NoMutavel> fila = new ArrayDeque<>();
+        fila.add(raiz);
+        int proximoLivre = 1;
+        for (int indice = 0; !fila.isEmpty(); indice++) {
+            NoMutavel no = fila.poll();
+            tipos[indice] = (byte) no.tipo.ordinal();
+            pesos[indice] = no.peso;
+            radicais[indice] = no.radical;
+            primeiroFilho[indice] = proximoLivre;
+            totalFilhos[indice] = no.filhos.size();
+            for (Map.Entry<Character, NoMutavel> filho : no.filhos.entrySet()) {
+                rotulos[proximoLivre++] = filho.getKey();
+                fila.add(filho.getValue());
+            }
+        }
+    }
+
+    /**
+     * Lê o léxico no formato {@code <termo> <tipo>} (uma entrada por linha, {@code #} para comentários),
+     * com tipo {@code +N}/{@code -N}, {@code NEG} ou {@code ADV}.
+     *
+     * @throws IllegalArgumentException Se alguma linha for inválida
+     */
+    public static LexiconTrie carregar(BufferedReader reader) throws IOException {
+        NoMutavel raiz = new NoMutavel();
+        int[] totalNos = {1};
+        int totalEntradas = 0;
+        String linha;
+        int numero = 0;
+        while ((linha = reader.readLine()) != null) {
+            numero++;
+            linha = linha.strip();
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+            String[] partes = linha.split("\\s+");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Linha " + numero + " do léxico inválida: " + linha);
+            }
+            String termo = partes[0];
+            boolean radical = termo.endsWith("*");
+            if (radical) {
+                termo = termo.substring(0, termo.length() - 1);
+            }
+            NoMutavel no = raiz;
+            for (int i = 0; i < termo.length(); i++) {
+                no = no.filhos.computeIfAbsent(dobrar(termo.charAt(i)), c -> {
+                    totalNos[0]++;
+                    return new NoMutavel();
+                });
+            }
+            definir(no, partes[1], radical, numero);
+            totalEntradas++;
+        }
+        return new LexiconTrie(raiz, totalNos[0], totalEntradas);
+    }
+
+    private static void definir(NoMutavel no, String tipo, boolean radical, int numero) {
+        no.radical = radical;
+        switch (tipo) {
+            case "NEG" -> no.tipo = Tipo.NEGACAO;
+            case "ADV" -> no.tipo = Tipo.ADVERSATIVA;
+            default -> {
+                try {
+                    no.peso = Byte.parseByte(tipo.startsWith("+") ? tipo.substring(1) : tipo);
+                    no.tipo = Tipo.SENTIMENTO;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Tipo inválido na linha " + numero + " do léxico: " + tipo, e);
+                }
+            }
+        }
+    }
+
+    public int totalEntradas() {
+        return totalEntradas;
+    }
+
+    /**
+     * Procura o token {@code texto[inicio, fim)}: entrada exata ou o radical mais longo que o prefixa.
+     *
+     * @return Nó da entrada encontrada ou -1
+     */
+    public int buscar(CharSequence texto, int inicio, int fim) {
+        int no = 0;
+        int radical = -1;
+        for (int i = inicio; i < fim; i++) {
+            no = filho(no, dobrar(texto.charAt(i)));
+            if (no < 0) {
+                return radical;
+            }
+            if (radicais[no] && tipos[no] != 0) {
+                radical = no;
+            }
+        }
+        return tipos[no] != 0 ? no : radical;
+    }
+
+    public Tipo tipo(int no) {
+        return TIPOS[tipos[no]];
+    }
+
+    public int peso(int no) {
+        return pesos[no];
+    }
+
+    private int filho(int no, char c) {
+        int baixo = primeiroFilho[no];
+        int alto = baixo + totalFilhos[no] - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            char rotulo = rotulos[meio];
+            if (rotulo < c) {
+                baixo = meio + 1;
+            } else if (rotulo > c) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Caixa baixa e sem acento (letras usadas em português).
+     */
+    static char dobrar(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return switch (Character.toLowerCase(c)) {
+            case 'á', 'à', 'â', 'ã', 'ä' -> 'a';
+            case 'é', 'è', 'ê', 'ë' -> 'e';
+            case 'í', 'ì', 'î', 'ï' -> 'i';
+            case 'ó', 'ò', 'ô', 'õ', 'ö' -> 'o';
+            case 'ú', 'ù', 'û', 'ü' -> 'u';
+            case 'ç' -> 'c';
+            case 'ñ' -> 'n';
+            default -> Character.toLowerCase(c);
+        };
+    }
+
+    private static final class NoMutavel {
+        private final Map<Character, NoMutavel> filhos = new TreeMap<>();
+        private Tipo tipo = Tipo.NENHUM;
+        private byte peso;
+        private boolean radical;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sentimentapi.service.predictor;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Usa o motor principal e recorre ao secundário quando ele falha com um erro inesperado.
+ * Erros de validação do texto ({@link DsServiceException}) não disparam o fallback,
+ * já que o DS Service responderia o mesmo.
+ * Cada desvio incrementa {@code sentiment.predictor.fallback}.
+ */
+@Slf4j
+public class FallbackSentimentPredictor implements SentimentPredictor {
+
+    private final SentimentPredictor principal;
+    private final SentimentPredictor secundario;
+    private final Counter fallbacks;
+
+    public FallbackSentimentPredictor(SentimentPredictor principal, SentimentPredictor secundario,
+                                      MeterRegistry meterRegistry) {
+        this.principal = principal;
+        this.secundario = secundario;
+        this.fallbacks = Counter.builder("sentiment.predictor.fallback")
+                .description("Previsões desviadas do motor local para o DS Service")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public DsServiceResponse predict(String text) {
+        try {
+            return principal.predict(text);
+        } catch (DsServiceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            registrarFallback(e);
+            return secundario.predict(text);
+        }
+    }
+
+    @Override
+    public DsBatchServiceResponse predictBatch(List<String> texts) {
+        try {
+            return principal.predictBatch(texts);
+        } catch (DsServiceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            registrarFallback(e);
+            return secundario.predictBatch(texts);
+        }
+    }
+
+    private void registrarFallback(RuntimeException e) {
+        fallbacks.increment();
+        log.warn("Motor de previsão local falhou, usando o DS Service: {}", e.toString());
+    }
+}
@@ -0,0 +1,437 @@
+package com.sentimentapi.service.predictor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Modelo linear (TF-IDF + regressão logística) avaliado na própria JVM.
+ * <p>
+ * Reproduz o {@code TfidfVectorizer} ({@code analyzer='word'}, token pattern padrão {@code \b\w\w+\b},
+ * stop words e n-gramas) e o {@code predict_proba} da {@code LogisticRegression} exportados pelo
+ * {@code ds-service/export_model.py}. O vocabulário fica numa tabela de endereçamento aberto indexada
+ * por um hash de 64 bits dos termos, então tokens e n-gramas são procurados sem criar {@code String}s;
+ * IDF e coeficientes ficam em arrays primitivos. A instância é imutável e pode ser usada por várias
+ * threads; cada thread reutiliza o seu próprio vetor de contagens.
+ */
+public final class LinearSentimentModel {
+
+    static final int MAGIC = 0x534D4C31; // "SML1"
+    static final int VERSAO_FORMATO = 1;
+
+    private static final int FLAG_LOWERCASE = 1;
+    private static final int FLAG_SUBLINEAR_TF = 2;
+    private static final int FLAG_BINARY = 4;
+    private static final int FLAG_L2 = 8;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String versao;
+    private final List<String> labels;
+    private final boolean lowercase;
+    private final boolean sublinearTf;
+    private final boolean binary;
+    private final boolean normaL2;
+    private final int ngramMinimo;
+    private final int ngramMaximo;
+    private final TabelaHash stopWords;
+    private final TabelaHash vocabulario;
+    private final int numeroFeatures;
+    private final double[] idf;
+    private final double[] coeficientes; // linha a linha: classe (ou classe positiva) x feature
+    private final double[] interceptos;
+    private final ThreadLocal<Rascunho> rascunhos;
+
+    private LinearSentimentModel(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw invalido("assinatura desconhecida");
+        }
+        int formato = buffer.getShort();
+        if (formato != VERSAO_FORMATO) {
+            throw invalido("versão de formato " + formato + " não suportada");
+        }
+        versao = lerString(buffer);
+        int flags = buffer.get();
+        lowercase = (flags & FLAG_LOWERCASE) != 0;
+        sublinearTf = (flags & FLAG_SUBLINEAR_TF) != 0;
+        binary = (flags & FLAG_BINARY) != 0;
+        normaL2 = (flags & FLAG_L2) != 0;
+        ngramMinimo = buffer.get();
+        ngramMaximo = buffer.get();
+        if (ngramMinimo < 1 || ngramMaximo < ngramMinimo) {
+            throw invalido("ngram_range (" + ngramMinimo + ", " + ngramMaximo + ")");
+        }
+
+        int totalStopWords = lerTamanho(buffer);
+        stopWords = new TabelaHash(totalStopWords);
+        for (int i = 0; i < totalStopWords; i++) {
+            stopWords.inserir(hash(lerString(buffer)), i);
+        }
+
+        int totalLabels = lerTamanho(buffer);
+        List<String> lidos = new ArrayList<>(totalLabels);
+        for (int i = 0; i < totalLabels; i++) {
+            lidos.add(lerString(buffer));
+        }
+        labels = List.copyOf(lidos);
+
+        int linhas = lerTamanho(buffer);
+        numeroFeatures = lerTamanho(buffer);
+        if (linhas == 1 ? totalLabels != 2 : linhas != totalLabels) {
+            throw invalido(linhas + " linhas de coeficientes para " + totalLabels + " classes");
+        }
+
+        int totalTermos = lerTamanho(buffer);
+        vocabulario = new TabelaHash(totalTermos);
+        for (int i = 0; i < totalTermos; i++) {
+            String termo = lerString(buffer);
+            int indice = buffer.getInt();
+            if (indice < 0 || indice >= numeroFeatures) {
+                throw invalido("índice " + indice + " do termo '" + termo + "' fora do vetor");
+            }
+            if (!vocabulario.inserir(hash(termo), indice)) {
+                throw invalido("colisão de hash no termo '" + termo + "'");
+            }
+        }
+
+        idf = lerDoubles(buffer, numeroFeatures);
+        coeficientes = lerDoubles(buffer, linhas * numeroFeatures);
+        interceptos = lerDoubles(buffer, linhas);
+        if (buffer.hasRemaining()) {
+            throw invalido(buffer.remaining() + " bytes sobrando no fim do arquivo");
+        }
+        rascunhos = ThreadLocal.withInitial(() -> new Rascunho(numeroFeatures));
+    }
+
+    /**
+     * Lê o artefato de um buffer (posição atual até o limite).
+     *
+     * @throws IllegalArgumentException Se o conteúdo não for um artefato válido
+     */
+    public static LinearSentimentModel carregar(ByteBuffer buffer) {
+        try {
+            return new LinearSentimentModel(buffer.slice());
+        } catch (java.nio.BufferUnderflowException e) {
+            throw invalido("arquivo truncado");
+        }
+    }
+
+    /**
+     * Mapeia o arquivo em memória e lê o artefato, sem passar o conteúdo por um buffer no heap.
+     */
+    public static LinearSentimentModel carregar(Path arquivo) throws IOException {
+        try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return carregar(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public String versao() {
+        return versao;
+    }
+
+    public List<String> labels() {
+        return labels;
+    }
+
+    public int numeroFeatures() {
+        return numeroFeatures;
+    }
+
+    /**
+     * Probabilidade de cada classe, na ordem de {@link #labels()}.
+     */
+    public double[] probabilidades(String texto) {
+        Rascunho rascunho = rascunhos.get();
+        int tokens = tokenizar(texto, rascunho);
+        contarNgramas(texto, tokens, rascunho);
+
+        // tf -> tf-idf, acumulando a norma
+        double[] valores = rascunho.valores;
+        int[] tocados = rascunho.tocados;
+        int totalTocados = rascunho.totalTocados;
+        double somaQuadrados = 0.0;
+        for (int t = 0; t < totalTocados; t++) {
+            int feature = tocados[t];
+            double tf = valores[feature];
+            if (binary) {
+                tf = 1.0;
+            } else if (sublinearTf) {
+                tf = 1.0 + Math.log(tf);
+            }
+            double valor = tf * idf[feature];
+            valores[feature] = valor;
+            somaQuadrados += valor * valor;
+        }
+        double escala = normaL2 && somaQuadrados > 0.0 ? 1.0 / Math.sqrt(somaQuadrados) : 1.0;
+
+        double[] decisao = new double[interceptos.length];
+        for (int linha = 0; linha < interceptos.length; linha++) {
+            int base = linha * numeroFeatures;
+            double produto = 0.0;
+            for (int t = 0; t < totalTocados; t++) {
+                int feature = tocados[t];
+                produto += valores[feature] * coeficientes[base + feature];
+            }
+            decisao[linha] = interceptos[linha] + produto * escala;
+        }
+        rascunho.limpar();
+
+        if (decisao.length == 1) {
+            double positiva = 1.0 / (1.0 + Math.exp(-decisao[0]));
+            return new double[]{1.0 - positiva, positiva};
+        }
+        return softmax(decisao);
+    }
+
+    /**
+     * Classe mais provável (a primeira, em caso de empate, como o {@code argmax} do numpy).
+     */
+    public Previsao prever(String texto) {
+        double[] probabilidades = probabilidades(texto);
+        int melhor = 0;
+        for (int i = 1; i < probabilidades.length; i++) {
+            if (probabilidades[i] > probabilidades[melhor]) {
+                melhor = i;
+            }
+        }
+        return new Previsao(labels.get(melhor), probabilidades[melhor]);
+    }
+
+    /**
+     * Separa os tokens (sequências de 2 ou mais caracteres de palavra, como o {@code \b\w\w+\b}
+     * do Python) e descarta as stop words. Guarda início, fim e hash de cada token.
+     */
+    private int tokenizar(String texto, Rascunho rascunho) {
+        int total = 0;
+        int tamanho = texto.length();
+        int i = 0;
+        while (i < tamanho) {
+            int codePoint = texto.codePointAt(i);
+            if (!caractereDePalavra(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            int inicio = i;
+            int caracteres = 0;
+            long hash = FNV_OFFSET;
+            while (i < tamanho) {
+                codePoint = texto.codePointAt(i);
+                if (!caractereDePalavra(codePoint)) {
+                    break;
+                }
+                hash = misturar(hash, normalizar(codePoint));
+                caracteres++;
+                i += Character.charCount(codePoint);
+            }
+            if (caracteres >= 2 && stopWords.buscar(hash) < 0) {
+                rascunho.adicionarToken(total++, inicio, i, hash);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Conta os n-gramas do vocabulário. O hash de um n-grama continua o hash do primeiro token
+     * com um espaço e os tokens seguintes, igual ao {@code " ".join(...)} do scikit-learn.
+     */
+    private void contarNgramas(String texto, int tokens, Rascunho rascunho) {
+        for (int n = ngramMinimo; n <= ngramMaximo && n <= tokens; n++) {
+            for (int i = 0; i + n <= tokens; i++) {
+                long hash = rascunho.hashes[i];
+                for (int k = 1; k < n; k++) {
+                    hash = misturar(hash, ' ');
+                    int fim = rascunho.fins[i + k];
+                    for (int c = rascunho.inicios[i + k]; c < fim; ) {
+                        int codePoint = texto.codePointAt(c);
+                        hash = misturar(hash, normalizar(codePoint));
+                        c += Character.charCount(codePoint);
+                    }
+                }
+                int feature = vocabulario.buscar(hash);
+                if (feature >= 0) {
+                    rascunho.contar(feature);
+                }
+            }
+        }
+    }
+
+    private int normalizar(int codePoint) {
+        return lowercase ? Character.toLowerCase(codePoint) : codePoint;
+    }
+
+    /**
+     * Equivalente ao {@code \w} do Python para {@code str}: letras, números (Nd, Nl, No) e sublinhado.
+     */
+    private static boolean caractereDePalavra(int codePoint) {
+        if (codePoint < 0x80) {
+            return (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9') || codePoint == '_';
+        }
+        if (Character.isLetter(codePoint)) {
+            return true;
+        }
+        int tipo = Character.getType(codePoint);
+        return tipo == Character.DECIMAL_DIGIT_NUMBER || tipo == Character.LETTER_NUMBER
+                || tipo == Character.OTHER_NUMBER;
+    }
+
+    static long hash(String termo) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < termo.length(); ) {
+            int codePoint = termo.codePointAt(i);
+            hash = misturar(hash, codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return hash;
+    }
+
+    private static long misturar(long hash, int codePoint) {
+        return (hash ^ codePoint) * FNV_PRIME;
+    }
+
+    private static double[] softmax(double[] decisao) {
+        double maximo = Arrays.stream(decisao).max().orElse(0.0);
+        double soma = 0.0;
+        double[] probabilidades = new double[decisao.length];
+        for (int i = 0; i < decisao.length; i++) {
+            probabilidades[i] = Math.exp(decisao[i] - maximo);
+            soma += probabilidades[i];
+        }
+        for (int i = 0; i < probabilidades.length; i++) {
+            probabilidades[i] /= soma;
+        }
+        return probabilidades;
+    }
+
+    private static String lerString(ByteBuffer buffer) {
+        byte[] bytes = new byte[lerTamanho(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int lerTamanho(ByteBuffer buffer) {
+        int tamanho = buffer.getInt();
+        if (tamanho < 0 || tamanho > buffer.remaining()) {
+            throw invalido("tamanho " + tamanho + " inconsistente");
+        }
+        return tamanho;
+    }
+
+    private static double[] lerDoubles(ByteBuffer buffer, int quantidade) {
+        double[] valores = new double[quantidade];
+        buffer.asDoubleBuffer().get(valores);
+        buffer.position(buffer.position() + quantidade * Double.BYTES);
+        return valores;
+    }
+
+    private static IllegalArgumentException invalido(String motivo) {
+        return new IllegalArgumentException("Artefato de modelo inválido: " + motivo);
+    }
+
+    /**
+     * Classe prevista e sua probabilidade.
+     */
+    public record Previsao(String label, double probabilidade) {
+    }
+
+    /**
+     * Tabela hash de endereçamento aberto (sondagem linear) de hash de 64 bits para índice.
+     */
+    private static final class TabelaHash {
+
+        private final long[] chaves;
+        private final int[] valores;
+        private final int mascara;
+
+        private TabelaHash(int capacidadeMinima) {
+            int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima) * 2 - 1) << 1;
+            chaves = new long[capacidade];
+            valores = new int[capacidade];
+            Arrays.fill(valores, -1);
+            mascara = capacidade - 1;
+        }
+
+        /**
+         * @return false se a chave já existia (colisão de hash entre termos diferentes)
+         */
+        private boolean inserir(long chave, int valor) {
+            int slot = posicao(chave);
+            while (valores[slot] >= 0) {
+                if (chaves[slot] == chave) {
+                    return false;
+                }
+                slot = (slot + 1) & mascara;
+            }
+            chaves[slot] = chave;
+            valores[slot] = valor;
+            return true;
+        }
+
+        private int buscar(long chave) {
+            int slot = posicao(chave);
+            while (valores[slot] >= 0) {
+                if (chaves[slot] == chave) {
+                    return valores[slot];
+                }
+                slot = (slot + 1) & mascara;
+            }
+            return -1;
+        }
+
+        private int posicao(long chave) {
+            return (int) (chave ^ (chave >>> 32)) & mascara;
+        }
+    }
+
+    /**
+     * Estado de trabalho reutilizado por thread: posições dos tokens e vetor esparso de contagens.
+     * Só as posições tocadas são zeradas ao final de cada texto.
+     */
+    private static final class Rascunho {
+
+        private int[] inicios = new int[64];
+        private int[] fins = new int[64];
+        private long[] hashes = new long[64];
+        private final double[] valores;
+        private final int[] tocados;
+        private int totalTocados;
+
+        private Rascunho(int numeroFeatures) {
+            valores = new double[numeroFeatures];
+            tocados = new int[numeroFeatures];
+        }
+
+        private void adicionarToken(int posicao, int inicio, int fim, long hash) {
+            if (posicao == hashes.length) {
+                int capacidade = hashes.length * 2;
+                inicios = Arrays.copyOf(inicios, capacidade);
+                fins = Arrays.copyOf(fins, capacidade);
+                hashes = Arrays.copyOf(hashes, capacidade);
+            }
+            inicios[posicao] = inicio;
+            fins[posicao] = fim;
+            hashes[posicao] = hash;
+        }
+
+        private void contar(int feature) {
+            if (valores[feature] == 0.0) {
+                tocados[totalTocados++] = feature;
+            }
+            valores[feature] += 1.0;
+        }
+
+        private void limpar() {
+            for (int t = 0; t < totalTocados; t++) {
+                valores[tocados[t]] = 0.0;
+            }
+            totalTocados = 0;
+        }
+    }
+}
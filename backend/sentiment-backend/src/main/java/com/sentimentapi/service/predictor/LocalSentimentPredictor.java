@@ -0,0 +1,54 @@
+package com.sentimentapi.service.predictor;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Previsão com o modelo linear carregado na JVM, sem chamada HTTP.
+ * Aplica a mesma validação de tamanho mínimo do DS Service para que os dois motores
+ * respondam igual aos mesmos textos.
+ */
+public class LocalSentimentPredictor implements SentimentPredictor {
+
+    static final int TAMANHO_MINIMO = 3;
+    private static final String ERRO_TAMANHO = "Campo 'text' deve ter pelo menos 3 caracteres.";
+
+    private final LinearSentimentModel model;
+
+    public LocalSentimentPredictor(LinearSentimentModel model) {
+        this.model = model;
+    }
+
+    public String versao() {
+        return model.versao();
+    }
+
+    @Override
+    public DsServiceResponse predict(String text) {
+        String texto = text != null ? text.strip() : "";
+        if (texto.length() < TAMANHO_MINIMO) {
+            throw new DsServiceException(ERRO_TAMANHO);
+        }
+        LinearSentimentModel.Previsao previsao = model.prever(texto);
+        return new DsServiceResponse(previsao.label(), previsao.probabilidade(), model.versao());
+    }
+
+    @Override
+    public DsBatchServiceResponse predictBatch(List<String> texts) {
+        List<DsBatchServiceResponse.Item> itens = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String texto = text != null ? text.strip() : "";
+            if (texto.length() < TAMANHO_MINIMO) {
+                itens.add(new DsBatchServiceResponse.Item(null, null, ERRO_TAMANHO));
+            } else {
+                LinearSentimentModel.Previsao previsao = model.prever(texto);
+                itens.add(new DsBatchServiceResponse.Item(previsao.label(), previsao.probabilidade(), null));
+            }
+        }
+        return new DsBatchServiceResponse(itens, model.versao());
+    }
+}
@@ -0,0 +1,19 @@
+package com.sentimentapi.service.predictor;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Motor de previsão de sentimento não bloqueante, usado pela API v2.
+ * <p>
+ * No modo {@code remote} é o cliente WebClient do DS Service; no modo {@code local} é o mesmo
+ * {@link SentimentPredictor} da API v1, já que a previsão na JVM não faz I/O.
+ */
+public interface ReactiveSentimentPredictor {
+
+    /**
+     * @param text Texto a ser analisado
+     * @return Label, probabilidade e versão do modelo, ou erro {@link com.sentimentapi.exception.DsServiceException}
+     */
+    Mono<DsServiceResponse> predict(String text);
+}
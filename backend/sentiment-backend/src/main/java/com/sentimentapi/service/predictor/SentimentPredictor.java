@@ -0,0 +1,30 @@
+package com.sentimentapi.service.predictor;
+
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.dto.DsServiceResponse;
+
+import java.util.List;
+
+/**
+ * Motor de previsão de sentimento.
+ * <p>
+ * Implementado pelo cliente HTTP do DS Service (remoto), pelo micro-batching e pelo
+ * modelo linear carregado na própria JVM ({@link LocalSentimentPredictor}).
+ * O motor usado pelo {@code SentimentService} é escolhido em {@code sentiment.predictor.engine}.
+ */
+public interface SentimentPredictor {
+
+    /**
+     * @param text Texto a ser analisado
+     * @return Label, probabilidade e versão do modelo
+     * @throws com.sentimentapi.exception.DsServiceException Se a previsão falhar
+     */
+    DsServiceResponse predict(String text);
+
+    /**
+     * @param texts Textos a serem analisados
+     * @return Resultados na mesma ordem dos textos (itens inválidos trazem {@code error})
+     * @throws com.sentimentapi.exception.DsServiceException Se o lote inteiro falhar
+     */
+    DsBatchServiceResponse predictBatch(List<String> texts);
+}
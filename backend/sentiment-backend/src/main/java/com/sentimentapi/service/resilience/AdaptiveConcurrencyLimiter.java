@@ -0,0 +1,160 @@
+package com.sentimentapi.service.resilience;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite adaptativo de chamadas simultâneas (AIMD), com teto fixo que funciona como bulkhead.
+ * <p>
+ * Cada resposta rápida e bem-sucedida com o limite em uso aumenta o limite em 1 (aumento aditivo);
+ * cada erro, timeout ou resposta acima de {@code latenciaLimite} o multiplica por {@code fatorReducao}
+ * (redução multiplicativa). O limite fica entre {@code limiteMinimo} e {@code limiteMaximo}.
+ * Sem vaga, a chamada espera até {@code esperaMaxima} e depois é rejeitada. Chamadas não bloqueantes
+ * ({@link #adquirirAssincrono()}) esperam numa fila, sem ocupar thread, e recebem a vaga na liberação.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double fatorReducao;
+    private final long latenciaLimiteNanos;
+    private final long esperaMaximaNanos;
+
+    private final Queue<CompletableFuture<Boolean>> aguardando = new ArrayDeque<>();
+
+    private double limite;
+    private int emVoo;
+
+    public AdaptiveConcurrencyLimiter(
+            int limiteInicial,
+            int limiteMinimo,
+            int limiteMaximo,
+            double fatorReducao,
+            long latenciaLimiteMs,
+            long esperaMaximaMs) {
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.fatorReducao = fatorReducao;
+        this.latenciaLimiteNanos = TimeUnit.MILLISECONDS.toNanos(latenciaLimiteMs);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+    }
+
+    /**
+     * Ocupa uma vaga, esperando no máximo {@code esperaMaxima}.
+     *
+     * @return false se não houve vaga a tempo
+     */
+    public synchronized boolean tentarAdquirir() {
+        long prazo = System.nanoTime() + esperaMaximaNanos;
+        while (emVoo >= limiteAtual()) {
+            long restante = prazo - System.nanoTime();
+            if (restante <= 0) {
+                return false;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, restante);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        emVoo++;
+        return true;
+    }
+
+    /**
+     * Versão não bloqueante de {@link #tentarAdquirir()}: sem vaga, o futuro é completado quando uma
+     * vaga for liberada ou com {@code false} após {@code esperaMaxima}. Quem cancelar o futuro
+     * antes disso não ocupa vaga.
+     *
+     * @return Futuro com true quando a vaga foi ocupada
+     */
+    public CompletableFuture<Boolean> adquirirAssincrono() {
+        CompletableFuture<Boolean> vaga;
+        synchronized (this) {
+            if (emVoo < limiteAtual()) {
+                emVoo++;
+                return CompletableFuture.completedFuture(true);
+            }
+            vaga = new CompletableFuture<>();
+            aguardando.add(vaga);
+        }
+        return vaga.completeOnTimeout(false, esperaMaximaNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite com base no resultado da chamada.
+     *
+     * @param duracaoNanos Duração da chamada
+     * @param queda        Se a chamada falhou por sobrecarga ou indisponibilidade do serviço
+     */
+    public void liberar(long duracaoNanos, boolean queda) {
+        List<CompletableFuture<Boolean>> atendidos;
+        synchronized (this) {
+            boolean limiteEmUso = emVoo * 2 >= limiteAtual();
+            emVoo--;
+            if (queda || duracaoNanos > latenciaLimiteNanos) {
+                limite = Math.max(limiteMinimo, limite * fatorReducao);
+            } else if (limiteEmUso) {
+                limite = Math.min(limiteMaximo, limite + 1);
+            }
+            atendidos = reservarParaAguardando();
+            notifyAll();
+        }
+        entregar(atendidos);
+    }
+
+    /**
+     * Libera a vaga de uma chamada que não chegou a ser feita, sem ajustar o limite.
+     */
+    public void liberarSemAmostra() {
+        List<CompletableFuture<Boolean>> atendidos;
+        synchronized (this) {
+            emVoo--;
+            atendidos = reservarParaAguardando();
+            notifyAll();
+        }
+        entregar(atendidos);
+    }
+
+    public synchronized int limiteAtual() {
+        return (int) limite;
+    }
+
+    public synchronized int emVoo() {
+        return emVoo;
+    }
+
+    /**
+     * Ocupa as vagas livres para os primeiros da fila; os futuros são completados fora do lock, porque
+     * quem aguarda continua o processamento na thread que completa.
+     */
+    private List<CompletableFuture<Boolean>> reservarParaAguardando() {
+        List<CompletableFuture<Boolean>> atendidos = List.of();
+        while (emVoo < limiteAtual() && !aguardando.isEmpty()) {
+            CompletableFuture<Boolean> vaga = aguardando.poll();
+            if (vaga.isDone()) {
+                continue; // expirou ou foi cancelado
+            }
+            if (atendidos.isEmpty()) {
+                atendidos = new ArrayList<>();
+            }
+            atendidos.add(vaga);
+            emVoo++;
+        }
+        return atendidos;
+    }
+
+    private void entregar(List<CompletableFuture<Boolean>> atendidos) {
+        for (CompletableFuture<Boolean> vaga : atendidos) {
+            if (!vaga.complete(true)) {
+                liberarSemAmostra(); // expirou ou foi cancelado entre a reserva e a entrega
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sentimentapi.service.resilience;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite abortar a requisição HTTP de uma tentativa que está bloqueada em outra thread.
+ * <p>
+ * A tentativa roda dentro de {@link #executar}; o request factory do RestTemplate vincula a requisição
+ * criada nessa thread ({@link #vincular}) e {@link #cancelar()} fecha a conexão, o que destrava a leitura
+ * com erro. Usado pelo {@link RequestHedger} para descartar a tentativa perdedora.
+ */
+public final class CancelamentoHttp {
+
+    private static final ThreadLocal<CancelamentoHttp> ATUAL = new ThreadLocal<>();
+
+    private Cancellable requisicao;
+    private boolean cancelado;
+
+    /**
+     * Executa a chamada com este cancelamento vinculado à thread atual.
+     */
+    public <T> T executar(Supplier<T> chamada) {
+        CancelamentoHttp anterior = ATUAL.get();
+        ATUAL.set(this);
+        try {
+            return chamada.get();
+        } finally {
+            ATUAL.set(anterior);
+        }
+    }
+
+    /**
+     * Vincula a requisição criada na thread atual ao cancelamento em vigor, se houver.
+     */
+    public static void vincular(Cancellable requisicao) {
+        CancelamentoHttp atual = ATUAL.get();
+        if (atual != null) {
+            atual.definir(requisicao);
+        }
+    }
+
+    /**
+     * @return true se a chamada em andamento na thread atual foi cancelada (o erro dela não é do serviço)
+     */
+    public static boolean canceladoNaThreadAtual() {
+        CancelamentoHttp atual = ATUAL.get();
+        return atual != null && atual.cancelado();
+    }
+
+    public synchronized void cancelar() {
+        cancelado = true;
+        if (requisicao != null) {
+            requisicao.cancel();
+        }
+    }
+
+    public synchronized boolean cancelado() {
+        return cancelado;
+    }
+
+    private synchronized void definir(Cancellable requisicao) {
+        this.requisicao = requisicao;
+        if (cancelado) {
+            requisicao.cancel();
+        }
+    }
+}
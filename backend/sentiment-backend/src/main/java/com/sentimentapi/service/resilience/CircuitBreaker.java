@@ -0,0 +1,183 @@
+package com.sentimentapi.service.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker com janela deslizante das últimas {@code tamanhoJanela} chamadas.
+ * <p>
+ * Abre quando, com pelo menos {@code minimoChamadas} na janela, a taxa de erros ou a taxa de
+ * chamadas lentas atinge o limite. Aberto, rejeita chamadas por {@code esperaAberto}; depois
+ * deixa passar {@code chamadasMeioAberto} chamadas de teste e volta a fechar (ou abrir)
+ * conforme o resultado delas.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum Estado {
+        FECHADO,
+        MEIO_ABERTO,
+        ABERTO
+    }
+
+    private static final byte ERRO = 1;
+    private static final byte LENTA = 2;
+
+    private final String nome;
+    private final int minimoChamadas;
+    private final double limiteErrosPercentual;
+    private final double limiteLentasPercentual;
+    private final long duracaoLentaNanos;
+    private final long esperaAbertoNanos;
+    private final int chamadasMeioAberto;
+    private final LongSupplier relogioNanos;
+
+    private final byte[] janela;
+    private int proxima;
+    private int preenchidas;
+    private int erros;
+    private int lentas;
+
+    private Estado estado = Estado.FECHADO;
+    private long abertoAteNanos;
+    private int permissoesMeioAberto;
+
+    public CircuitBreaker(
+            String nome,
+            int tamanhoJanela,
+            int minimoChamadas,
+            double limiteErrosPercentual,
+            double limiteLentasPercentual,
+            long duracaoLentaMs,
+            long esperaAbertoMs,
+            int chamadasMeioAberto) {
+        this(nome, tamanhoJanela, minimoChamadas, limiteErrosPercentual, limiteLentasPercentual,
+                duracaoLentaMs, esperaAbertoMs, chamadasMeioAberto, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            String nome,
+            int tamanhoJanela,
+            int minimoChamadas,
+            double limiteErrosPercentual,
+            double limiteLentasPercentual,
+            long duracaoLentaMs,
+            long esperaAbertoMs,
+            int chamadasMeioAberto,
+            LongSupplier relogioNanos) {
+        this.nome = nome;
+        this.janela = new byte[tamanhoJanela];
+        this.minimoChamadas = Math.min(minimoChamadas, tamanhoJanela);
+        this.limiteErrosPercentual = limiteErrosPercentual;
+        this.limiteLentasPercentual = limiteLentasPercentual;
+        this.duracaoLentaNanos = TimeUnit.MILLISECONDS.toNanos(duracaoLentaMs);
+        this.esperaAbertoNanos = TimeUnit.MILLISECONDS.toNanos(esperaAbertoMs);
+        this.chamadasMeioAberto = Math.min(chamadasMeioAberto, tamanhoJanela);
+        this.relogioNanos = relogioNanos;
+    }
+
+    /**
+     * Pede permissão para uma chamada.
+     *
+     * @return false se o circuito está aberto (ou meio-aberto sem vagas de teste)
+     */
+    public synchronized boolean tentarAdquirir() {
+        if (estado == Estado.ABERTO && relogioNanos.getAsLong() - abertoAteNanos >= 0) {
+            transicionar(Estado.MEIO_ABERTO);
+        }
+        return switch (estado) {
+            case FECHADO -> true;
+            case MEIO_ABERTO -> {
+                if (permissoesMeioAberto > 0) {
+                    permissoesMeioAberto--;
+                    yield true;
+                }
+                yield false;
+            }
+            case ABERTO -> false;
+        };
+    }
+
+    /**
+     * Registra o resultado de uma chamada permitida.
+     *
+     * @param duracaoNanos Duração da chamada
+     * @param erro         Se a chamada falhou por problema do serviço
+     */
+    public synchronized void registrar(long duracaoNanos, boolean erro) {
+        if (estado == Estado.ABERTO) {
+            // Chamada iniciada antes de o circuito abrir
+            return;
+        }
+
+        byte resultado = (byte) ((erro ? ERRO : 0) | (duracaoNanos >= duracaoLentaNanos ? LENTA : 0));
+        if (preenchidas == janela.length) {
+            remover(janela[proxima]);
+        } else {
+            preenchidas++;
+        }
+        janela[proxima] = resultado;
+        proxima = (proxima + 1) % janela.length;
+        erros += resultado & ERRO;
+        lentas += (resultado & LENTA) >> 1;
+
+        if (estado == Estado.MEIO_ABERTO) {
+            if (preenchidas >= chamadasMeioAberto) {
+                transicionar(acimaDoLimite() ? Estado.ABERTO : Estado.FECHADO);
+            }
+        } else if (preenchidas >= minimoChamadas && acimaDoLimite()) {
+            transicionar(Estado.ABERTO);
+        }
+    }
+
+    /**
+     * Abre o circuito imediatamente, ex.: quando a verificação de saúde detecta o serviço fora do ar.
+     * Depois da espera normal, as chamadas de teste decidem se ele volta a fechar.
+     */
+    public synchronized void abrir(String motivo) {
+        if (estado == Estado.ABERTO) {
+            return;
+        }
+        log.warn("Circuit breaker {} aberto externamente: {}", nome, motivo);
+        estado = Estado.ABERTO;
+        abertoAteNanos = relogioNanos.getAsLong() + esperaAbertoNanos;
+        permissoesMeioAberto = 0;
+        proxima = 0;
+        preenchidas = 0;
+        erros = 0;
+        lentas = 0;
+    }
+
+    public synchronized Estado estado() {
+        return estado;
+    }
+
+    private void remover(byte resultado) {
+        erros -= resultado & ERRO;
+        lentas -= (resultado & LENTA) >> 1;
+    }
+
+    private boolean acimaDoLimite() {
+        return erros * 100.0 / preenchidas >= limiteErrosPercentual
+                || lentas * 100.0 / preenchidas >= limiteLentasPercentual;
+    }
+
+    private void transicionar(Estado novo) {
+        if (novo == Estado.ABERTO) {
+            log.warn("Circuit breaker {} aberto: {}/{} erros e {}/{} chamadas lentas na janela",
+                    nome, erros, preenchidas, lentas, preenchidas);
+            abertoAteNanos = relogioNanos.getAsLong() + esperaAbertoNanos;
+        } else {
+            log.info("Circuit breaker {}: {} -> {}", nome, estado, novo);
+        }
+        estado = novo;
+        permissoesMeioAberto = novo == Estado.MEIO_ABERTO ? chamadasMeioAberto : 0;
+        // Cada estado avalia apenas as chamadas feitas nele
+        proxima = 0;
+        preenchidas = 0;
+        erros = 0;
+        lentas = 0;
+    }
+}
@@ -0,0 +1,286 @@
+package com.sentimentapi.service.resilience;
+
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.health.DependencyHealth;
+import com.sentimentapi.service.health.DependencyHealthChangedEvent;
+import com.sentimentapi.service.health.DependencyHealthProber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.NoHttpResponseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Camada de resiliência das chamadas ao DS Service.
+ * <p>
+ * Cada tentativa passa pelo limite adaptativo de concorrência (com teto de bulkhead) e pelo
+ * circuit breaker; falhas de conexão e respostas 502/503 são repetidas enquanto houver
+ * orçamento ({@link RetryBudget}). Rejeições falham imediatamente com {@link DsServiceException},
+ * sem ocupar uma thread por até o read timeout.
+ * <p>
+ * {@link #executarReativo(Supplier)} aplica as mesmas proteções, com o mesmo estado, às chamadas
+ * não bloqueantes da API v2: a espera por vaga e o backoff não ocupam thread.
+ */
+@Component
+@Slf4j
+public class DsResilience {
+
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryBudget retryBudget;
+    private final boolean enabled;
+    private final int maxRetries;
+    private final long backoffMs;
+    private final Counter rejeitadasCircuito;
+    private final Counter rejeitadasLimite;
+    private final Counter novasTentativas;
+    private final Counter orcamentoEsgotado;
+
+    public DsResilience(
+            CircuitBreaker circuitBreaker,
+            AdaptiveConcurrencyLimiter limiter,
+            RetryBudget retryBudget,
+            MeterRegistry meterRegistry,
+            @Value("${ds.resilience.enabled:true}") boolean enabled,
+            @Value("${ds.resilience.retry.max-retries:1}") int maxRetries,
+            @Value("${ds.resilience.retry.backoff-ms:50}") long backoffMs) {
+        this.circuitBreaker = circuitBreaker;
+        this.limiter = limiter;
+        this.retryBudget = retryBudget;
+        this.enabled = enabled;
+        this.maxRetries = maxRetries;
+        this.backoffMs = backoffMs;
+
+        Gauge.builder("ds.circuit.state", circuitBreaker, breaker -> breaker.estado().ordinal())
+                .description("Estado do circuit breaker do DS Service (0=fechado, 1=meio-aberto, 2=aberto)")
+                .register(meterRegistry);
+        Gauge.builder("ds.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limiteAtual)
+                .description("Limite adaptativo de chamadas simultâneas ao DS Service")
+                .register(meterRegistry);
+        Gauge.builder("ds.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::emVoo)
+                .register(meterRegistry);
+        Gauge.builder("ds.retry.budget.tokens", retryBudget, RetryBudget::tokens)
+                .register(meterRegistry);
+        this.rejeitadasCircuito = meterRegistry.counter("ds.resilience.rejected", "reason", "circuit_open");
+        this.rejeitadasLimite = meterRegistry.counter("ds.resilience.rejected", "reason", "concurrency_limit");
+        this.novasTentativas = meterRegistry.counter("ds.retry", "result", "retried");
+        this.orcamentoEsgotado = meterRegistry.counter("ds.retry", "result", "budget_exhausted");
+    }
+
+    /**
+     * Executa uma chamada ao DS Service com as proteções configuradas.
+     *
+     * @param chamada Chamada que lança {@link DsServiceException} em caso de falha
+     * @throws DsServiceException Se a chamada falhar ou for rejeitada
+     */
+    public <T> T executar(Supplier<T> chamada) {
+        if (!enabled) {
+            return chamada.get();
+        }
+
+        retryBudget.registrarRequisicao();
+        int tentativa = 0;
+        while (true) {
+            try {
+                return tentar(chamada);
+            } catch (DsServiceException e) {
+                if (!repetivel(e) || tentativa++ >= maxRetries) {
+                    throw e;
+                }
+                if (!retryBudget.tentarRetirar()) {
+                    orcamentoEsgotado.increment();
+                    throw e;
+                }
+                novasTentativas.increment();
+                log.debug("Repetindo chamada ao DS Service ({}): {}", tentativa, e.getMessage());
+                pausar();
+            }
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #executar(Supplier)}.
+     *
+     * @param chamada Cria a chamada; cada tentativa assina um novo {@link Mono}, que deve falhar com
+     *                {@link DsServiceException}
+     * @return Resposta ou erro {@link DsServiceException} se a chamada falhar ou for rejeitada
+     */
+    public <T> Mono<T> executarReativo(Supplier<Mono<T>> chamada) {
+        if (!enabled) {
+            return Mono.defer(chamada);
+        }
+        return Mono.defer(() -> {
+            retryBudget.registrarRequisicao();
+            return tentarReativo(chamada, 0);
+        });
+    }
+
+    /**
+     * A verificação periódica de saúde detectou o DS Service fora do ar: abre o circuito sem
+     * esperar que requisições reais acumulem erros na janela.
+     */
+    @EventListener
+    public void aoMudarSaude(DependencyHealthChangedEvent evento) {
+        if (enabled
+                && DependencyHealthProber.DS_SERVICE.equals(evento.dependencia())
+                && evento.atual().status() == DependencyHealth.Status.DOWN) {
+            circuitBreaker.abrir("health check falhou: " + evento.atual().erro());
+        }
+    }
+
+    public CircuitBreaker.Estado estadoCircuito() {
+        return circuitBreaker.estado();
+    }
+
+    private <T> T tentar(Supplier<T> chamada) {
+        if (!limiter.tentarAdquirir()) {
+            rejeitadasLimite.increment();
+            throw new DsServiceException("Limite de chamadas simultâneas ao DS Service atingido ("
+                    + limiter.limiteAtual() + ")");
+        }
+        if (!circuitBreaker.tentarAdquirir()) {
+            limiter.liberarSemAmostra();
+            rejeitadasCircuito.increment();
+            throw new DsServiceException("Circuit breaker aberto: DS Service indisponível");
+        }
+
+        long inicio = System.nanoTime();
+        boolean falha = false;
+        try {
+            return chamada.get();
+        } catch (RuntimeException e) {
+            falha = falhaDoServico(e);
+            throw e;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            circuitBreaker.registrar(duracao, falha);
+            limiter.liberar(duracao, falha);
+        }
+    }
+
+    private <T> Mono<T> tentarReativo(Supplier<Mono<T>> chamada, int tentativa) {
+        return Mono.fromFuture(limiter::adquirirAssincrono)
+                .flatMap(vaga -> {
+                    if (!vaga) {
+                        rejeitadasLimite.increment();
+                        return Mono.<T>error(new DsServiceException("Limite de chamadas simultâneas ao DS Service atingido ("
+                                + limiter.limiteAtual() + ")"));
+                    }
+                    if (!circuitBreaker.tentarAdquirir()) {
+                        limiter.liberarSemAmostra();
+                        rejeitadasCircuito.increment();
+                        return Mono.<T>error(new DsServiceException("Circuit breaker aberto: DS Service indisponível"));
+                    }
+                    return medirTentativa(chamada);
+                })
+                .onErrorResume(DsServiceException.class, e -> {
+                    if (!repetivel(e) || tentativa >= maxRetries) {
+                        return Mono.error(e);
+                    }
+                    if (!retryBudget.tentarRetirar()) {
+                        orcamentoEsgotado.increment();
+                        return Mono.error(e);
+                    }
+                    novasTentativas.increment();
+                    log.debug("Repetindo chamada ao DS Service ({}): {}", tentativa + 1, e.getMessage());
+                    return Mono.delay(Duration.ofMillis(jitter()))
+                            .then(Mono.defer(() -> tentarReativo(chamada, tentativa + 1)));
+                });
+    }
+
+    /**
+     * Registra a duração e o resultado de uma tentativa que já ocupou a vaga; cancelamentos
+     * (cliente desconectou) liberam a vaga sem ajustar o limite.
+     */
+    private <T> Mono<T> medirTentativa(Supplier<Mono<T>> chamada) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return Mono.defer(chamada)
+                    .doOnSuccess(resposta -> registrarTentativa(inicio, false))
+                    .doOnError(e -> registrarTentativa(inicio, !(e instanceof RuntimeException runtime) || falhaDoServico(runtime)))
+                    .doOnCancel(() -> {
+                        circuitBreaker.registrar(System.nanoTime() - inicio, false);
+                        limiter.liberarSemAmostra();
+                    });
+        });
+    }
+
+    private void registrarTentativa(long inicio, boolean falha) {
+        long duracao = System.nanoTime() - inicio;
+        circuitBreaker.registrar(duracao, falha);
+        limiter.liberar(duracao, falha);
+    }
+
+    /**
+     * Erros 4xx (exceto 429) indicam problema na requisição, não no serviço.
+     */
+    private static boolean falhaDoServico(RuntimeException e) {
+        if (e.getCause() instanceof HttpStatusCodeException http) {
+            return http.getStatusCode().is5xxServerError()
+                    || http.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        if (e.getCause() instanceof WebClientResponseException http) {
+            return http.getStatusCode().is5xxServerError()
+                    || http.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return true;
+    }
+
+    /**
+     * Só vale repetir o que falhou antes de o DS Service processar a requisição: conexão recusada,
+     * conexão reaproveitada que foi fechada pelo servidor, e 502/503. Timeouts não são repetidos.
+     */
+    private static boolean repetivel(DsServiceException e) {
+        Throwable causa = e.getCause();
+        if (causa instanceof HttpStatusCodeException http) {
+            int status = http.getStatusCode().value();
+            return status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        if (causa instanceof ResourceAccessException acesso) {
+            return acesso.getCause() instanceof ConnectException
+                    || acesso.getCause() instanceof NoHttpResponseException;
+        }
+        if (causa instanceof WebClientResponseException http) {
+            int status = http.getStatusCode().value();
+            return status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        if (causa instanceof WebClientRequestException acesso) {
+            return acesso.getCause() instanceof ConnectException
+                    || acesso.getCause() instanceof PrematureCloseException;
+        }
+        return false;
+    }
+
+    private void pausar() {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(jitter());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Jitter para que as novas tentativas não cheguem todas juntas.
+     */
+    private long jitter() {
+        return backoffMs <= 0 ? 0 : backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+    }
+}
@@ -0,0 +1,271 @@
+package com.sentimentapi.service.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedging das chamadas ao DS Service: se a tentativa principal não responde dentro do limiar, uma
+ * cópia é enviada (de preferência a outra réplica) e vale a resposta que chegar primeiro.
+ * <p>
+ * O limiar acompanha o percentil {@code percentile} das últimas {@code window} latências (com piso
+ * {@code min-delay-ms}); até haver {@code min-samples} amostras, não há hedge. A tentativa principal
+ * roda na thread de quem chama; só a cópia usa o pool {@code ds-hedge}. A perdedora é abortada
+ * ({@link CancelamentoHttp}), fechando a conexão em vez de esperar a resposta.
+ * <p>
+ * As cópias consomem um orçamento próprio ({@link RetryBudget}): cada chamada deposita
+ * {@code budget-ratio} tokens, então a carga extra fica em torno de 5% mesmo se o DS inteiro ficar lento.
+ * Métricas: {@code ds.hedge{result=sent|budget_exhausted}}, {@code ds.hedge.wins{winner=hedge|primary}}
+ * (só chamadas com cópia) e {@code ds.hedge.threshold} (ms).
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+
+    private final boolean enabled;
+    private final double percentil;
+    private final long atrasoMinimoNanos;
+    private final int minimoAmostras;
+    private final int intervaloRecalculo;
+    private final RetryBudget orcamento;
+    private final long[] amostras;
+    private int proximaAmostra;
+    private long totalAmostras;
+    private volatile long limiarNanos = -1;
+
+    private final ScheduledThreadPoolExecutor agendador;
+    private final ExecutorService executor;
+    private final Counter enviados;
+    private final Counter semOrcamento;
+    private final Counter vitoriasCopia;
+    private final Counter vitoriasPrincipal;
+
+    public RequestHedger(
+            @Value("${ds.resilience.hedging.enabled:false}") boolean enabled,
+            @Value("${ds.resilience.hedging.percentile:95}") double percentil,
+            @Value("${ds.resilience.hedging.min-delay-ms:10}") long atrasoMinimoMs,
+            @Value("${ds.resilience.hedging.window:1000}") int janela,
+            @Value("${ds.resilience.hedging.min-samples:100}") int minimoAmostras,
+            @Value("${ds.resilience.hedging.budget-ratio:0.05}") double proporcaoOrcamento,
+            @Value("${ds.resilience.hedging.budget-max-tokens:10}") double maximoTokens,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentil = percentil;
+        this.atrasoMinimoNanos = TimeUnit.MILLISECONDS.toNanos(atrasoMinimoMs);
+        this.amostras = new long[Math.max(1, janela)];
+        this.minimoAmostras = Math.max(1, Math.min(minimoAmostras, amostras.length));
+        this.intervaloRecalculo = Math.max(1, amostras.length / 20);
+        this.orcamento = new RetryBudget(proporcaoOrcamento, maximoTokens);
+
+        if (enabled) {
+            this.agendador = new ScheduledThreadPoolExecutor(1, threads("ds-hedge-timer"));
+            this.agendador.setRemoveOnCancelPolicy(true);
+            this.executor = Executors.newCachedThreadPool(threads("ds-hedge"));
+        } else {
+            this.agendador = null;
+            this.executor = null;
+        }
+
+        this.enviados = meterRegistry.counter("ds.hedge", "result", "sent");
+        this.semOrcamento = meterRegistry.counter("ds.hedge", "result", "budget_exhausted");
+        this.vitoriasCopia = meterRegistry.counter("ds.hedge.wins", "winner", "hedge");
+        this.vitoriasPrincipal = meterRegistry.counter("ds.hedge.wins", "winner", "primary");
+        Gauge.builder("ds.hedge.threshold", this, hedger -> hedger.limiarNanos < 0 ? Double.NaN : hedger.limiarNanos / 1_000_000.0)
+                .description("Tempo sem resposta a partir do qual uma cópia da chamada é enviada (ms)")
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefixo + "-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa a chamada, enviando a cópia se a principal passar do limiar.
+     *
+     * @param principal Tentativa principal (roda na thread atual)
+     * @param copia     Cópia, enviada só se necessário
+     * @return Primeira resposta bem-sucedida
+     * @throws RuntimeException O erro da tentativa principal, se nenhuma das duas responder
+     */
+    public <T> T executar(Supplier<T> principal, Supplier<T> copia) {
+        if (!enabled) {
+            return principal.get();
+        }
+        orcamento.registrarRequisicao();
+        long limiar = limiarNanos;
+        if (limiar < 0) {
+            long inicio = System.nanoTime();
+            T resposta = principal.get();
+            registrarAmostra(System.nanoTime() - inicio);
+            return resposta;
+        }
+
+        Corrida<T> corrida = new Corrida<>();
+        ScheduledFuture<?> gatilho = agendador.schedule(
+                () -> executor.execute(() -> correrCopia(corrida, copia)), limiar, TimeUnit.NANOSECONDS);
+        try {
+            T resposta = corrida.principal.executar(principal);
+            if (corrida.concluirPrincipal(resposta)) {
+                corrida.copia.cancelar();
+                registrarAmostra(System.nanoTime() - corrida.inicio);
+                if (corrida.copiaEnviada()) {
+                    vitoriasPrincipal.increment();
+                }
+                return resposta;
+            }
+            return corrida.resultado.join();
+        } catch (RuntimeException e) {
+            if (!corrida.principalFalhou(e)) {
+                throw e;
+            }
+            return aguardarCopia(corrida, e);
+        } finally {
+            gatilho.cancel(false);
+        }
+    }
+
+    private <T> void correrCopia(Corrida<T> corrida, Supplier<T> copia) {
+        if (!corrida.iniciarCopia()) {
+            return;
+        }
+        RuntimeException erro = null;
+        try {
+            if (!orcamento.tentarRetirar()) {
+                semOrcamento.increment();
+                return;
+            }
+            enviados.increment();
+            corrida.marcarCopiaEnviada();
+            T resposta = corrida.copia.executar(copia);
+            if (corrida.resultado.complete(resposta)) {
+                vitoriasCopia.increment();
+                // A principal levou pelo menos isso: entra na janela para o limiar não cair artificialmente
+                registrarAmostra(System.nanoTime() - corrida.inicio);
+                corrida.principal.cancelar();
+            }
+        } catch (RuntimeException e) {
+            erro = e;
+            log.debug("Cópia da chamada ao DS Service falhou: {}", e.getMessage());
+        } finally {
+            corrida.copiaTerminou(erro);
+        }
+    }
+
+    private <T> T aguardarCopia(Corrida<T> corrida, RuntimeException erroPrincipal) {
+        try {
+            return corrida.resultado.get();
+        } catch (ExecutionException e) {
+            throw erroPrincipal;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            corrida.copia.cancelar();
+            throw erroPrincipal;
+        }
+    }
+
+    private void registrarAmostra(long nanos) {
+        long[] janela = null;
+        synchronized (this) {
+            amostras[proximaAmostra] = nanos;
+            proximaAmostra = (proximaAmostra + 1) % amostras.length;
+            totalAmostras++;
+            if (totalAmostras >= minimoAmostras && (totalAmostras - minimoAmostras) % intervaloRecalculo == 0) {
+                janela = Arrays.copyOf(amostras, (int) Math.min(totalAmostras, amostras.length));
+            }
+        }
+        if (janela != null) {
+            Arrays.sort(janela);
+            int indice = (int) Math.ceil(percentil / 100.0 * janela.length) - 1;
+            limiarNanos = Math.max(atrasoMinimoNanos, janela[Math.max(0, Math.min(indice, janela.length - 1))]);
+        }
+    }
+
+    /**
+     * Limiar atual em nanossegundos, ou -1 enquanto não há amostras suficientes.
+     */
+    long limiarNanos() {
+        return limiarNanos;
+    }
+
+    /**
+     * Estado de uma chamada com possível cópia. {@link #resultado} recebe a primeira resposta; se a
+     * principal falhar com a cópia em andamento, quem chamou espera por ela.
+     */
+    private static final class Corrida<T> {
+
+        final long inicio = System.nanoTime();
+        final CompletableFuture<T> resultado = new CompletableFuture<>();
+        final CancelamentoHttp principal = new CancelamentoHttp();
+        final CancelamentoHttp copia = new CancelamentoHttp();
+        private boolean principalConcluida;
+        private boolean copiaEmAndamento;
+        private boolean copiaEnviada;
+        private RuntimeException erroPrincipal;
+
+        synchronized boolean iniciarCopia() {
+            if (principalConcluida) {
+                return false;
+            }
+            copiaEmAndamento = true;
+            return true;
+        }
+
+        synchronized void marcarCopiaEnviada() {
+            copiaEnviada = true;
+        }
+
+        synchronized boolean copiaEnviada() {
+            return copiaEnviada;
+        }
+
+        synchronized void copiaTerminou(RuntimeException erro) {
+            copiaEmAndamento = false;
+            if (principalConcluida && !resultado.isDone()) {
+                resultado.completeExceptionally(erroPrincipal != null ? erroPrincipal : erro);
+            }
+        }
+
+        synchronized boolean concluirPrincipal(T resposta) {
+            principalConcluida = true;
+            return resultado.complete(resposta);
+        }
+
+        /**
+         * @return true se a cópia venceu ou ainda está em andamento (vale esperar por ela)
+         */
+        synchronized boolean principalFalhou(RuntimeException erro) {
+            principalConcluida = true;
+            erroPrincipal = erro;
+            return copiaEmAndamento || (resultado.isDone() && !resultado.isCompletedExceptionally());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sentimentapi.service.resilience;
+
+/**
+ * Orçamento de novas tentativas (token bucket).
+ * <p>
+ * Cada requisição deposita {@code proporcao} tokens (até {@code maximoTokens}) e cada nova
+ * tentativa consome um token. Assim as novas tentativas ficam limitadas a uma fração do
+ * tráfego e não multiplicam a carga quando o serviço está com problema.
+ */
+public class RetryBudget {
+
+    private final double proporcao;
+    private final double maximoTokens;
+    private double tokens;
+
+    public RetryBudget(double proporcao, double maximoTokens) {
+        this.proporcao = proporcao;
+        this.maximoTokens = maximoTokens;
+        this.tokens = maximoTokens;
+    }
+
+    public synchronized void registrarRequisicao() {
+        tokens = Math.min(maximoTokens, tokens + proporcao);
+    }
+
+    /**
+     * @return true se há orçamento para mais uma tentativa (e o consome)
+     */
+    public synchronized boolean tentarRetirar() {
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double tokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,466 @@
+package com.sentimentapi.service.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Formato das chamadas de lote ({@code /predict/batch}) entre o backend e o DS Service.
+ * <p>
+ * Além do JSON, há um quadro binário com prefixo de tamanho ({@value #CONTENT_TYPE}), sem aspas,
+ * escapes nem nomes de campo, e compressão gzip opcional do corpo da requisição. A negociação é pelos
+ * cabeçalhos: a requisição declara {@code Content-Type}/{@code Content-Encoding} e pede o binário em
+ * {@code Accept}; a resposta é lida conforme o {@code Content-Type} que voltar. Um DS Service que não
+ * entende o formato responde 415 dizendo qual cabeçalho não suporta, e o cliente volta ao JSON
+ * ({@link #rebaixar()}); outras recusas ({@link #formatoRecusado(int, byte[])}) não mudam o formato.
+ * <p>
+ * Os quadros são montados num buffer reaproveitado por thread, e a compressão usa um {@link Deflater}
+ * também reaproveitado; não há {@code byte[]} intermediário por texto.
+ * <p>
+ * Requisição (big-endian): {@code u8 versão=1 | u32 n | n × (u32 tamanho | texto UTF-8)}.<br>
+ * Resposta: {@code u8 versão=1 | u16 tamanho | model_version UTF-8 (0 = ausente) | u32 n | n × item},
+ * item {@code u8 0 | u8 tamanho | label UTF-8 | f64 probability} ou {@code u8 1 | u16 tamanho | erro UTF-8}.
+ */
+@Component
+@Slf4j
+public class BatchWireCodec {
+
+    public static final String CONTENT_TYPE = "application/x-sentiment-batch";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(CONTENT_TYPE);
+    static final int VERSAO = 1;
+
+    private static final int CAPACIDADE_RETIDA = 1 << 20;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ThreadLocal<Quadro> QUADROS = ThreadLocal.withInitial(Quadro::new);
+    private static final ThreadLocal<Compressor> COMPRESSORES = ThreadLocal.withInitial(Compressor::new);
+
+    private final boolean binarioConfigurado;
+    private final boolean gzip;
+    private final int gzipMinimoBytes;
+    private volatile boolean rebaixado;
+
+    @Autowired
+    public BatchWireCodec(
+            @Value("${ds.service.wire.batch-format:json}") String formato,
+            @Value("${ds.service.wire.gzip-requests:false}") boolean gzip,
+            @Value("${ds.service.wire.gzip-min-bytes:1024}") int gzipMinimoBytes) {
+        if (!formato.equals("json") && !formato.equals("binary")) {
+            throw new IllegalArgumentException("ds.service.wire.batch-format inválido: " + formato + " (json ou binary)");
+        }
+        this.binarioConfigurado = formato.equals("binary");
+        this.gzip = gzip;
+        this.gzipMinimoBytes = gzipMinimoBytes;
+    }
+
+    /**
+     * JSON sem compressão, como as chamadas de previsão única.
+     */
+    public static BatchWireCodec json() {
+        return new BatchWireCodec("json", false, 0);
+    }
+
+    /**
+     * @return true se o lote vai em JSON puro (o cliente pode usar o caminho padrão do RestTemplate)
+     */
+    public boolean jsonSimples() {
+        return rebaixado || (!binarioConfigurado && !gzip);
+    }
+
+    public boolean binario() {
+        return binarioConfigurado && !rebaixado;
+    }
+
+    /**
+     * O DS Service recusou o formato: as próximas chamadas vão em JSON sem compressão.
+     */
+    public void rebaixar() {
+        if (!rebaixado) {
+            rebaixado = true;
+            log.warn("DS Service não aceitou o formato de lote configurado; usando JSON sem compressão");
+        }
+    }
+
+    /**
+     * Se a recusa do DS Service é pelo formato, e não por um lote com problema: 415 com o detalhe que o
+     * DS Service dá a um {@code Content-Type} ou {@code Content-Encoding} desconhecido (app/main.py e
+     * app/wire.py). Um quadro truncado ou um 422 de validação não rebaixam o cliente.
+     *
+     * @param status Status HTTP da recusa
+     * @param corpo  Corpo da resposta ({@code {"detail": "..."}})
+     */
+    public static boolean formatoRecusado(int status, byte[] corpo) {
+        if (status != 415 || corpo == null || corpo.length == 0) {
+            return false;
+        }
+        try {
+            String detalhe = OBJECT_MAPPER.readTree(corpo).path("detail").asText("");
+            return detalhe.startsWith("Content-Type não suportado") || detalhe.startsWith("Content-Encoding não suportado");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Escreve os cabeçalhos e o corpo da requisição de lote. O quadro é montado aqui e, quando o request
+     * permite ({@link StreamingHttpOutputMessage}), copiado direto para a conexão, sem outro buffer.
+     */
+    public void escrever(List<String> textos, ClientHttpRequest request) throws IOException {
+        boolean binario = binario();
+        Quadro quadro = QUADROS.get();
+        quadro.limpar();
+        if (binario) {
+            escreverRequisicao(textos, quadro);
+        } else {
+            OBJECT_MAPPER.writeValue(quadro, Map.of("texts", textos));
+        }
+        boolean comprimir = gzip && !rebaixado && quadro.tamanho >= gzipMinimoBytes;
+
+        HttpHeaders headers = request.getHeaders();
+        headers.setContentType(binario ? MEDIA_TYPE : MediaType.APPLICATION_JSON);
+        headers.setAccept(binario ? List.of(MEDIA_TYPE, MediaType.APPLICATION_JSON) : List.of(MediaType.APPLICATION_JSON));
+        if (comprimir) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            headers.setContentLength(quadro.tamanho);
+        }
+
+        StreamingHttpOutputMessage.Body corpo = out -> {
+            try {
+                if (comprimir) {
+                    COMPRESSORES.get().comprimir(quadro.dados, quadro.tamanho, out);
+                } else {
+                    out.write(quadro.dados, 0, quadro.tamanho);
+                }
+            } finally {
+                quadro.devolver();
+            }
+        };
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(corpo);
+        } else {
+            corpo.writeTo(request.getBody());
+        }
+    }
+
+    /**
+     * Lê a resposta de lote no formato indicado pelo {@code Content-Type} dela.
+     *
+     * @throws DsServiceException Se o quadro binário da resposta for inválido
+     */
+    public DsBatchServiceResponse ler(ClientHttpResponse response) throws IOException {
+        MediaType tipo = response.getHeaders().getContentType();
+        try (InputStream body = response.getBody()) {
+            if (tipo != null && MEDIA_TYPE.isCompatibleWith(tipo)) {
+                Quadro quadro = QUADROS.get();
+                try {
+                    quadro.limpar();
+                    quadro.lerTudo(body);
+                    return lerResposta(quadro.dados, quadro.tamanho);
+                } catch (IllegalArgumentException e) {
+                    throw new DsServiceException("Resposta de lote inválida do DS Service: " + e.getMessage(), e);
+                } finally {
+                    quadro.devolver();
+                }
+            }
+            return OBJECT_MAPPER.readValue(body, DsBatchServiceResponse.class);
+        }
+    }
+
+    static void escreverRequisicao(List<String> textos, Quadro quadro) {
+        quadro.escreverByte(VERSAO);
+        quadro.escreverInt(textos.size());
+        for (String texto : textos) {
+            int inicio = quadro.reservar(4);
+            int tamanho = quadro.escreverUtf8(texto);
+            quadro.escreverIntEm(inicio, tamanho);
+        }
+    }
+
+    /**
+     * Lado do DS Service (stubs de teste): textos de um quadro de requisição.
+     */
+    public static List<String> lerRequisicao(byte[] dados) {
+        Leitor leitor = new Leitor(dados, dados.length);
+        leitor.versao();
+        int n = leitor.inteiro();
+        List<String> textos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            textos.add(leitor.texto(leitor.inteiro()));
+        }
+        return textos;
+    }
+
+    /**
+     * Lado do DS Service (stubs de teste): quadro de resposta.
+     */
+    public static byte[] escreverResposta(DsBatchServiceResponse resposta) {
+        Quadro quadro = new Quadro();
+        quadro.escreverByte(VERSAO);
+        String versaoModelo = resposta.getModelVersion() != null ? resposta.getModelVersion() : "";
+        int inicio = quadro.reservar(2);
+        quadro.escreverShortEm(inicio, quadro.escreverUtf8(versaoModelo));
+        quadro.escreverInt(resposta.getResults().size());
+        for (DsBatchServiceResponse.Item item : resposta.getResults()) {
+            if (item.getError() == null) {
+                quadro.escreverByte(0);
+                int posicao = quadro.reservar(1);
+                int tamanho = quadro.escreverUtf8(item.getLabel());
+                quadro.dados[posicao] = (byte) tamanho; // escreverUtf8 pode trocar o array
+                quadro.escreverLong(Double.doubleToRawLongBits(item.getProbability()));
+            } else {
+                quadro.escreverByte(1);
+                int posicao = quadro.reservar(2);
+                quadro.escreverShortEm(posicao, quadro.escreverUtf8(item.getError()));
+            }
+        }
+        return Arrays.copyOf(quadro.dados, quadro.tamanho);
+    }
+
+    static DsBatchServiceResponse lerResposta(byte[] dados, int tamanho) {
+        Leitor leitor = new Leitor(dados, tamanho);
+        leitor.versao();
+        String versaoModelo = leitor.texto(leitor.curto());
+        int n = leitor.inteiro();
+        List<DsBatchServiceResponse.Item> itens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (leitor.byteSemSinal() == 0) {
+                String label = leitor.texto(leitor.byteSemSinal());
+                itens.add(new DsBatchServiceResponse.Item(label, Double.longBitsToDouble(leitor.longo()), null));
+            } else {
+                itens.add(new DsBatchServiceResponse.Item(null, null, leitor.texto(leitor.curto())));
+            }
+        }
+        return new DsBatchServiceResponse(itens, versaoModelo.isEmpty() ? null : versaoModelo);
+    }
+
+    /**
+     * Buffer crescente reaproveitado pela thread; depois de um lote muito grande a capacidade é devolvida.
+     */
+    static final class Quadro extends OutputStream {
+
+        byte[] dados = new byte[8192];
+        int tamanho;
+
+        void limpar() {
+            tamanho = 0;
+        }
+
+        void devolver() {
+            if (dados.length > CAPACIDADE_RETIDA) {
+                dados = new byte[8192];
+            }
+            tamanho = 0;
+        }
+
+        private void garantir(int adicionais) {
+            if (tamanho + adicionais > dados.length) {
+                byte[] maior = new byte[Math.max(dados.length * 2, tamanho + adicionais)];
+                System.arraycopy(dados, 0, maior, 0, tamanho);
+                dados = maior;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            escreverByte(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            garantir(len);
+            System.arraycopy(b, off, dados, tamanho, len);
+            tamanho += len;
+        }
+
+        void escreverByte(int valor) {
+            garantir(1);
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void escreverInt(int valor) {
+            escreverIntEm(reservar(4), valor);
+        }
+
+        void escreverLong(long valor) {
+            escreverIntEm(reservar(8), (int) (valor >>> 32));
+            escreverIntEm(tamanho - 4, (int) valor);
+        }
+
+        int reservar(int bytes) {
+            garantir(bytes);
+            int posicao = tamanho;
+            tamanho += bytes;
+            return posicao;
+        }
+
+        void escreverIntEm(int posicao, int valor) {
+            dados[posicao] = (byte) (valor >>> 24);
+            dados[posicao + 1] = (byte) (valor >>> 16);
+            dados[posicao + 2] = (byte) (valor >>> 8);
+            dados[posicao + 3] = (byte) valor;
+        }
+
+        void escreverShortEm(int posicao, int valor) {
+            dados[posicao] = (byte) (valor >>> 8);
+            dados[posicao + 1] = (byte) valor;
+        }
+
+        /**
+         * Codifica o texto em UTF-8 direto no buffer (surrogates sem par viram '?', como em getBytes).
+         *
+         * @return Bytes escritos
+         */
+        int escreverUtf8(String texto) {
+            int comprimento = texto.length();
+            garantir(comprimento * 3);
+            byte[] destino = dados;
+            int posicao = tamanho;
+            for (int i = 0; i < comprimento; i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    destino[posicao++] = (byte) c;
+                } else if (c < 0x800) {
+                    destino[posicao++] = (byte) (0xC0 | (c >> 6));
+                    destino[posicao++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < comprimento && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, texto.charAt(++i));
+                    destino[posicao++] = (byte) (0xF0 | (codePoint >> 18));
+                    destino[posicao++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    destino[posicao++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    destino[posicao++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    destino[posicao++] = '?';
+                } else {
+                    destino[posicao++] = (byte) (0xE0 | (c >> 12));
+                    destino[posicao++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    destino[posicao++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            int escritos = posicao - tamanho;
+            tamanho = posicao;
+            return escritos;
+        }
+
+        void lerTudo(InputStream in) throws IOException {
+            int lidos;
+            do {
+                garantir(8192);
+                lidos = in.read(dados, tamanho, dados.length - tamanho);
+                if (lidos > 0) {
+                    tamanho += lidos;
+                }
+            } while (lidos >= 0);
+        }
+    }
+
+    private static final class Leitor {
+
+        private final byte[] dados;
+        private final int limite;
+        private int posicao;
+
+        Leitor(byte[] dados, int limite) {
+            this.dados = dados;
+            this.limite = limite;
+        }
+
+        void versao() {
+            int versao = byteSemSinal();
+            if (versao != VERSAO) {
+                throw new IllegalArgumentException("Versão de quadro de lote não suportada: " + versao);
+            }
+        }
+
+        int byteSemSinal() {
+            exigir(1);
+            return dados[posicao++] & 0xFF;
+        }
+
+        int curto() {
+            exigir(2);
+            int valor = ((dados[posicao] & 0xFF) << 8) | (dados[posicao + 1] & 0xFF);
+            posicao += 2;
+            return valor;
+        }
+
+        int inteiro() {
+            exigir(4);
+            int valor = ((dados[posicao] & 0xFF) << 24) | ((dados[posicao + 1] & 0xFF) << 16)
+                    | ((dados[posicao + 2] & 0xFF) << 8) | (dados[posicao + 3] & 0xFF);
+            posicao += 4;
+            return valor;
+        }
+
+        long longo() {
+            long alto = inteiro() & 0xFFFFFFFFL;
+            return (alto << 32) | (inteiro() & 0xFFFFFFFFL);
+        }
+
+        String texto(int bytes) {
+            exigir(bytes);
+            String texto = new String(dados, posicao, bytes, StandardCharsets.UTF_8);
+            posicao += bytes;
+            return texto;
+        }
+
+        private void exigir(int bytes) {
+            if (bytes < 0 || posicao + bytes > limite) {
+                throw new IllegalArgumentException("Quadro de lote truncado");
+            }
+        }
+    }
+
+    /**
+     * gzip (RFC 1952) com {@link Deflater} reaproveitado, em vez de um GZIPOutputStream por chamada.
+     */
+    private static final class Compressor {
+
+        private static final byte[] CABECALHO = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] saida = new byte[8192];
+
+        void comprimir(byte[] dados, int tamanho, OutputStream out) throws IOException {
+            deflater.reset();
+            crc.reset();
+            crc.update(dados, 0, tamanho);
+            out.write(CABECALHO);
+            deflater.setInput(dados, 0, tamanho);
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(saida);
+                out.write(saida, 0, n);
+            }
+            escreverLittleEndian(out, (int) crc.getValue());
+            escreverLittleEndian(out, tamanho);
+        }
+
+        private static void escreverLittleEndian(OutputStream out, int valor) throws IOException {
+            out.write(valor);
+            out.write(valor >>> 8);
+            out.write(valor >>> 16);
+            out.write(valor >>> 24);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- =========================================================
+-- analise_resultado no H2 (perfil dev e testes)
+-- =========================================================
+-- Mesmas colunas e índices da versão PostgreSQL, sem particionamento: no H2 a retenção
+-- (AnaliseParticaoService) remove as linhas vencidas com um único DELETE por período.
+
+CREATE SEQUENCE IF NOT EXISTS analise_resultado_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS analise_resultado (
+    id                     BIGINT           NOT NULL,
+    texto_original         CLOB             NOT NULL,
+    sentimento             VARCHAR(20)      NOT NULL,
+    probabilidade          DOUBLE PRECISION NOT NULL,
+    data_analise           TIMESTAMP(6)     NOT NULL,
+    tempo_processamento_ms BIGINT,
+    origem                 VARCHAR(50),
+    batch_id               VARCHAR(100),
+    texto_hash             VARCHAR(64),
+    modelo_versao          VARCHAR(100),
+    camada                 VARCHAR(20),
+
+    CONSTRAINT analise_resultado_pkey PRIMARY KEY (id),
+    CONSTRAINT ck_analise_sentimento
+        CHECK (sentimento IN ('POSITIVO', 'NEGATIVO', 'NEUTRO'))
+);
+
+-- Uma tabela já existente (criada pelo ddl-auto) pode não ter as colunas mais novas
+ALTER TABLE analise_resultado ADD COLUMN IF NOT EXISTS texto_hash VARCHAR(64);
+ALTER TABLE analise_resultado ADD COLUMN IF NOT EXISTS modelo_versao VARCHAR(100);
+ALTER TABLE analise_resultado ADD COLUMN IF NOT EXISTS camada VARCHAR(20);
+
+-- Uma tabela criada antes pelo ddl-auto (id IDENTITY) é mantida com suas linhas: a sequence precisa
+-- começar depois do maior id, senão os inserts com ids da sequence colidem com a chave primária.
+-- O Hibernate reserva blocos de 50 (pooled), usando os ids até o valor devolvido pela sequence.
+ALTER SEQUENCE analise_resultado_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM analise_resultado);
+
+DROP INDEX IF EXISTS idx_analise_texto_hash;
+
+CREATE INDEX IF NOT EXISTS idx_analise_data
+    ON analise_resultado (data_analise);
+
+CREATE INDEX IF NOT EXISTS idx_analise_sentimento_data
+    ON analise_resultado (sentimento, data_analise);
+
+CREATE INDEX IF NOT EXISTS idx_analise_batch
+    ON analise_resultado (batch_id);
+
+CREATE INDEX IF NOT EXISTS idx_analise_hash_modelo
+    ON analise_resultado (texto_hash, modelo_versao, data_analise);
@@ -0,0 +1,16 @@
+-- =========================================================
+-- Índices de cobertura para as estatísticas filtradas (/stats/query)
+-- =========================================================
+-- O H2 não tem INCLUDE: as colunas agregadas entram no fim da chave, com o mesmo efeito de cobertura.
+
+DROP INDEX IF EXISTS idx_analise_data;
+DROP INDEX IF EXISTS idx_analise_batch;
+
+CREATE INDEX IF NOT EXISTS idx_analise_stats_data
+    ON analise_resultado (data_analise, origem, sentimento, probabilidade, tempo_processamento_ms);
+
+CREATE INDEX IF NOT EXISTS idx_analise_stats_origem
+    ON analise_resultado (origem, data_analise, sentimento, probabilidade, tempo_processamento_ms);
+
+CREATE INDEX IF NOT EXISTS idx_analise_stats_batch
+    ON analise_resultado (batch_id, data_analise, sentimento, probabilidade, tempo_processamento_ms);
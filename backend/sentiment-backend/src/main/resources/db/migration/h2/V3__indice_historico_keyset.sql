@@ -0,0 +1,9 @@
+-- =========================================================
+-- Chave (data_analise, id) no índice de período, para o histórico paginado por keyset
+-- =========================================================
+-- O H2 não tem INCLUDE: as colunas agregadas continuam no fim da chave, depois de id.
+
+DROP INDEX IF EXISTS idx_analise_stats_data;
+
+CREATE INDEX IF NOT EXISTS idx_analise_stats_data
+    ON analise_resultado (data_analise, id, origem, sentimento, probabilidade, tempo_processamento_ms);
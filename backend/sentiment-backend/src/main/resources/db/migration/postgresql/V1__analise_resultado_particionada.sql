@@ -0,0 +1,98 @@
+-- =========================================================
+-- analise_resultado particionada por mês (data_analise)
+-- =========================================================
+-- Partições mensais analise_resultado_pAAAAMM, criadas com antecedência pela aplicação
+-- (AnaliseParticaoService), que também desanexa ou remove as vencidas pela retenção.
+-- A partição padrão só recebe linhas fora dos meses já criados.
+-- Se a tabela já existir sem partições (criada pelo ddl-auto), os dados são copiados para a nova;
+-- colunas que ela ainda não tem (texto_hash, modelo_versao, camada) são criadas antes, vazias.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('analise_resultado') AND relkind = 'r') THEN
+        ALTER TABLE analise_resultado
+            ADD COLUMN IF NOT EXISTS texto_hash    VARCHAR(64),
+            ADD COLUMN IF NOT EXISTS modelo_versao VARCHAR(100),
+            ADD COLUMN IF NOT EXISTS camada        VARCHAR(20);
+        ALTER TABLE analise_resultado RENAME TO analise_resultado_legado;
+        ALTER INDEX IF EXISTS analise_resultado_pkey RENAME TO analise_resultado_legado_pkey;
+        ALTER INDEX IF EXISTS idx_analise_texto_hash RENAME TO idx_analise_legado_texto_hash;
+    END IF;
+END $$;
+
+CREATE SEQUENCE IF NOT EXISTS analise_resultado_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE analise_resultado (
+    id                     BIGINT           NOT NULL,
+    texto_original         TEXT             NOT NULL,
+    sentimento             VARCHAR(20)      NOT NULL,
+    probabilidade          DOUBLE PRECISION NOT NULL,
+    data_analise           TIMESTAMP(6)     NOT NULL,
+    tempo_processamento_ms BIGINT,
+    origem                 VARCHAR(50),
+    batch_id               VARCHAR(100),
+    texto_hash             VARCHAR(64),
+    modelo_versao          VARCHAR(100),
+    camada                 VARCHAR(20),
+
+    -- A chave de partição precisa fazer parte da chave primária
+    CONSTRAINT analise_resultado_pkey PRIMARY KEY (id, data_analise),
+    CONSTRAINT ck_analise_sentimento
+        CHECK (sentimento IN ('POSITIVO', 'NEGATIVO', 'NEUTRO'))
+) PARTITION BY RANGE (data_analise);
+
+CREATE TABLE analise_resultado_padrao PARTITION OF analise_resultado DEFAULT;
+
+-- Meses dos dados existentes até 3 meses à frente
+DO $$
+DECLARE
+    primeiro DATE := date_trunc('month', now());
+    mes      DATE;
+BEGIN
+    IF to_regclass('analise_resultado_legado') IS NOT NULL THEN
+        EXECUTE 'SELECT LEAST(date_trunc(''month'', min(data_analise)), $1) FROM analise_resultado_legado'
+            INTO primeiro USING primeiro;
+        primeiro := COALESCE(primeiro, date_trunc('month', now()));
+    END IF;
+
+    mes := primeiro;
+    WHILE mes <= date_trunc('month', now()) + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF analise_resultado FOR VALUES FROM (%L) TO (%L)',
+                       'analise_resultado_p' || to_char(mes, 'YYYYMM'), mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+
+    IF to_regclass('analise_resultado_legado') IS NOT NULL THEN
+        INSERT INTO analise_resultado (id, texto_original, sentimento, probabilidade, data_analise,
+                                       tempo_processamento_ms, origem, batch_id, texto_hash, modelo_versao, camada)
+        SELECT id, texto_original, sentimento, probabilidade, data_analise,
+               tempo_processamento_ms, origem, batch_id, texto_hash, modelo_versao, camada
+        FROM analise_resultado_legado;
+        DROP TABLE analise_resultado_legado;
+    END IF;
+END $$;
+
+-- As linhas copiadas mantêm seus ids: a sequence precisa continuar depois do maior deles, senão a
+-- chave (id, data_analise) aceita ids repetidos. O Hibernate reserva blocos de 50 (pooled).
+SELECT setval('analise_resultado_seq', COALESCE((SELECT max(id) FROM analise_resultado), 0) + 50);
+
+-- =========================================================
+-- ÍNDICES (criados na tabela pai, valem para cada partição)
+-- =========================================================
+
+-- findTop100ByOrderByDataAnaliseDesc e findByDataAnaliseBetween
+CREATE INDEX idx_analise_data
+    ON analise_resultado (data_analise);
+
+-- countBySentimento e countBySentimentoAndDataAnaliseBetween
+CREATE INDEX idx_analise_sentimento_data
+    ON analise_resultado (sentimento, data_analise);
+
+-- findByBatchId: só as análises de lote têm batch_id
+CREATE INDEX idx_analise_batch
+    ON analise_resultado (batch_id)
+    WHERE batch_id IS NOT NULL;
+
+-- findFirstByTextoHashAndModeloVersaoOrderByDataAnaliseDesc (reaproveitamento de previsões)
+CREATE INDEX idx_analise_hash_modelo
+    ON analise_resultado (texto_hash, modelo_versao, data_analise);
@@ -0,0 +1,25 @@
+-- =========================================================
+-- Índices de cobertura para as estatísticas filtradas (/stats/query)
+-- =========================================================
+-- Cada filtro tem um índice cuja chave atende ao WHERE e cujo INCLUDE traz as colunas agregadas
+-- (sentimento, probabilidade, tempo): a consulta vira um index-only scan, sem ler a tabela.
+-- Substituem idx_analise_data e idx_analise_batch, que são prefixos destes.
+
+DROP INDEX IF EXISTS idx_analise_data;
+DROP INDEX IF EXISTS idx_analise_batch;
+
+-- Período (também atende findTop100ByOrderByDataAnaliseDesc e findByDataAnaliseBetween)
+CREATE INDEX idx_analise_stats_data
+    ON analise_resultado (data_analise)
+    INCLUDE (origem, sentimento, probabilidade, tempo_processamento_ms);
+
+-- Origem, com ou sem período
+CREATE INDEX idx_analise_stats_origem
+    ON analise_resultado (origem, data_analise)
+    INCLUDE (sentimento, probabilidade, tempo_processamento_ms);
+
+-- Lote, com ou sem período (também atende findByBatchId); só as análises de lote têm batch_id
+CREATE INDEX idx_analise_stats_batch
+    ON analise_resultado (batch_id, data_analise)
+    INCLUDE (sentimento, probabilidade, tempo_processamento_ms)
+    WHERE batch_id IS NOT NULL;
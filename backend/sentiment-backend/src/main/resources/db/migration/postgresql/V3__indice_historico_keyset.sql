@@ -0,0 +1,14 @@
+-- =========================================================
+-- Chave (data_analise, id) no índice de período, para o histórico paginado por keyset
+-- =========================================================
+-- O histórico (/api/v1/analises) ordena por (data_analise, id) e continua a partir da última análise
+-- recebida; com id na chave, a ordem e o ponto de partida saem do índice, mesmo com várias análises
+-- no mesmo instante. Substitui a chave só de data_analise da V2, que também atendia as consultas
+-- findTop100ByOrderByDataAnaliseDesc e findByDataAnaliseBetween, removidas do repositório.
+-- As estatísticas filtradas por período continuam usando este índice (mesmo prefixo e INCLUDE).
+
+DROP INDEX IF EXISTS idx_analise_stats_data;
+
+CREATE INDEX idx_analise_stats_data
+    ON analise_resultado (data_analise, id)
+    INCLUDE (origem, sentimento, probabilidade, tempo_processamento_ms);
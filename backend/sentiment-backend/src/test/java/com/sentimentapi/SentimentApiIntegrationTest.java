@@ -1,16 +1,22 @@
 package com.sentimentapi;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sentimentapi.dto.request.BatchJobRequest;
 import com.sentimentapi.dto.request.BatchSentimentRequest;
 import com.sentimentapi.dto.request.SentimentRequest;
 import com.sentimentapi.dto.response.BatchSentimentResponse;
 import com.sentimentapi.dto.response.SentimentResponse;
 import com.sentimentapi.dto.response.StatsResponse;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
 import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.ReactiveDsServiceClient;
 import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -18,14 +24,24 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -33,6 +49,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @ActiveProfiles("dev")
 class SentimentApiIntegrationTest {
 
@@ -42,9 +59,15 @@ class SentimentApiIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AnaliseWriteBehindQueue writeBehindQueue;
+
     @MockBean
     private DsServiceClient dsServiceClient;
 
+    @MockBean
+    private ReactiveDsServiceClient reactiveDsServiceClient;
+
     @Test
     @DisplayName("Fluxo completo: análise de sentimento e verificação de estatísticas")
     void fluxoCompletoAnaliseEStats() throws Exception {
@@ -69,7 +92,8 @@ class SentimentApiIntegrationTest {
         assertThat(response.getPrevisao()).isEqualTo("Positivo");
         assertThat(response.getProbabilidade()).isEqualTo(0.85);
 
-        // 2. Verificar estatísticas
+        // 2. Verificar estatísticas (o /stats não espera a fila de persistência)
+        writeBehindQueue.flush();
         MvcResult statsResult = mockMvc.perform(get("/api/v1/stats"))
                 .andExpect(status().isOk())
                 .andReturn();
@@ -116,14 +140,196 @@ class SentimentApiIntegrationTest {
         assertThat(response.getTotal()).isEqualTo(3);
         assertThat(response.getBatchId()).isNotNull();
         assertThat(response.getResultados()).hasSize(3);
+
+        // Estatísticas só deste lote
+        mockMvc.perform(get("/api/v1/stats/query").param("batch_id", response.getBatchId()).param("consistent", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total_analises").value(3))
+                .andExpect(jsonPath("$.positivos").value(1))
+                .andExpect(jsonPath("$.probabilidade_media_negativos").value(0.88));
+        mockMvc.perform(get("/api/v1/stats/query"))
+                .andExpect(status().isBadRequest());
+
+        // O lote aparece no histórico das últimas 24 horas
+        mockMvc.perform(get("/api/v1/analises").param("limit", "1000").param("consistent", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.analises[?(@.batch_id == '" + response.getBatchId() + "')]").value(hasSize(3)));
+        mockMvc.perform(get("/api/v1/analises").param("cursor", "inválido"))
+                .andExpect(status().isBadRequest());
+
+        // ... e na exportação em CSV gzip
+        MvcResult exportacao = mockMvc.perform(get("/api/v1/analises/export").param("consistent", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult arquivo = mockMvc.perform(asyncDispatch(exportacao))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv.gz")))
+                .andReturn();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(
+                arquivo.getResponse().getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv.lines().filter(linha -> linha.contains(response.getBatchId()))).hasSize(3);
+        mockMvc.perform(get("/api/v1/analises/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Streaming NDJSON: um resultado por linha, na ordem da entrada")
+    void streamingNdjson() throws Exception {
+        when(dsServiceClient.predict("Amei o produto"))
+                .thenReturn(new DsServiceResponse("Positivo", 0.93));
+        when(dsServiceClient.predict("Veio com defeito"))
+                .thenReturn(new DsServiceResponse("Negativo", 0.81));
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/v1/sentiment/stream")
+                        .contentType("application/x-ndjson")
+                        .content("{\"text\": \"Amei o produto\"}\n{\"text\": \"Veio com defeito\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Batch-Id"))
+                .andReturn();
+
+        List<String> linhas = result.getResponse().getContentAsString().lines().toList();
+        assertThat(linhas).hasSize(2);
+        assertThat(objectMapper.readTree(linhas.get(0)).get("previsao").asText()).isEqualTo("Positivo");
+        assertThat(objectMapper.readTree(linhas.get(1)).get("previsao").asText()).isEqualTo("Negativo");
+    }
+
+    @Test
+    @DisplayName("API v2: mesmos contratos da v1, com resposta assíncrona e itens com erro no batch")
+    void apiV2NaoBloqueante() throws Exception {
+        when(reactiveDsServiceClient.predict("Chegou antes do prazo"))
+                .thenReturn(Mono.just(new DsServiceResponse("Positivo", 0.91, "v2-teste")));
+        when(reactiveDsServiceClient.predict("Veio faltando peça"))
+                .thenReturn(Mono.just(new DsServiceResponse("Negativo", 0.84, "v2-teste")));
+        when(reactiveDsServiceClient.predict("Texto que falha no DS"))
+                .thenReturn(Mono.error(new DsServiceException("DS indisponível")));
+
+        MvcResult unico = mockMvc.perform(post("/api/v2/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SentimentRequest("Chegou antes do prazo"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(unico))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.previsao").value("Positivo"))
+                .andExpect(jsonPath("$.probabilidade").value(0.91));
+
+        BatchSentimentRequest batchRequest = BatchSentimentRequest.builder()
+                .texts(List.of(
+                        new SentimentRequest("Veio faltando peça"),
+                        new SentimentRequest("Texto que falha no DS"),
+                        new SentimentRequest("Chegou antes do prazo")))
+                .build();
+        MvcResult batch = mockMvc.perform(post("/api/v2/sentiment/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.resultados[0].previsao").value("Negativo"))
+                .andExpect(jsonPath("$.resultados[1].previsao").value("ERRO"))
+                .andExpect(jsonPath("$.resultados[2].previsao").value("Positivo"));
+
+        MvcResult falha = mockMvc.perform(post("/api/v2/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SentimentRequest("Texto que falha no DS"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(falha))
+                .andExpect(status().isServiceUnavailable());
+
+        // A validação acontece antes do processamento assíncrono, como na v1
+        mockMvc.perform(post("/api/v2/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Job assíncrono: criação, progresso e resultados paginados")
+    void jobAssincrono() throws Exception {
+        when(dsServiceClient.predict(anyString()))
+                .thenReturn(new DsServiceResponse("Positivo", 0.9));
+
+        BatchJobRequest jobRequest = BatchJobRequest.builder()
+                .texts(List.of(
+                        new SentimentRequest("Primeiro texto do job"),
+                        new SentimentRequest("Segundo texto do job"),
+                        new SentimentRequest("Terceiro texto do job")))
+                .build();
+
+        MvcResult criado = mockMvc.perform(post("/api/v1/sentiment/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(jobRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        String jobId = objectMapper.readTree(criado.getResponse().getContentAsString()).get("job_id").asText();
+
+        String status = "";
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!status.equals("CONCLUIDO") && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            MvcResult progresso = mockMvc.perform(get("/api/v1/sentiment/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            status = objectMapper.readTree(progresso.getResponse().getContentAsString()).get("status").asText();
+        }
+        assertThat(status).isEqualTo("CONCLUIDO");
+
+        MvcResult resultados = mockMvc.perform(get("/api/v1/sentiment/jobs/" + jobId + "/results")
+                        .param("after", "0")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode pagina = objectMapper.readTree(resultados.getResponse().getContentAsString());
+        assertThat(pagina.get("resultados")).hasSize(2);
+        assertThat(pagina.get("proximo_cursor").asInt()).isEqualTo(2);
+
+        mockMvc.perform(get("/api/v1/sentiment/jobs/inexistente"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Endpoint do Prometheus deve expor os histogramas de latência com buckets de SLO")
+    void prometheusDeveExporHistogramas() throws Exception {
+        when(dsServiceClient.predict(anyString())).thenReturn(new DsServiceResponse("Negativo", 0.7));
+
+        mockMvc.perform(post("/api/v1/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SentimentRequest("Produto chegou quebrado"))))
+                .andExpect(status().isOk());
+
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(metricas)
+                .contains("sentiment_analysis_seconds_bucket{")
+                .contains("le=\"0.1\"") // bucket de SLO de 100ms
+                .contains("origem=\"API\"")
+                .contains("sentimento=\"NEGATIVO\"");
     }
 
     @Test
     @DisplayName("Health check deve retornar status UP")
     void healthCheckDeveRetornarStatusUp() throws Exception {
-        when(dsServiceClient.isHealthy()).thenReturn(true);
-
         mockMvc.perform(get("/api/v1/health"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.dependencies.database").exists())
+                .andExpect(jsonPath("$.checks['ds-service'].alterado_em").exists());
+
+        // DS Service fora do ar não deve derrubar o health do actuator (DEGRADED responde 200)
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.components.dsService").exists())
+                .andExpect(jsonPath("$.components.database").exists());
     }
 }
@@ -0,0 +1,114 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sentimentapi.support.DsResilienceFixtures;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark do transporte HTTP do DsServiceClient contra um DS Service local (stub):
+ * SimpleClientHttpRequestFactory (uma conexão por chamada) x pool keep-alive do HttpClient 5.
+ * <p>
+ * Execução: {@code ./mvnw test -Pbenchmark -Dtest=DsTransportBenchmarkTest}
+ */
+@Tag("benchmark")
+class DsTransportBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int MEASURED_CALLS = 20_000;
+
+    @Test
+    @DisplayName("Compara vazão e latência da factory simples com o pool keep-alive")
+    void compararTransportes() throws Exception {
+        try (StubDsServer stub = new StubDsServer(THREADS * 2)) {
+            SimpleClientHttpRequestFactory simpleFactory = new SimpleClientHttpRequestFactory();
+            simpleFactory.setConnectTimeout(10000);
+            simpleFactory.setReadTimeout(30000);
+            Result simple = run("simple", new RestTemplate(simpleFactory), stub.url());
+
+            RestTemplateConfig config = new RestTemplateConfig();
+            try (PoolingHttpClientConnectionManager pool =
+                         config.dsConnectionManager(10000, 30000, THREADS * 2, THREADS * 2, 300000, 2000);
+                 CloseableHttpClient client = config.dsHttpClient(pool, 30000, 2000, 30000)) {
+                RestTemplate pooledTemplate = new RestTemplate(
+                        new HttpComponentsClientHttpRequestFactory(client));
+                Result pooled = run("pooled", pooledTemplate, stub.url());
+
+                System.out.println(simple);
+                System.out.println(pooled);
+                System.out.printf("pool: %s%n", pool.getTotalStats());
+
+                // conexões devolvidas ao pool e reaproveitadas, nunca além do limite
+                assertThat(pool.getTotalStats().getLeased()).isZero();
+                assertThat(pool.getTotalStats().getAvailable()).isBetween(1, THREADS * 2);
+            }
+        }
+    }
+
+    private Result run(String name, RestTemplate restTemplate, String url) throws Exception {
+        DsServiceClient client = new DsServiceClient(restTemplate, new DsReplicaBalancer(url, new SimpleMeterRegistry()),
+                BatchWireCodec.json(), DsResilienceFixtures.semProtecao(), DsResilienceFixtures.semHedge(),
+                new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            execute(executor, client, WARMUP_CALLS);
+            long start = System.nanoTime();
+            long[] latencies = execute(executor, client, MEASURED_CALLS);
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new Result(name,
+                    MEASURED_CALLS / (elapsed / 1e9),
+                    latencies[latencies.length / 2] / 1e3,
+                    latencies[(int) (latencies.length * 0.99)] / 1e3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] execute(ExecutorService executor, DsServiceClient client, int calls) throws Exception {
+        long[] latencies = new long[calls];
+        int perThread = calls / THREADS;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * perThread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    long start = System.nanoTime();
+                    client.predict("Produto muito bom, entrega rápida!");
+                    latencies[offset + i] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return latencies;
+    }
+
+    private record Result(String name, double throughput, double p50Micros, double p99Micros) {
+        @Override
+        public String toString() {
+            return String.format("%-7s %10.0f req/s  p50=%8.1fus  p99=%8.1fus", name, throughput, p50Micros, p99Micros);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.service.predictor.ReactiveSentimentPredictor;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da escolha do motor de previsão.
+ */
+class PredictorConfigTest {
+
+    @Test
+    @DisplayName("No modo local a v2 deve prever fora da thread de quem assina (event loop)")
+    void motorLocalReativoDeveRodarNoBoundedElastic() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        SentimentPredictor local = mock(SentimentPredictor.class);
+        when(local.predict(anyString())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return new DsServiceResponse("Positivo", 0.9);
+        });
+        ReactiveSentimentPredictor predictor = new PredictorConfig().reactiveSentimentPredictor(null, local, "local");
+
+        assertThat(predictor.predict("Produto excelente").block().getLabel()).isEqualTo("Positivo");
+        assertThat(thread.get()).startsWith("boundedElastic-");
+    }
+}
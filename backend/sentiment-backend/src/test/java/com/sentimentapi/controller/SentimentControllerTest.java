@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sentimentapi.dto.request.SentimentRequest;
 import com.sentimentapi.dto.response.SentimentResponse;
 import com.sentimentapi.service.SentimentService;
+import com.sentimentapi.service.SentimentStreamService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,9 @@ class SentimentControllerTest {
     @MockBean
     private SentimentService sentimentService;
 
+    @MockBean
+    private SentimentStreamService sentimentStreamService;
+
     @Test
     @DisplayName("Deve retornar sentimento positivo para texto positivo")
     void deveRetornarSentimentoPositivo() throws Exception {
@@ -109,4 +113,17 @@ class SentimentControllerTest {
                         .content("{}"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("IllegalArgumentException interna não deve virar 400")
+    void illegalArgumentInternoDeveRetornar500() throws Exception {
+        SentimentRequest request = new SentimentRequest("Produto excelente! Recomendo a todos.");
+        when(sentimentService.analisar(any(SentimentRequest.class)))
+                .thenThrow(new IllegalArgumentException("Artefato de modelo inválido"));
+
+        mockMvc.perform(post("/api/v1/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isInternalServerError());
+    }
 }
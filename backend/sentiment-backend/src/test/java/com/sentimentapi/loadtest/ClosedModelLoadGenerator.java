@@ -0,0 +1,97 @@
+package com.sentimentapi.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Gerador de carga em modelo fechado: {@code conexoes} clientes simultâneos, cada um enviando a próxima
+ * requisição assim que recebe a resposta da anterior. Mede quantas conexões em espera o servidor sustenta,
+ * e não a latência sob uma taxa fixa (para isso, {@link OpenModelLoadGenerator}).
+ * <p>
+ * Os clientes são encadeados com {@link HttpClient#sendAsync}, sem uma thread por conexão no gerador.
+ * Como não há instante previsto de envio, o histograma "corrigido" do resultado é o mesmo do serviço.
+ */
+class ClosedModelLoadGenerator {
+
+    private static final long MAX_LATENCIA_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    ClosedModelLoadGenerator(HttpClient httpClient, Duration timeout) {
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Mantém {@code conexoes} clientes ocupados durante o período e espera as últimas respostas.
+     *
+     * @param nome       Nome do cenário (relatórios)
+     * @param conexoes   Clientes simultâneos
+     * @param duracao    Período em que novas requisições são enviadas
+     * @param requisicao Monta a requisição {@code i}
+     */
+    OpenModelLoadGenerator.Resultado executar(String nome, int conexoes, Duration duracao,
+                                              LongFunction<HttpRequest> requisicao) {
+        Histogram servico = new ConcurrentHistogram(MAX_LATENCIA_MICROS, 3);
+        Map<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+        LongAdder falhasCliente = new LongAdder();
+        AtomicLong sequencia = new AtomicLong();
+        AtomicLong respondidas = new AtomicLong();
+
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        CompletableFuture<?>[] clientes = new CompletableFuture<?>[conexoes];
+        for (int c = 0; c < conexoes; c++) {
+            clientes[c] = cliente(fim, requisicao, sequencia, respondidas, servico, porStatus, falhasCliente);
+        }
+        boolean concluiu;
+        try {
+            CompletableFuture.allOf(clientes).get(duracao.toMillis() + timeout.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+            concluiu = true;
+        } catch (Exception e) {
+            concluiu = false;
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<Integer, Long> status = new TreeMap<>();
+        porStatus.forEach((codigo, contador) -> status.put(codigo, contador.sum()));
+        return new OpenModelLoadGenerator.Resultado(nome, 0, sequencia.get(), respondidas.get(), concluiu, status,
+                falhasCliente.sum(), segundos, 0, servico, servico);
+    }
+
+    private CompletableFuture<Void> cliente(long fim, LongFunction<HttpRequest> requisicao, AtomicLong sequencia,
+                                            AtomicLong respondidas, Histogram servico,
+                                            Map<Integer, LongAdder> porStatus, LongAdder falhasCliente) {
+        if (System.nanoTime() >= fim) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long envio = System.nanoTime();
+        return httpClient.sendAsync(requisicao.apply(sequencia.getAndIncrement()), HttpResponse.BodyHandlers.discarding())
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, erro) -> {
+                    servico.recordValue(Math.min(MAX_LATENCIA_MICROS, (System.nanoTime() - envio) / 1000));
+                    respondidas.incrementAndGet();
+                    if (erro != null) {
+                        falhasCliente.increment();
+                    } else {
+                        porStatus.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignorado -> cliente(fim, requisicao, sequencia, respondidas, servico, porStatus, falhasCliente));
+    }
+}
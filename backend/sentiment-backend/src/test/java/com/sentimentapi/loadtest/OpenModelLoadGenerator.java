@@ -0,0 +1,154 @@
+package com.sentimentapi.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Gerador de carga em modelo aberto: a requisição {@code i} é disparada no instante
+ * {@code inicio + i / taxa}, tenha a anterior terminado ou não.
+ * <p>
+ * Cada resposta é registrada em dois histogramas (microssegundos):
+ * <ul>
+ *   <li><b>corrigido</b>: medido a partir do instante previsto de envio, corrigindo a coordinated
+ *   omission (se o gerador atrasar porque o sistema travou, a espera entra na latência);</li>
+ *   <li><b>serviço</b>: medido a partir do envio real, como fariam a maioria das ferramentas.</li>
+ * </ul>
+ */
+class OpenModelLoadGenerator {
+
+    private static final long MAX_LATENCIA_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    OpenModelLoadGenerator(HttpClient httpClient, Duration timeout) {
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Dispara requisições na taxa fixa durante o período e espera todas as respostas.
+     *
+     * @param nome           Nome do cenário (relatórios)
+     * @param taxaPorSegundo Requisições por segundo
+     * @param duracao        Duração do disparo
+     * @param requisicao     Monta a requisição {@code i}
+     */
+    Resultado executar(String nome, double taxaPorSegundo, Duration duracao, LongFunction<HttpRequest> requisicao)
+            throws InterruptedException {
+        long total = (long) (taxaPorSegundo * duracao.toNanos() / 1e9);
+        long intervaloNanos = (long) (1e9 / taxaPorSegundo);
+        Histogram corrigido = new ConcurrentHistogram(MAX_LATENCIA_MICROS, 3);
+        Histogram servico = new ConcurrentHistogram(MAX_LATENCIA_MICROS, 3);
+        Map<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+        LongAdder falhasCliente = new LongAdder();
+        AtomicLong atrasoMaximoNanos = new AtomicLong();
+        CountDownLatch pendentes = new CountDownLatch((int) total);
+
+        long inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long previsto = inicio + i * intervaloNanos;
+            long espera;
+            while ((espera = previsto - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            long envio = System.nanoTime();
+            atrasoMaximoNanos.accumulateAndGet(envio - previsto, Math::max);
+
+            HttpRequest request = requisicao.apply(i);
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((response, erro) -> {
+                        long fim = System.nanoTime();
+                        corrigido.recordValue(Math.min(MAX_LATENCIA_MICROS, (fim - previsto) / 1000));
+                        servico.recordValue(Math.min(MAX_LATENCIA_MICROS, (fim - envio) / 1000));
+                        if (erro != null) {
+                            falhasCliente.increment();
+                        } else {
+                            porStatus.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                        }
+                        pendentes.countDown();
+                    });
+        }
+        boolean concluiu = pendentes.await(timeout.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<Integer, Long> status = new TreeMap<>();
+        porStatus.forEach((codigo, contador) -> status.put(codigo, contador.sum()));
+        return new Resultado(nome, taxaPorSegundo, total, total - pendentes.getCount(), concluiu, status,
+                falhasCliente.sum(), segundos, TimeUnit.NANOSECONDS.toMillis(atrasoMaximoNanos.get()),
+                corrigido, servico);
+    }
+
+    record Resultado(
+            String nome,
+            double taxaAlvo,
+            long enviadas,
+            long respondidas,
+            boolean concluiu,
+            Map<Integer, Long> porStatus,
+            long falhasCliente,
+            double segundos,
+            long atrasoMaximoGeradorMs,
+            Histogram corrigido,
+            Histogram servico) {
+
+        long status(int codigo) {
+            return porStatus.getOrDefault(codigo, 0L);
+        }
+
+        String resumo() {
+            return String.format(Locale.ROOT,
+                    "%n=== %s ===%n"
+                            + "taxa alvo %.0f req/s | enviadas %d | respondidas %d | vazão %.1f req/s%n"
+                            + "status %s | falhas do cliente (timeout/conexão) %d | atraso máximo do gerador %d ms%n"
+                            + "%s%n%s",
+                    nome, taxaAlvo, enviadas, respondidas, respondidas / segundos,
+                    porStatus, falhasCliente, atrasoMaximoGeradorMs,
+                    percentis("corrigido (CO)", corrigido), percentis("serviço      ", servico));
+        }
+
+        private static String percentis(String rotulo, Histogram histograma) {
+            return String.format(Locale.ROOT,
+                    "%s ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                    rotulo,
+                    histograma.getValueAtPercentile(50) / 1000.0,
+                    histograma.getValueAtPercentile(90) / 1000.0,
+                    histograma.getValueAtPercentile(99) / 1000.0,
+                    histograma.getValueAtPercentile(99.9) / 1000.0,
+                    histograma.getMaxValue() / 1000.0);
+        }
+
+        /**
+         * Grava a distribuição completa (formato .hgrm, em ms) para comparar execuções.
+         */
+        void gravar(Path diretorio) throws IOException {
+            Files.createDirectories(diretorio);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(diretorio.resolve(nome + "-corrigido.hgrm")))) {
+                corrigido.outputPercentileDistribution(out, 1000.0);
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(diretorio.resolve(nome + "-servico.hgrm")))) {
+                servico.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+}
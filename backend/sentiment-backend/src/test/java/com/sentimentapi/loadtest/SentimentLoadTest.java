@@ -0,0 +1,196 @@
+package com.sentimentapi.loadtest;
+
+import com.sentimentapi.support.LatencyDistribution;
+import com.sentimentapi.support.StubDsServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga ponta a ponta: a aplicação sobe numa porta real, apontando para um DS Service
+ * simulado, e recebe requisições numa taxa fixa (modelo aberto). Os percentis corrigidos para
+ * coordinated omission são impressos e gravados em {@code target/loadtest/*.hgrm}.
+ * <p>
+ * Execução: {@code ./mvnw test -Ploadtest}. Parâmetros (system properties, com os padrões):
+ * <ul>
+ *   <li>{@code loadtest.rate=200} requisições/s em /sentiment; {@code loadtest.batch-rate=20} em /sentiment/batch</li>
+ *   <li>{@code loadtest.batch-size=20}, {@code loadtest.duration-s=30}, {@code loadtest.warmup-s=10}</li>
+ *   <li>{@code loadtest.ds.latency=lognormal:20:0.5} ({@link LatencyDistribution#parse})</li>
+ *   <li>{@code loadtest.ds.error-rate=0}, {@code loadtest.ds.stall-rate=0.001}, {@code loadtest.ds.stall-ms=1000}</li>
+ *   <li>{@code loadtest.api=v1}: versão da API nos cenários de taxa fixa</li>
+ *   <li>{@code loadtest.connections=1000}: clientes simultâneos na comparação v1 x v2 (modelo fechado)</li>
+ * </ul>
+ */
+@Tag("loadtest")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.com.sentimentapi=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000"
+        })
+@ActiveProfiles("dev")
+class SentimentLoadTest {
+
+    private static final Path RELATORIOS = Path.of("target", "loadtest");
+
+    private static final AtomicLong SEQUENCIA = new AtomicLong();
+
+    private static final String API = System.getProperty("loadtest.api", "v1");
+
+    private static StubDsServer stub;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void dsService(DynamicPropertyRegistry registry) throws IOException {
+        stub = new StubDsServer(256)
+                .latency(LatencyDistribution.parse(System.getProperty("loadtest.ds.latency", "lognormal:20:0.5")))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.ds.error-rate", "0")))
+                .stalls(Double.parseDouble(System.getProperty("loadtest.ds.stall-rate", "0.001")),
+                        Long.getLong("loadtest.ds.stall-ms", 1000));
+        registry.add("ds.service.url", stub::url);
+    }
+
+    @AfterAll
+    static void fecharStub() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Carga em /api/{versão}/sentiment com taxa fixa")
+    void cargaSentimento() throws Exception {
+        double taxa = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+        OpenModelLoadGenerator.Resultado resultado = executar("sentiment-" + API, taxa,
+                i -> post("/api/" + API + "/sentiment", "{\"text\":\"" + proximoTexto() + "\"}"));
+
+        assertThat(resultado.status(200)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Carga em /api/{versão}/sentiment/batch com taxa fixa")
+    void cargaBatch() throws Exception {
+        double taxa = Double.parseDouble(System.getProperty("loadtest.batch-rate", "20"));
+        int tamanho = Integer.getInteger("loadtest.batch-size", 20);
+        OpenModelLoadGenerator.Resultado resultado = executar("sentiment-batch-" + API, taxa, i -> {
+            StringJoiner textos = new StringJoiner(",", "{\"texts\":[", "]}");
+            for (int j = 0; j < tamanho; j++) {
+                textos.add("{\"text\":\"" + proximoTexto() + "\"}");
+            }
+            return post("/api/" + API + "/sentiment/batch", textos.toString());
+        });
+
+        assertThat(resultado.status(200)).isPositive();
+    }
+
+    /**
+     * Mesma quantidade de clientes simultâneos em v1 e v2: na v1 cada requisição em espera ocupa uma thread
+     * do Tomcat (200 por padrão) e as demais esperam na fila de conexões; na v2 a espera não ocupa thread.
+     */
+    @Test
+    @DisplayName("Comparação v1 x v2 com milhares de conexões simultâneas")
+    void comparacaoConexoesSimultaneas() throws Exception {
+        int conexoes = Integer.getInteger("loadtest.connections", 1000);
+        Duration duracao = Duration.ofSeconds(Long.getLong("loadtest.duration-s", 30));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(executor)
+                    .build();
+            ClosedModelLoadGenerator gerador = new ClosedModelLoadGenerator(httpClient, Duration.ofSeconds(60));
+
+            for (String versao : List.of("v1", "v2")) {
+                LongFunction<HttpRequest> requisicao =
+                        i -> post("/api/" + versao + "/sentiment", "{\"text\":\"" + proximoTexto() + "\"}");
+                gerador.executar(versao + "-warmup", Math.min(conexoes, 200),
+                        Duration.ofSeconds(Long.getLong("loadtest.warmup-s", 10)), requisicao);
+
+                OpenModelLoadGenerator.Resultado resultado = gerador.executar(
+                        "conexoes-" + conexoes + "-" + versao, conexoes, duracao, requisicao);
+                resultado.gravar(RELATORIOS);
+                System.out.println(resultado.resumo());
+
+                assertThat(resultado.concluiu()).as("todas as requisições devem receber resposta ou timeout").isTrue();
+                assertThat(resultado.status(200)).isPositive();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private OpenModelLoadGenerator.Resultado executar(String nome, double taxa, LongFunction<HttpRequest> requisicao)
+            throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            OpenModelLoadGenerator gerador = new OpenModelLoadGenerator(httpClient, Duration.ofSeconds(60));
+
+            // Aquecimento (JIT, pools de conexão e de threads); o resultado é descartado
+            gerador.executar(nome + "-warmup", taxa, Duration.ofSeconds(Long.getLong("loadtest.warmup-s", 10)), requisicao);
+
+            long chamadasAntes = stub.predictCalls();
+            long errosAntes = stub.errors();
+            long travamentosAntes = stub.stalls();
+            OpenModelLoadGenerator.Resultado resultado = gerador.executar(
+                    nome, taxa, Duration.ofSeconds(Long.getLong("loadtest.duration-s", 30)), requisicao);
+            resultado.gravar(RELATORIOS);
+            System.out.println(resultado.resumo());
+            System.out.printf("DS simulado: %d chamadas /predict, %d erros, %d travamentos%n",
+                    stub.predictCalls() - chamadasAntes, stub.errors() - errosAntes, stub.stalls() - travamentosAntes);
+
+            assertThat(resultado.concluiu()).as("todas as requisições devem receber resposta ou timeout").isTrue();
+            return resultado;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpRequest post(String caminho, String json) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + caminho))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Textos nunca repetidos, inclusive entre aquecimento e cenários (o cache de previsões
+     * não evita a chamada ao DS), metade negativos.
+     */
+    private static String proximoTexto() {
+        long i = SEQUENCIA.incrementAndGet();
+        return (i % 2 == 0 ? "Produto ótimo, chegou bem embalado" : "Produto ruim, veio com defeito") + " #" + i;
+    }
+}
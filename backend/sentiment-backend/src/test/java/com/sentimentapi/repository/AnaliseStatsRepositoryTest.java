@@ -0,0 +1,116 @@
+package com.sentimentapi.repository;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.repository.AnaliseStatsRepository.Filtro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Testes da consulta de estatísticas filtradas (banco H2 em memória, com o schema das migrações H2).
+ */
+@DataJpaTest
+@Import(AnaliseStatsRepository.class)
+class AnaliseStatsRepositoryTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    @Autowired
+    private AnaliseStatsRepository statsRepository;
+
+    @Autowired
+    private AnaliseResultadoRepository analiseRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<AnaliseResultado> resultados = new ArrayList<>();
+        // Lote "b1": 10 itens BATCH às 10h, tempos 10..100 ms
+        for (int i = 1; i <= 10; i++) {
+            resultados.add(resultado(DIA.plusHours(10), i <= 6 ? Sentimento.POSITIVO : Sentimento.NEGATIVO,
+                    i <= 6 ? 0.9 : 0.7, "BATCH", "b1", i * 10L));
+        }
+        resultados.add(resultado(DIA.plusHours(11), Sentimento.NEUTRO, 0.5, "API", null, null));
+        resultados.add(resultado(DIA.plusHours(12), Sentimento.POSITIVO, 0.6, "API", null, 40L));
+        resultados.add(resultado(DIA.plusDays(1), Sentimento.NEGATIVO, 0.8, "API", null, 1000L));
+        analiseRepository.saveAll(resultados);
+        analiseRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Uma consulta deve trazer contagens, médias por sentimento e percentis só das linhas filtradas")
+    void deveAgregarSoAsLinhasFiltradas() {
+        AnaliseStatsRepository.Agregado lote = statsRepository.agregar(new Filtro(null, null, null, "b1"));
+        assertThat(lote.total()).isEqualTo(10);
+        assertThat(lote.totais()).containsEntry(Sentimento.POSITIVO, 6L).containsEntry(Sentimento.NEGATIVO, 4L)
+                .containsEntry(Sentimento.NEUTRO, 0L);
+        assertThat(lote.probabilidadesMedias().get(Sentimento.POSITIVO)).isEqualTo(0.9, offset(1e-9));
+        assertThat(lote.probabilidadesMedias().get(Sentimento.NEUTRO)).isNull();
+        assertThat(lote.tempoMedioMs()).isEqualTo(55.0, offset(1e-9));
+        assertThat(lote.tempoP50Ms()).isEqualTo(55.0, offset(1e-9));
+        assertThat(lote.tempoP95Ms()).isEqualTo(95.5, offset(1e-9));
+
+        // API no dia: o item sem tempo conta no total, mas não nos tempos
+        AnaliseStatsRepository.Agregado api = statsRepository.agregar(new Filtro(DIA, DIA.plusDays(1), "API", null));
+        assertThat(api.total()).isEqualTo(2);
+        assertThat(api.totais()).containsEntry(Sentimento.NEUTRO, 1L).containsEntry(Sentimento.POSITIVO, 1L);
+        assertThat(api.tempoMedioMs()).isEqualTo(40.0, offset(1e-9));
+        assertThat(api.tempoP99Ms()).isEqualTo(40.0, offset(1e-9));
+
+        AnaliseStatsRepository.Agregado vazio = statsRepository.agregar(new Filtro(null, null, "OUTRA", null));
+        assertThat(vazio.total()).isZero();
+        assertThat(vazio.tempoMedioMs()).isNull();
+    }
+
+    @Test
+    @DisplayName("Toda combinação de filtros deve buscar no índice de cobertura, sem varrer a tabela ou o índice inteiro")
+    void planoDeveUsarIndicesDeCobertura() {
+        Map<Filtro, String> indicePorFiltro = Map.of(
+                new Filtro(DIA, DIA.plusDays(1), null, null), "IDX_ANALISE_STATS_DATA",
+                new Filtro(DIA, null, null, null), "IDX_ANALISE_STATS_DATA",
+                new Filtro(null, null, "API", null), "IDX_ANALISE_STATS_ORIGEM",
+                new Filtro(DIA, DIA.plusDays(1), "API", null), "IDX_ANALISE_STATS_ORIGEM",
+                new Filtro(null, null, null, "b1"), "IDX_ANALISE_STATS_BATCH",
+                new Filtro(DIA, DIA.plusDays(1), null, "b1"), "IDX_ANALISE_STATS_BATCH",
+                new Filtro(DIA, DIA.plusDays(1), "BATCH", "b1"), "IDX_ANALISE_STATS_\\w+");
+
+        indicePorFiltro.forEach((filtro, indice) -> {
+            String plano = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN " + AnaliseStatsRepository.sql(filtro), AnaliseStatsRepository.parametros(filtro),
+                    String.class)).toUpperCase();
+
+            // Busca no índice aparece como "/* PUBLIC.IDX_...: <condições> */"; sem ":" é varredura do índice inteiro
+            assertThat(plano).as("plano para %s", filtro)
+                    .doesNotContain("TABLESCAN")
+                    .containsPattern("/\\* PUBLIC\\." + indice + ": ");
+        });
+    }
+
+    private static AnaliseResultado resultado(LocalDateTime data, Sentimento sentimento, double probabilidade,
+                                              String origem, String batchId, Long tempoMs) {
+        return AnaliseResultado.builder()
+                .textoOriginal("Texto de teste")
+                .sentimento(sentimento)
+                .probabilidade(probabilidade)
+                .dataAnalise(data)
+                .origem(origem)
+                .batchId(batchId)
+                .tempoProcessamentoMs(tempoMs)
+                .build();
+    }
+}
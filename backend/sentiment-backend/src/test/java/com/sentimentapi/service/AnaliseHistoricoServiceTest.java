@@ -0,0 +1,131 @@
+package com.sentimentapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.response.AnaliseHistoricoItem;
+import com.sentimentapi.dto.response.HistoricoResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes do histórico paginado por keyset e em stream (banco H2 em memória, com o schema das migrações H2).
+ */
+@DataJpaTest
+class AnaliseHistoricoServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    @Autowired
+    private AnaliseResultadoRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private AnaliseHistoricoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnaliseHistoricoService(repository, mock(AnaliseWriteBehindQueue.class), objectMapper,
+                transactionManager);
+
+        // 25 análises em 10 instantes: várias no mesmo data_analise, para o desempate por id
+        List<AnaliseResultado> analises = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            analises.add(AnaliseResultado.builder()
+                    .textoOriginal("Texto " + i)
+                    .sentimento(i % 2 == 0 ? Sentimento.POSITIVO : Sentimento.NEGATIVO)
+                    .probabilidade(0.9)
+                    .dataAnalise(DIA.plusMinutes(i % 10))
+                    .origem("API")
+                    .build());
+        }
+        analises.add(AnaliseResultado.builder().textoOriginal("Fora do período").sentimento(Sentimento.NEUTRO)
+                .probabilidade(0.5).dataAnalise(DIA.plusDays(1)).build());
+        repository.saveAll(analises);
+        repository.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Páginas por cursor devem cobrir o período uma única vez, da mais recente para a mais antiga")
+    void paginasDevemCobrirOPeriodoSemRepetir() {
+        List<AnaliseHistoricoItem> lidas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            HistoricoResponse pagina = service.pagina(DIA, DIA.plusDays(1), cursor, 4, false);
+            assertThat(pagina.getAnalises()).hasSizeLessThanOrEqualTo(4);
+            lidas.addAll(pagina.getAnalises());
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(7);
+        assertThat(lidas).hasSize(25);
+        assertThat(lidas).extracting(AnaliseHistoricoItem::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < lidas.size(); i++) {
+            AnaliseHistoricoItem anterior = lidas.get(i - 1);
+            AnaliseHistoricoItem atual = lidas.get(i);
+            assertThat(atual.getDataAnalise()).isBeforeOrEqualTo(anterior.getDataAnalise());
+            if (atual.getDataAnalise().equals(anterior.getDataAnalise())) {
+                assertThat(atual.getId()).isLessThan(anterior.getId());
+            }
+        }
+        assertThat(lidas.get(0).getPrevisao()).isIn("Positivo", "Negativo");
+        assertThat(lidas.get(0).getOrigem()).isEqualTo("API");
+    }
+
+    @Test
+    @DisplayName("O stream deve escrever o período inteiro em NDJSON, em ordem cronológica")
+    void streamDeveEscreverOPeriodoEmNdjson() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long escritas = service.exportar(DIA, DIA.plusDays(1), false, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(escritas).isEqualTo(25);
+        assertThat(linhas).hasSize(25);
+        AnaliseHistoricoItem primeira = objectMapper.readValue(linhas[0], AnaliseHistoricoItem.class);
+        AnaliseHistoricoItem ultima = objectMapper.readValue(linhas[24], AnaliseHistoricoItem.class);
+        assertThat(primeira.getDataAnalise()).isEqualTo(DIA);
+        assertThat(ultima.getDataAnalise()).isEqualTo(DIA.plusMinutes(9));
+        assertThat(linhas[0]).contains("\"data_analise\"", "\"previsao\"");
+    }
+
+    @Test
+    @DisplayName("Cursor adulterado ou período invertido devem ser recusados")
+    void deveRecusarCursorEPeriodoInvalidos() {
+        assertThatThrownBy(() -> service.pagina(DIA, DIA.plusDays(1), "não-é-cursor", 10, false))
+                .isInstanceOf(ParametroInvalidoException.class)
+                .hasMessageContaining("Cursor inválido");
+        assertThatThrownBy(() -> service.pagina(DIA.plusDays(1), DIA, null, 10, false))
+                .isInstanceOf(ParametroInvalidoException.class);
+
+        AnaliseHistoricoItem item = AnaliseHistoricoItem.builder().id(42L).dataAnalise(DIA.plusSeconds(1)).build();
+        assertThat(AnaliseHistoricoService.lerCursor(AnaliseHistoricoService.cursor(item)))
+                .isEqualTo(new AnaliseHistoricoService.Cursor(DIA.plusSeconds(1), 42L));
+    }
+}
@@ -0,0 +1,100 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da retenção de análises (banco H2 em memória, com o schema da migração H2).
+ */
+@DataJpaTest
+class AnaliseParticaoServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnaliseResultadoRepository repository;
+
+    @Test
+    @DisplayName("As migrações H2 devem criar os índices usados pelas consultas do repositório")
+    void migracoesDevemCriarIndices() {
+        List<String> indices = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE LOWER(table_name) = 'analise_resultado'",
+                String.class);
+
+        assertThat(indices).contains("idx_analise_stats_data", "idx_analise_sentimento_data", "idx_analise_stats_batch",
+                "idx_analise_stats_origem", "idx_analise_hash_modelo");
+    }
+
+    @Test
+    @DisplayName("Numa tabela antiga (id IDENTITY, colunas da versão inicial), a sequence deve começar depois do maior id existente")
+    void migracaoDeveAlinharSequenceComTabelaExistente() {
+        DriverManagerDataSource legado = new DriverManagerDataSource("jdbc:h2:mem:legado;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(legado);
+        jdbc.execute("CREATE TABLE analise_resultado (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "texto_original CLOB NOT NULL, sentimento VARCHAR(20) NOT NULL, probabilidade DOUBLE PRECISION NOT NULL, "
+                + "data_analise TIMESTAMP(6) NOT NULL, tempo_processamento_ms BIGINT, origem VARCHAR(50), "
+                + "batch_id VARCHAR(100))");
+        jdbc.update("INSERT INTO analise_resultado (texto_original, sentimento, probabilidade, data_analise) "
+                + "SELECT 'Texto ' || X, 'POSITIVO', 0.9, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 120)");
+
+        Flyway.configure().dataSource(legado).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        // Bloco pooled do Hibernate: (valor - 49) até o valor devolvido
+        Long valor = jdbc.queryForObject("SELECT NEXT VALUE FOR analise_resultado_seq", Long.class);
+        assertThat(valor - 49).isGreaterThan(120);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM analise_resultado WHERE texto_hash IS NULL "
+                + "AND modelo_versao IS NULL AND camada IS NULL", Long.class)).isEqualTo(120);
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Sem partições (H2), a retenção deve remover por período só o que passou dos meses retidos")
+    void retencaoSemParticoesDeveRemoverPorPeriodo() {
+        repository.saveAll(List.of(
+                resultado(LocalDateTime.of(2025, 12, 31, 23, 59)),
+                resultado(LocalDateTime.of(2026, 1, 1, 0, 0)),
+                resultado(LocalDateTime.of(2026, 3, 15, 12, 0))));
+        repository.flush();
+
+        new AnaliseParticaoService(jdbcTemplate, true, 3, "drop", 3).manter(YearMonth.of(2026, 3));
+
+        assertThat(repository.findAll()).extracting(AnaliseResultado::getDataAnalise).containsExactlyInAnyOrder(
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 3, 15, 12, 0));
+    }
+
+    @Test
+    @DisplayName("Só partições mensais inteiramente antes do primeiro mês retido devem vencer")
+    void devemVencerSoParticoesMensaisAntigas() {
+        List<String> particoes = List.of("analise_resultado_p202601", "analise_resultado_padrao",
+                "analise_resultado_p202512", "analise_resultado_p202602", "analise_resultado_p2026xx");
+
+        assertThat(AnaliseParticaoService.vencidas(particoes, YearMonth.of(2026, 2)))
+                .containsExactly("analise_resultado_p202512", "analise_resultado_p202601");
+        assertThat(AnaliseParticaoService.nomeParticao(YearMonth.of(2026, 7))).isEqualTo("analise_resultado_p202607");
+    }
+
+    private static AnaliseResultado resultado(LocalDateTime data) {
+        return AnaliseResultado.builder()
+                .textoOriginal("Produto excelente")
+                .sentimento(Sentimento.POSITIVO)
+                .probabilidade(0.9)
+                .dataAnalise(data)
+                .build();
+    }
+}
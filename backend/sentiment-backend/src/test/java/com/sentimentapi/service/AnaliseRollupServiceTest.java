@@ -0,0 +1,97 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Granularidade;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.response.TimeseriesResponse;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Testes dos agregados por intervalo de tempo (banco H2 em memória).
+ */
+@DataJpaTest
+@Import(AnaliseRollupService.class)
+class AnaliseRollupServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    @Autowired
+    private AnaliseRollupService rollupService;
+
+    @Autowired
+    private AnaliseRollupRepository rollupRepository;
+
+    @Test
+    @DisplayName("Lotes sucessivos devem incrementar os mesmos agregados")
+    void lotesDevemIncrementarAgregados() {
+        rollupService.acumular(List.of(
+                resultado(DIA.plusHours(10).plusMinutes(5).plusSeconds(1), Sentimento.POSITIVO, 0.8, "API", 100L),
+                resultado(DIA.plusHours(10).plusMinutes(5).plusSeconds(30), Sentimento.NEGATIVO, 0.6, "API", 300L)));
+        rollupService.acumular(List.of(
+                resultado(DIA.plusHours(10).plusMinutes(5).plusSeconds(59), Sentimento.POSITIVO, 1.0, "API", null),
+                resultado(DIA.plusHours(10).plusMinutes(40), Sentimento.NEUTRO, 0.5, "BATCH", 200L)));
+
+        // 2 intervalos de minuto (API 10:05 e BATCH 10:40) + 2 de hora (API e BATCH 10:00)
+        assertThat(rollupRepository.count()).isEqualTo(4);
+
+        TimeseriesResponse porMinuto = rollupService.serie(Granularidade.MINUTO, DIA, DIA.plusDays(1), "API");
+        assertThat(porMinuto.getPontos()).hasSize(1);
+        TimeseriesResponse.Ponto ponto = porMinuto.getPontos().get(0);
+        assertThat(ponto.getBucket()).isEqualTo(DIA.plusHours(10).plusMinutes(5));
+        assertThat(ponto.getPositivos()).isEqualTo(2);
+        assertThat(ponto.getNegativos()).isEqualTo(1);
+        assertThat(ponto.getProbabilidadeMediaPositivos()).isEqualTo(0.9, offset(1e-9));
+        assertThat(ponto.getTempoMedioProcessamentoMs()).isEqualTo(200.0);
+    }
+
+    @Test
+    @DisplayName("Série por hora deve somar as origens de cada intervalo")
+    void seriePorHoraDeveSomarOrigens() {
+        rollupService.acumular(List.of(
+                resultado(DIA.plusHours(1), Sentimento.POSITIVO, 0.9, "API", 10L),
+                resultado(DIA.plusHours(1).plusMinutes(30), Sentimento.NEGATIVO, 0.7, "BATCH", 30L),
+                resultado(DIA.plusHours(3), Sentimento.NEUTRO, 0.5, null, 20L),
+                resultado(DIA.plusDays(2), Sentimento.POSITIVO, 0.9, "API", 10L)));
+
+        TimeseriesResponse serie = rollupService.serie(Granularidade.HORA, DIA, DIA.plusDays(1), null);
+
+        assertThat(serie.getPontos()).extracting(TimeseriesResponse.Ponto::getBucket)
+                .containsExactly(DIA.plusHours(1), DIA.plusHours(3));
+        assertThat(serie.getPontos()).extracting(TimeseriesResponse.Ponto::getTotal).containsExactly(2L, 1L);
+        assertThat(serie.getPontos().get(0).getTempoMedioProcessamentoMs()).isEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("Período longo demais para a granularidade deve ser rejeitado")
+    void periodoLongoDeveSerRejeitado() {
+        assertThatThrownBy(() -> rollupService.serie(Granularidade.MINUTO, DIA, DIA.plusDays(30), null))
+                .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> rollupService.serie(Granularidade.HORA, DIA, DIA, null))
+                .isInstanceOf(ParametroInvalidoException.class);
+    }
+
+    private static AnaliseResultado resultado(
+            LocalDateTime data, Sentimento sentimento, double probabilidade, String origem, Long tempoMs) {
+        return AnaliseResultado.builder()
+                .textoOriginal("texto")
+                .sentimento(sentimento)
+                .probabilidade(probabilidade)
+                .dataAnalise(data)
+                .origem(origem)
+                .tempoProcessamentoMs(tempoMs)
+                .build();
+    }
+}
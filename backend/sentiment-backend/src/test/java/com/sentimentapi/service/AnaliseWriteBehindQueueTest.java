@@ -0,0 +1,187 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da fila de persistência assíncrona.
+ */
+class AnaliseWriteBehindQueueTest {
+
+    private final AnaliseResultadoRepository repository = mock(AnaliseResultadoRepository.class);
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
+    private final StatsAccumulator statsAccumulator = new StatsAccumulator(repository);
+    private final AnaliseRollupService rollupService = mock(AnaliseRollupService.class);
+    private final List<Integer> lotesGravados = new CopyOnWriteArrayList<>();
+    private final List<AnaliseResultado> gravadosSincronamente = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Deve gravar em lotes e drenar a fila no encerramento")
+    void deveGravarEmLotesEDrenarNoEncerramento() {
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<?> lote = invocation.getArgument(0);
+            lotesGravados.add(lote.size());
+            return lote;
+        });
+        statsAccumulator.inicializar(); // banco vazio
+        AnaliseWriteBehindQueue fila = new AnaliseWriteBehindQueue(
+                repository, transactionTemplate, statsAccumulator, rollupService, new SimpleMeterRegistry(), true, 1000, 50, 1000, 100);
+        fila.start();
+
+        for (int i = 0; i < 120; i++) {
+            fila.registrar(resultado(i));
+        }
+        fila.stop();
+
+        assertThat(lotesGravados.stream().mapToInt(Integer::intValue).sum()).isEqualTo(120);
+        assertThat(lotesGravados).allMatch(tamanho -> tamanho <= 50);
+        assertThat(fila.pendentes()).isZero();
+        assertThat(statsAccumulator.snapshot().total(Sentimento.POSITIVO)).isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("Fila cheia deve segurar o produtor e depois gravar de forma síncrona")
+    void filaCheiaDeveAplicarBackpressure() throws Exception {
+        CountDownLatch liberarWriter = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AnaliseResultado> lote = invocation.getArgument(0);
+            if (Thread.currentThread().getName().equals("analise-write-behind")) {
+                liberarWriter.await(5, TimeUnit.SECONDS);
+            } else {
+                gravadosSincronamente.addAll(lote);
+            }
+            return lote;
+        });
+        AnaliseWriteBehindQueue fila = new AnaliseWriteBehindQueue(
+                repository, transactionTemplate, statsAccumulator, rollupService, new SimpleMeterRegistry(), true, 2, 1, 10, 100);
+        fila.start();
+
+        fila.registrar(resultado(0)); // retirado pelo writer, que fica bloqueado gravando
+        Thread.sleep(50);
+        fila.registrar(resultado(1));
+        fila.registrar(resultado(2)); // fila cheia a partir daqui
+
+        long inicio = System.nanoTime();
+        fila.registrar(resultado(3));
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertThat(esperaMs).isGreaterThanOrEqualTo(90);
+        assertThat(gravadosSincronamente).extracting(AnaliseResultado::getTextoOriginal).containsExactly("Texto 3");
+        liberarWriter.countDown();
+        fila.stop();
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia, a versão reativa deve esperar vaga sem bloquear quem assina")
+    void registrarReativoDeveEsperarVagaSemBloquear() throws Exception {
+        CountDownLatch liberarWriter = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AnaliseResultado> lote = invocation.getArgument(0);
+            if (Thread.currentThread().getName().equals("analise-write-behind")) {
+                liberarWriter.await(5, TimeUnit.SECONDS);
+            } else {
+                gravadosSincronamente.addAll(lote);
+            }
+            return lote;
+        });
+        AnaliseWriteBehindQueue fila = new AnaliseWriteBehindQueue(
+                repository, transactionTemplate, statsAccumulator, rollupService, new SimpleMeterRegistry(), true, 2, 1, 10, 2000);
+        fila.start();
+
+        fila.registrar(resultado(0)); // retirado pelo writer, que fica bloqueado gravando
+        Thread.sleep(50);
+        fila.registrar(resultado(1));
+        fila.registrar(resultado(2)); // fila cheia a partir daqui
+
+        // O primeiro Mono.delay carrega e inicia o scheduler do Reactor; fora da medição
+        Mono.delay(Duration.ZERO).block();
+        AtomicBoolean aceito = new AtomicBoolean();
+        long inicio = System.nanoTime();
+        Disposable assinatura = fila.registrarReativo(resultado(3)).subscribe(null, null, () -> aceito.set(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(50);
+        Thread.sleep(100);
+        assertThat(aceito).isFalse();
+
+        liberarWriter.countDown();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!aceito.get() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(aceito).isTrue();
+        assertThat(gravadosSincronamente).isEmpty(); // entrou na fila, sem gravação síncrona
+        assertThat(assinatura.isDisposed()).isTrue();
+        fila.stop();
+        assertThat(fila.pendentes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Flush deve esperar só o que foi aceito antes da chamada, mesmo com produtores ativos")
+    void flushDeveEsperarSoOsAceitosAntes() throws Exception {
+        List<String> gravados = new CopyOnWriteArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AnaliseResultado> lote = invocation.getArgument(0);
+            Thread.sleep(20);
+            lote.forEach(r -> gravados.add(r.getTextoOriginal()));
+            return lote;
+        });
+        AnaliseWriteBehindQueue fila = new AnaliseWriteBehindQueue(
+                repository, transactionTemplate, statsAccumulator, rollupService, new SimpleMeterRegistry(), true, 10_000, 10, 10, 100);
+        fila.start();
+
+        for (int i = 0; i < 30; i++) {
+            fila.registrar(resultado(i));
+        }
+        AtomicBoolean produzindo = new AtomicBoolean(true);
+        Thread produtor = new Thread(() -> {
+            for (int i = 30; produzindo.get(); i++) {
+                fila.registrar(resultado(i));
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        });
+        produtor.start();
+
+        long inicio = System.nanoTime();
+        fila.flush();
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        List<String> gravadosNoFlush = List.copyOf(gravados);
+        produzindo.set(false);
+        produtor.join();
+
+        assertThat(gravadosNoFlush).contains("Texto 0", "Texto 29");
+        assertThat(fila.pendentes()).isPositive(); // o produtor continuou enfileirando
+        assertThat(esperaMs).isLessThan(2000);
+        fila.stop();
+        assertThat(fila.pendentes()).isZero();
+    }
+
+    private static AnaliseResultado resultado(int i) {
+        return AnaliseResultado.builder()
+                .textoOriginal("Texto " + i)
+                .sentimento(Sentimento.POSITIVO)
+                .probabilidade(0.9)
+                .origem("API")
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.BatchJob;
+import com.sentimentapi.domain.entity.BatchJobItem;
+import com.sentimentapi.domain.enums.StatusJob;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.JobResponse;
+import com.sentimentapi.dto.response.JobResultsResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.repository.BatchJobItemRepository;
+import com.sentimentapi.repository.BatchJobRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes dos jobs de análise em lote (retomada e falhas por item).
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+class BatchJobServiceTest {
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @Autowired
+    private BatchJobRepository jobRepository;
+
+    @Autowired
+    private BatchJobItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private DsServiceClient dsServiceClient;
+
+    @Test
+    @DisplayName("Job interrompido deve ser retomado a partir do progresso gravado")
+    void jobInterrompidoDeveSerRetomado() throws Exception {
+        when(dsServiceClient.predict(anyString())).thenReturn(new DsServiceResponse("Positivo", 0.9));
+
+        // Estado deixado por uma instância que parou depois de gravar os dois primeiros itens
+        String jobId = UUID.randomUUID().toString();
+        LocalDateTime horaAtras = LocalDateTime.now().minusHours(1);
+        jobRepository.save(BatchJob.builder()
+                .id(jobId)
+                .status(StatusJob.EM_ANDAMENTO)
+                .total(4)
+                .processados(2)
+                .versao(1)
+                .criadoEm(horaAtras)
+                .iniciadoEm(horaAtras)
+                .atualizadoEm(horaAtras)
+                .build());
+        itemRepository.saveAll(List.of(
+                item(jobId, 0, "Texto já processado 0", "Negativo"),
+                item(jobId, 1, "Texto já processado 1", "Negativo"),
+                item(jobId, 2, "Texto pendente 2", null),
+                item(jobId, 3, "Texto pendente 3", null)));
+
+        batchJobService.despachar();
+        JobResponse job = aguardarConclusao(jobId);
+
+        assertThat(job.getStatus()).isEqualTo("CONCLUIDO");
+        assertThat(job.getProcessados()).isEqualTo(4);
+        verify(dsServiceClient, never()).predict("Texto já processado 0");
+        verify(dsServiceClient, never()).predict("Texto já processado 1");
+
+        JobResultsResponse resultados = batchJobService.resultados(jobId, -1, 100).orElseThrow();
+        assertThat(resultados.getResultados()).extracting(JobResultsResponse.JobItemResponse::getPrevisao)
+                .containsExactly("Negativo", "Negativo", "Positivo", "Positivo");
+    }
+
+    @Test
+    @DisplayName("Falhas de itens devem ser contadas sem interromper o job")
+    void falhasDeItensDevemSerContadas() throws Exception {
+        when(dsServiceClient.predict(anyString())).thenReturn(new DsServiceResponse("Negativo", 0.7));
+        when(dsServiceClient.predict("Texto com falha")).thenThrow(new DsServiceException("DS indisponível"));
+
+        JobResponse criado = batchJobService.criar(List.of(
+                new SentimentRequest("Texto bom"),
+                new SentimentRequest("Texto com falha"),
+                new SentimentRequest("Outro texto")));
+        JobResponse job = aguardarConclusao(criado.getJobId());
+
+        assertThat(job.getProcessados()).isEqualTo(3);
+        assertThat(job.getFalhas()).isEqualTo(1);
+
+        JobResultsResponse pagina1 = batchJobService.resultados(job.getJobId(), -1, 2).orElseThrow();
+        JobResultsResponse pagina2 = batchJobService.resultados(job.getJobId(), pagina1.getProximoCursor(), 2).orElseThrow();
+        assertThat(pagina1.getResultados()).extracting(JobResultsResponse.JobItemResponse::getPrevisao)
+                .containsExactly("Negativo", "ERRO");
+        assertThat(pagina2.getResultados()).extracting(JobResultsResponse.JobItemResponse::getPosicao)
+                .containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Instância que perdeu o job não deve encerrá-lo")
+    void instanciaQuePerdeuOJobNaoDeveEncerrar() {
+        String jobId = UUID.randomUUID().toString();
+        LocalDateTime agora = LocalDateTime.now();
+        jobRepository.save(BatchJob.builder()
+                .id(jobId)
+                .status(StatusJob.EM_ANDAMENTO)
+                .total(2)
+                .processados(1)
+                .versao(3) // retomado por outra instância depois da versão 2
+                .criadoEm(agora)
+                .iniciadoEm(agora)
+                .atualizadoEm(agora)
+                .build());
+
+        Integer daAnterior = transactionTemplate.execute(status ->
+                jobRepository.encerrar(jobId, 2, StatusJob.FALHOU, "falha antiga", agora));
+        Integer daAtual = transactionTemplate.execute(status ->
+                jobRepository.encerrar(jobId, 3, StatusJob.CONCLUIDO, null, agora));
+
+        assertThat(daAnterior).isZero();
+        assertThat(daAtual).isEqualTo(1);
+        BatchJob job = jobRepository.findById(jobId).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(StatusJob.CONCLUIDO);
+        assertThat(job.getErro()).isNull();
+    }
+
+    private JobResponse aguardarConclusao(String jobId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        JobResponse job = batchJobService.consultar(jobId).orElseThrow();
+        while (!job.getStatus().equals("CONCLUIDO") && !job.getStatus().equals("FALHOU")
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            job = batchJobService.consultar(jobId).orElseThrow();
+        }
+        return job;
+    }
+
+    private static BatchJobItem item(String jobId, int posicao, String texto, String previsao) {
+        return BatchJobItem.builder()
+                .jobId(jobId)
+                .posicao(posicao)
+                .texto(texto)
+                .previsao(previsao)
+                .probabilidade(previsao != null ? 0.8 : null)
+                .build();
+    }
+}
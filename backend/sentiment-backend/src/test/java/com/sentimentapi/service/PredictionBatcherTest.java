@@ -0,0 +1,126 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sentimentapi.support.DsResilienceFixtures;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do micro-batching contra um DS Service local (stub).
+ */
+class PredictionBatcherTest {
+
+    private StubDsServer stub;
+    private DsServiceClient client;
+    private PredictionBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubDsServer().latencyMs(20);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new DsServiceClient(new RestTemplate(), new DsReplicaBalancer(stub.url(), meterRegistry),
+                BatchWireCodec.json(), DsResilienceFixtures.semProtecao(), DsResilienceFixtures.semHedge(), meterRegistry);
+        batcher = new PredictionBatcher(client, true, 16, 5, 4, 1000, 5000);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar chamadas concorrentes em poucos lotes, cada uma com o seu resultado")
+    void deveAgruparChamadasConcorrentes() {
+        List<CompletableFuture<DsServiceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String text = i % 2 == 0 ? "Produto excelente " + i : "Produto ruim " + i;
+            futures.add(batcher.submit(text));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            DsServiceResponse response = futures.get(i).join();
+            assertThat(response.getLabel()).isEqualTo(i % 2 == 0 ? "Positivo" : "Negativo");
+        }
+        assertThat(stub.batchItems()).isEqualTo(64);
+        assertThat(stub.batchCalls()).isLessThan(64).isGreaterThanOrEqualTo(4);
+        assertThat(stub.predictCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("Erro de um item deve ir apenas para o seu chamador")
+    void erroDeItemDeveIrApenasParaSeuChamador() {
+        CompletableFuture<DsServiceResponse> valido = batcher.submit("Chegou rápido, adorei");
+        CompletableFuture<DsServiceResponse> invalido = batcher.submit("ok");
+
+        assertThat(valido.join().getLabel()).isEqualTo("Positivo");
+        assertThatThrownBy(invalido::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DsServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Falha do DS Service deve chegar a todos os itens do lote")
+    void falhaDoDsServiceDeveChegarATodos() {
+        stub.close();
+
+        assertThatThrownBy(() -> batcher.predict("Produto excelente"))
+                .isInstanceOf(DsServiceException.class);
+    }
+
+    @Test
+    @DisplayName("predict deve desistir após o timeout de leitura em vez de esperar para sempre")
+    void predictDeveRespeitarTimeout() {
+        stub.latencyMs(2000);
+        PredictionBatcher lento = new PredictionBatcher(client, true, 16, 5, 4, 1000, 200);
+        lento.start();
+        try {
+            long inicio = System.nanoTime();
+            assertThatThrownBy(() -> lento.predict("Produto excelente"))
+                    .isInstanceOf(DsServiceException.class)
+                    .hasMessageContaining("sem resposta");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(1500);
+        } finally {
+            lento.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Ao encerrar, todo texto enfileirado deve receber resposta ou erro")
+    void stopDeveCompletarTodosOsPendentes() throws Exception {
+        stub.latencyMs(100);
+        List<CompletableFuture<DsServiceResponse>> futures = new ArrayList<>();
+        Thread produtor = new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                futures.add(batcher.submit("Produto excelente " + i));
+            }
+        });
+        produtor.start();
+        Thread.sleep(5);
+        batcher.stop();
+        produtor.join();
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ok, erro) -> null)
+                .get(5, TimeUnit.SECONDS);
+        assertThat(futures).hasSize(500).allMatch(CompletableFuture::isDone);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.service.health.ModelVersionChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes do cache de previsões.
+ */
+class PredictionCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PredictionCache cache = new PredictionCache(
+            mock(AnaliseResultadoRepository.class), meterRegistry, true, 1_000_000, 60, false);
+    private final AtomicInteger chamadasDs = new AtomicInteger();
+
+    @Test
+    @DisplayName("Textos iguais após normalização devem reaproveitar a previsão")
+    void textosNormalizadosIguaisDevemAcertarOCache() {
+        obter("Produto ótimo", "v1");
+        obter("  produto   ÓTIMO ", "v1");
+        obter("Produto ótimo", "v1"); // "ó" decomposto (NFD)
+
+        assertThat(chamadasDs).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Nova versão do modelo deve invalidar o cache")
+    void novaVersaoDoModeloDeveInvalidarOCache() {
+        obter("Chegou atrasado", "v1");
+        obter("Chegou atrasado", "v1");
+        cache.registrarVersao("v2");
+        obter("Chegou atrasado", "v2");
+
+        assertThat(chamadasDs).hasValue(2);
+        assertThat(cache.estatisticas()).containsEntry("model_version", "v2");
+    }
+
+    @Test
+    @DisplayName("Versão nova lida no /health deve invalidar o cache mesmo sem nenhuma falta")
+    void versaoDoHealthDeveInvalidarOCache() {
+        obter("Chegou atrasado", "v1");
+        obter("Chegou atrasado", "v1");
+        assertThat(chamadasDs).hasValue(1);
+
+        cache.aoMudarVersaoModelo(new ModelVersionChangedEvent("v1", "v2"));
+        obter("Chegou atrasado", "v2");
+
+        assertThat(chamadasDs).hasValue(2);
+        assertThat(cache.estatisticas()).containsEntry("model_version", "v2").containsEntry("size", 1L);
+    }
+
+    @Test
+    @DisplayName("Respostas alternando entre duas versões não devem limpar o cache")
+    void versoesMisturadasNaoDevemLimparOCache() {
+        cache.registrarVersao("v1");
+        obter("Produto ótimo", "v1");
+        for (int i = 0; i < 10; i++) {
+            obter("Texto novo " + i, i % 2 == 0 ? "v2" : "v1");
+        }
+
+        obter("Produto ótimo", "v1");
+        assertThat(chamadasDs).hasValue(11);
+        assertThat(cache.estatisticas()).containsEntry("model_version", "v1").containsEntry("size", 11L);
+    }
+
+    @Test
+    @DisplayName("Limpar deve remover todas as entradas")
+    void limparDeveRemoverEntradas() {
+        obter("Produto ótimo", "v1");
+        obter("Chegou atrasado", "v1");
+
+        assertThat(cache.limpar()).isEqualTo(2);
+        obter("Produto ótimo", "v1");
+        assertThat(chamadasDs).hasValue(3);
+    }
+
+    private DsServiceResponse obter(String texto, String versao) {
+        return cache.obter(TextoNormalizer.hash(texto), () -> {
+            chamadasDs.incrementAndGet();
+            return new DsServiceResponse("Positivo", 0.9, versao);
+        });
+    }
+}
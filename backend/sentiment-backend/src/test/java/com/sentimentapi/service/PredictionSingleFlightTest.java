@@ -0,0 +1,100 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do compartilhamento de previsões em andamento.
+ */
+class PredictionSingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PredictionSingleFlight singleFlight = new PredictionSingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final AtomicInteger chamadas = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Requisições simultâneas do mesmo texto devem compartilhar uma única chamada")
+    void requisicoesSimultaneasDevemCompartilharChamada() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<DsServiceResponse>> respostas = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            respostas.add(executor.submit(() -> singleFlight.obter("hash-1", () -> {
+                chamadas.incrementAndGet();
+                aguardar(liberar);
+                return new DsServiceResponse("Positivo", 0.9, "v1");
+            })));
+        }
+        while (meterRegistry.get("sentiment.dedup").counter().count() < 7) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        for (Future<DsServiceResponse> resposta : respostas) {
+            assertThat(resposta.get(5, TimeUnit.SECONDS).getLabel()).isEqualTo("Positivo");
+        }
+        assertThat(chamadas).hasValue(1);
+        assertThat(singleFlight.emAndamento()).isZero();
+    }
+
+    @Test
+    @DisplayName("Erro deve chegar a todos que aguardavam e não deve ficar registrado")
+    void erroDeveSerPropagadoENaoFicarRegistrado() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<DsServiceResponse> lider = executor.submit(() -> singleFlight.obter("hash-2", () -> {
+            chamadas.incrementAndGet();
+            aguardar(liberar);
+            throw new DsServiceException("DS indisponível");
+        }));
+        while (singleFlight.emAndamento() == 0) {
+            Thread.sleep(5);
+        }
+        Future<DsServiceResponse> seguidor = executor.submit(() -> singleFlight.obter("hash-2", () -> {
+            throw new AssertionError("não deveria chamar o DS");
+        }));
+        while (meterRegistry.get("sentiment.dedup").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        assertThatThrownBy(() -> lider.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DsServiceException.class);
+        assertThatThrownBy(() -> seguidor.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DsServiceException.class);
+        assertThat(singleFlight.emAndamento()).isZero();
+
+        // A próxima requisição volta a chamar o DS
+        singleFlight.obter("hash-2", () -> {
+            chamadas.incrementAndGet();
+            return new DsServiceResponse("Negativo", 0.8, "v1");
+        });
+        assertThat(chamadas).hasValue(2);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
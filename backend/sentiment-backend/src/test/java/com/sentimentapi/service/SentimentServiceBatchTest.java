@@ -0,0 +1,141 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.BatchSentimentResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do processamento de batch em paralelo.
+ */
+class SentimentServiceBatchTest {
+
+    private static final long LATENCIA_DS_MS = 100;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(50);
+    private final DsServiceClient dsServiceClient = mock(DsServiceClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PredictionCache predictionCache = new PredictionCache(
+            null, meterRegistry, false, 0, 0, false);
+    private final AnaliseWriteBehindQueue writeBehindQueue = mock(AnaliseWriteBehindQueue.class);
+    private final LexiconPreClassifier preClassifier = mock(LexiconPreClassifier.class);
+    private final PredictionSingleFlight singleFlight = new PredictionSingleFlight(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Batch paralelo deve manter a ordem, isolar erros e levar perto do item mais lento")
+    void batchParaleloDeveManterOrdemEIsolarErros() {
+        when(dsServiceClient.predict(anyString())).thenAnswer(invocation -> {
+            String texto = invocation.getArgument(0);
+            Thread.sleep(LATENCIA_DS_MS);
+            if (texto.endsWith("#7")) {
+                throw new DsServiceException("falha simulada");
+            }
+            return new DsServiceResponse(texto.startsWith("Ruim") ? "Negativo" : "Positivo", 0.9);
+        });
+        SentimentService service = new SentimentService(
+                dsServiceClient, preClassifier, predictionCache, singleFlight, writeBehindQueue, executor, true, 50, meterRegistry);
+
+        List<SentimentRequest> textos = IntStream.range(0, 50)
+                .mapToObj(i -> new SentimentRequest((i % 2 == 0 ? "Bom" : "Ruim") + " produto #" + i))
+                .toList();
+
+        BatchSentimentResponse response = service.analisarBatch(new BatchSentimentRequest(textos));
+
+        assertThat(response.getResultados()).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            BatchSentimentResponse.BatchItemResponse item = response.getResultados().get(i);
+            assertThat(item.getTexto()).isEqualTo(textos.get(i).getText());
+            assertThat(item.getTempoMs()).isNotNull();
+            if (i == 7) {
+                assertThat(item.getPrevisao()).isEqualTo("ERRO");
+            } else {
+                assertThat(item.getPrevisao()).isEqualTo(i % 2 == 0 ? "Positivo" : "Negativo");
+            }
+        }
+        // 50 chamadas de 100ms em sequência levariam 5s
+        assertThat(response.getTempoTotalMs()).isLessThan(LATENCIA_DS_MS * 10);
+
+        assertThat(meterRegistry.get("sentiment.analysis").tag("origem", "BATCH").tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sentiment.analysis").tag("sentimento", "NEGATIVO").timer().count()).isEqualTo(24);
+        assertThat(meterRegistry.get("sentiment.analysis.batch").tag("batch_size", "11-50").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Limite por batch deve restringir as chamadas simultâneas ao DS Service")
+    void limitePorBatchDeveRestringirConcorrencia() {
+        when(dsServiceClient.predict(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(LATENCIA_DS_MS);
+            return new DsServiceResponse("Positivo", 0.9);
+        });
+        SentimentService service = new SentimentService(
+                dsServiceClient, preClassifier, predictionCache, singleFlight, writeBehindQueue, executor, true, 5, meterRegistry);
+
+        List<SentimentRequest> textos = IntStream.range(0, 20)
+                .mapToObj(i -> new SentimentRequest("Produto bom #" + i))
+                .toList();
+
+        BatchSentimentResponse response = service.analisarBatch(new BatchSentimentRequest(textos));
+
+        // 20 itens com no máximo 5 em voo: ao menos 4 "ondas" de 100ms
+        assertThat(response.getTempoTotalMs()).isGreaterThanOrEqualTo(LATENCIA_DS_MS * 4);
+        assertThat(response.getResultados()).extracting(BatchSentimentResponse.BatchItemResponse::getPrevisao)
+                .containsOnly("Positivo");
+    }
+
+    @Test
+    @DisplayName("Textos repetidos no batch devem gerar uma chamada e uma análise gravada por item")
+    void textosRepetidosDevemSerClassificadosUmaVez() {
+        when(dsServiceClient.predict(anyString())).thenAnswer(invocation -> {
+            String texto = invocation.getArgument(0);
+            return new DsServiceResponse(texto.startsWith("Ruim") ? "Negativo" : "Positivo", 0.9);
+        });
+        SentimentService service = new SentimentService(
+                dsServiceClient, preClassifier, predictionCache, singleFlight, writeBehindQueue, executor, true, 50, meterRegistry);
+
+        List<SentimentRequest> textos = List.of(
+                new SentimentRequest("Bom produto"),
+                new SentimentRequest("Ruim demais"),
+                new SentimentRequest("  BOM   produto "),
+                new SentimentRequest("Bom produto"),
+                new SentimentRequest("ruim DEMAIS"));
+
+        BatchSentimentResponse response = service.analisarBatch(new BatchSentimentRequest(textos));
+
+        assertThat(response.getResultados()).extracting(BatchSentimentResponse.BatchItemResponse::getPrevisao)
+                .containsExactly("Positivo", "Negativo", "Positivo", "Positivo", "Negativo");
+        verify(dsServiceClient, times(2)).predict(anyString());
+
+        ArgumentCaptor<AnaliseResultado> gravados = ArgumentCaptor.forClass(AnaliseResultado.class);
+        verify(writeBehindQueue, times(5)).registrar(gravados.capture());
+        assertThat(gravados.getAllValues()).extracting(AnaliseResultado::getTextoOriginal)
+                .containsExactly("Bom produto", "Ruim demais", "  BOM   produto ", "Bom produto", "ruim DEMAIS");
+        assertThat(gravados.getAllValues()).doesNotHaveDuplicates();
+        assertThat(meterRegistry.get("sentiment.dedup").tag("scope", "batch").counter().count()).isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.dto.request.BatchSentimentRequest;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.service.lexicon.LexiconPreClassifier;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da deduplicação de textos no batch com a fila write-behind real (banco H2 em memória).
+ */
+@DataJpaTest
+class SentimentServiceDeduplicacaoTest {
+
+    @Autowired
+    private AnaliseResultadoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Textos repetidos no batch devem gravar uma linha por item, mesmo com o original já gravado")
+    void textosRepetidosDevemGravarUmaLinhaPorItem() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatsAccumulator statsAccumulator = new StatsAccumulator(repository);
+        // Fila desligada: cada registro é gravado na hora, então o original já tem id quando as cópias são feitas
+        AnaliseWriteBehindQueue writeBehindQueue = new AnaliseWriteBehindQueue(
+                repository, new TransactionTemplate(transactionManager), statsAccumulator,
+                mock(AnaliseRollupService.class), meterRegistry, false, 100, 10, 100, 100);
+        SentimentPredictor predictor = mock(SentimentPredictor.class);
+        when(predictor.predict(anyString())).thenReturn(new DsServiceResponse("Positivo", 0.9));
+        SentimentService service = new SentimentService(
+                predictor, mock(LexiconPreClassifier.class), new PredictionCache(null, meterRegistry, false, 0, 0, false),
+                new PredictionSingleFlight(meterRegistry), writeBehindQueue, Runnable::run, false, 1, meterRegistry);
+
+        service.analisarBatch(new BatchSentimentRequest(List.of(
+                new SentimentRequest("Bom produto"),
+                new SentimentRequest("bom PRODUTO"),
+                new SentimentRequest("Bom produto"),
+                new SentimentRequest("Ótimo"))));
+
+        assertThat(repository.count()).isEqualTo(4);
+        assertThat(repository.findAll()).extracting(AnaliseResultado::getTextoOriginal)
+                .containsExactlyInAnyOrder("Bom produto", "bom PRODUTO", "Bom produto", "Ótimo");
+        assertThat(statsAccumulator.snapshot().total()).isEqualTo(repository.count());
+    }
+}
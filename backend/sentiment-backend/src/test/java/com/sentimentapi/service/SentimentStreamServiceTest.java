@@ -0,0 +1,113 @@
+package com.sentimentapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.request.SentimentRequest;
+import com.sentimentapi.dto.response.SentimentResponse;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da análise em streaming (NDJSON).
+ */
+class SentimentStreamServiceTest {
+
+    private static final int JANELA = 8;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final SentimentService sentimentService = mock(SentimentService.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(32);
+    private final SentimentStreamService streamService =
+            new SentimentStreamService(sentimentService, objectMapper, validator, executor, JANELA, 10);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve devolver um resultado por linha, na ordem da entrada, com a janela limitada")
+    void deveManterOrdemELimitarJanela() throws Exception {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        when(sentimentService.analisar(any(SentimentRequest.class), eq("STREAM"), anyString())).thenAnswer(invocation -> {
+            maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            emAndamento.decrementAndGet();
+            return SentimentResponse.builder().previsao("Positivo").probabilidade(0.9).build();
+        });
+
+        StringBuilder entrada = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            entrada.append("{\"text\": \"Texto número ").append(i).append("\"}\n");
+        }
+
+        List<JsonNode> linhas = processar(entrada.toString());
+
+        assertThat(linhas).hasSize(500);
+        for (int i = 0; i < linhas.size(); i++) {
+            assertThat(linhas.get(i).get("linha").asLong()).isEqualTo(i + 1);
+            assertThat(linhas.get(i).get("texto").asText()).isEqualTo("Texto número " + i);
+        }
+        assertThat(maximo.get()).isLessThanOrEqualTo(JANELA);
+    }
+
+    @Test
+    @DisplayName("Linhas inválidas e falhas devem gerar resultado ERRO sem interromper o stream")
+    void linhasInvalidasDevemGerarErro() throws Exception {
+        when(sentimentService.analisar(any(SentimentRequest.class), eq("STREAM"), anyString()))
+                .thenReturn(SentimentResponse.builder().previsao("Negativo").probabilidade(0.8).build());
+        when(sentimentService.analisar(eq(new SentimentRequest("falha no serviço")), eq("STREAM"), anyString()))
+                .thenThrow(new IllegalStateException("DS indisponível"));
+
+        List<JsonNode> linhas = processar("""
+                {"text": "Chegou quebrado"}
+
+                não é json
+                {"text": "ok"}
+                {"text": "falha no serviço"}
+                {"text": "Entrega atrasada"}
+                """);
+
+        assertThat(linhas).extracting(linha -> linha.get("linha").asLong()).containsExactly(1L, 3L, 4L, 5L, 6L);
+        assertThat(linhas).extracting(linha -> linha.get("previsao").asText())
+                .containsExactly("Negativo", "ERRO", "ERRO", "ERRO", "Negativo");
+        assertThat(linhas.get(2).get("erro").asText()).contains("3 caracteres");
+        assertThat(linhas.get(3).get("erro").asText()).isEqualTo("DS indisponível");
+        assertThat(linhas.get(0).has("erro")).isFalse();
+    }
+
+    private List<JsonNode> processar(String ndjson) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long escritos = streamService.analisar(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), saida, "batch-teste");
+
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            linhas.add(objectMapper.readTree(linha));
+        }
+        assertThat(linhas).hasSize((int) escritos);
+        return linhas;
+    }
+}
@@ -0,0 +1,160 @@
+package com.sentimentapi.service;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.repository.AnaliseResultadoRepository.AgregadoPorSentimento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes dos acumuladores de estatísticas em memória.
+ */
+class StatsAccumulatorTest {
+
+    private final AnaliseResultadoRepository repository = mock(AnaliseResultadoRepository.class);
+    private final StatsAccumulator accumulator = new StatsAccumulator(repository);
+
+    @Test
+    @DisplayName("Deve reconstruir a partir do banco e acumular as novas gravações")
+    void deveReconstruirEAcumular() {
+        when(repository.agregarPorSentimento()).thenReturn(List.of(
+                agregado(Sentimento.POSITIVO, 3, 2.7, 3, 300),
+                agregado(Sentimento.NEGATIVO, 1, 0.8, 0, 0)));
+        accumulator.inicializar();
+
+        accumulator.registrarGravacao(List.of(resultado(Sentimento.NEGATIVO, 0.6, 100L)), () -> { });
+
+        StatsAccumulator.Snapshot snapshot = accumulator.snapshot();
+        assertThat(snapshot.total()).isEqualTo(5);
+        assertThat(snapshot.total(Sentimento.NEGATIVO)).isEqualTo(2);
+        assertThat(snapshot.probabilidadeMedia(Sentimento.POSITIVO)).isEqualTo(0.9, offset(1e-9));
+        assertThat(snapshot.probabilidadeMedia(Sentimento.NEGATIVO)).isEqualTo(0.7, offset(1e-9));
+        assertThat(snapshot.tempoMedioMs()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Gravação que falha não deve ser acumulada")
+    void gravacaoComFalhaNaoDeveSerAcumulada() {
+        when(repository.agregarPorSentimento()).thenReturn(List.of());
+        accumulator.inicializar();
+
+        try {
+            accumulator.registrarGravacao(List.of(resultado(Sentimento.POSITIVO, 0.9, 10L)), () -> {
+                throw new IllegalStateException("commit falhou");
+            });
+        } catch (IllegalStateException ignored) {
+            // esperado
+        }
+
+        assertThat(accumulator.snapshot().total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reconciliação deve corrigir desvios em relação ao banco")
+    void reconciliacaoDeveCorrigirDesvio() {
+        when(repository.agregarPorSentimento()).thenReturn(List.of());
+        accumulator.inicializar();
+        accumulator.registrarGravacao(List.of(resultado(Sentimento.POSITIVO, 0.9, 10L)), () -> { });
+
+        // o banco tem mais registros (ex.: gravados por outra instância)
+        when(repository.agregarPorSentimento()).thenReturn(List.of(agregado(Sentimento.POSITIVO, 10, 9.0, 10, 100)));
+        accumulator.reconciliar();
+
+        assertThat(accumulator.snapshot().total(Sentimento.POSITIVO)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Leitura não deve esperar o commit de uma gravação em andamento")
+    void leituraNaoDeveEsperarCommit() throws Exception {
+        when(repository.agregarPorSentimento()).thenReturn(List.of());
+        accumulator.inicializar();
+        CountDownLatch commitIniciado = new CountDownLatch(1);
+        CountDownLatch liberarCommit = new CountDownLatch(1);
+        Thread gravacao = new Thread(() -> accumulator.registrarGravacao(
+                List.of(resultado(Sentimento.POSITIVO, 0.9, 10L)), () -> {
+                    commitIniciado.countDown();
+                    aguardar(liberarCommit);
+                }));
+        gravacao.start();
+        commitIniciado.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Long> leitura = CompletableFuture.supplyAsync(() -> accumulator.snapshot().total());
+        assertThat(leitura.get(1, TimeUnit.SECONDS)).isZero();
+
+        liberarCommit.countDown();
+        gravacao.join();
+        assertThat(accumulator.snapshot().total()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Gravação feita durante a consulta da reconciliação não deve ser perdida")
+    void gravacaoDuranteReconciliacaoNaoDeveSerPerdida() {
+        when(repository.agregarPorSentimento()).thenReturn(List.of(agregado(Sentimento.POSITIVO, 5, 4.5, 5, 50)));
+        accumulator.inicializar();
+
+        // o banco responde com 5 (a gravação abaixo é confirmada depois da leitura da consulta)
+        when(repository.agregarPorSentimento()).thenAnswer(invocation -> {
+            accumulator.registrarGravacao(List.of(resultado(Sentimento.NEGATIVO, 0.8, 20L)), () -> { });
+            return List.of(agregado(Sentimento.POSITIVO, 5, 4.5, 5, 50));
+        });
+        accumulator.reconciliar();
+
+        StatsAccumulator.Snapshot snapshot = accumulator.snapshot();
+        assertThat(snapshot.total(Sentimento.POSITIVO)).isEqualTo(5);
+        assertThat(snapshot.total(Sentimento.NEGATIVO)).isEqualTo(1);
+        assertThat(snapshot.tempoMedioMs()).isEqualTo(70.0 / 6, offset(1e-9));
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AnaliseResultado resultado(Sentimento sentimento, double probabilidade, Long tempoMs) {
+        return AnaliseResultado.builder()
+                .textoOriginal("texto")
+                .sentimento(sentimento)
+                .probabilidade(probabilidade)
+                .tempoProcessamentoMs(tempoMs)
+                .build();
+    }
+
+    private static AgregadoPorSentimento agregado(
+            Sentimento sentimento, long total, double somaProbabilidade, long totalComTempo, long somaTempoMs) {
+        return new AgregadoPorSentimento() {
+            public Sentimento getSentimento() {
+                return sentimento;
+            }
+
+            public Long getTotal() {
+                return total;
+            }
+
+            public Double getSomaProbabilidade() {
+                return somaProbabilidade;
+            }
+
+            public Long getTotalComTempo() {
+                return totalComTempo;
+            }
+
+            public Long getSomaTempoMs() {
+                return somaTempoMs;
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.sentimentapi.service.balancer;
+
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sentimentapi.support.DsResilienceFixtures;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do balanceamento entre réplicas contra dois DS Service locais (stubs) em portas diferentes.
+ */
+class DsReplicaBalancerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private StubDsServer rapida;
+    private StubDsServer lenta;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rapida = new StubDsServer().latencyMs(2);
+        lenta = new StubDsServer().latencyMs(40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rapida.close();
+        lenta.close();
+    }
+
+    @Test
+    @DisplayName("A réplica mais rápida deve receber a maior parte das chamadas, visível nas métricas por réplica")
+    void replicaRapidaDeveReceberMaisChamadas() {
+        DsReplicaBalancer balancer = new DsReplicaBalancer(rapida.url() + "," + lenta.url(), meterRegistry,
+                10_000, 1_000, 30_000, 2);
+        DsServiceClient client = new DsServiceClient(restTemplate, balancer, BatchWireCodec.json(), DsResilienceFixtures.semProtecao(),
+                DsResilienceFixtures.semHedge(), meterRegistry);
+
+        for (int i = 0; i < 60; i++) {
+            assertThat(client.predict("Produto excelente " + i).getLabel()).isEqualTo("Positivo");
+        }
+
+        assertThat(rapida.predictCalls() + lenta.predictCalls()).isEqualTo(60);
+        assertThat(rapida.predictCalls()).isGreaterThan(4 * lenta.predictCalls());
+        assertThat(meterRegistry.get("ds.replica.requests").tags("replica", rapida.url(), "outcome", "success")
+                .counter().count()).isEqualTo(rapida.predictCalls());
+        assertThat(meterRegistry.get("ds.replica.latency.ewma").tag("replica", lenta.url()).gauge().value())
+                .isGreaterThan(meterRegistry.get("ds.replica.latency.ewma").tag("replica", rapida.url()).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Réplica que falha na sonda deve sair da rotação e voltar aos poucos")
+    void replicaComFalhaDeveSairEVoltarAosPoucos() throws Exception {
+        AtomicLong relogio = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+        DsReplicaBalancer balancer = new DsReplicaBalancer(List.of(rapida.url(), lenta.url()), meterRegistry,
+                relogio::get, 10_000, 1_000, 10_000, 2);
+        DsReplica primeira = balancer.replicas().get(0);
+        DsReplica segunda = balancer.replicas().get(1);
+        DsReplicaBalancer.Sonda sonda = url -> restTemplate.getForEntity(url + "/health", String.class);
+
+        lenta.errorRate(1.0);
+        balancer.sondar(sonda);
+        assertThat(segunda.disponivel()).isTrue(); // uma falha isolada não tira da rotação
+        balancer.sondar(sonda);
+        assertThat(segunda.disponivel()).isFalse();
+        assertThat(meterRegistry.get("ds.replica.available").tag("replica", lenta.url()).gauge().value()).isZero();
+        for (int i = 0; i < 50; i++) {
+            assertThat(balancer.escolher()).isSameAs(primeira);
+        }
+
+        // Volta à rotação com 10% do tráfego: perde para a primeira mesmo com 4 chamadas em andamento nela
+        lenta.errorRate(0);
+        balancer.sondar(sonda);
+        assertThat(segunda.disponivel()).isTrue();
+        for (int i = 0; i < 4; i++) {
+            primeira.iniciar();
+        }
+        assertThat(balancer.escolher()).isSameAs(primeira);
+
+        // Passados 60% do aquecimento, já é a preferida
+        relogio.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertThat(balancer.escolher()).isSameAs(segunda);
+        assertThat(balancer.estatisticas()).extracting(item -> item.get("aquecimento")).containsExactly(1.0, 0.6);
+    }
+
+    @Test
+    @DisplayName("A sonda só deve falhar quando nenhuma réplica responde, e réplica única nunca sai da rotação")
+    void sondaDeveFalharSomenteSemNenhumaReplica() throws Exception {
+        DsReplicaBalancer duas = new DsReplicaBalancer(rapida.url() + "," + lenta.url(), meterRegistry,
+                10_000, 1_000, 30_000, 1);
+        DsReplicaBalancer.Sonda sonda = url -> restTemplate.getForEntity(url + "/health", String.class);
+
+        lenta.errorRate(1.0);
+        duas.sondar(sonda);
+        rapida.errorRate(1.0);
+        assertThatThrownBy(() -> duas.sondar(sonda)).hasMessageContaining("500");
+        // Sem nenhuma disponível, todas voltam a ser candidatas
+        assertThat(duas.escolher()).isIn(duas.replicas());
+
+        DsReplicaBalancer unica = new DsReplicaBalancer(rapida.url(), new SimpleMeterRegistry());
+        assertThatThrownBy(() -> unica.sondar(sonda)).hasMessageContaining("500");
+        assertThat(unica.replicas().get(0).disponivel()).isTrue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.repository.AnaliseExportRepository;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark da exportação (linhas/s) contra um banco local, por padrão com 10 milhões de análises.
+ * <p>
+ * Por padrão usa um H2 em arquivo em {@code target/export-benchmark}; para o PostgreSQL, informe
+ * {@code -Dexport.benchmark.url=jdbc:postgresql://localhost:5432/sentiment_bench} (e {@code .user}/{@code .password}).
+ * O schema vem das migrações e os dados são gerados uma vez no próprio banco; execuções seguintes reaproveitam.
+ * A saída é descartada, então o resultado mede leitura do cursor, formatação e compressão.
+ * <p>
+ * Execução: {@code ./mvnw test -Pbenchmark -Dtest=AnaliseExportBenchmarkTest [-Dexport.benchmark.rows=10000000]}
+ */
+@Tag("benchmark")
+class AnaliseExportBenchmarkTest {
+
+    private static final long LINHAS = Long.getLong("export.benchmark.rows", 10_000_000L);
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime FIM = INICIO.plusYears(1);
+
+    @Test
+    @DisplayName("Mede a vazão da exportação em CSV gzip e Parquet")
+    void medirVazao() throws Exception {
+        String url = System.getProperty("export.benchmark.url", "jdbc:h2:file:./target/export-benchmark/analises");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("export.benchmark.user", "sa"), System.getProperty("export.benchmark.password", ""));
+        boolean postgres = url.startsWith("jdbc:postgresql:");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/" + (postgres ? "postgresql" : "h2"))
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+        popular(new JdbcTemplate(dataSource), postgres);
+
+        AnaliseExportService service = new AnaliseExportService(new AnaliseExportRepository(dataSource, 1000),
+                mock(AnaliseWriteBehindQueue.class), new DataSourceTransactionManager(dataSource), 100_000, 64, "gzip");
+
+        String[] formatos = {"csv.gz", "parquet"};
+        for (String formato : formatos) {
+            // Aquecimento (JIT e cache do banco), fora da medição
+            service.exportar(service.pedido(INICIO, FIM, formato, null, Math.min(LINHAS, 100_000L)), false, new Contador());
+        }
+        for (String formato : formatos) {
+            Contador saida = new Contador();
+            long comeco = System.nanoTime();
+            long linhas = service.exportar(service.pedido(INICIO, FIM, formato, null, null), false, saida);
+            double segundos = (System.nanoTime() - comeco) / 1e9;
+
+            System.out.printf("%-8s linhas=%d tempo=%.1fs vazão=%,.0f linhas/s arquivo=%.1f MB (%.1f bytes/linha)%n",
+                    formato, linhas, segundos, linhas / segundos, saida.bytes / 1e6, (double) saida.bytes / linhas);
+            assertThat(linhas).isEqualTo(LINHAS);
+        }
+    }
+
+    /**
+     * Gera as análises no próprio banco (uma a cada 3 s a partir de {@link #INICIO}), se ainda não existirem.
+     */
+    private static void popular(JdbcTemplate jdbc, boolean postgres) {
+        Long existentes = jdbc.queryForObject("SELECT COUNT(*) FROM analise_resultado", Long.class);
+        if (existentes != null && existentes == LINHAS) {
+            return;
+        }
+        jdbc.execute("DELETE FROM analise_resultado");
+
+        String serie = postgres ? "generate_series(1, " + LINHAS + ") AS s(x)" : "SYSTEM_RANGE(1, " + LINHAS + ") AS s";
+        String data = postgres ? "TIMESTAMP '2026-01-01' + x * INTERVAL '3 seconds'"
+                : "DATEADD('SECOND', x * 3, TIMESTAMP '2026-01-01 00:00:00')";
+        long comeco = System.nanoTime();
+        jdbc.execute("INSERT INTO analise_resultado (id, texto_original, sentimento, probabilidade, data_analise, "
+                + "tempo_processamento_ms, origem, batch_id, modelo_versao, camada) "
+                + "SELECT x, 'Produto ' || x || ' chegou ' || CASE MOD(x, 4) WHEN 0 THEN 'no prazo, bem embalado' "
+                + "WHEN 1 THEN 'atrasado e com a caixa amassada' WHEN 2 THEN 'ok' "
+                + "ELSE 'rápido; atendimento excelente, recomendo a todos' END, "
+                + "CASE MOD(x, 3) WHEN 0 THEN 'POSITIVO' WHEN 1 THEN 'NEGATIVO' ELSE 'NEUTRO' END, "
+                + "0.5 + MOD(x, 50) / 100.0, " + data + ", "
+                + "CASE WHEN MOD(x, 10) = 0 THEN NULL ELSE MOD(x, 200) END, "
+                + "CASE WHEN MOD(x, 5) = 0 THEN 'BATCH' ELSE 'API' END, "
+                + "CASE WHEN MOD(x, 5) = 0 THEN 'lote-' || (x / 1000) END, "
+                + "'tfidf-lr-2024.1', CASE WHEN MOD(x, 7) = 0 THEN 'LEXICO' ELSE 'MODELO' END "
+                + "FROM " + serie);
+        if (postgres) {
+            jdbc.execute("ANALYZE analise_resultado");
+        }
+        System.out.printf("Geradas %d análises em %.1fs%n", LINHAS, (System.nanoTime() - comeco) / 1e9);
+    }
+
+    /**
+     * Descarta o que é escrito, contando os bytes.
+     */
+    private static final class Contador extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.sentimentapi.service.export;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.FormatoExportacao;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.exception.ParametroInvalidoException;
+import com.sentimentapi.repository.AnaliseExportRepository;
+import com.sentimentapi.repository.AnaliseResultadoRepository;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.RecordReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes da exportação em CSV gzip e Parquet (banco H2 em memória, com o schema das migrações H2).
+ * O Parquet é lido de volta só com o {@code parquet-column}: rodapé, páginas e registros.
+ */
+@DataJpaTest
+@Import(AnaliseExportRepository.class)
+class AnaliseExportServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    @Autowired
+    private AnaliseResultadoRepository analiseRepository;
+
+    @Autowired
+    private AnaliseExportRepository exportRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AnaliseExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnaliseExportService(exportRepository, mock(AnaliseWriteBehindQueue.class), transactionManager,
+                3, 64, "gzip");
+
+        List<AnaliseResultado> analises = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            analises.add(AnaliseResultado.builder()
+                    .textoOriginal(i == 0 ? "Bom, \"muito\" bom\nrecomendo" : "Texto " + i)
+                    .sentimento(i % 2 == 0 ? Sentimento.POSITIVO : Sentimento.NEGATIVO)
+                    .probabilidade(0.5 + i / 100.0)
+                    .dataAnalise(DIA.plusMinutes(i / 2).plusNanos(123_456_000L))
+                    .tempoProcessamentoMs(i == 1 ? null : 10L * i)
+                    .origem("API")
+                    .modeloVersao("tfidf-lr-2024.1")
+                    .build());
+        }
+        analises.add(AnaliseResultado.builder().textoOriginal("Fora do período").sentimento(Sentimento.NEUTRO)
+                .probabilidade(0.5).dataAnalise(DIA.plusDays(1)).build());
+        analiseRepository.saveAll(analises);
+        analiseRepository.flush();
+    }
+
+    @Test
+    @DisplayName("CSV gzip: cabeçalho, linhas em ordem, aspas RFC 4180 e membros gzip independentes")
+    void csvDeveTrazerOPeriodoEmMembrosGzip() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long linhas = service.exportar(service.pedido(DIA, DIA.plusDays(1), "csv.gz", null, null), false, saida);
+
+        assertThat(linhas).isEqualTo(10);
+        String csv = gunzip(saida.toByteArray());
+        assertThat(csv).startsWith(CsvGzipExportWriter.CABECALHO + "\r\n");
+        assertThat(csv).contains(",\"Bom, \"\"muito\"\" bom\nrecomendo\"\r\n");
+        assertThat(csv).contains("2026-03-10T00:00:00.123456,");
+        assertThat(csv).doesNotContain("Fora do período");
+        // Linha com tempo nulo: campo vazio
+        assertThat(csv).containsPattern(",Negativo,0\\.51,,API,,tfidf-lr-2024\\.1,,Texto 1\r\n");
+
+        // 10 linhas com 3 por membro: 4 membros, e os 3 primeiros sozinhos já são um gzip válido
+        List<Integer> inicios = membros(saida.toByteArray());
+        assertThat(inicios).hasSize(4);
+        String parcial = gunzip(Arrays.copyOf(saida.toByteArray(), inicios.get(3)));
+        assertThat(parcial.split("\r\n(?=2026)")).hasSize(9 + 1); // cabeçalho + 9 linhas
+    }
+
+    @Test
+    @DisplayName("Retomada com after e partes com limit devem cobrir o período sem repetir nem pular")
+    void retomadaDeveContinuarDaUltimaLinha() throws Exception {
+        List<String> linhas = new ArrayList<>();
+        String apos = null;
+        int partes = 0;
+        while (true) {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            long exportadas = service.exportar(service.pedido(DIA, DIA.plusDays(1), "csv.gz", apos, 4L), false, saida);
+            if (exportadas == 0) {
+                break;
+            }
+            partes++;
+            List<String> parte = registros(gunzip(saida.toByteArray()));
+            linhas.addAll(parte);
+            String ultima = parte.get(parte.size() - 1);
+            apos = ultima.substring(0, ultima.indexOf(',', ultima.indexOf(',') + 1));
+        }
+
+        assertThat(partes).isEqualTo(3);
+        assertThat(linhas).hasSize(10).doesNotHaveDuplicates();
+        assertThat(linhas).isSortedAccordingTo((a, b) -> a.substring(0, 26).compareTo(b.substring(0, 26)));
+    }
+
+    @Test
+    @DisplayName("Parquet: schema, valores, nulos e posição final devem ser lidos de volta pelo parquet-column")
+    void parquetDeveSerLidoDeVolta() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        AnaliseExportService.Pedido pedido = service.pedido(DIA, DIA.plusDays(1), "parquet", null, null);
+        assertThat(pedido.formato()).isEqualTo(FormatoExportacao.PARQUET);
+        assertThat(pedido.nomeArquivo()).isEqualTo("analises_20260310T000000_20260311T000000.parquet");
+
+        service.exportar(pedido, false, saida);
+        Parquet arquivo = ler(saida.toByteArray());
+
+        assertThat(arquivo.rodape().getNum_rows()).isEqualTo(10);
+        assertThat(arquivo.rodape().getKey_value_metadata().get(0).getValue())
+                .isEqualTo(DIA.plusMinutes(4).plusNanos(123_456_000L) + "," + arquivo.linhas().get(9).getLong("id", 0));
+        Group primeira = arquivo.linhas().get(0);
+        assertThat(primeira.getLong("data_analise", 0)).isEqualTo(ParquetExportWriter.micros(DIA.plusNanos(123_456_000L)));
+        assertThat(primeira.getString("previsao", 0)).isEqualTo("Positivo");
+        assertThat(primeira.getDouble("probabilidade", 0)).isEqualTo(0.5);
+        assertThat(primeira.getString("texto", 0)).isEqualTo("Bom, \"muito\" bom\nrecomendo");
+        assertThat(primeira.getFieldRepetitionCount("batch_id")).isZero();
+        assertThat(arquivo.linhas().get(1).getFieldRepetitionCount("tempo_ms")).isZero();
+        assertThat(arquivo.linhas().get(2).getLong("tempo_ms", 0)).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("Parquet: row groups devem ser gravados pelo tamanho, com mínimo e máximo de data_analise")
+    void parquetDeveDividirEmRowGroups() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        // Tamanho mínimo: um row group a cada verificação (1000 linhas)
+        ParquetExportWriter writer = new ParquetExportWriter(saida, 1, true);
+        for (int i = 0; i < 2500; i++) {
+            writer.escrever(new AnaliseExportRepository.Linha(DIA.plusSeconds(i), i, i % 3 == 0 ? "Neutro" : "Positivo",
+                    0.75, (long) i, "BATCH", "lote-1", null, "MODELO", "Texto repetido " + (i % 10)));
+        }
+        writer.concluir();
+
+        Parquet arquivo = ler(saida.toByteArray());
+        assertThat(arquivo.rodape().getRow_groups()).extracting(RowGroup::getNum_rows).containsExactly(1000L, 1000L, 500L);
+        assertThat(arquivo.linhas()).hasSize(2500);
+        assertThat(arquivo.linhas().get(2499).getString("texto", 0)).isEqualTo("Texto repetido 9");
+        assertThat(arquivo.linhas().get(1234).getLong("id", 0)).isEqualTo(1234L);
+
+        ColumnMetaData data = arquivo.rodape().getRow_groups().get(1).getColumns().get(0).getMeta_data();
+        assertThat(longLe(data.getStatistics().getMin_value())).isEqualTo(ParquetExportWriter.micros(DIA.plusSeconds(1000)));
+        assertThat(longLe(data.getStatistics().getMax_value())).isEqualTo(ParquetExportWriter.micros(DIA.plusSeconds(1999)));
+        // Textos repetidos usam dicionário
+        ColumnMetaData texto = arquivo.rodape().getRow_groups().get(0).getColumns().get(9).getMeta_data();
+        assertThat(texto.isSetDictionary_page_offset()).isTrue();
+        assertThat(texto.getCodec()).isEqualTo(CompressionCodec.GZIP);
+    }
+
+    @Test
+    @DisplayName("Formato, after, limit ou período inválidos devem ser recusados antes de exportar")
+    void deveRecusarParametrosInvalidos() {
+        assertThatThrownBy(() -> service.pedido(DIA, DIA.plusDays(1), "xlsx", null, null))
+                .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> service.pedido(DIA, DIA.plusDays(1), "csv.gz", "ontem", null))
+                .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> service.pedido(DIA, DIA.plusDays(1), "csv.gz", null, 0L))
+                .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> service.pedido(DIA, DIA, "csv.gz", null, null))
+                .isInstanceOf(ParametroInvalidoException.class);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Registros do CSV sem o cabeçalho (cada um começa pela data, então quebras dentro de aspas não separam).
+     */
+    private static List<String> registros(String csv) {
+        List<String> registros = new ArrayList<>(Arrays.asList(csv.split("\r\n(?=\\d{4}-)")));
+        registros.remove(0);
+        registros.replaceAll(r -> r.replace("\r\n", ""));
+        return registros;
+    }
+
+    /**
+     * Posições onde começa cada membro gzip (cada membro conclui antes do próximo começar).
+     */
+    private static List<Integer> membros(byte[] bytes) throws IOException {
+        List<Integer> inicios = new ArrayList<>();
+        int posicao = 0;
+        while (posicao < bytes.length) {
+            inicios.add(posicao);
+            java.util.zip.Inflater inflater = new java.util.zip.Inflater(true);
+            int cabecalho = 10;
+            inflater.setInput(bytes, posicao + cabecalho, bytes.length - posicao - cabecalho);
+            byte[] descarte = new byte[8192];
+            try {
+                while (!inflater.finished()) {
+                    inflater.inflate(descarte);
+                }
+            } catch (java.util.zip.DataFormatException e) {
+                throw new IOException(e);
+            }
+            posicao += cabecalho + (int) inflater.getBytesRead() + 8;
+            inflater.end();
+        }
+        return inicios;
+    }
+
+    private static long longLe(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private record Parquet(FileMetaData rodape, List<Group> linhas) {
+    }
+
+    /**
+     * Lê o arquivo inteiro: rodapé, e para cada row group as páginas de cada coluna, montando os registros.
+     */
+    private static Parquet ler(byte[] arquivo) throws IOException {
+        int n = arquivo.length;
+        assertThat(new String(arquivo, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("PAR1");
+        assertThat(new String(arquivo, n - 4, 4, StandardCharsets.US_ASCII)).isEqualTo("PAR1");
+        int tamanhoRodape = ByteBuffer.wrap(arquivo, n - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        FileMetaData rodape = Util.readFileMetaData(new ByteArrayInputStream(arquivo, n - 8 - tamanhoRodape, tamanhoRodape));
+        assertThat(rodape.getSchema()).extracting(e -> e.getName()).containsExactly("analise_resultado",
+                "data_analise", "id", "previsao", "probabilidade", "tempo_ms", "origem", "batch_id", "modelo_versao",
+                "camada", "texto");
+
+        List<Group> linhas = new ArrayList<>();
+        List<ColumnDescriptor> colunas = ParquetExportWriter.SCHEMA.getColumns();
+        for (RowGroup rowGroup : rodape.getRow_groups()) {
+            Map<ColumnDescriptor, PageReader> leitores = new HashMap<>();
+            for (int i = 0; i < colunas.size(); i++) {
+                leitores.put(colunas.get(i), paginas(arquivo, colunas.get(i), rowGroup.getColumns().get(i)));
+            }
+            PageReadStore paginas = new PageReadStore() {
+                @Override
+                public PageReader getPageReader(ColumnDescriptor coluna) {
+                    return leitores.get(coluna);
+                }
+
+                @Override
+                public long getRowCount() {
+                    return rowGroup.getNum_rows();
+                }
+            };
+            RecordReader<Group> registros = new ColumnIOFactory().getColumnIO(ParquetExportWriter.SCHEMA)
+                    .getRecordReader(paginas, new GroupRecordConverter(ParquetExportWriter.SCHEMA));
+            for (long i = 0; i < rowGroup.getNum_rows(); i++) {
+                linhas.add(registros.read());
+            }
+        }
+        return new Parquet(rodape, linhas);
+    }
+
+    private static PageReader paginas(byte[] arquivo, ColumnDescriptor coluna, ColumnChunk chunk) throws IOException {
+        ColumnMetaData metadados = chunk.getMeta_data();
+        long inicio = metadados.isSetDictionary_page_offset()
+                ? metadados.getDictionary_page_offset() : metadados.getData_page_offset();
+        InputStream in = new ByteArrayInputStream(arquivo, (int) inicio, (int) metadados.getTotal_compressed_size());
+
+        DictionaryPage dicionario = null;
+        Deque<DataPage> dados = new ArrayDeque<>();
+        long valores = 0;
+        while (valores < metadados.getNum_values()) {
+            PageHeader cabecalho = Util.readPageHeader(in);
+            byte[] bytes = in.readNBytes(cabecalho.getCompressed_page_size());
+            if (metadados.getCodec() == CompressionCodec.GZIP) {
+                bytes = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+            }
+            assertThat(bytes).hasSize(cabecalho.getUncompressed_page_size());
+            if (cabecalho.getType() == PageType.DICTIONARY_PAGE) {
+                dicionario = new DictionaryPage(BytesInput.from(bytes), cabecalho.getDictionary_page_header().getNum_values(),
+                        Encoding.valueOf(cabecalho.getDictionary_page_header().getEncoding().name()));
+            } else {
+                var pagina = cabecalho.getData_page_header();
+                dados.add(new DataPageV1(BytesInput.from(bytes), pagina.getNum_values(), bytes.length,
+                        Statistics.createStats(coluna.getPrimitiveType()),
+                        Encoding.valueOf(pagina.getRepetition_level_encoding().name()),
+                        Encoding.valueOf(pagina.getDefinition_level_encoding().name()),
+                        Encoding.valueOf(pagina.getEncoding().name())));
+                valores += pagina.getNum_values();
+            }
+        }
+
+        DictionaryPage paginaDicionario = dicionario;
+        long total = valores;
+        return new PageReader() {
+            @Override
+            public DictionaryPage readDictionaryPage() {
+                return paginaDicionario;
+            }
+
+            @Override
+            public long getTotalValueCount() {
+                return total;
+            }
+
+            @Override
+            public DataPage readPage() {
+                return dados.poll();
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.sentimentapi.service.health;
+
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes da verificação de saúde em segundo plano.
+ */
+class DependencyHealthProberTest {
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AtomicBoolean dsNoAr = new AtomicBoolean(true);
+    private final DependencyHealthProber prober = new DependencyHealthProber(
+            verificacoes(), eventPublisher, Clock.fixed(Instant.parse("2026-01-10T12:00:00Z"), ZoneOffset.UTC),
+            false, 5000, 2);
+
+    @Test
+    @DisplayName("Antes da primeira verificação o status deve ser UNKNOWN, depois UP")
+    void deveComecarDesconhecidoEFicarUp() {
+        assertThat(prober.saude(DependencyHealthProber.DS_SERVICE).status()).isEqualTo(DependencyHealth.Status.UNKNOWN);
+
+        prober.verificar();
+
+        DependencyHealth saude = prober.saude(DependencyHealthProber.DS_SERVICE);
+        assertThat(saude.status()).isEqualTo(DependencyHealth.Status.UP);
+        assertThat(saude.verificadoEm()).isEqualTo(Instant.parse("2026-01-10T12:00:00Z"));
+        assertThat(prober.snapshot()).containsOnlyKeys(DependencyHealthProber.DS_SERVICE, DependencyHealthProber.DATABASE);
+        verify(eventPublisher, times(2)).publishEvent(any(DependencyHealthChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve marcar DOWN somente após falhas seguidas e publicar a mudança")
+    void deveMarcarDownAposFalhasSeguidas() {
+        prober.verificar();
+        Map<String, DependencyHealth> antes = prober.snapshot();
+        dsNoAr.set(false);
+
+        prober.verificar();
+        assertThat(prober.saude(DependencyHealthProber.DS_SERVICE).status()).isEqualTo(DependencyHealth.Status.UP);
+        assertThat(prober.saude(DependencyHealthProber.DS_SERVICE).falhasSeguidas()).isEqualTo(1);
+
+        prober.verificar();
+        DependencyHealth saude = prober.saude(DependencyHealthProber.DS_SERVICE);
+        assertThat(saude.status()).isEqualTo(DependencyHealth.Status.DOWN);
+        assertThat(saude.erro()).isEqualTo("Connection refused");
+        assertThat(antes.get(DependencyHealthProber.DS_SERVICE).isUp()).isTrue(); // snapshots antigos são imutáveis
+
+        ArgumentCaptor<DependencyHealthChangedEvent> eventos = ArgumentCaptor.forClass(DependencyHealthChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(eventos.capture());
+        DependencyHealthChangedEvent ultimo = eventos.getValue();
+        assertThat(ultimo.dependencia()).isEqualTo(DependencyHealthProber.DS_SERVICE);
+        assertThat(ultimo.anterior().status()).isEqualTo(DependencyHealth.Status.UP);
+        assertThat(ultimo.atual().status()).isEqualTo(DependencyHealth.Status.DOWN);
+
+        dsNoAr.set(true);
+        prober.verificar();
+        assertThat(prober.saude(DependencyHealthProber.DS_SERVICE).isUp()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve publicar o model_version do /health do DS Service quando ele muda")
+    void devePublicarMudancaDeVersaoDoModelo() throws Exception {
+        try (StubDsServer stub = new StubDsServer().modelVersion("v1")) {
+            DependencyHealthProber sonda = new DependencyHealthProber(new RestTemplateBuilder(), mock(DataSource.class),
+                    eventPublisher, new DsReplicaBalancer(stub.url(), new SimpleMeterRegistry()), false, 5000, 1000, 2);
+
+            sonda.verificar();
+            sonda.verificar();
+            stub.modelVersion("v2");
+            sonda.verificar();
+
+            ArgumentCaptor<Object> eventos = ArgumentCaptor.forClass(Object.class);
+            verify(eventPublisher, atLeastOnce()).publishEvent(eventos.capture());
+            List<Object> versoes = eventos.getAllValues().stream()
+                    .filter(ModelVersionChangedEvent.class::isInstance)
+                    .toList();
+            assertThat(versoes).containsExactly(
+                    new ModelVersionChangedEvent(null, "v1"), new ModelVersionChangedEvent("v1", "v2"));
+        }
+    }
+
+    private Map<String, DependencyHealthProber.Verificacao> verificacoes() {
+        Map<String, DependencyHealthProber.Verificacao> verificacoes = new LinkedHashMap<>();
+        verificacoes.put(DependencyHealthProber.DS_SERVICE, () -> {
+            if (!dsNoAr.get()) {
+                throw new ConnectException("Connection refused");
+            }
+        });
+        verificacoes.put(DependencyHealthProber.DATABASE, () -> { });
+        return verificacoes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sentimentapi.service.lexicon;
+
+import com.sentimentapi.domain.entity.AnaliseResultado;
+import com.sentimentapi.domain.enums.Sentimento;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.service.AnaliseWriteBehindQueue;
+import com.sentimentapi.service.PredictionCache;
+import com.sentimentapi.service.PredictionSingleFlight;
+import com.sentimentapi.service.SentimentService;
+import com.sentimentapi.service.predictor.SentimentPredictor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da pré-classificação por léxico.
+ */
+class LexiconPreClassifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LexiconPreClassifier classifier = new LexiconPreClassifier(
+            new ClassPathResource("lexicon/sentimento-pt.txt"), meterRegistry, true, 0.8, 280);
+
+    @Test
+    @DisplayName("Textos óbvios devem ser decididos pelo léxico, com negação, radicais e sem depender de acento")
+    void deveDecidirTextosObvios() {
+        assertThat(label("Parque EXCELENTE, adorei! Ótimo para a família")).contains("Positivo");
+        assertThat(label("Pessimo atendimento, horrível, filas absurdas")).contains("Negativo");
+        assertThat(label("Não recomendo. Brinquedos quebrados e tudo muito demorado")).contains("Negativo");
+        assertThat(classifier.classificar("Adorei, maravilhoso e perfeito").orElseThrow().getProbability())
+                .isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("Textos ambíguos, sem termos ou longos devem ir para o modelo e contar na taxa de escalonamento")
+    void textosAmbiguosDevemSerEscalados() {
+        assertThat(label("Excelente parque, mas filas horríveis")).isEmpty();      // adversativa
+        assertThat(label("Ótimo brinquedo e péssima comida")).isEmpty();          // conflito
+        assertThat(label("Fui ao parque no domingo")).isEmpty();                   // sem termos
+        assertThat(label("bom")).isEmpty();                                        // confiança 2/3
+        assertThat(label("Excelente, adorei! " + "x".repeat(300))).isEmpty();      // acima de max-length
+        assertThat(label("Excelente, adorei, perfeito")).isPresent();
+
+        assertThat(classifier.estatisticas())
+                .containsEntry("lexicon", 1L)
+                .containsEntry("model", 5L);
+        assertThat((double) classifier.estatisticas().get("escalation_rate")).isEqualTo(5.0 / 6.0);
+        assertThat(meterRegistry.get("sentiment.tier").tag("tier", "MODELO").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("SentimentService deve responder pelo léxico sem chamar o motor e registrar a camada")
+    void sentimentServiceDeveRegistrarCamada() {
+        SentimentPredictor predictor = mock(SentimentPredictor.class);
+        when(predictor.predict(anyString())).thenReturn(new DsServiceResponse("Positivo", 0.6, "modelo-1"));
+        SentimentService service = new SentimentService(predictor, classifier,
+                new PredictionCache(null, meterRegistry, false, 0, 0, false), new PredictionSingleFlight(meterRegistry),
+                mock(AnaliseWriteBehindQueue.class), Runnable::run, false, 1, meterRegistry);
+
+        AnaliseResultado obvio = service.classificar("Péssimo, horrível, não recomendo", "API", null);
+        AnaliseResultado ambiguo = service.classificar("Fui ao parque no domingo", "API", null);
+
+        assertThat(obvio.getSentimento()).isEqualTo(Sentimento.NEGATIVO);
+        assertThat(obvio.getCamada()).isEqualTo(LexiconPreClassifier.CAMADA_LEXICO);
+        assertThat(obvio.getModeloVersao()).startsWith("lexico@");
+        assertThat(ambiguo.getCamada()).isEqualTo(LexiconPreClassifier.CAMADA_MODELO);
+        assertThat(ambiguo.getModeloVersao()).isEqualTo("modelo-1");
+        verify(predictor, never()).predict("Péssimo, horrível, não recomendo");
+    }
+
+    private Optional<String> label(String texto) {
+        return classifier.classificar(texto).map(DsServiceResponse::getLabel);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sentimentapi.service.predictor;
+
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do desvio do motor local para o DS Service.
+ */
+class FallbackSentimentPredictorTest {
+
+    private final SentimentPredictor local = mock(SentimentPredictor.class);
+    private final SentimentPredictor remoto = mock(SentimentPredictor.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FallbackSentimentPredictor predictor = new FallbackSentimentPredictor(local, remoto, meterRegistry);
+
+    @Test
+    @DisplayName("Falha inesperada do motor local deve ser atendida pelo DS Service")
+    void falhaDoLocalDeveUsarRemoto() {
+        when(local.predict(anyString())).thenThrow(new IllegalStateException("bug no modelo"));
+        when(remoto.predict("Produto bom")).thenReturn(new DsServiceResponse("1", 0.8, "remoto"));
+
+        assertThat(predictor.predict("Produto bom").getModelVersion()).isEqualTo("remoto");
+        assertThat(meterRegistry.get("sentiment.predictor.fallback").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Texto recusado pela validação não deve ir ao DS Service")
+    void erroDeValidacaoNaoDeveUsarRemoto() {
+        when(local.predict(anyString())).thenThrow(new DsServiceException("Campo 'text' deve ter pelo menos 3 caracteres."));
+
+        assertThatThrownBy(() -> predictor.predict("ok")).isInstanceOf(DsServiceException.class);
+        verify(remoto, never()).predict(anyString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.sentimentapi.service.predictor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Testes do modelo linear avaliado na JVM.
+ * <p>
+ * {@code model/parity.jsonl} traz, para cada texto, as probabilidades calculadas em Python sobre o
+ * mesmo modelo ({@code ds-service/export_model.py --parity-texts}).
+ */
+class LinearSentimentModelTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static byte[] artefato;
+    private static LinearSentimentModel model;
+
+    @BeforeAll
+    static void carregar() throws IOException {
+        try (InputStream in = LinearSentimentModelTest.class.getResourceAsStream("/model/sentiment-linear.bin")) {
+            artefato = in.readAllBytes();
+        }
+        model = LinearSentimentModel.carregar(ByteBuffer.wrap(artefato));
+    }
+
+    @Test
+    @DisplayName("Probabilidades devem coincidir com as do Python para os textos de referência")
+    void deveTerParidadeComPython() throws IOException {
+        List<JsonNode> casos = lerParidade();
+        assertThat(casos).hasSizeGreaterThan(200);
+        assertThat(model.labels()).containsExactly("0", "1");
+
+        for (JsonNode caso : casos) {
+            String texto = caso.get("text").asText();
+            double[] esperado = MAPPER.treeToValue(caso.get("probabilities"), double[].class);
+            double[] obtido = model.probabilidades(texto);
+            assertThat(obtido).as(texto).containsExactly(esperado, offset(1e-9));
+        }
+    }
+
+    @Test
+    @DisplayName("Arquivo mapeado em memória deve dar o mesmo resultado e o vetor de trabalho deve ser reaproveitado limpo")
+    void arquivoMapeadoDeveDarOMesmoResultado() throws IOException {
+        Path arquivo = Files.createTempFile("sentiment-linear", ".bin");
+        try {
+            Files.write(arquivo, artefato);
+            LinearSentimentModel mapeado = LinearSentimentModel.carregar(arquivo);
+            String texto = "Filas enormes e brinquedos quebrados, não recomendo";
+
+            double[] primeira = mapeado.probabilidades(texto);
+            mapeado.probabilidades("Parque ótimo, adorei a montanha russa");
+            assertThat(mapeado.probabilidades(texto)).containsExactly(primeira, offset(0.0));
+            assertThat(primeira).containsExactly(model.probabilidades(texto), offset(0.0));
+            assertThat(mapeado.prever(texto).label()).isEqualTo("0");
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    @DisplayName("Artefato corrompido ou truncado deve ser recusado")
+    void artefatoInvalidoDeveSerRecusado() {
+        byte[] truncado = Arrays.copyOf(artefato, artefato.length - 8);
+        byte[] semAssinatura = artefato.clone();
+        semAssinatura[0] = 0;
+
+        assertThatThrownBy(() -> LinearSentimentModel.carregar(ByteBuffer.wrap(truncado)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("truncado");
+        assertThatThrownBy(() -> LinearSentimentModel.carregar(ByteBuffer.wrap(semAssinatura)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("assinatura");
+    }
+
+    private static List<JsonNode> lerParidade() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                LinearSentimentModelTest.class.getResourceAsStream("/model/parity.jsonl"), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(linha -> !linha.isBlank()).map(linha -> {
+                try {
+                    return MAPPER.readTree(linha);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+    }
+}
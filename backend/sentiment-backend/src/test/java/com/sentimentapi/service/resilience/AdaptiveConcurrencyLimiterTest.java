@@ -0,0 +1,87 @@
+package com.sentimentapi.service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do limite adaptativo de concorrência (AIMD).
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("Deve aumentar aos poucos com sucesso e reduzir pela metade em quedas")
+    void deveAumentarAditivamenteEReduzirMultiplicativamente() {
+        // inicial 4, mínimo 2, máximo 10, redução 0.5, lenta > 100ms, sem espera
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 10, 0.5, 100, 0);
+
+        for (int i = 0; i < 20; i++) {
+            ocuparTudoELiberar(limiter, RAPIDA, false);
+        }
+        assertThat(limiter.limiteAtual()).isEqualTo(10); // teto (bulkhead)
+
+        limiter.tentarAdquirir();
+        limiter.liberar(LENTA, false);
+        assertThat(limiter.limiteAtual()).isEqualTo(5);
+
+        limiter.tentarAdquirir();
+        limiter.liberar(RAPIDA, true);
+        limiter.tentarAdquirir();
+        limiter.liberar(RAPIDA, true);
+        assertThat(limiter.limiteAtual()).isEqualTo(2); // piso
+    }
+
+    @Test
+    @DisplayName("Sem vaga deve rejeitar após a espera máxima")
+    void semVagaDeveRejeitar() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.9, 1000, 50);
+
+        assertThat(limiter.tentarAdquirir()).isTrue();
+        assertThat(limiter.tentarAdquirir()).isTrue();
+
+        long inicio = System.nanoTime();
+        assertThat(limiter.tentarAdquirir()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(45);
+
+        limiter.liberarSemAmostra();
+        assertThat(limiter.tentarAdquirir()).isTrue();
+        assertThat(limiter.limiteAtual()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Espera não bloqueante deve receber a vaga liberada, expirar ou ser cancelada sem ocupar vaga")
+    void esperaAssincronaDeveReceberVagaLiberada() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.9, 1000, 100);
+
+        assertThat(limiter.adquirirAssincrono().get()).isTrue();
+        CompletableFuture<Boolean> cancelada = limiter.adquirirAssincrono();
+        CompletableFuture<Boolean> aguardando = limiter.adquirirAssincrono();
+        assertThat(aguardando).isNotDone();
+
+        cancelada.cancel(false);
+        limiter.liberar(RAPIDA, false);
+        assertThat(aguardando.get(1, TimeUnit.SECONDS)).isTrue(); // a cancelada foi ignorada
+        assertThat(limiter.emVoo()).isEqualTo(1);
+
+        assertThat(limiter.adquirirAssincrono().get(1, TimeUnit.SECONDS)).isFalse(); // expirou
+        limiter.liberarSemAmostra();
+        assertThat(limiter.emVoo()).isZero();
+    }
+
+    private static void ocuparTudoELiberar(AdaptiveConcurrencyLimiter limiter, long duracao, boolean queda) {
+        int vagas = limiter.limiteAtual();
+        for (int i = 0; i < vagas; i++) {
+            assertThat(limiter.tentarAdquirir()).isTrue();
+        }
+        for (int i = 0; i < vagas; i++) {
+            limiter.liberar(duracao, queda);
+        }
+    }
+}
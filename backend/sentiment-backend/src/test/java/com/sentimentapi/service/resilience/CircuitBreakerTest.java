@@ -0,0 +1,84 @@
+package com.sentimentapi.service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do circuit breaker (relógio controlado pelo teste).
+ */
+class CircuitBreakerTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong agora = new AtomicLong();
+    // janela 10, mínimo 5, 50% erros, 60% lentas, lenta >= 100ms, aberto 1s, 2 chamadas de teste
+    private final CircuitBreaker breaker = new CircuitBreaker("teste", 10, 5, 50, 60, 100, 1000, 2, agora::get);
+
+    @Test
+    @DisplayName("Deve abrir pela taxa de erros e rejeitar enquanto aberto")
+    void deveAbrirPorErros() {
+        registrar(RAPIDA, false, 2);
+        registrar(RAPIDA, true, 2);
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.FECHADO); // 4 chamadas: abaixo do mínimo
+
+        registrar(RAPIDA, true, 1); // 3/5 erros
+
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+        assertThat(breaker.tentarAdquirir()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve abrir pela taxa de chamadas lentas, mesmo sem erros")
+    void deveAbrirPorChamadasLentas() {
+        registrar(RAPIDA, false, 2);
+        registrar(LENTA, false, 3);
+
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+    }
+
+    @Test
+    @DisplayName("Após a espera deve testar com poucas chamadas e fechar se elas forem bem-sucedidas")
+    void deveFecharAposChamadasDeTeste() {
+        registrar(RAPIDA, true, 5);
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(breaker.tentarAdquirir()).isTrue();
+        assertThat(breaker.tentarAdquirir()).isTrue();
+        assertThat(breaker.tentarAdquirir()).isFalse(); // apenas 2 chamadas de teste
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.MEIO_ABERTO);
+
+        breaker.registrar(RAPIDA, false);
+        breaker.registrar(RAPIDA, false);
+
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.FECHADO);
+        assertThat(breaker.tentarAdquirir()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Chamadas de teste com falha devem reabrir o circuito")
+    void deveReabrirSeChamadasDeTesteFalharem() {
+        registrar(RAPIDA, true, 5);
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        breaker.tentarAdquirir();
+        breaker.tentarAdquirir();
+
+        breaker.registrar(RAPIDA, true);
+        breaker.registrar(RAPIDA, false);
+
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+        assertThat(breaker.tentarAdquirir()).isFalse();
+    }
+
+    private void registrar(long duracao, boolean erro, int vezes) {
+        for (int i = 0; i < vezes; i++) {
+            assertThat(breaker.tentarAdquirir()).isTrue();
+            breaker.registrar(duracao, erro);
+        }
+    }
+}
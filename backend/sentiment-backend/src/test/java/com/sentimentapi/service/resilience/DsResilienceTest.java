@@ -0,0 +1,187 @@
+package com.sentimentapi.service.resilience;
+
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.ReactiveDsServiceClient;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.service.health.DependencyHealth;
+import com.sentimentapi.service.health.DependencyHealthChangedEvent;
+import com.sentimentapi.service.health.DependencyHealthProber;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sentimentapi.support.DsResilienceFixtures;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes da camada de resiliência contra um DS Service local lento ou fora do ar.
+ */
+class DsResilienceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private StubDsServer stub;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    @DisplayName("DS lento deve abrir o circuito e as chamadas seguintes devem falhar imediatamente")
+    void dsLentoDeveAbrirCircuito() throws Exception {
+        stub = new StubDsServer().latencyMs(150);
+        // lenta >= 100ms, 5 chamadas mínimas
+        CircuitBreaker breaker = new CircuitBreaker("ds-service", 10, 5, 50, 60, 100, 60_000, 2);
+        DsServiceClient client = cliente(stub.url(), breaker, new AdaptiveConcurrencyLimiter(10, 1, 10, 0.9, 10_000, 0));
+
+        for (int i = 0; i < 5; i++) {
+            client.predict("Produto ótimo " + i);
+        }
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> client.predict("Mais um texto"))
+                .isInstanceOf(DsServiceException.class)
+                .hasMessageContaining("Circuit breaker aberto");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(50);
+        assertThat(stub.predictCalls()).isEqualTo(5);
+        assertThat(meterRegistry.get("ds.circuit.state").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Bulkhead deve limitar as chamadas simultâneas que chegam ao DS")
+    void bulkheadDeveLimitarConcorrencia() throws Exception {
+        stub = new StubDsServer().latencyMs(300);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 3, 0.9, 10_000, 0);
+        DsServiceClient client = cliente(stub.url(), new CircuitBreaker("ds-service", 50, 50, 100, 100, 60_000, 1000, 1), limiter);
+
+        List<Future<?>> chamadas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int n = i;
+            chamadas.add(executor.submit(() -> client.predict("Produto bom " + n)));
+        }
+        int rejeitadas = 0;
+        for (Future<?> chamada : chamadas) {
+            try {
+                chamada.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(DsServiceException.class).hasMessageContaining("Limite");
+                rejeitadas++;
+            }
+        }
+
+        assertThat(stub.predictCalls()).isEqualTo(3);
+        assertThat(rejeitadas).isEqualTo(7);
+        assertThat(meterRegistry.get("ds.resilience.rejected").tag("reason", "concurrency_limit").counter().count())
+                .isEqualTo(7.0);
+    }
+
+    @Test
+    @DisplayName("Novas tentativas devem respeitar o orçamento quando o DS está fora do ar")
+    void retriesDevemRespeitarOrcamento() throws Exception {
+        int portaFechada;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            portaFechada = socket.getLocalPort();
+        }
+        RetryBudget orcamento = new RetryBudget(0.1, 2);
+        DsResilience resilience = new DsResilience(
+                new CircuitBreaker("ds-service", 100, 100, 100, 100, 60_000, 1000, 1),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, 0.9, 10_000, 0),
+                orcamento, meterRegistry, true, 3, 0);
+        DsServiceClient client = new DsServiceClient(restTemplate(),
+                new DsReplicaBalancer("http://127.0.0.1:" + portaFechada, meterRegistry), BatchWireCodec.json(), resilience,
+                DsResilienceFixtures.semHedge(), meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> client.predict("Texto qualquer")).isInstanceOf(DsServiceException.class);
+        }
+
+        // 2 tokens iniciais + 20 requisições x 0.1 = no máximo 4 novas tentativas (sem o orçamento seriam 60)
+        double novasTentativas = meterRegistry.get("ds.retry").tag("result", "retried").counter().count();
+        assertThat(novasTentativas).isBetween(2.0, 4.0);
+    }
+
+    @Test
+    @DisplayName("Chamadas não bloqueantes devem esperar vaga sem ocupar thread e alimentar o mesmo circuito")
+    void chamadasReativasDevemEsperarVagaSemThread() throws Exception {
+        stub = new StubDsServer().latencyMs(200);
+        CircuitBreaker breaker = new CircuitBreaker("ds-service", 10, 5, 50, 100, 100, 60_000, 2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.9, 10_000, 5_000);
+        DsResilience resilience = new DsResilience(breaker, limiter, new RetryBudget(0.1, 10), meterRegistry, true, 1, 0);
+        ReactiveDsServiceClient client = new ReactiveDsServiceClient(
+                WebClient.create(), new DsReplicaBalancer(stub.url(), meterRegistry), resilience, meterRegistry);
+
+        long inicio = System.nanoTime();
+        CompletableFuture<List<DsServiceResponse>> respostas = Flux.range(0, 6)
+                .flatMap(i -> client.predict("Produto ótimo " + i))
+                .collectList()
+                .toFuture();
+        assertThat(respostas).isNotDone(); // assinar não bloqueia quem assina
+
+        assertThat(respostas.get(5, TimeUnit.SECONDS)).hasSize(6);
+        // 6 chamadas de 200ms, 2 de cada vez
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(550);
+        assertThat(stub.predictCalls()).isEqualTo(6);
+        assertThat(limiter.emVoo()).isZero();
+        // Todas acima de slow-call-duration (100ms): o circuito é o mesmo da API v1
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+        assertThatThrownBy(() -> client.predict("Mais um texto").block())
+                .isInstanceOf(DsServiceException.class)
+                .hasMessageContaining("Circuit breaker aberto");
+    }
+
+    @Test
+    @DisplayName("Health check do DS fora do ar deve abrir o circuito antes de qualquer erro de requisição")
+    void healthCheckDownDeveAbrirCircuito() {
+        CircuitBreaker breaker = new CircuitBreaker("ds-service", 10, 5, 50, 60, 1000, 60_000, 2);
+        DsResilience resilience = new DsResilience(breaker, new AdaptiveConcurrencyLimiter(10, 1, 10, 0.9, 10_000, 0),
+                new RetryBudget(0.1, 10), meterRegistry, true, 1, 0);
+        Instant agora = Instant.now();
+        DependencyHealth up = new DependencyHealth(DependencyHealth.Status.UP, 3, agora, agora, 0, null);
+        DependencyHealth down = new DependencyHealth(DependencyHealth.Status.DOWN, 2000, agora, agora, 2, "Read timed out");
+
+        resilience.aoMudarSaude(new DependencyHealthChangedEvent(DependencyHealthProber.DATABASE, up, down));
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.FECHADO);
+
+        resilience.aoMudarSaude(new DependencyHealthChangedEvent(DependencyHealthProber.DS_SERVICE, up, down));
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABERTO);
+    }
+
+    private DsServiceClient cliente(String url, CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter) {
+        DsResilience resilience = new DsResilience(breaker, limiter, new RetryBudget(0.1, 10), meterRegistry, true, 1, 0);
+        return new DsServiceClient(restTemplate(), new DsReplicaBalancer(url, meterRegistry), BatchWireCodec.json(),
+                resilience, DsResilienceFixtures.semHedge(), meterRegistry);
+    }
+
+    private static RestTemplate restTemplate() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(1000);
+        factory.setReadTimeout(2000);
+        return new RestTemplate(factory);
+    }
+}
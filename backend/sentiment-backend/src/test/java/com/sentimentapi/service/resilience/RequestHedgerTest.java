@@ -0,0 +1,126 @@
+package com.sentimentapi.service.resilience;
+
+import com.sentimentapi.config.RestTemplateConfig;
+import com.sentimentapi.dto.DsServiceResponse;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do hedging contra dois DS Service locais (stubs): um lento e um rápido.
+ */
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    private final RestTemplate restTemplate = new RestTemplateConfig().restTemplate(new RestTemplateBuilder(), httpClient);
+    private StubDsServer rapida;
+    private StubDsServer lenta;
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rapida = new StubDsServer().latencyMs(5);
+        lenta = new StubDsServer().latencyMs(1500);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (hedger != null) {
+            hedger.stop();
+        }
+        httpClient.close();
+        rapida.close();
+        lenta.close();
+    }
+
+    @Test
+    @DisplayName("A cópia deve responder no lugar da principal lenta, que é abortada")
+    void copiaDeveVencerPrincipalLenta() {
+        hedger = new RequestHedger(true, 95, 20, 10, 5, 0.05, 10, meterRegistry);
+        aquecer();
+        assertThat(hedger.limiarNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+
+        long inicio = System.nanoTime();
+        DsServiceResponse resposta = hedger.executar(predict(lenta), predict(rapida));
+
+        // Sem abortar a principal, a thread ficaria presa até a resposta da réplica lenta (1,5s)
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(1000);
+        assertThat(resposta.getLabel()).isEqualTo("Positivo");
+        assertThat(meterRegistry.get("ds.hedge").tag("result", "sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ds.hedge.wins").tag("winner", "hedge").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ds.hedge.wins").tag("winner", "primary").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sem orçamento, a chamada lenta não ganha cópia")
+    void semOrcamentoNaoDeveEnviarCopia() {
+        lenta.latencyMs(300);
+        hedger = new RequestHedger(true, 95, 20, 10, 5, 0, 1, meterRegistry);
+        aquecer();
+
+        hedger.executar(predict(lenta), predict(rapida));
+        long inicio = System.nanoTime();
+        hedger.executar(predict(lenta), predict(rapida));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(290);
+        assertThat(meterRegistry.get("ds.hedge").tag("result", "sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ds.hedge").tag("result", "budget_exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Falha da principal deve esperar a cópia em andamento, e só propagar se não houver cópia")
+    void falhaDaPrincipalDeveEsperarCopia() {
+        hedger = new RequestHedger(true, 95, 20, 10, 5, 0.05, 10, meterRegistry);
+        aquecer();
+
+        Supplier<String> principalFalhaDepois = () -> {
+            pausar(200);
+            throw new IllegalStateException("principal falhou");
+        };
+        assertThat(hedger.executar(principalFalhaDepois, () -> "cópia")).isEqualTo("cópia");
+
+        Supplier<String> principalFalhaLogo = () -> {
+            throw new IllegalStateException("principal falhou");
+        };
+        assertThatThrownBy(() -> hedger.executar(principalFalhaLogo, () -> "cópia"))
+                .hasMessage("principal falhou");
+        assertThat(meterRegistry.get("ds.hedge").tag("result", "sent").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * Enche a janela de 10 amostras com chamadas rápidas (a primeira, mais lenta, sai da janela).
+     */
+    private void aquecer() {
+        for (int i = 0; i < 20; i++) {
+            hedger.executar(predict(rapida), predict(rapida));
+        }
+    }
+
+    private Supplier<DsServiceResponse> predict(StubDsServer stub) {
+        return () -> restTemplate.postForObject(stub.url() + "/predict", Map.of("text", "Produto excelente"),
+                DsServiceResponse.class);
+    }
+
+    private static void pausar(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.sentimentapi.service.wire;
+
+import com.sentimentapi.config.RestTemplateConfig;
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.exception.DsServiceException;
+import com.sentimentapi.service.DsServiceClient;
+import com.sentimentapi.service.balancer.DsReplicaBalancer;
+import com.sentimentapi.support.DsResilienceFixtures;
+import com.sentimentapi.support.StubDsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do formato binário de lote: codificação isolada e chamadas reais contra o DS Service local (stub).
+ */
+class BatchWireCodecTest {
+
+    private static final List<String> TEXTOS = List.of("Produto excelente", "Atendimento péssimo, não recomendo",
+            "ok", "Chegou rápido 🚀👍", "");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    private final RestTemplate restTemplate = new RestTemplateConfig().restTemplate(new RestTemplateBuilder(), httpClient);
+    private StubDsServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubDsServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Requisição e resposta binárias devem preservar textos UTF-8, erros e model_version")
+    void quadrosDevemIrEVoltarSemPerdas() {
+        BatchWireCodec.Quadro quadro = new BatchWireCodec.Quadro();
+        BatchWireCodec.escreverRequisicao(TEXTOS, quadro);
+        assertThat(BatchWireCodec.lerRequisicao(Arrays.copyOf(quadro.dados, quadro.tamanho))).isEqualTo(TEXTOS);
+
+        DsBatchServiceResponse resposta = new DsBatchServiceResponse(List.of(
+                new DsBatchServiceResponse.Item("Positivo", 0.9731, null),
+                new DsBatchServiceResponse.Item(null, null, "Campo 'text' deve ter pelo menos 3 caracteres.")),
+                "tfidf-lr-2024.1");
+        byte[] bytes = BatchWireCodec.escreverResposta(resposta);
+        assertThat(BatchWireCodec.lerResposta(bytes, bytes.length)).isEqualTo(resposta);
+
+        // Resposta maior que o buffer inicial: o quadro cresce no meio dos itens
+        List<DsBatchServiceResponse.Item> muitos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            muitos.add(new DsBatchServiceResponse.Item(i % 2 == 0 ? "Positivo" : "Negativo", i / 2000.0, null));
+        }
+        byte[] grande = BatchWireCodec.escreverResposta(new DsBatchServiceResponse(muitos, null));
+        assertThat(BatchWireCodec.lerResposta(grande, grande.length).getResults()).isEqualTo(muitos);
+
+        assertThatThrownBy(() -> BatchWireCodec.lerResposta(bytes, bytes.length - 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("truncado");
+    }
+
+    @Test
+    @DisplayName("Corpo acima do mínimo deve ir comprimido em gzip válido, e abaixo dele sem compressão")
+    void corpoGrandeDeveIrComprimido() throws Exception {
+        BatchWireCodec codec = new BatchWireCodec("binary", true, 1024);
+        List<String> muitos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            muitos.add("Produto excelente, entrega no prazo " + i);
+        }
+
+        MockClientHttpRequest grande = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://ds/predict/batch"));
+        codec.escrever(muitos, grande);
+        assertThat(grande.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(grande.getHeaders().getContentType()).isEqualTo(BatchWireCodec.MEDIA_TYPE);
+        byte[] descomprimido = new GZIPInputStream(new ByteArrayInputStream(grande.getBodyAsBytes())).readAllBytes();
+        assertThat(grande.getBodyAsBytes().length).isLessThan(descomprimido.length / 3);
+        assertThat(BatchWireCodec.lerRequisicao(descomprimido)).isEqualTo(muitos);
+
+        MockClientHttpRequest pequeno = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://ds/predict/batch"));
+        codec.escrever(TEXTOS, pequeno);
+        assertThat(pequeno.getHeaders().containsKey("Content-Encoding")).isFalse();
+        assertThat(pequeno.getHeaders().getContentLength()).isEqualTo(pequeno.getBodyAsBytes().length);
+    }
+
+    @Test
+    @DisplayName("Lote binário com gzip deve dar o mesmo resultado do JSON, com menos bytes na rede")
+    void loteBinarioDeveEquivalerAoJson() {
+        List<String> lote = new ArrayList<>(TEXTOS);
+        for (int i = 0; i < 100; i++) {
+            lote.add("Atendimento excelente, produto chegou bem embalado " + i);
+        }
+
+        DsBatchServiceResponse json = client(BatchWireCodec.json()).predictBatch(lote);
+        long bytesJson = stub.batchBytesReceived() + stub.batchBytesSent();
+
+        DsBatchServiceResponse binario = client(new BatchWireCodec("binary", true, 1024)).predictBatch(lote);
+        long bytesBinario = stub.batchBytesReceived() + stub.batchBytesSent() - bytesJson;
+
+        assertThat(stub.lastBatchContentType()).isEqualTo(BatchWireCodec.CONTENT_TYPE + ";gzip");
+        assertThat(binario).isEqualTo(json);
+        assertThat(binario.getResults().get(3).getLabel()).isEqualTo("Positivo");
+        assertThat(binario.getResults().get(4).getError()).isNotNull();
+        assertThat(bytesBinario).isLessThan(bytesJson / 2);
+    }
+
+    @Test
+    @DisplayName("DS Service sem suporte ao binário (415) deve fazer o cliente voltar ao JSON de vez")
+    void dsSemSuporteDeveRebaixarParaJson() {
+        stub.somenteJson();
+        BatchWireCodec codec = new BatchWireCodec("binary", true, 0);
+        DsServiceClient client = client(codec);
+
+        assertThat(client.predictBatch(TEXTOS).getResults()).hasSize(TEXTOS.size());
+        assertThat(codec.jsonSimples()).isTrue();
+        assertThat(stub.lastBatchContentType()).startsWith("application/json");
+
+        client.predictBatch(TEXTOS);
+        assertThat(stub.batchCalls()).isEqualTo(3); // só a primeira chamada foi recusada
+    }
+
+    @Test
+    @DisplayName("Só a recusa do formato (415 de Content-Type/Content-Encoding) deve rebaixar o cliente")
+    void soRecusaDoFormatoDeveRebaixar() {
+        assertThat(BatchWireCodec.formatoRecusado(415, corpo("Content-Type não suportado: application/x-sentiment-batch")))
+                .isTrue();
+        assertThat(BatchWireCodec.formatoRecusado(415, corpo("Content-Encoding não suportado: br"))).isTrue();
+        assertThat(BatchWireCodec.formatoRecusado(415, corpo("Quadro de lote truncado"))).isFalse();
+        assertThat(BatchWireCodec.formatoRecusado(422, corpo("Content-Type não suportado: text/plain"))).isFalse();
+        assertThat(BatchWireCodec.formatoRecusado(415, "Unsupported Media Type".getBytes(StandardCharsets.UTF_8)))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Resposta binária inválida deve virar DsServiceException")
+    void respostaBinariaInvalidaDeveVirarDsServiceException() {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[]{1, 0, 9, 'x'}, HttpStatus.OK);
+        response.getHeaders().setContentType(BatchWireCodec.MEDIA_TYPE);
+
+        assertThatThrownBy(() -> BatchWireCodec.json().ler(response))
+                .isInstanceOf(DsServiceException.class)
+                .hasMessageContaining("truncado");
+    }
+
+    private static byte[] corpo(String detalhe) {
+        return ("{\"detail\":\"" + detalhe + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private DsServiceClient client(BatchWireCodec codec) {
+        return new DsServiceClient(restTemplate, new DsReplicaBalancer(stub.url(), meterRegistry), codec,
+                DsResilienceFixtures.semProtecao(), DsResilienceFixtures.semHedge(), meterRegistry);
+    }
+}
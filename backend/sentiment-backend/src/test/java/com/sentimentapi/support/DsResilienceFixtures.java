@@ -0,0 +1,36 @@
+package com.sentimentapi.support;
+
+import com.sentimentapi.service.resilience.AdaptiveConcurrencyLimiter;
+import com.sentimentapi.service.resilience.CircuitBreaker;
+import com.sentimentapi.service.resilience.DsResilience;
+import com.sentimentapi.service.resilience.RequestHedger;
+import com.sentimentapi.service.resilience.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Instâncias da camada de resiliência para testes.
+ */
+public final class DsResilienceFixtures {
+
+    private DsResilienceFixtures() {
+    }
+
+    /**
+     * Camada desligada: as chamadas vão direto ao DS Service.
+     */
+    public static DsResilience semProtecao() {
+        return new DsResilience(
+                new CircuitBreaker("teste", 10, 10, 100, 100, 60_000, 1_000, 1),
+                new AdaptiveConcurrencyLimiter(1000, 1000, 1000, 0.9, 60_000, 0),
+                new RetryBudget(0, 0),
+                new SimpleMeterRegistry(),
+                false, 0, 0);
+    }
+
+    /**
+     * Hedging desligado: só a tentativa principal.
+     */
+    public static RequestHedger semHedge() {
+        return new RequestHedger(false, 95, 10, 1000, 100, 0.05, 10, new SimpleMeterRegistry());
+    }
+}
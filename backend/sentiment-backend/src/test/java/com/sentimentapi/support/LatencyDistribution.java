@@ -0,0 +1,49 @@
+package com.sentimentapi.support;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribuição de latência do {@link StubDsServer}.
+ * <p>
+ * Especificação textual (para system properties): {@code fixed:20}, {@code uniform:5:50}
+ * ou {@code lognormal:20:0.5} (mediana em ms e sigma).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Próxima latência, em milissegundos.
+     */
+    long nextMs();
+
+    static LatencyDistribution fixed(long ms) {
+        return () -> ms;
+    }
+
+    static LatencyDistribution uniform(long minMs, long maxMs) {
+        return () -> ThreadLocalRandom.current().nextLong(minMs, maxMs + 1);
+    }
+
+    /**
+     * Log-normal: a maioria das respostas perto da mediana e uma cauda longa, como um serviço real.
+     */
+    static LatencyDistribution logNormal(double medianMs, double sigma) {
+        double mu = Math.log(medianMs);
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] partes = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            return switch (partes[0]) {
+                case "fixed" -> fixed(Long.parseLong(partes[1]));
+                case "uniform" -> uniform(Long.parseLong(partes[1]), Long.parseLong(partes[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(partes[1]), Double.parseDouble(partes[2]));
+                default -> throw new IllegalArgumentException("Distribuição desconhecida: " + spec);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Distribuição inválida: " + spec, e);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.sentimentapi.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dto.DsBatchServiceResponse;
+import com.sentimentapi.service.wire.BatchWireCodec;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Servidor HTTP local que imita o DS Service (FastAPI) para testes e benchmarks.
+ * Reproduz o fallback heurístico de ds-service/app/model.py.
+ * <p>
+ * Latência ({@link LatencyDistribution}), taxa de erros (HTTP 500) e travamentos ocasionais
+ * são configuráveis e valem para todos os endpoints, inclusive {@code /health}.
+ * <p>
+ * O lote aceita o formato binário ({@link BatchWireCodec}) e corpo gzip, como o DS Service; com
+ * {@link #somenteJson()} responde 415 a eles, como uma versão antiga.
+ */
+public class StubDsServer implements AutoCloseable {
+
+    private static final List<String> NEGATIVE_MARKERS =
+            List.of("ruim", "péssim", "horr", "defeito", "demor", "atras", "não recomendo");
+
+    static {
+        // Sem TCP_NODELAY o HttpServer do JDK sofre ~40ms de delayed ACK por resposta
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong predictCalls = new AtomicLong();
+    private final AtomicLong batchCalls = new AtomicLong();
+    private final AtomicLong batchItems = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong batchBytesReceived = new AtomicLong();
+    private final AtomicLong batchBytesSent = new AtomicLong();
+    private final AtomicReference<String> lastBatchContentType = new AtomicReference<>();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.fixed(0);
+    private volatile double errorRate;
+    private volatile double stallRate;
+    private volatile long stallMs;
+    private volatile boolean jsonOnly;
+    private volatile String modelVersion;
+
+    public StubDsServer() throws IOException {
+        this(64);
+    }
+
+    public StubDsServer(int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/health", this::handleHealth);
+        server.createContext("/predict/batch", this::handlePredictBatch);
+        server.createContext("/predict", this::handlePredict);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public StubDsServer latencyMs(long latencyMs) {
+        return latency(LatencyDistribution.fixed(latencyMs));
+    }
+
+    public StubDsServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Fração das chamadas (0..1) respondida com HTTP 500.
+     */
+    public StubDsServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Fração das chamadas (0..1) que trava por {@code stallMs} antes de responder (ex.: pausa de GC).
+     */
+    public StubDsServer stalls(double stallRate, long stallMs) {
+        this.stallRate = stallRate;
+        this.stallMs = stallMs;
+        return this;
+    }
+
+    /**
+     * Recusa (415) lotes binários ou comprimidos, como um DS Service anterior ao formato binário.
+     */
+    public StubDsServer somenteJson() {
+        this.jsonOnly = true;
+        return this;
+    }
+
+    /**
+     * {@code model_version} informado no {@code /health}.
+     */
+    public StubDsServer modelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+        return this;
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long stalls() {
+        return stalls.get();
+    }
+
+    public long predictCalls() {
+        return predictCalls.get();
+    }
+
+    public long batchCalls() {
+        return batchCalls.get();
+    }
+
+    public long batchItems() {
+        return batchItems.get();
+    }
+
+    /**
+     * Bytes dos corpos de lote recebidos como vieram na conexão (comprimidos, se for o caso).
+     */
+    public long batchBytesReceived() {
+        return batchBytesReceived.get();
+    }
+
+    public long batchBytesSent() {
+        return batchBytesSent.get();
+    }
+
+    /**
+     * Content-Type (e Content-Encoding, se houver) do último lote recebido.
+     */
+    public String lastBatchContentType() {
+        return lastBatchContentType.get();
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        if (simulate(exchange)) {
+            String versao = modelVersion;
+            respond(exchange, 200, versao == null
+                    ? "{\"status\":\"ok\"}"
+                    : "{\"status\":\"ok\",\"model_version\":\"" + versao + "\"}");
+        }
+    }
+
+    private void handlePredict(HttpExchange exchange) throws IOException {
+        predictCalls.incrementAndGet();
+        JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+        if (!simulate(exchange)) {
+            return;
+        }
+
+        String text = body.path("text").asText("").strip();
+        if (text.length() < 3) {
+            respond(exchange, 400, "{\"detail\":\"Campo 'text' deve ter pelo menos 3 caracteres.\"}");
+            return;
+        }
+        respond(exchange, 200, objectMapper.writeValueAsString(classify(text)));
+    }
+
+    private void handlePredictBatch(HttpExchange exchange) throws IOException {
+        batchCalls.incrementAndGet();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        lastBatchContentType.set(contentEncoding == null ? contentType : contentType + ";" + contentEncoding);
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        batchBytesReceived.addAndGet(raw.length);
+        boolean binary = contentType != null && contentType.startsWith(BatchWireCodec.CONTENT_TYPE);
+        if (jsonOnly && (binary || contentEncoding != null)) {
+            respond(exchange, 415, binary
+                    ? "{\"detail\":\"Content-Type não suportado: " + contentType + "\"}"
+                    : "{\"detail\":\"Content-Encoding não suportado: " + contentEncoding + "\"}");
+            return;
+        }
+        if (!simulate(exchange)) {
+            return;
+        }
+
+        byte[] body = "gzip".equals(contentEncoding) ? gunzip(raw) : raw;
+        List<String> texts = new ArrayList<>();
+        if (binary) {
+            texts.addAll(BatchWireCodec.lerRequisicao(body));
+        } else {
+            objectMapper.readTree(body).path("texts").forEach(node -> texts.add(node.asText("")));
+        }
+
+        List<DsBatchServiceResponse.Item> results = new ArrayList<>();
+        for (String rawText : texts) {
+            batchItems.incrementAndGet();
+            String text = rawText.strip();
+            if (text.length() < 3) {
+                results.add(new DsBatchServiceResponse.Item(null, null, "Campo 'text' deve ter pelo menos 3 caracteres."));
+            } else {
+                PredictionResult result = classify(text);
+                results.add(new DsBatchServiceResponse.Item(result.label(), result.probability(), null));
+            }
+        }
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (!jsonOnly && accept != null && accept.contains(BatchWireCodec.CONTENT_TYPE)) {
+            byte[] bytes = BatchWireCodec.escreverResposta(new DsBatchServiceResponse(results, null));
+            batchBytesSent.addAndGet(bytes.length);
+            respond(exchange, 200, BatchWireCodec.CONTENT_TYPE, bytes);
+        } else {
+            List<Map<String, Object>> json = new ArrayList<>();
+            for (DsBatchServiceResponse.Item item : results) {
+                json.add(item.getError() != null
+                        ? Map.of("error", item.getError())
+                        : Map.of("label", item.getLabel(), "probability", item.getProbability()));
+            }
+            byte[] bytes = objectMapper.writeValueAsBytes(Map.of("results", json));
+            batchBytesSent.addAndGet(bytes.length);
+            respond(exchange, 200, "application/json", bytes);
+        }
+    }
+
+    private static byte[] gunzip(byte[] raw) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+            return in.readAllBytes();
+        }
+    }
+
+    static PredictionResult classify(String text) {
+        String lowered = text.toLowerCase(Locale.ROOT);
+        for (String marker : NEGATIVE_MARKERS) {
+            if (lowered.contains(marker)) {
+                return new PredictionResult("Negativo", 0.85);
+            }
+        }
+        return new PredictionResult("Positivo", 0.75);
+    }
+
+    /**
+     * Aplica latência, travamento e erro simulados.
+     *
+     * @return false se já respondeu com erro
+     */
+    private boolean simulate(HttpExchange exchange) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = latency.nextMs();
+        if (stallRate > 0 && random.nextDouble() < stallRate) {
+            stalls.incrementAndGet();
+            millis += stallMs;
+        }
+        sleep(millis);
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            respond(exchange, 500, "{\"detail\":\"Erro simulado\"}");
+            return false;
+        }
+        return true;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        respond(exchange, status, "application/json", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record PredictionResult(String label, double probability) {
+    }
+}
@@ -1,13 +1,27 @@
 import os
 
-from fastapi import FastAPI, HTTPException
-from .schemas import PredictRequest, PredictResponse
+from fastapi import FastAPI, HTTPException, Request, Response
+from fastapi.concurrency import run_in_threadpool
+from fastapi.exceptions import RequestValidationError
+from fastapi.middleware.gzip import GZipMiddleware
+from pydantic import ValidationError
+
+from . import wire
+from .schemas import (
+    BatchPredictItem,
+    BatchPredictRequest,
+    BatchPredictResponse,
+    PredictRequest,
+    PredictResponse,
+)
 from .model import SentimentModel
 
 app = FastAPI(title="ds-service", version="0.1.0")
+app.add_middleware(GZipMiddleware, minimum_size=1024)
 
 MODEL_PATH = os.getenv("MODEL_PATH", "models/sentiment.joblib")
-model = SentimentModel(model_path=MODEL_PATH)
+MODEL_VERSION = os.getenv("MODEL_VERSION")
+model = SentimentModel(model_path=MODEL_PATH, version=MODEL_VERSION)
 
 
 @app.on_event("startup")
@@ -17,7 +31,7 @@ def on_startup() -> None:
 
 @app.get("/health")
 def health():
-    return {"status": "ok"}
+    return {"status": "ok", "model_version": model.version}
 
 
 @app.post("/predict", response_model=PredictResponse)
@@ -27,4 +41,62 @@ def predict(req: PredictRequest):
         raise HTTPException(status_code=400, detail="Campo 'text' deve ter pelo menos 3 caracteres.")
 
     result = model.predict(text)
-    return PredictResponse(label=result.label, probability=result.probability)
+    return PredictResponse(label=result.label, probability=result.probability, model_version=model.version)
+
+
+@app.post(
+    "/predict/batch",
+    response_model=BatchPredictResponse,
+    openapi_extra={
+        "requestBody": {
+            "required": True,
+            "content": {
+                "application/json": {"schema": BatchPredictRequest.model_json_schema()},
+                wire.CONTENT_TYPE: {"schema": {"type": "string", "format": "binary"}},
+            },
+        }
+    },
+)
+async def predict_batch(request: Request):
+    """
+    Classifica um lote de textos numa única chamada ao modelo.
+    Itens inválidos recebem 'error' sem derrubar o lote inteiro.
+
+    Aceita JSON ou o quadro binário (app/wire.py), com corpo opcionalmente em gzip; responde em
+    binário quando o Accept pede. Outros formatos recebem 415, e o backend volta ao JSON.
+    """
+    content_type = request.headers.get("content-type", "")
+    try:
+        body = wire.decode_body(await request.body(), request.headers.get("content-encoding"))
+        if wire.is_binary(content_type):
+            req = BatchPredictRequest(texts=wire.decode_request(body))
+        elif content_type.split(";")[0].strip() == "application/json":
+            req = BatchPredictRequest.model_validate_json(body)
+        else:
+            raise HTTPException(status_code=415, detail=f"Content-Type não suportado: {content_type}")
+    except wire.WireFormatError as e:
+        raise HTTPException(status_code=415, detail=str(e)) from e
+    except ValidationError as e:
+        raise RequestValidationError(e.errors()) from e
+
+    response = await run_in_threadpool(_predict_batch, req)
+    if wire.accepts_binary(request.headers.get("accept")):
+        return Response(content=wire.encode_response(response.results, response.model_version),
+                        media_type=wire.CONTENT_TYPE)
+    return response
+
+
+def _predict_batch(req: BatchPredictRequest) -> BatchPredictResponse:
+    texts = [(text or "").strip() for text in req.texts]
+    valid_idx = [i for i, text in enumerate(texts) if len(text) >= 3]
+
+    items = [
+        BatchPredictItem(error="Campo 'text' deve ter pelo menos 3 caracteres.")
+        for _ in texts
+    ]
+    if valid_idx:
+        results = model.predict_batch([texts[i] for i in valid_idx])
+        for i, result in zip(valid_idx, results):
+            items[i] = BatchPredictItem(label=result.label, probability=result.probability)
+
+    return BatchPredictResponse(results=items, model_version=model.version)
@@ -1,6 +1,6 @@
 import os
 from dataclasses import dataclass
-from typing import Optional
+from typing import List, Optional
 
 import joblib
 
@@ -18,9 +18,19 @@ class SentimentModel:
     - Se não existir, usa fallback heurístico para não bloquear a integração.
     """
 
-    def __init__(self, model_path: str):
+    def __init__(self, model_path: str, version: Optional[str] = None):
         self.model_path = model_path
         self.pipeline: Optional[object] = None
+        self._version = version
+
+    @property
+    def version(self) -> str:
+        """Versão exposta ao backend; muda quando outro modelo é carregado (invalida caches)."""
+        if self._version:
+            return self._version
+        if self.pipeline is None:
+            return "heuristico"
+        return f"{os.path.basename(self.model_path)}@{int(os.path.getmtime(self.model_path))}"
 
     def load(self) -> None:
         if os.path.exists(self.model_path):
@@ -40,3 +50,16 @@ class SentimentModel:
         classes = list(self.pipeline.classes_)
         best_idx = int(proba.argmax())
         return ModelResult(label=str(classes[best_idx]), probability=float(proba[best_idx]))
+
+    def predict_batch(self, texts: List[str]) -> List[ModelResult]:
+        """Classifica vários textos de uma vez (vetorizado quando há pipeline)."""
+        if self.pipeline is None:
+            return [self.predict(text) for text in texts]
+
+        probas = self.pipeline.predict_proba(texts)
+        classes = list(self.pipeline.classes_)
+        results = []
+        for proba in probas:
+            best_idx = int(proba.argmax())
+            results.append(ModelResult(label=str(classes[best_idx]), probability=float(proba[best_idx])))
+        return results
@@ -1,3 +1,5 @@
+from typing import List, Optional
+
 from pydantic import BaseModel, Field
 
 
@@ -8,3 +10,19 @@ class PredictRequest(BaseModel):
 class PredictResponse(BaseModel):
     label: str = Field(..., description="Classe prevista (Positivo/Negativo/Neutro)")
     probability: float = Field(..., ge=0.0, le=1.0, description="Probabilidade (0 a 1)")
+    model_version: Optional[str] = Field(None, description="Versão do modelo que gerou a previsão")
+
+
+class BatchPredictRequest(BaseModel):
+    texts: List[str] = Field(..., min_length=1, max_length=1000, description="Textos a serem classificados")
+
+
+class BatchPredictItem(BaseModel):
+    label: Optional[str] = Field(None, description="Classe prevista (ausente quando o item falha)")
+    probability: Optional[float] = Field(None, ge=0.0, le=1.0, description="Probabilidade (0 a 1)")
+    error: Optional[str] = Field(None, description="Motivo da falha do item, se houver")
+
+
+class BatchPredictResponse(BaseModel):
+    results: List[BatchPredictItem] = Field(..., description="Resultados na mesma ordem de 'texts'")
+    model_version: Optional[str] = Field(None, description="Versão do modelo que gerou as previsões")
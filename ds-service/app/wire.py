@@ -0,0 +1,74 @@
+"""
+Formato binário do lote (/predict/batch), espelho do BatchWireCodec do backend.
+
+Requisição (big-endian): u8 versão=1 | u32 n | n × (u32 tamanho | texto UTF-8)
+Resposta: u8 versão=1 | u16 tamanho | model_version UTF-8 (0 = ausente) | u32 n | n × item,
+item u8 0 | u8 tamanho | label UTF-8 | f64 probability  ou  u8 1 | u16 tamanho | erro UTF-8
+"""
+import gzip
+import struct
+from typing import List, Optional
+
+CONTENT_TYPE = "application/x-sentiment-batch"
+VERSION = 1
+
+_U32 = struct.Struct(">I")
+_HEADER = struct.Struct(">BI")
+_OK = struct.Struct(">BB")
+_ERROR = struct.Struct(">BH")
+_PROBABILITY = struct.Struct(">d")
+
+
+class WireFormatError(ValueError):
+    pass
+
+
+def accepts_binary(accept: Optional[str]) -> bool:
+    return bool(accept) and CONTENT_TYPE in accept
+
+
+def is_binary(content_type: Optional[str]) -> bool:
+    return bool(content_type) and content_type.split(";")[0].strip() == CONTENT_TYPE
+
+
+def decode_body(body: bytes, content_encoding: Optional[str]) -> bytes:
+    if not content_encoding or content_encoding == "identity":
+        return body
+    if content_encoding == "gzip":
+        try:
+            return gzip.decompress(body)
+        except (OSError, EOFError) as e:
+            raise WireFormatError(f"Corpo gzip inválido: {e}") from e
+    raise WireFormatError(f"Content-Encoding não suportado: {content_encoding}")
+
+
+def decode_request(data: bytes) -> List[str]:
+    try:
+        version, n = _HEADER.unpack_from(data, 0)
+        if version != VERSION:
+            raise WireFormatError(f"Versão de quadro de lote não suportada: {version}")
+        offset = _HEADER.size
+        texts = []
+        for _ in range(n):
+            (size,) = _U32.unpack_from(data, offset)
+            offset += _U32.size
+            if offset + size > len(data):
+                raise WireFormatError("Quadro de lote truncado")
+            texts.append(data[offset:offset + size].decode("utf-8"))
+            offset += size
+        return texts
+    except (struct.error, UnicodeDecodeError) as e:
+        raise WireFormatError(f"Quadro de lote inválido: {e}") from e
+
+
+def encode_response(items, model_version: Optional[str]) -> bytes:
+    version = (model_version or "").encode("utf-8")
+    parts = [struct.pack(">BH", VERSION, len(version)), version, _U32.pack(len(items))]
+    for item in items:
+        if item.error is None:
+            label = item.label.encode("utf-8")
+            parts += [_OK.pack(0, len(label)), label, _PROBABILITY.pack(item.probability)]
+        else:
+            error = item.error.encode("utf-8")
+            parts += [_ERROR.pack(1, len(error)), error]
+    return b"".join(parts)
@@ -0,0 +1,155 @@
+"""
+Exporta um modelo linear (TfidfVectorizer + LogisticRegression) para o formato binário
+lido pelo backend Java (motor de inferência local, sem o salto HTTP até o ds-service).
+
+Uso:
+    python export_model.py --model models/sentiment.joblib --out sentiment-linear.bin
+    python export_model.py --vectorizer tfidf_vectorizer.pkl --classifier sentiment_model.pkl \\
+        --out sentiment-linear.bin --parity-texts textos.txt --parity-out parity.jsonl
+
+Formato (big-endian, strings como int32 + bytes UTF-8):
+    int32   magic 'SML1'
+    int16   versão do formato
+    string  versão do modelo
+    int8    flags (1=lowercase, 2=sublinear_tf, 4=binary, 8=norma l2)
+    int8    ngram mínimo, int8 ngram máximo
+    int32   n stop words, string[n]
+    int32   n classes, string[n]
+    int32   linhas de coeficientes (1 = binário), int32 n features
+    int32   n termos, (string termo, int32 índice)[n]
+    float64 idf[n features]
+    float64 coef[linhas * n features]
+    float64 intercept[linhas]
+
+Com --parity-texts, grava também as probabilidades calculadas pelo scikit-learn para cada texto
+(uma linha JSON por texto), usadas pelo teste de paridade do backend.
+"""
+import argparse
+import json
+import os
+import struct
+
+MAGIC = 0x534D4C31
+FORMAT_VERSION = 1
+DEFAULT_TOKEN_PATTERN = r"(?u)\b\w\w+\b"
+
+FLAG_LOWERCASE = 1
+FLAG_SUBLINEAR_TF = 2
+FLAG_BINARY = 4
+FLAG_L2 = 8
+
+
+def _string(value: str) -> bytes:
+    raw = value.encode("utf-8")
+    return struct.pack(">i", len(raw)) + raw
+
+
+def write_artifact(path, version, flags, ngram_range, stop_words, labels, vocabulary, idf, coef_rows, intercepts):
+    """Grava o artefato a partir de listas simples (sem depender de numpy/scikit-learn)."""
+    n_features = len(idf)
+    with open(path, "wb") as out:
+        out.write(struct.pack(">ih", MAGIC, FORMAT_VERSION))
+        out.write(_string(version))
+        out.write(struct.pack(">bbb", flags, ngram_range[0], ngram_range[1]))
+        out.write(struct.pack(">i", len(stop_words)))
+        for word in sorted(stop_words):
+            out.write(_string(word))
+        out.write(struct.pack(">i", len(labels)))
+        for label in labels:
+            out.write(_string(label))
+        out.write(struct.pack(">ii", len(coef_rows), n_features))
+        out.write(struct.pack(">i", len(vocabulary)))
+        for term, index in sorted(vocabulary.items(), key=lambda item: item[1]):
+            out.write(_string(term))
+            out.write(struct.pack(">i", index))
+        out.write(struct.pack(">%dd" % n_features, *idf))
+        for row in coef_rows:
+            out.write(struct.pack(">%dd" % n_features, *row))
+        out.write(struct.pack(">%dd" % len(intercepts), *intercepts))
+
+
+def _flags(vectorizer) -> int:
+    flags = 0
+    if vectorizer.lowercase:
+        flags |= FLAG_LOWERCASE
+    if getattr(vectorizer, "sublinear_tf", False):
+        flags |= FLAG_SUBLINEAR_TF
+    if vectorizer.binary:
+        flags |= FLAG_BINARY
+    if getattr(vectorizer, "norm", None) == "l2":
+        flags |= FLAG_L2
+    return flags
+
+
+def _validate(vectorizer, classifier) -> None:
+    """Recusa configurações que o tokenizador do backend não reproduz fielmente."""
+    problems = []
+    if vectorizer.analyzer != "word":
+        problems.append("analyzer=%r" % vectorizer.analyzer)
+    if vectorizer.token_pattern != DEFAULT_TOKEN_PATTERN:
+        problems.append("token_pattern=%r" % vectorizer.token_pattern)
+    for attr in ("tokenizer", "preprocessor", "strip_accents"):
+        if getattr(vectorizer, attr, None) is not None:
+            problems.append("%s definido" % attr)
+    if getattr(vectorizer, "norm", None) not in ("l2", None):
+        problems.append("norm=%r" % vectorizer.norm)
+    if getattr(classifier, "multi_class", "auto") == "ovr" and len(classifier.classes_) > 2:
+        problems.append("multi_class='ovr' com mais de duas classes")
+    if problems:
+        raise SystemExit("Modelo não suportado pelo motor local: " + ", ".join(problems))
+
+
+def _load(args):
+    import joblib
+
+    if args.model:
+        pipeline = joblib.load(args.model)
+        return pipeline.steps[0][1], pipeline.steps[-1][1], args.model
+    return joblib.load(args.vectorizer), joblib.load(args.classifier), args.classifier
+
+
+def main() -> None:
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    source = parser.add_mutually_exclusive_group(required=True)
+    source.add_argument("--model", help="Pipeline .joblib (vetorizador + classificador)")
+    source.add_argument("--vectorizer", help="TfidfVectorizer serializado (usar com --classifier)")
+    parser.add_argument("--classifier", help="LogisticRegression serializado")
+    parser.add_argument("--out", required=True, help="Arquivo binário de saída")
+    parser.add_argument("--version", help="Versão do modelo (padrão: <arquivo>@<mtime>, como o ds-service)")
+    parser.add_argument("--parity-texts", help="Arquivo com um texto por linha para o teste de paridade")
+    parser.add_argument("--parity-out", help="Saída JSONL com as probabilidades do scikit-learn")
+    args = parser.parse_args()
+    if args.vectorizer and not args.classifier:
+        parser.error("--vectorizer exige --classifier")
+
+    vectorizer, classifier, model_path = _load(args)
+    _validate(vectorizer, classifier)
+
+    version = args.version or "%s@%d" % (os.path.basename(model_path), int(os.path.getmtime(model_path)))
+    idf = list(vectorizer.idf_) if vectorizer.use_idf else [1.0] * len(vectorizer.vocabulary_)
+    write_artifact(
+        args.out,
+        version=version,
+        flags=_flags(vectorizer),
+        ngram_range=vectorizer.ngram_range,
+        stop_words=list(vectorizer.get_stop_words() or []),
+        labels=[str(c) for c in classifier.classes_],
+        vocabulary={term: int(index) for term, index in vectorizer.vocabulary_.items()},
+        idf=[float(v) for v in idf],
+        coef_rows=[[float(v) for v in row] for row in classifier.coef_],
+        intercepts=[float(v) for v in classifier.intercept_],
+    )
+    print("Artefato gravado em %s (%d features, versão %s)" % (args.out, len(idf), version))
+
+    if args.parity_texts:
+        with open(args.parity_texts, encoding="utf-8") as f:
+            texts = [line.rstrip("\n") for line in f if line.strip()]
+        probas = classifier.predict_proba(vectorizer.transform(texts))
+        with open(args.parity_out or args.out + ".parity.jsonl", "w", encoding="utf-8") as out:
+            for text, proba in zip(texts, probas):
+                out.write(json.dumps({"text": text, "probabilities": [float(p) for p in proba]}, ensure_ascii=False))
+                out.write("\n")
+
+
+if __name__ == "__main__":
+    main()